@@ -624,6 +624,22 @@ public class CoreMessages extends NLS {
     public static String pref_page_accessibility_screen_reader_description;
     public static String pref_page_accessibility_screen_reader_group_lbl;
 
+    public static String view_query_statistics_column_datasource;
+    public static String view_query_statistics_column_query;
+    public static String view_query_statistics_column_executions;
+    public static String view_query_statistics_column_errors;
+    public static String view_query_statistics_column_avg;
+    public static String view_query_statistics_column_p50;
+    public static String view_query_statistics_column_p95;
+    public static String view_query_statistics_column_p99;
+    public static String view_query_statistics_column_max;
+    public static String view_query_statistics_column_fetch_p95;
+    public static String view_query_statistics_column_rows_avg;
+    public static String view_query_statistics_action_refresh;
+    public static String view_query_statistics_action_reset;
+    public static String view_query_statistics_action_export;
+    public static String view_query_statistics_export_error;
+
     static {
         // initialize resource bundle
         NLS.initializeMessages(BUNDLE_NAME, CoreMessages.class);
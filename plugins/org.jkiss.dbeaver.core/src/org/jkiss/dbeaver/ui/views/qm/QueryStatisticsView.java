@@ -0,0 +1,169 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.views.qm;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IToolBarManager;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.ui.part.ViewPart;
+import org.jkiss.dbeaver.core.CoreMessages;
+import org.jkiss.dbeaver.model.qm.QMLatencyHistogram;
+import org.jkiss.dbeaver.model.qm.QMQueryStatistics;
+import org.jkiss.dbeaver.model.qm.QMUtils;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.ui.DBeaverIcons;
+import org.jkiss.dbeaver.ui.UIIcon;
+import org.jkiss.dbeaver.ui.controls.ViewerColumnController;
+import org.jkiss.dbeaver.ui.dialogs.DialogUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Aggregated query statistics: latency percentiles per data source and query fingerprint.
+ */
+public class QueryStatisticsView extends ViewPart
+{
+    public static final String VIEW_ID = "org.jkiss.dbeaver.core.queryStatistics";
+
+    private TableViewer viewer;
+
+    @Override
+    public void createPartControl(Composite parent)
+    {
+        viewer = new TableViewer(parent, SWT.MULTI | SWT.FULL_SELECTION);
+        viewer.getTable().setHeaderVisible(true);
+        viewer.getTable().setLinesVisible(true);
+        viewer.setContentProvider(new ArrayContentProvider());
+
+        ViewerColumnController<Object, Object> columnController = new ViewerColumnController<>("QueryStatisticsView", viewer); //$NON-NLS-1$
+        addColumn(columnController, CoreMessages.view_query_statistics_column_datasource, SWT.LEFT,
+            QMQueryStatistics.Entry::getDataSourceName);
+        addColumn(columnController, CoreMessages.view_query_statistics_column_query, SWT.LEFT,
+            QMQueryStatistics.Entry::getFingerprint);
+        addColumn(columnController, CoreMessages.view_query_statistics_column_executions, SWT.RIGHT,
+            entry -> String.valueOf(entry.getExecuteLatency().getCount()));
+        addColumn(columnController, CoreMessages.view_query_statistics_column_errors, SWT.RIGHT,
+            entry -> String.valueOf(entry.getErrorCount()));
+        addColumn(columnController, CoreMessages.view_query_statistics_column_avg, SWT.RIGHT,
+            entry -> formatMillis(entry.getExecuteLatency().getMean()));
+        addColumn(columnController, CoreMessages.view_query_statistics_column_p50, SWT.RIGHT,
+            entry -> formatMillis(entry.getExecuteLatency().getPercentile(50)));
+        addColumn(columnController, CoreMessages.view_query_statistics_column_p95, SWT.RIGHT,
+            entry -> formatMillis(entry.getExecuteLatency().getPercentile(95)));
+        addColumn(columnController, CoreMessages.view_query_statistics_column_p99, SWT.RIGHT,
+            entry -> formatMillis(entry.getExecuteLatency().getPercentile(99)));
+        addColumn(columnController, CoreMessages.view_query_statistics_column_max, SWT.RIGHT,
+            entry -> formatMillis(entry.getExecuteLatency().getMax()));
+        addColumn(columnController, CoreMessages.view_query_statistics_column_fetch_p95, SWT.RIGHT,
+            entry -> {
+                QMLatencyHistogram.Snapshot fetch = entry.getFetchLatency();
+                return fetch.getCount() == 0 ? "" : formatMillis(fetch.getPercentile(95));
+            });
+        addColumn(columnController, CoreMessages.view_query_statistics_column_rows_avg, SWT.RIGHT,
+            entry -> String.format(Locale.ROOT, "%.1f", entry.getRowCounts().getMean()));
+        columnController.createColumns(false);
+
+        IToolBarManager toolBarManager = getViewSite().getActionBars().getToolBarManager();
+        toolBarManager.add(new Action(CoreMessages.view_query_statistics_action_refresh, DBeaverIcons.getImageDescriptor(UIIcon.REFRESH)) {
+            @Override
+            public void run() {
+                refreshStatistics();
+            }
+        });
+        toolBarManager.add(new Action(CoreMessages.view_query_statistics_action_reset, DBeaverIcons.getImageDescriptor(UIIcon.ERASE)) {
+            @Override
+            public void run() {
+                QMQueryStatistics statistics = QMUtils.getQueryStatistics();
+                if (statistics != null) {
+                    statistics.reset();
+                }
+                refreshStatistics();
+            }
+        });
+        toolBarManager.add(new Action(CoreMessages.view_query_statistics_action_export, DBeaverIcons.getImageDescriptor(UIIcon.EXPORT)) {
+            @Override
+            public void run() {
+                exportStatistics();
+            }
+        });
+
+        refreshStatistics();
+    }
+
+    @Override
+    public void setFocus()
+    {
+        viewer.getControl().setFocus();
+    }
+
+    public void refreshStatistics()
+    {
+        QMQueryStatistics statistics = QMUtils.getQueryStatistics();
+        viewer.setInput(statistics == null ? Collections.emptyList() : statistics.getEntries());
+    }
+
+    private void exportStatistics()
+    {
+        QMQueryStatistics statistics = QMUtils.getQueryStatistics();
+        if (statistics == null) {
+            return;
+        }
+        File file = DialogUtils.selectFileForSave(
+            getSite().getShell(),
+            CoreMessages.view_query_statistics_action_export,
+            new String[]{"*.csv", "*"}, //$NON-NLS-1$ //$NON-NLS-2$
+            "query-statistics.csv"); //$NON-NLS-1$
+        if (file == null) {
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            statistics.exportCSV(writer);
+        } catch (IOException e) {
+            DBWorkbench.getPlatformUI().showError(CoreMessages.view_query_statistics_action_export, CoreMessages.view_query_statistics_export_error, e);
+        }
+    }
+
+    private static void addColumn(
+        ViewerColumnController<Object, Object> controller,
+        String name,
+        int style,
+        Function<QMQueryStatistics.Entry, String> text)
+    {
+        controller.addColumn(name, null, style, true, false, new ColumnLabelProvider() {
+            @Override
+            public String getText(Object element) {
+                return text.apply((QMQueryStatistics.Entry) element);
+            }
+        });
+    }
+
+    private static String formatMillis(double micros)
+    {
+        return String.format(Locale.ROOT, "%.2f", micros / 1000.0); //$NON-NLS-1$
+    }
+}
@@ -18,6 +18,8 @@ package org.jkiss.dbeaver.ui.gis.panel;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.Separator;
 import org.eclipse.jface.action.ToolBarManager;
@@ -48,7 +50,8 @@ import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.gis.*;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
-import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.virtual.DBVEntity;
 import org.jkiss.dbeaver.model.virtual.DBVEntityAttribute;
 import org.jkiss.dbeaver.model.virtual.DBVUtils;
@@ -75,6 +78,7 @@ import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.IOUtils;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 
 import java.io.*;
@@ -82,6 +86,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceListener {
     private static final Log log = Log.getLog(GISLeafletViewer.class);
@@ -93,6 +100,8 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
     private static final String PROP_FLIP_COORDINATES = "gis.flipCoords";
     private static final String PROP_SRID = "gis.srid";
     private static final int UNDEFINED_SRID = -1;
+    // Values are prepared (flipped, reprojected) in parallel when there are more of them
+    private static final int PARALLEL_PREPARE_THRESHOLD = 1000;
 
     private volatile boolean browserCreating = false;
 
@@ -105,11 +114,22 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
     private Browser browser;
     private DBGeometry[] lastValue;
     private int sourceSRID = UNDEFINED_SRID; // Explicitly set SRID
-    private int actualSourceSRID; // SRID taken from geometry value
-    private Path scriptFile;
+    private volatile int actualSourceSRID; // SRID taken from geometry value
+    private volatile Path scriptFile;
     private final Composite statusBar;
     private final ToolBarManager toolBarManager;
-    private int defaultSRID; // Target SRID used to render map
+    private volatile int defaultSRID; // Target SRID used to render map
+    // Index of prepared geometries. Present only if there are more geometries than we can render at once.
+    private volatile GisGeometryIndex viewIndex;
+    private volatile List<PreparedGeometry> viewGeometries;
+    private volatile int viewMaxObjects;
+
+    // Geometries are prepared, indexed and simplified in background jobs. Only the latest request is processed.
+    private final ViewScriptJob viewScriptJob = new ViewScriptJob();
+    private final AtomicReference<ViewScriptRequest> pendingViewScript = new AtomicReference<>();
+    private volatile int viewScriptGeneration;
+    private final ViewportJob viewportJob = new ViewportJob();
+    private final AtomicReference<ViewportRequest> pendingViewport = new AtomicReference<>();
 
     private boolean toolsVisible = true;
     private boolean showLabels;
@@ -153,6 +173,22 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
                 }
             };
 
+            new BrowserFunction(browser, "requestViewportGeometries") {
+                @Override
+                public Object function(Object[] arguments) {
+                    // Result is passed back to setViewportGeometries() by the viewport job
+                    pendingViewport.set(new ViewportRequest(
+                        CommonUtils.toInt(arguments[4]),
+                        new Bounds(
+                            CommonUtils.toDouble(arguments[0]),
+                            CommonUtils.toDouble(arguments[1]),
+                            CommonUtils.toDouble(arguments[2]),
+                            CommonUtils.toDouble(arguments[3]))));
+                    viewportJob.schedule();
+                    return null;
+                }
+            };
+
             if (presentation instanceof SpreadsheetPresentation) {
                 new BrowserFunction(browser, "setPresentationSelection") {
                     @Override
@@ -169,6 +205,8 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
             }
 
             browser.addDisposeListener(e -> {
+                viewScriptJob.cancel();
+                viewportJob.cancel();
                 cleanupFiles();
                 GISViewerActivator.getDefault().getPreferences().removePropertyChangeListener(this);
             });
@@ -293,32 +331,27 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
         if (maxObjects <= 0) {
             maxObjects = GeometryViewerConstants.DEFAULT_MAX_OBJECTS_RENDER;
         }
-        if (values != null && values.length > maxObjects) {
-            // Truncate value list
-            DBGeometry[] truncValues = new DBGeometry[maxObjects];
-            System.arraycopy(values, 0, truncValues, 0, maxObjects);
-            values = truncValues;
-        }
         if (browser != null) {
-            try {
-                if (ArrayUtils.isEmpty(values)) {
-                    browser.setUrl("about:blank");
-                } else {
-                    final Bounds bounds = recenter ? null : Bounds.tryExtractFromBrowser(browser);
-                    final Path file = generateViewScript(values, bounds);
-                    browser.setUrl(file.toFile().toURI().toURL().toString());
-                }
-            } catch (IOException e) {
-                throw new DBException("Error generating viewer script", e);
+            // Results of previous requests are not shown anymore
+            final int generation = ++viewScriptGeneration;
+            if (ArrayUtils.isEmpty(values)) {
+                pendingViewScript.set(null);
+                viewIndex = null;
+                viewGeometries = null;
+                browser.setUrl("about:blank");
+            } else {
+                final Bounds bounds = recenter ? null : Bounds.tryExtractFromBrowser(browser);
+                pendingViewScript.set(new ViewScriptRequest(generation, values, bounds, maxObjects));
+                viewScriptJob.schedule();
             }
         }
         lastValue = values;
         populateToolbar();
     }
 
-    private Path generateViewScript(DBGeometry[] values, @Nullable Bounds bounds) throws IOException {
+    private Path generateViewScript(@NotNull DBRProgressMonitor monitor, DBGeometry[] values, @Nullable Bounds bounds, int maxObjects) throws IOException {
         if (scriptFile == null) {
-            Path tempDir = DBWorkbench.getPlatform().getTempFolder(new VoidProgressMonitor(), "gis-viewer-files");
+            Path tempDir = DBWorkbench.getPlatform().getTempFolder(monitor, "gis-viewer-files");
             checkIncludesExistence(tempDir);
 
             scriptFile = Files.createTempFile(tempDir, "view", "gis.html");
@@ -328,91 +361,69 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
         if (bindings[0].getAttribute() instanceof GisAttribute) {
             try {
                 attributeSrid = ((GisAttribute) bindings[0].getAttribute())
-                        .getAttributeGeometrySRID(new VoidProgressMonitor());
+                        .getAttributeGeometrySRID(monitor);
             } catch (DBCException e) {
                 log.error(e);
             }
         }
 
-        List<String> geomValues = new ArrayList<>();
-        List<String> geomTipValues = new ArrayList<>();
+        final int finalAttributeSrid = attributeSrid;
+        final IntStream indexes = IntStream.range(0, values.length);
+        final List<PreparedGeometry> prepared = (values.length > PARALLEL_PREPARE_THRESHOLD ? indexes.parallel() : indexes)
+            .mapToObj(i -> prepareGeometry(values[i], finalAttributeSrid))
+            .collect(Collectors.toList());
+
+        List<PreparedGeometry> geometries = new ArrayList<>(prepared.size());
         boolean showMap = false;
-        for (int i = 0; i < values.length; i++) {
-            DBGeometry value = values[i];
-            if (DBUtils.isNullValue(value)) {
+        for (PreparedGeometry geometry : prepared) {
+            if (geometry == null) {
                 continue;
             }
-            if (flipCoordinates) {
-                try {
-                    value = value.flipCoordinates();
-                } catch (DBException e) {
-                    log.error(e);
-                }
+            actualSourceSRID = geometry.sourceSRID;
+            if (geometry.showMap != null) {
+                showMap = geometry.showMap;
             }
-            try {
-                value = value.force2D();
-            } catch (DBException e) {
-                log.error("Error forcing geometry to 2D", e);
-            }
-            Object targetValue = value.getRawValue();
-            if (WKGUtils.isCurve(targetValue)) {
-                targetValue = WKGUtils.linearize((org.cugos.wkg.Geometry) targetValue);
-            }
-            int srid = sourceSRID;
-            if (srid == UNDEFINED_SRID && value.getSRID() != 0) {
-                srid = value.getSRID();
-            }
-            if (srid == UNDEFINED_SRID) {
-                srid = attributeSrid;
-            }
-            if (srid == UNDEFINED_SRID) {
-                srid = GeometryDataUtils.getDefaultSRID();
-            }
-            if (srid == GisConstants.SRID_SIMPLE) {
-                showMap = false;
-                actualSourceSRID = srid;
-            } else if (srid == GisConstants.SRID_4326) {
-                showMap = true;
-                actualSourceSRID = srid;
-            } else {
-                Geometry geometry = GisTransformUtils.getJtsGeometry(targetValue);
-                if (geometry != null) {
-                    try {
-                        GisTransformRequest request = new GisTransformRequest(geometry, srid, GisConstants.SRID_4326);
-                        GisTransformUtils.transformGisData(request);
-                        targetValue = request.getTargetValue();
-                        srid = request.getTargetSRID();
-                        actualSourceSRID = request.getSourceSRID();
-                        showMap = request.isShowOnMap();
-                    } catch (DBException e) {
-                        log.debug("Error transforming CRS", e);
-                        actualSourceSRID = srid;
-                        showMap = false;
-                    }
-                } else {
-                    actualSourceSRID = srid;
-                }
+            if (geometry.targetValue != null) {
+                geometries.add(geometry);
             }
+        }
 
-            if (targetValue == null) {
-                continue;
-            }
-            geomValues.add("'" + targetValue + "'");
-            try {
-                if (CommonUtils.isEmpty(value.getProperties())) {
-                    geomTipValues.add("null");
-                } else {
-                    geomTipValues.add(gson.toJson(value.getProperties()));
-                }
-            } catch (Exception e) {
-                log.debug(e);
+        List<String> geomValues = new ArrayList<>();
+        List<String> geomTipValues = new ArrayList<>();
+        if (geometries.size() > maxObjects) {
+            // Too many objects. Render only those which are visible in the viewport, simplified for its scale
+            final List<Geometry> jtsGeometries = new ArrayList<>(geometries.size());
+            for (PreparedGeometry geometry : geometries) {
+                jtsGeometries.add(GisTransformUtils.getJtsGeometry(geometry.targetValue));
+            }
+            final GisGeometryIndex index = new GisGeometryIndex(jtsGeometries);
+            for (GisGeometryIndex.Feature feature : index.query(bounds == null ? null : bounds.toEnvelope(), maxObjects)) {
+                geomValues.add("'" + feature.getGeometry() + "'");
+                geomTipValues.add(geometries.get(feature.getIndex()).tip);
+            }
+            final Envelope extent = index.getExtent();
+            if (bounds == null && !extent.isNull()) {
+                // Fit the whole data set, not only the rendered part
+                bounds = new Bounds(extent.getMaxY(), extent.getMaxX(), extent.getMinY(), extent.getMinX());
+            }
+            viewMaxObjects = maxObjects;
+            viewGeometries = geometries;
+            viewIndex = index;
+        } else {
+            for (PreparedGeometry geometry : geometries) {
+                geomValues.add("'" + geometry.targetValue + "'");
+                geomTipValues.add(geometry.tip);
             }
+            viewIndex = null;
+            viewGeometries = null;
         }
         this.defaultSRID = actualSourceSRID;
         String geomValuesString = String.join(",", geomValues);
         String geomTipValuesString = String.join(",", geomTipValues);
         String geomCRS = actualSourceSRID == GisConstants.SRID_SIMPLE ? GisConstants.LL_CRS_SIMPLE : GisConstants.LL_CRS_3857;
         boolean isShowMap = showMap;
+        boolean isViewportQuery = viewIndex != null;
+        Bounds geomBounds = bounds;
 
         InputStream fis = GISViewerActivator.getDefault().getResourceStream(GISBrowserViewerConstants.VIEW_TEMPLATE_PATH);
         if (fis == null) {
@@ -437,7 +448,9 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
                     case "geomCRS":
                         return geomCRS;
                     case "geomBounds":
-                        return CommonUtils.toString(bounds, "undefined");
+                        return CommonUtils.toString(geomBounds, "undefined");
+                    case "viewportQuery":
+                        return String.valueOf(isViewportQuery);
                     case "minZoomLevel":
                         return String.valueOf(GISViewerActivator.getDefault().getPreferences().getInt(GeometryViewerConstants.PREF_MIN_ZOOM_LEVEL));
                     case "defaultTiles":
@@ -459,6 +472,94 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
         return scriptFile;
     }
 
+    @Nullable
+    private PreparedGeometry prepareGeometry(@Nullable DBGeometry value, int attributeSrid) {
+        if (DBUtils.isNullValue(value)) {
+            return null;
+        }
+        if (flipCoordinates) {
+            try {
+                value = value.flipCoordinates();
+            } catch (DBException e) {
+                log.error(e);
+            }
+        }
+        try {
+            value = value.force2D();
+        } catch (DBException e) {
+            log.error("Error forcing geometry to 2D", e);
+        }
+        Object targetValue = value.getRawValue();
+        if (WKGUtils.isCurve(targetValue)) {
+            targetValue = WKGUtils.linearize((org.cugos.wkg.Geometry) targetValue);
+        }
+        int srid = sourceSRID;
+        if (srid == UNDEFINED_SRID && value.getSRID() != 0) {
+            srid = value.getSRID();
+        }
+        if (srid == UNDEFINED_SRID) {
+            srid = attributeSrid;
+        }
+        if (srid == UNDEFINED_SRID) {
+            srid = GeometryDataUtils.getDefaultSRID();
+        }
+        final PreparedGeometry result = new PreparedGeometry();
+        if (srid == GisConstants.SRID_SIMPLE) {
+            result.showMap = false;
+            result.sourceSRID = srid;
+        } else if (srid == GisConstants.SRID_4326) {
+            result.showMap = true;
+            result.sourceSRID = srid;
+        } else {
+            Geometry geometry = GisTransformUtils.getJtsGeometry(targetValue);
+            if (geometry != null) {
+                try {
+                    GisTransformRequest request = new GisTransformRequest(geometry, srid, GisConstants.SRID_4326);
+                    GisTransformUtils.transformGisData(request);
+                    targetValue = request.getTargetValue();
+                    result.sourceSRID = request.getSourceSRID();
+                    result.showMap = request.isShowOnMap();
+                } catch (DBException e) {
+                    log.debug("Error transforming CRS", e);
+                    result.sourceSRID = srid;
+                    result.showMap = false;
+                }
+            } else {
+                result.sourceSRID = srid;
+            }
+        }
+        result.targetValue = targetValue;
+        if (targetValue != null) {
+            try {
+                if (CommonUtils.isEmpty(value.getProperties())) {
+                    result.tip = "null";
+                } else {
+                    result.tip = gson.toJson(value.getProperties());
+                }
+            } catch (Exception e) {
+                log.debug(e);
+                result.tip = "null";
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns geometries for the new map viewport: [[wkt...], [tip json...]].
+     */
+    @NotNull
+    private String[][] getViewportGeometries(@NotNull GisGeometryIndex index, @NotNull List<PreparedGeometry> geometries, @NotNull Bounds bounds) {
+        final List<GisGeometryIndex.Feature> features = index.query(bounds.toEnvelope(), viewMaxObjects);
+        final String[] wkts = new String[features.size()];
+        final String[] tips = new String[features.size()];
+        for (int i = 0; i < features.size(); i++) {
+            final GisGeometryIndex.Feature feature = features.get(i);
+            wkts[i] = feature.getGeometry().toString();
+            tips[i] = geometries.get(feature.getIndex()).tip;
+        }
+        return new String[][] { wkts, tips };
+    }
+
     private void checkIncludesExistence(Path scriptDir) throws IOException {
         Path incFolder = scriptDir.resolve("inc");
         if (!Files.exists(incFolder)) {
@@ -520,7 +621,9 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
         toolBarManager.add(new Action(GISMessages.panel_leaflet_viewer_tool_bar_action_text_open, DBeaverIcons.getImageDescriptor(UIIcon.BROWSER)) {
             @Override
             public void run() {
-                ShellUtils.launchProgram(scriptFile.toAbsolutePath().toString());
+                if (scriptFile != null) {
+                    ShellUtils.launchProgram(scriptFile.toAbsolutePath().toString());
+                }
             }
         });
         toolBarManager.add(new Action(GISMessages.panel_leaflet_viewer_tool_bar_action_text_copy_as, DBeaverIcons.getImageDescriptor(UIIcon.PICTURE)) {
@@ -704,6 +807,82 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
         GISViewerActivator.getDefault().getPreferences().setValue(GeometryViewerConstants.PREF_SHOW_LABELS, value);
     }
 
+    private record ViewScriptRequest(int generation, @NotNull DBGeometry[] values, @Nullable Bounds bounds, int maxObjects) {
+    }
+
+    private record ViewportRequest(int id, @NotNull Bounds bounds) {
+    }
+
+    /**
+     * Prepares geometries and generates the map page
+     */
+    private class ViewScriptJob extends AbstractJob {
+        ViewScriptJob() {
+            super("Render geometries");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            final ViewScriptRequest request = pendingViewScript.getAndSet(null);
+            if (request == null) {
+                return Status.OK_STATUS;
+            }
+            try {
+                final String url = generateViewScript(monitor, request.values(), request.bounds(), request.maxObjects()).toUri().toURL().toString();
+                UIUtils.asyncExec(() -> {
+                    if (browser == null || browser.isDisposed() || request.generation() != viewScriptGeneration) {
+                        return;
+                    }
+                    browser.setUrl(url);
+                    populateToolbar();
+                });
+            } catch (IOException e) {
+                UIUtils.asyncExec(() -> DBWorkbench.getPlatformUI().showError("Render error", "Error generating viewer script", e));
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    /**
+     * Queries geometry index for the map viewport and sends result to the map page
+     */
+    private class ViewportJob extends AbstractJob {
+        ViewportJob() {
+            super("Query viewport geometries");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            final ViewportRequest request = pendingViewport.getAndSet(null);
+            final GisGeometryIndex index = viewIndex;
+            final List<PreparedGeometry> geometries = viewGeometries;
+            if (request == null || index == null || geometries == null) {
+                return Status.OK_STATUS;
+            }
+            final String[][] result = getViewportGeometries(index, geometries, request.bounds());
+            final String script = "setViewportGeometries(" + request.id() + ", " + gson.toJson(result[0]) + ", " + gson.toJson(result[1]) + ")";
+            UIUtils.asyncExec(() -> {
+                // Page is reloaded if index is changed
+                if (browser != null && !browser.isDisposed() && viewIndex == index) {
+                    browser.execute(script);
+                }
+            });
+            return Status.OK_STATUS;
+        }
+    }
+
+    private static class PreparedGeometry {
+        private Object targetValue;
+        private String tip;
+        private int sourceSRID;
+        // Null if geometry doesn't affect map visibility
+        private Boolean showMap;
+    }
+
     private static class Bounds {
         private final double north;
         private final double east;
@@ -745,6 +924,11 @@ public class GISLeafletViewer implements IGeometryValueEditor, DBPPreferenceList
             }
         }
 
+        @NotNull
+        public Envelope toEnvelope() {
+            return new Envelope(west, east, south, north);
+        }
+
         @Override
         public String toString() {
             return String.format("L.latLngBounds(L.latLng(%f, %f), L.latLng(%f, %f))", north, east, south, west);
@@ -0,0 +1,280 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.gis;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Puntal;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.simplify.DouglasPeuckerSimplifier;
+
+import java.util.*;
+
+/**
+ * Spatial index over a fixed list of geometries.
+ * <p>
+ * Geometries are packed into an STR-tree. Viewport queries are answered per tile: the index extent is split
+ * into a quad grid and level of the grid is chosen by the viewport size. Geometries of a tile are simplified
+ * with the tolerance of its level when a query returns them first time, so geometries cut off by the result
+ * limit are never simplified. Recently used tiles are cached, so panning and zooming back and forth
+ * doesn't repeat the simplification.
+ * <p>
+ * Geometries are returned whole (not clipped by tile bounds), each geometry is returned once per query.
+ */
+public class GisGeometryIndex {
+
+    public static final int MAX_LEVEL = 24;
+
+    // Tolerance of a tile is its width divided by this value, roughly one pixel of a 256px tile
+    private static final int TILE_RESOLUTION = 256;
+    // Number of tiles across the viewport at the selected level
+    private static final int VIEWPORT_TILES = 4;
+    private static final int MAX_CACHED_TILES = 256;
+
+    private final Geometry[] geometries;
+    private final STRtree tree;
+    private final Envelope extent;
+    private final Map<TileKey, Tile> tileCache = new LinkedHashMap<>(MAX_CACHED_TILES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TileKey, Tile> eldest) {
+            return size() > MAX_CACHED_TILES;
+        }
+    };
+
+    /**
+     * Creates index. Null and empty geometries are kept in the list but never returned by queries.
+     */
+    public GisGeometryIndex(@NotNull List<Geometry> geometries) {
+        this.geometries = geometries.toArray(new Geometry[0]);
+        this.extent = new Envelope();
+        this.tree = new STRtree();
+        for (int i = 0; i < this.geometries.length; i++) {
+            final Geometry geometry = this.geometries[i];
+            if (geometry == null || geometry.isEmpty()) {
+                continue;
+            }
+            final Envelope envelope = geometry.getEnvelopeInternal();
+            extent.expandToInclude(envelope);
+            tree.insert(envelope, i);
+        }
+        tree.build();
+    }
+
+    public int size() {
+        return geometries.length;
+    }
+
+    @NotNull
+    public Envelope getExtent() {
+        return new Envelope(extent);
+    }
+
+    /**
+     * Returns level of detail which fits the specified viewport
+     */
+    public int getLevel(@NotNull Envelope viewport) {
+        final double extentSize = Math.max(extent.getWidth(), extent.getHeight());
+        final double viewportSize = Math.max(viewport.getWidth(), viewport.getHeight());
+        if (extentSize <= 0 || viewportSize <= 0) {
+            return 0;
+        }
+        final int level = (int) Math.floor(Math.log(extentSize * VIEWPORT_TILES / viewportSize) / Math.log(2));
+        return Math.max(0, Math.min(MAX_LEVEL, level));
+    }
+
+    /**
+     * Finds geometries intersecting the viewport.
+     * If there are more than {@code maxResults} matches, larger geometries are preferred.
+     *
+     * @param viewport   viewport bounds, or {@code null} for the whole index extent
+     * @param maxResults maximum number of returned geometries
+     * @return matched geometries, simplified for the viewport level of detail
+     */
+    @NotNull
+    public List<Feature> query(@Nullable Envelope viewport, int maxResults) {
+        if (extent.isNull() || maxResults <= 0) {
+            return Collections.emptyList();
+        }
+        if (viewport == null) {
+            viewport = extent;
+        }
+        final Envelope area = viewport.intersection(extent);
+        if (area.isNull()) {
+            return Collections.emptyList();
+        }
+        final int level = getLevel(viewport);
+        final int gridSize = 1 << level;
+        final double tileWidth = extent.getWidth() / gridSize;
+        final double tileHeight = extent.getHeight() / gridSize;
+        final int minX = getTileIndex(area.getMinX() - extent.getMinX(), tileWidth, gridSize);
+        final int maxX = getTileIndex(area.getMaxX() - extent.getMinX(), tileWidth, gridSize);
+        final int minY = getTileIndex(area.getMinY() - extent.getMinY(), tileHeight, gridSize);
+        final int maxY = getTileIndex(area.getMaxY() - extent.getMinY(), tileHeight, gridSize);
+
+        final Map<Integer, Feature> result = new LinkedHashMap<>();
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                for (Feature feature : getTile(level, x, y).features) {
+                    if (feature.envelope.intersects(viewport)) {
+                        result.putIfAbsent(feature.index, feature);
+                    }
+                }
+            }
+        }
+        final List<Feature> features;
+        if (result.size() > maxResults) {
+            features = selectLargest(result.values(), maxResults);
+        } else {
+            features = new ArrayList<>(result.values());
+        }
+        features.sort(Comparator.comparingInt(Feature::getIndex));
+        for (Feature feature : features) {
+            feature.simplify();
+        }
+        return features;
+    }
+
+    @NotNull
+    private static List<Feature> selectLargest(@NotNull Collection<Feature> features, int count) {
+        final PriorityQueue<Feature> largest = new PriorityQueue<>(count + 1, Comparator.comparingDouble(Feature::getSize));
+        for (Feature feature : features) {
+            largest.add(feature);
+            if (largest.size() > count) {
+                largest.poll();
+            }
+        }
+        return new ArrayList<>(largest);
+    }
+
+    private static int getTileIndex(double offset, double tileSize, int gridSize) {
+        if (tileSize <= 0) {
+            return 0;
+        }
+        return Math.max(0, Math.min(gridSize - 1, (int) Math.floor(offset / tileSize)));
+    }
+
+    @NotNull
+    private Tile getTile(int level, int x, int y) {
+        final TileKey key = new TileKey(level, x, y);
+        synchronized (tileCache) {
+            final Tile tile = tileCache.get(key);
+            if (tile != null) {
+                return tile;
+            }
+        }
+        final Tile tile = buildTile(level, x, y);
+        synchronized (tileCache) {
+            tileCache.putIfAbsent(key, tile);
+        }
+        return tile;
+    }
+
+    @NotNull
+    private Tile buildTile(int level, int x, int y) {
+        final int gridSize = 1 << level;
+        final double tileWidth = extent.getWidth() / gridSize;
+        final double tileHeight = extent.getHeight() / gridSize;
+        final Envelope bounds = new Envelope(
+            extent.getMinX() + x * tileWidth,
+            extent.getMinX() + (x + 1) * tileWidth,
+            extent.getMinY() + y * tileHeight,
+            extent.getMinY() + (y + 1) * tileHeight);
+        final double tolerance = Math.max(tileWidth, tileHeight) / TILE_RESOLUTION;
+
+        final List<?> matches = tree.query(bounds);
+        final List<Feature> features = new ArrayList<>(matches.size());
+        for (Object match : matches) {
+            final int index = (Integer) match;
+            final Geometry geometry = geometries[index];
+            features.add(new Feature(index, geometry, tolerance));
+        }
+        return new Tile(features);
+    }
+
+    @NotNull
+    static Geometry simplify(@NotNull Geometry geometry, double tolerance) {
+        if (tolerance <= 0 || geometry instanceof Puntal || geometry.getNumPoints() <= 4) {
+            return geometry;
+        }
+        final Envelope envelope = geometry.getEnvelopeInternal();
+        if (envelope.getWidth() < tolerance && envelope.getHeight() < tolerance) {
+            // Smaller than a pixel, the shape doesn't matter
+            return geometry.getCentroid();
+        }
+        final Geometry simplified = DouglasPeuckerSimplifier.simplify(geometry, tolerance);
+        if (simplified.isEmpty()) {
+            return geometry;
+        }
+        simplified.setSRID(geometry.getSRID());
+        return simplified;
+    }
+
+    /**
+     * Query result: index of the source geometry and its simplified form
+     */
+    public static class Feature {
+        private final int index;
+        private final Geometry source;
+        private final Envelope envelope;
+        private final double tolerance;
+        private volatile Geometry geometry;
+
+        Feature(int index, @NotNull Geometry source, double tolerance) {
+            this.index = index;
+            this.source = source;
+            this.envelope = source.getEnvelopeInternal();
+            this.tolerance = tolerance;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        @NotNull
+        public Geometry getGeometry() {
+            return simplify();
+        }
+
+        @NotNull
+        private Geometry simplify() {
+            Geometry result = geometry;
+            if (result == null) {
+                result = GisGeometryIndex.simplify(source, tolerance);
+                geometry = result;
+            }
+            return result;
+        }
+
+        private double getSize() {
+            return Math.max(envelope.getWidth(), envelope.getHeight());
+        }
+    }
+
+    private static class Tile {
+        private final List<Feature> features;
+
+        Tile(List<Feature> features) {
+            this.features = features;
+        }
+    }
+
+    private record TileKey(int level, int x, int y) {
+    }
+
+}
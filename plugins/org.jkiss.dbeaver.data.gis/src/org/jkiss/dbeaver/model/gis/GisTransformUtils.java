@@ -49,7 +49,10 @@ import org.locationtech.jts.io.WKTReader;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * GisTransformUtils.
@@ -78,6 +81,10 @@ public class GisTransformUtils {
 
     private static List<Integer> crsCodes;
 
+    // CRS and coordinate operation lookups are expensive, and transformations may run from several threads at once
+    private static final Map<Integer, CoordinateReferenceSystem> crsCache = new ConcurrentHashMap<>();
+    private static final Map<List<CoordinateReferenceSystem>, Optional<CoordinateOperation>> operationCache = new ConcurrentHashMap<>();
+
     public static CRSFactory getCRSFactory() {
         return crsFactory;
     }
@@ -101,8 +108,8 @@ public class GisTransformUtils {
     public static void transformGisData(GisTransformRequest request) throws DBException {
         try {
             //srcSRID = 3857;
-            CoordinateReferenceSystem crs1 = crsFactory.getCRS("EPSG:" + request.getSourceSRID());
-            CoordinateReferenceSystem crs2 = crsFactory.getCRS("EPSG:" + request.getTargetSRID());
+            CoordinateReferenceSystem crs1 = getCRS(request.getSourceSRID());
+            CoordinateReferenceSystem crs2 = getCRS(request.getTargetSRID());
 
             try {
                 Geometry targetValue = transformGisData(request.getSourceValue(), crs1, crs2);
@@ -126,6 +133,24 @@ public class GisTransformUtils {
         }
     }
 
+    /**
+     * Returns EPSG coordinate reference system. Resolved systems are cached.
+     */
+    @NotNull
+    public static CoordinateReferenceSystem getCRS(int srid) throws CRSException {
+        CoordinateReferenceSystem crs = crsCache.get(srid);
+        if (crs == null) {
+            synchronized (crsFactory) {
+                crs = crsCache.get(srid);
+                if (crs == null) {
+                    crs = crsFactory.getCRS("EPSG:" + srid);
+                    crsCache.put(srid, crs);
+                }
+            }
+        }
+        return crs;
+    }
+
     private static Geometry transformGeometryTo(ProjectedCRS projectedCRS, Geometry geometry) throws CoordinateOperationException, IllegalCoordinateException {
         CoordinateOperation coordinateOperation = projectedCRS.toGeographicCoordinateConverter();
         for (Coordinate coord : geometry.getCoordinates()) {
@@ -138,9 +163,8 @@ public class GisTransformUtils {
 
     public static Geometry transformGisData(Geometry jtsValue, CoordinateReferenceSystem crs1, CoordinateReferenceSystem crs2) throws Exception {
         if (crs1 instanceof GeodeticCRS && crs2 instanceof GeodeticCRS) {
-            Set<CoordinateOperation> coordOps = CoordinateOperationFactory.createCoordinateOperations((GeodeticCRS) crs1, (GeodeticCRS) crs2);
-            if (!coordOps.isEmpty()) {
-            	CoordinateOperation op = CoordinateOperationFactory.getMostPrecise(coordOps);
+            CoordinateOperation op = getCoordinateOperation((GeodeticCRS) crs1, (GeodeticCRS) crs2);
+            if (op != null) {
                 // Transform coord using the op CoordinateOperation from crs1 to crs2
                 jtsValue = transformGeometry(jtsValue, op);
                 return jtsValue;
@@ -149,6 +173,18 @@ public class GisTransformUtils {
         return jtsValue;
     }
 
+    @Nullable
+    private static CoordinateOperation getCoordinateOperation(@NotNull GeodeticCRS crs1, @NotNull GeodeticCRS crs2) throws CoordinateOperationException {
+        final List<CoordinateReferenceSystem> key = List.of(crs1, crs2);
+        Optional<CoordinateOperation> op = operationCache.get(key);
+        if (op == null) {
+            Set<CoordinateOperation> coordOps = CoordinateOperationFactory.createCoordinateOperations(crs1, crs2);
+            op = coordOps.isEmpty() ? Optional.empty() : Optional.of(CoordinateOperationFactory.getMostPrecise(coordOps));
+            operationCache.putIfAbsent(key, op);
+        }
+        return op.orElse(null);
+    }
+
     private static Geometry transformGeometry(Geometry geom, CoordinateOperation op) throws Exception {
         geom = (Geometry) geom.clone();
         for (Coordinate coord : geom.getCoordinates()) {
@@ -19,6 +19,7 @@
 package org.jkiss.dbeaver.data.office.export;
 
 import org.apache.poi.hssf.usermodel.HSSFFormulaEvaluator;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
@@ -53,7 +54,8 @@ import java.util.Map;
 import java.util.StringTokenizer;
 
 /**
- * Export XLSX with Apache POI
+ * Export XLSX.
+ * New workbooks are written with {@link XLSXStreamWriter}, Apache POI is used to append data to existing workbooks.
  */
 public class DataExporterXLSX extends StreamExporterAbstract implements IAppendableDataExporter {
 
@@ -96,6 +98,7 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
     private DBDAttributeDecorator decorator;
 
     private SXSSFWorkbook wb;
+    private XLSXStreamWriter streamWriter;
 
     private HeaderFormat headerFormat = HeaderFormat.LABEL;
     private boolean rowNumber = false;
@@ -157,12 +160,7 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
         String dateFormat = CommonUtils.toString(properties.get(PROP_DATE_FORMAT), "");
         appendStrategy = AppendStrategy.of(CommonUtils.toString(properties.get(PROP_APPEND_STRATEGY)));
 
-        if (wb == null) {
-            wb = new SXSSFWorkbook(ROW_WINDOW);
-        }
-
         worksheets = new HashMap<>(1);
-        styleHeader = (XSSFCellStyle) wb.createCellStyle();
 
         BorderStyle border = CommonUtils.valueOf(
             BorderStyle.class,
@@ -174,6 +172,21 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
             CommonUtils.toString(properties.get(PROP_HEADER_FONT), FontStyleProp.BOLD.name()),
             FontStyleProp.BOLD);
 
+        if (wb == null) {
+            // Nothing to append to: write workbook directly into the output stream
+            streamWriter = new XLSXStreamWriter(site.getOutputStream(), border, fontStyle, dateFormat);
+        } else {
+            createWorkbookStyles(border, fontStyle, dateFormat);
+        }
+
+        this.rowCount = 0;
+        this.sheetIndex = 0;
+
+        super.init(site);
+    }
+
+    private void createWorkbookStyles(@NotNull BorderStyle border, @NotNull FontStyleProp fontStyle, @NotNull String dateFormat) {
+        styleHeader = (XSSFCellStyle) wb.createCellStyle();
         styleHeader.setBorderTop(border);
         styleHeader.setBorderBottom(border);
         styleHeader.setBorderLeft(border);
@@ -217,15 +230,21 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
         } else {
             styleDate.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat(dateFormat));
         }
-
-        this.rowCount = 0;
-        this.sheetIndex = 0;
-
-        super.init(site);
     }
 
     @Override
     public void dispose() {
+        if (streamWriter != null) {
+            try {
+                if (exportSql) {
+                    exportStreamSql();
+                }
+                streamWriter.close();
+            } catch (IOException e) {
+                log.error("Dispose error", e);
+            }
+            streamWriter = null;
+        }
         try {
             if (exportSql && wb != null) {
                 try {
@@ -274,6 +293,17 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
         super.dispose();
     }
 
+    private void exportStreamSql() {
+        final XLSXStreamWriter.Sheet sheet = streamWriter.createSheet();
+        final String sqlText = getSite().getSource().getName();
+        final String[] lines = splitSqlText ? sqlText.split("\n", SpreadsheetVersion.EXCEL2007.getMaxRows()) : new String[] {sqlText};
+        for (int i = 0; i < lines.length; i++) {
+            sheet.startRow(i);
+            sheet.addString(0, getPreparedString(lines[i]), XLSXStreamWriter.STYLE_DEFAULT);
+            sheet.endRow();
+        }
+    }
+
     @Override
     public void exportHeader(DBCSession session) throws DBException {
 
@@ -285,10 +315,8 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
         decorator = GeneralUtils.adapt(getSite().getSource(), DBDAttributeDecorator.class);
     }
 
-    private void printHeader(DBCResultSet resultSet, Worksheet wsh) throws DBException {
-        final SXSSFSheet sh = (SXSSFSheet) wsh.getSh();
-
-        if (appendStrategy == AppendStrategy.USE_EXISTING_SHEETS && getPhysicalNumberOfRows(sh) > 0) {
+    private void printHeader(DBCResultSet resultSet, Worksheet wsh) throws DBException, IOException {
+        if (wsh.getSh() != null && appendStrategy == AppendStrategy.USE_EXISTING_SHEETS && getPhysicalNumberOfRows(wsh.getSh()) > 0) {
             return;
         }
 
@@ -324,6 +352,12 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
             return;
         }
 
+        if (wsh.getStreamSheet() != null) {
+            printStreamHeader(wsh, hasDescription);
+            return;
+        }
+
+        final SXSSFSheet sh = (SXSSFSheet) wsh.getSh();
         sh.trackAllColumnsForAutoSizing();
 
         int startCol = rowNumber ? 1 : 0;
@@ -368,7 +402,34 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
         sh.untrackAllColumnsForAutoSizing();
     }
 
-    private void writeCellValue(Cell cell, Reader reader) throws IOException {
+    private void printStreamHeader(@NotNull Worksheet wsh, boolean hasDescription) throws IOException {
+        final XLSXStreamWriter.Sheet sheet = wsh.getStreamSheet();
+        int startCol = rowNumber ? 1 : 0;
+
+        if (headerFormat.hasLabel()) {
+            sheet.startRow(wsh.getCurrentRow());
+            for (int i = 0; i < columns.length; i++) {
+                String colName = columns[i].getLabel();
+                if (CommonUtils.isEmpty(colName)) {
+                    colName = columns[i].getName();
+                }
+                sheet.addString(i + startCol, colName, XLSXStreamWriter.STYLE_HEADER);
+            }
+            sheet.endRow();
+            wsh.incRow();
+        }
+
+        if (hasDescription) {
+            sheet.startRow(wsh.getCurrentRow());
+            for (int i = 0; i < columns.length; i++) {
+                sheet.addString(i + startCol, CommonUtils.notEmpty(columns[i].getDescription()), XLSXStreamWriter.STYLE_HEADER);
+            }
+            sheet.endRow();
+            wsh.incRow();
+        }
+    }
+
+    private String readCellValue(Reader reader) throws IOException {
         try {
             StringBuilder sb = new StringBuilder();
             char buffer[] = new char[2000];
@@ -379,16 +440,18 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
                 }
                 sb.append(buffer, 0, count);
             }
-            cell.setCellValue(getPreparedString(sb.toString()));
+            return getPreparedString(sb.toString());
         } finally {
             ContentUtils.close(reader);
         }
     }
 
-    private Worksheet createSheet(DBCResultSet resultSet, Object colValue) throws DBException {
+    private Worksheet createSheet(DBCResultSet resultSet, Object colValue) throws DBException, IOException {
         final Sheet sheet;
         final Worksheet worksheet;
-        if (appendStrategy == AppendStrategy.USE_EXISTING_SHEETS && sheetIndex < wb.getNumberOfSheets()) {
+        if (streamWriter != null) {
+            worksheet = new Worksheet(streamWriter.createSheet(), colValue);
+        } else if (appendStrategy == AppendStrategy.USE_EXISTING_SHEETS && sheetIndex < wb.getNumberOfSheets()) {
             sheet = wb.getSheetAt(sheetIndex++);
             worksheet = new Worksheet(sheet, colValue, getPhysicalNumberOfRows(sheet));
         } else {
@@ -399,7 +462,7 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
         return worksheet;
     }
 
-    private Worksheet getWsh(DBCResultSet resultSet, Object[] row) throws DBException {
+    private Worksheet getWsh(DBCResultSet resultSet, Object[] row) throws DBException, IOException {
         Object colValue = ((splitByCol <= 0) || (splitByCol >= columns.length)) ? "" : row[splitByCol];
         Worksheet w = worksheets.get(colValue);
         if (w == null) {
@@ -407,6 +470,9 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
             worksheets.put(w.getColumnVal(), w);
         } else {
             if (w.getCurrentRow() >= splitByRowCount) {
+                if (w.getStreamSheet() != null) {
+                    w.getStreamSheet().finish();
+                }
                 w = createSheet(resultSet, colValue);
                 worksheets.put(w.getColumnVal(), w);
             }
@@ -419,6 +485,10 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
         throws DBException, IOException {
 
         Worksheet wsh = getWsh(resultSet, row);
+        if (wsh.getStreamSheet() != null) {
+            exportStreamRow(session, wsh, row);
+            return;
+        }
         Row rowX = wsh.getSh().createRow(wsh.getCurrentRow());
 
         int startCol = 0;
@@ -436,53 +506,86 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
             Cell cell = rowX.createCell(i + startCol, getCellType(column));
             cell.setCellStyle(getCellStyle(column, rowCount));
 
-            if (DBUtils.isNullValue(row[i])) {
-                if (!CommonUtils.isEmpty(nullString)) {
-                    cell.setCellValue(nullString);
-                } else {
-                    cell.setCellValue("");
-                }
-            } else if (row[i] instanceof DBDContent) {
-                DBDContent content = (DBDContent) row[i];
-                try {
-                    DBDContentStorage cs = content.getContents(session.getProgressMonitor());
-                    if (cs == null) {
-                        cell.setCellValue(DBConstants.NULL_VALUE_LABEL);
-                    } else if (ContentUtils.isTextContent(content)) {
-                        writeCellValue(cell, cs.getContentReader());
-                    } else {
-                        cell.setCellValue(BINARY_FIXED);
-                    }
-                } finally {
-                    content.release();
-                }
-            } else if (row[i] instanceof Boolean) {
-
-                if (booleRedefined) {
-                    cell.setCellValue((Boolean) row[i] ? boolTrue : boolFalse);
-                } else {
-                    cell.setCellValue((Boolean) row[i]);
-                }
-
-            } else if (row[i] instanceof Number) {
-
-                cell.setCellValue(((Number) row[i]).doubleValue());
+            Object value = getCellValue(session, column, row[i]);
+            if (value instanceof Boolean) {
+                cell.setCellValue((Boolean) value);
+            } else if (value instanceof Number) {
+                cell.setCellValue(((Number) value).doubleValue());
+            } else if (value instanceof Date) {
+                cell.setCellValue((Date) value);
+                cell.setCellStyle(styleDate);
+            } else {
+                cell.setCellValue((String) value);
+            }
+        }
+        wsh.incRow();
+        rowCount++;
+    }
 
-            } else if (row[i] instanceof Date) {
+    private void exportStreamRow(DBCSession session, Worksheet wsh, Object[] row) throws DBException, IOException {
+        final XLSXStreamWriter.Sheet sheet = wsh.getStreamSheet();
+        sheet.startRow(wsh.getCurrentRow());
 
-                cell.setCellValue((Date) row[i]);
-                cell.setCellStyle(styleDate);
+        int startCol = 0;
+        if (rowNumber) {
+            sheet.addString(startCol, String.valueOf(wsh.getCurrentRow()), XLSXStreamWriter.STYLE_CELL);
+            startCol++;
+        }
 
+        for (int i = 0; i < row.length; i++) {
+            DBDAttributeBinding column = columns[i];
+            int cellStyle = getStreamCellStyle(column, rowCount);
+
+            Object value = getCellValue(session, column, row[i]);
+            if (value instanceof Boolean) {
+                sheet.addBoolean(i + startCol, (Boolean) value, cellStyle);
+            } else if (value instanceof Number) {
+                sheet.addNumber(i + startCol, ((Number) value).doubleValue(), cellStyle);
+            } else if (value instanceof Date) {
+                sheet.addDate(i + startCol, (Date) value, XLSXStreamWriter.STYLE_DATE);
             } else {
-                String stringValue = super.getValueDisplayString(column, row[i]);
-                cell.setCellValue(getPreparedString(stringValue));
+                sheet.addString(i + startCol, (String) value, cellStyle);
             }
-
         }
+        sheet.endRow();
         wsh.incRow();
         rowCount++;
     }
 
+    /**
+     * Converts value to the cell value: string, boolean, number or date
+     */
+    @NotNull
+    private Object getCellValue(DBCSession session, DBDAttributeBinding column, Object value) throws DBException, IOException {
+        if (DBUtils.isNullValue(value)) {
+            return CommonUtils.notEmpty(nullString);
+        } else if (value instanceof DBDContent) {
+            DBDContent content = (DBDContent) value;
+            try {
+                DBDContentStorage cs = content.getContents(session.getProgressMonitor());
+                if (cs == null) {
+                    return DBConstants.NULL_VALUE_LABEL;
+                } else if (ContentUtils.isTextContent(content)) {
+                    return CommonUtils.notEmpty(readCellValue(cs.getContentReader()));
+                } else {
+                    return BINARY_FIXED;
+                }
+            } finally {
+                content.release();
+            }
+        } else if (value instanceof Boolean) {
+            if (booleRedefined) {
+                return (Boolean) value ? boolTrue : boolFalse;
+            }
+            return value;
+        } else if (value instanceof Number || value instanceof Date) {
+            return value;
+        } else {
+            String stringValue = super.getValueDisplayString(column, value);
+            return CommonUtils.notEmpty(getPreparedString(stringValue));
+        }
+    }
+
     private CellType getCellType(DBDAttributeBinding column) {
         switch (column.getDataKind()) {
         case NUMERIC:
@@ -526,7 +629,8 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
         try {
             wb = new SXSSFWorkbook(
                 new XSSFWorkbook(
-                    Files.newInputStream(file)));
+                    Files.newInputStream(file)),
+                ROW_WINDOW);
         } catch (Exception e) {
             throw new DBException("Error opening workbook", e);
         }
@@ -571,6 +675,16 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
         return style;
     }
 
+    private int getStreamCellStyle(@NotNull DBDAttributeBinding attribute, int row) {
+        if (decorator != null) {
+            final String bg = decorator.getCellBackground(attribute, row);
+            if (bg != null) {
+                return streamWriter.getFillStyle(asColor(bg));
+            }
+        }
+        return XLSXStreamWriter.STYLE_CELL;
+    }
+
     /**
      * A reimplementation of {@link org.eclipse.jface.resource.StringConverter#asRGB(String)}.
      * <p>
@@ -0,0 +1,528 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.data.office.export;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.utils.CommonUtils;
+
+import java.awt.Color;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streaming XLSX (OOXML) writer.
+ * <p>
+ * Sheet XML is written directly into the zip entry, there is no intermediate workbook model.
+ * Strings are stored inline, styles are a fixed set (plus fills registered during export),
+ * column widths are estimated from character counts of the first rows of each sheet.
+ * <p>
+ * Only one zip entry can be written at a time. Sheets filled simultaneously with another one
+ * (e.g. when rows are split by a column value) are kept in compressed temporary files
+ * and added to the archive when the workbook is closed.
+ */
+public class XLSXStreamWriter implements Closeable {
+
+    private static final Log log = Log.getLog(XLSXStreamWriter.class);
+
+    public static final int STYLE_DEFAULT = 0;
+    public static final int STYLE_HEADER = 1;
+    public static final int STYLE_CELL = 2;
+    public static final int STYLE_DATE = 3;
+    private static final int FIXED_STYLE_COUNT = 4;
+
+    private static final int CUSTOM_DATE_FORMAT_ID = 164;
+    private static final int DEFAULT_DATE_FORMAT_ID = 14;
+
+    // Number of rows used to estimate column widths
+    private static final int SAMPLE_ROWS = 100;
+    private static final int MIN_COLUMN_WIDTH = 10;
+    private static final int MAX_COLUMN_WIDTH = 100;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String NS_PACKAGE_RELATIONSHIPS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    private final ZipOutputStream zip;
+    private final String borderStyle;
+    private final DataExporterXLSX.FontStyleProp headerFont;
+    private final String dateFormat;
+
+    private final List<Sheet> sheets = new ArrayList<>();
+    private final Map<Integer, Integer> fillStyles = new LinkedHashMap<>();
+    private Sheet entryOwner;
+    private boolean closed;
+
+    public XLSXStreamWriter(
+        @NotNull OutputStream out,
+        @NotNull BorderStyle border,
+        @NotNull DataExporterXLSX.FontStyleProp headerFont,
+        @Nullable String dateFormat
+    ) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.borderStyle = border == BorderStyle.NONE ? null : toXmlName(border.name());
+        this.headerFont = headerFont;
+        this.dateFormat = CommonUtils.isEmpty(dateFormat) ? null : dateFormat;
+    }
+
+    @NotNull
+    public Sheet createSheet() {
+        final Sheet sheet = new Sheet(sheets.size() + 1);
+        sheets.add(sheet);
+        return sheet;
+    }
+
+    /**
+     * Returns cell style with the specified background color
+     */
+    public int getFillStyle(@NotNull Color color) {
+        return fillStyles.computeIfAbsent(color.getRGB() & 0xFFFFFF, rgb -> FIXED_STYLE_COUNT + fillStyles.size());
+    }
+
+    /**
+     * Finishes all sheets and writes workbook parts. Underlying stream remains open.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (sheets.isEmpty()) {
+                // Workbook must contain at least one sheet
+                createSheet();
+            }
+            for (Sheet sheet : sheets) {
+                sheet.finish();
+            }
+            for (Sheet sheet : sheets) {
+                sheet.copySpilledData();
+            }
+            writeEntry("[Content_Types].xml", getContentTypes());
+            writeEntry("_rels/.rels", XML_HEADER +
+                "<Relationships xmlns=\"" + NS_PACKAGE_RELATIONSHIPS + "\">" +
+                "<Relationship Id=\"rId1\" Type=\"" + NS_RELATIONSHIPS + "/officeDocument\" Target=\"xl/workbook.xml\"/>" +
+                "</Relationships>");
+            writeEntry("xl/workbook.xml", getWorkbook());
+            writeEntry("xl/_rels/workbook.xml.rels", getWorkbookRelationships());
+            writeEntry("xl/styles.xml", getStyles());
+            zip.finish();
+        } finally {
+            for (Sheet sheet : sheets) {
+                sheet.deleteSpillFile();
+            }
+        }
+    }
+
+    private void writeEntry(@NotNull String name, @NotNull String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    @NotNull
+    private String getContentTypes() {
+        final StringBuilder xml = new StringBuilder(XML_HEADER);
+        xml.append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">");
+        xml.append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>");
+        xml.append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>");
+        xml.append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+        xml.append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (Sheet sheet : sheets) {
+            xml.append("<Override PartName=\"/").append(sheet.getEntryName())
+                .append("\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        xml.append("</Types>");
+        return xml.toString();
+    }
+
+    @NotNull
+    private String getWorkbook() {
+        final StringBuilder xml = new StringBuilder(XML_HEADER);
+        xml.append("<workbook xmlns=\"").append(NS_MAIN).append("\" xmlns:r=\"").append(NS_RELATIONSHIPS).append("\"><sheets>");
+        for (Sheet sheet : sheets) {
+            xml.append("<sheet name=\"").append(sheet.getName()).append("\" sheetId=\"").append(sheet.number)
+                .append("\" r:id=\"rId").append(sheet.number).append("\"/>");
+        }
+        xml.append("</sheets></workbook>");
+        return xml.toString();
+    }
+
+    @NotNull
+    private String getWorkbookRelationships() {
+        final StringBuilder xml = new StringBuilder(XML_HEADER);
+        xml.append("<Relationships xmlns=\"").append(NS_PACKAGE_RELATIONSHIPS).append("\">");
+        for (Sheet sheet : sheets) {
+            xml.append("<Relationship Id=\"rId").append(sheet.number).append("\" Type=\"").append(NS_RELATIONSHIPS)
+                .append("/worksheet\" Target=\"worksheets/sheet").append(sheet.number).append(".xml\"/>");
+        }
+        xml.append("<Relationship Id=\"rId").append(sheets.size() + 1).append("\" Type=\"").append(NS_RELATIONSHIPS)
+            .append("/styles\" Target=\"styles.xml\"/>");
+        xml.append("</Relationships>");
+        return xml.toString();
+    }
+
+    @NotNull
+    private String getStyles() {
+        final StringBuilder xml = new StringBuilder(XML_HEADER);
+        xml.append("<styleSheet xmlns=\"").append(NS_MAIN).append("\">");
+        if (dateFormat != null) {
+            xml.append("<numFmts count=\"1\"><numFmt numFmtId=\"").append(CUSTOM_DATE_FORMAT_ID).append("\" formatCode=\"");
+            appendEscaped(xml, dateFormat, true);
+            xml.append("\"/></numFmts>");
+        }
+
+        xml.append("<fonts count=\"2\">");
+        xml.append("<font><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>");
+        xml.append("<font>");
+        switch (headerFont) {
+            case BOLD:
+                xml.append("<b/>");
+                break;
+            case ITALIC:
+                xml.append("<i/>");
+                break;
+            case STRIKEOUT:
+                xml.append("<strike/>");
+                break;
+            case UNDERLINE:
+                xml.append("<u val=\"singleAccounting\"/>");
+                break;
+            default:
+                break;
+        }
+        xml.append("<sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>");
+        xml.append("</fonts>");
+
+        xml.append("<fills count=\"").append(2 + fillStyles.size()).append("\">");
+        xml.append("<fill><patternFill patternType=\"none\"/></fill>");
+        xml.append("<fill><patternFill patternType=\"gray125\"/></fill>");
+        for (Integer rgb : fillStyles.keySet()) {
+            xml.append("<fill><patternFill patternType=\"solid\"><fgColor rgb=\"FF")
+                .append(String.format("%06X", rgb)).append("\"/><bgColor indexed=\"64\"/></patternFill></fill>");
+        }
+        xml.append("</fills>");
+
+        xml.append("<borders count=\"2\">");
+        xml.append("<border><left/><right/><top/><bottom/><diagonal/></border>");
+        if (borderStyle == null) {
+            xml.append("<border><left/><right/><top/><bottom/><diagonal/></border>");
+        } else {
+            xml.append("<border>");
+            for (String side : new String[] {"left", "right", "top", "bottom"}) {
+                xml.append('<').append(side).append(" style=\"").append(borderStyle).append("\"><color indexed=\"64\"/></")
+                    .append(side).append('>');
+            }
+            xml.append("<diagonal/></border>");
+        }
+        xml.append("</borders>");
+
+        xml.append("<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>");
+        xml.append("<cellXfs count=\"").append(FIXED_STYLE_COUNT + fillStyles.size()).append("\">");
+        xml.append("<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>");
+        xml.append("<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyFont=\"1\" applyBorder=\"1\"/>");
+        xml.append("<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyBorder=\"1\"/>");
+        xml.append("<xf numFmtId=\"").append(dateFormat == null ? DEFAULT_DATE_FORMAT_ID : CUSTOM_DATE_FORMAT_ID)
+            .append("\" fontId=\"0\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyNumberFormat=\"1\" applyBorder=\"1\"/>");
+        for (int i = 0; i < fillStyles.size(); i++) {
+            xml.append("<xf numFmtId=\"0\" fontId=\"0\" fillId=\"").append(2 + i)
+                .append("\" borderId=\"1\" xfId=\"0\" applyFill=\"1\" applyBorder=\"1\"/>");
+        }
+        xml.append("</cellXfs>");
+        xml.append("<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>");
+        xml.append("</styleSheet>");
+        return xml.toString();
+    }
+
+    /**
+     * Converts enum constant name (MEDIUM_DASHED) to OOXML attribute value (mediumDashed)
+     */
+    @NotNull
+    private static String toXmlName(@NotNull String name) {
+        final StringBuilder result = new StringBuilder(name.length());
+        boolean upper = false;
+        for (char c : name.toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                result.append(upper ? Character.toUpperCase(c) : Character.toLowerCase(c));
+                upper = false;
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns column reference (A, B, ..., Z, AA, ...) for the zero-based column index
+     */
+    @NotNull
+    static String getColumnReference(int column) {
+        final StringBuilder ref = new StringBuilder(3);
+        for (int n = column + 1; n > 0; n = (n - 1) / 26) {
+            ref.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return ref.toString();
+    }
+
+    static void appendEscaped(@NotNull StringBuilder xml, @NotNull String text, boolean attribute) {
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '<':
+                    xml.append("&lt;");
+                    break;
+                case '>':
+                    xml.append("&gt;");
+                    break;
+                case '&':
+                    xml.append("&amp;");
+                    break;
+                case '"':
+                    xml.append(attribute ? "&quot;" : "\"");
+                    break;
+                default:
+                    if (c < 0x20 && c != '\t' && c != '\n' && c != '\r') {
+                        // Not allowed in XML 1.0
+                        continue;
+                    }
+                    if (c == 0xFFFE || c == 0xFFFF) {
+                        continue;
+                    }
+                    xml.append(c);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Worksheet. Rows must be written sequentially.
+     */
+    public class Sheet {
+        private final int number;
+        private final StringBuilder data = new StringBuilder();
+        private final List<String> columnRefs = new ArrayList<>();
+        private int[] columnWidths = new int[0];
+        private int sampledRows;
+        private int currentRow;
+        private Writer out;
+        private Path spillFile;
+        private boolean finished;
+
+        private Sheet(int number) {
+            this.number = number;
+        }
+
+        @NotNull
+        public String getName() {
+            return "Sheet" + (number - 1);
+        }
+
+        @NotNull
+        private String getEntryName() {
+            return "xl/worksheets/sheet" + number + ".xml";
+        }
+
+        public void startRow(int rowIndex) {
+            data.append("<row r=\"").append(rowIndex + 1).append("\">");
+            currentRow = rowIndex + 1;
+        }
+
+        public void addString(int column, @Nullable String value, int style) {
+            if (CommonUtils.isEmpty(value)) {
+                addBlank(column, style);
+                return;
+            }
+            startCell(column, style, "inlineStr", value.length());
+            data.append("<is><t xml:space=\"preserve\">");
+            appendEscaped(data, value, false);
+            data.append("</t></is></c>");
+        }
+
+        public void addNumber(int column, double value, int style) {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                addString(column, String.valueOf(value), style);
+                return;
+            }
+            final String text;
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                text = String.valueOf((long) value);
+            } else {
+                text = String.valueOf(value);
+            }
+            startCell(column, style, null, text.length());
+            data.append("<v>").append(text).append("</v></c>");
+        }
+
+        public void addBoolean(int column, boolean value, int style) {
+            startCell(column, style, "b", 5);
+            data.append("<v>").append(value ? '1' : '0').append("</v></c>");
+        }
+
+        public void addDate(int column, @NotNull Date value, int style) {
+            final double excelDate = DateUtil.getExcelDate(value);
+            if (excelDate < 0) {
+                // Dates before 1900 can't be represented in Excel
+                addString(column, value.toString(), style);
+                return;
+            }
+            startCell(column, style, null, 10);
+            data.append("<v>").append(excelDate).append("</v></c>");
+        }
+
+        public void addBlank(int column, int style) {
+            data.append("<c r=\"").append(getColumnRef(column)).append(currentRow).append("\" s=\"").append(style).append("\"/>");
+        }
+
+        public void endRow() throws IOException {
+            data.append("</row>");
+            if (out == null) {
+                sampledRows++;
+                if (sampledRows >= SAMPLE_ROWS) {
+                    startOutput();
+                }
+            } else {
+                flushData();
+            }
+        }
+
+        private void startCell(int column, int style, @Nullable String type, int textLength) {
+            if (out == null) {
+                sampleWidth(column, textLength);
+            }
+            data.append("<c r=\"").append(getColumnRef(column)).append(currentRow).append("\" s=\"").append(style).append('"');
+            if (type != null) {
+                data.append(" t=\"").append(type).append('"');
+            }
+            data.append('>');
+        }
+
+        @NotNull
+        private String getColumnRef(int column) {
+            while (columnRefs.size() <= column) {
+                columnRefs.add(getColumnReference(columnRefs.size()));
+            }
+            return columnRefs.get(column);
+        }
+
+        private void sampleWidth(int column, int textLength) {
+            if (column >= columnWidths.length) {
+                columnWidths = Arrays.copyOf(columnWidths, column + 1);
+            }
+            columnWidths[column] = Math.max(columnWidths[column], textLength);
+        }
+
+        private void startOutput() throws IOException {
+            if (entryOwner == null) {
+                zip.putNextEntry(new ZipEntry(getEntryName()));
+                entryOwner = this;
+                out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+            } else {
+                // Another sheet is being written into the archive
+                final Path tempFolder = DBWorkbench.getPlatform().getTempFolder(new VoidProgressMonitor(), "xlsx-export");
+                spillFile = Files.createTempFile(tempFolder, "sheet", ".xml");
+                out = new BufferedWriter(
+                    new OutputStreamWriter(new DeflaterOutputStream(Files.newOutputStream(spillFile)), StandardCharsets.UTF_8),
+                    WRITE_BUFFER_SIZE);
+            }
+            final StringBuilder header = new StringBuilder(XML_HEADER);
+            header.append("<worksheet xmlns=\"").append(NS_MAIN).append("\">");
+            final StringBuilder cols = new StringBuilder();
+            for (int i = 0; i < columnWidths.length; i++) {
+                if (columnWidths[i] == 0) {
+                    // No sampled values, keep default width
+                    continue;
+                }
+                final int width = Math.max(MIN_COLUMN_WIDTH, Math.min(MAX_COLUMN_WIDTH, columnWidths[i] + 2));
+                cols.append("<col min=\"").append(i + 1).append("\" max=\"").append(i + 1)
+                    .append("\" width=\"").append(width).append("\" customWidth=\"1\"/>");
+            }
+            if (cols.length() > 0) {
+                header.append("<cols>").append(cols).append("</cols>");
+            }
+            header.append("<sheetData>");
+            out.write(header.toString());
+            flushData();
+        }
+
+        private void flushData() throws IOException {
+            out.append(data);
+            data.setLength(0);
+        }
+
+        /**
+         * Completes sheet data. No more rows can be added.
+         */
+        public void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (out == null) {
+                startOutput();
+            }
+            out.write("</sheetData></worksheet>");
+            if (entryOwner == this) {
+                out.flush();
+                zip.closeEntry();
+                entryOwner = null;
+            } else {
+                // Closes spill file
+                out.close();
+            }
+            out = null;
+        }
+
+        private void copySpilledData() throws IOException {
+            if (spillFile == null) {
+                return;
+            }
+            zip.putNextEntry(new ZipEntry(getEntryName()));
+            try (InputStream in = new InflaterInputStream(Files.newInputStream(spillFile))) {
+                in.transferTo(zip);
+            }
+            zip.closeEntry();
+            deleteSpillFile();
+        }
+
+        private void deleteSpillFile() {
+            if (spillFile != null) {
+                try {
+                    Files.deleteIfExists(spillFile);
+                } catch (IOException e) {
+                    log.debug("Error deleting temporary sheet file", e);
+                }
+                spillFile = null;
+            }
+        }
+    }
+
+}
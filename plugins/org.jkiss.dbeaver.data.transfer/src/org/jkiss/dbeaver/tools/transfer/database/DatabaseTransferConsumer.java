@@ -542,8 +542,12 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
 
         try {
             useIsolatedConnection = !isPreview && settings.isOpenNewConnections() && !dataSourceContainer.getDriver().isEmbedded();
-            targetContext = useIsolatedConnection ?
-                DBUtils.getObjectOwnerInstance(targetDB).openIsolatedContext(monitor, "Data transfer consumer", null) : DBUtils.getDefaultContext(targetDB, false);
+            if (useIsolatedConnection) {
+                DBSInstance ownerInstance = DBUtils.getObjectOwnerInstance(targetDB);
+                targetContext = DBCExecutionContextPool.getPool(ownerInstance).acquire(monitor, ownerInstance, "Data transfer consumer", null);
+            } else {
+                targetContext = DBUtils.getDefaultContext(targetDB, false);
+            }
         } catch (DBException e) {
             throw new DBCException("Error opening new connection", e);
         }
@@ -584,11 +588,12 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     }
 
     private void closeExporter() {
+        DBRProgressMonitor monitor = targetSession != null ? targetSession.getProgressMonitor() : new VoidProgressMonitor();
         if (!isPreview && targetSession != null && oldAutoCommit != null) {
             try {
                 DBCTransactionManager txnManager = DBUtils.getTransactionManager(targetSession.getExecutionContext());
                 if (txnManager != null) {
-                    txnManager.setAutoCommit(targetSession.getProgressMonitor(), oldAutoCommit);
+                    txnManager.setAutoCommit(monitor, oldAutoCommit);
                 }
             } catch (Exception e) {
                 log.debug("Error reverting auto-commit mode", e);
@@ -604,7 +609,8 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             log.debug(e);
         }
         if (targetContext != null && useIsolatedConnection) {
-            targetContext.close();
+            // Open transaction is rolled back and context is returned to the pool
+            DBCExecutionContextPool.getPool(targetContext.getOwnerInstance()).release(monitor, targetContext);
             targetContext = null;
         }
 
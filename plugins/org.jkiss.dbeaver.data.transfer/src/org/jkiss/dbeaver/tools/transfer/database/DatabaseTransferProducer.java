@@ -38,6 +38,7 @@ import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTaskUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -208,7 +209,8 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                     throw new DBCException("Can't retrieve execution context from data container " + dataContainer);
                 }
                 if (!selectiveExportFromUI && newConnection) {
-                    context = DBUtils.getObjectOwnerInstance(getDatabaseObject()).openIsolatedContext(monitor, "Data transfer producer", context);
+                    DBSInstance ownerInstance = DBUtils.getObjectOwnerInstance(getDatabaseObject());
+                    context = DBCExecutionContextPool.getPool(ownerInstance).acquire(monitor, ownerInstance, "Data transfer producer", context);
                     DBExecUtils.setExecutionContextDefaults(monitor, dataSource, context, defaultCatalog, null, defaultSchema);
                 }
                 if (task != null) {
@@ -303,7 +305,7 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                             }
                         }
                         if (!selectiveExportFromUI && newConnection) {
-                            context.close();
+                            DBCExecutionContextPool.getPool(context.getOwnerInstance()).release(monitor, context);
                         }
                     }
                 }
@@ -89,7 +89,7 @@ public class DPIApplication extends DesktopApplicationImpl implements DBPApplica
     private void runServer(IApplicationContext appContext, DBPApplication application) throws IOException {
         int portNumber = IOUtils.findFreePort(20000, 65000);
         DPIRestServer server = new DPIRestServer(application, portNumber);
-        saveServerInfo(portNumber);
+        saveServerInfo(portNumber, server.getChannelPort());
         try {
             log.debug("Started DPI Server at " + portNumber);
             server.join();
@@ -98,11 +98,12 @@ public class DPIApplication extends DesktopApplicationImpl implements DBPApplica
         }
     }
 
-    private void saveServerInfo(int portNumber) throws IOException {
+    private void saveServerInfo(int portNumber, int channelPort) throws IOException {
         Path serverIniFile = getServerIniFile();
         try (BufferedWriter out = Files.newBufferedWriter(serverIniFile, StandardOpenOption.CREATE)) {
             Map<String, String> props = new LinkedHashMap<>();
             props.put(DPIConstants.PARAM_SERVER_PORT, String.valueOf(portNumber));
+            props.put(DPIConstants.PARAM_CHANNEL_PORT, String.valueOf(channelPort));
             props.put("startTime", new Date().toString());
             ConfigUtils.storeProperties(out, props);
         }
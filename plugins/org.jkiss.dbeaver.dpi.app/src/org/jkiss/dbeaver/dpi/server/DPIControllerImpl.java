@@ -30,8 +30,10 @@ import org.jkiss.dbeaver.model.DBPDataSourceConfigurationStorage;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
 import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.dpi.DPIController;
 import org.jkiss.dbeaver.model.dpi.DPIDataSourceParameters;
+import org.jkiss.dbeaver.model.dpi.DPIResultPage;
 import org.jkiss.dbeaver.model.dpi.DPISession;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeItem;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
@@ -45,17 +47,28 @@ import org.jkiss.utils.rest.RestServer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DPIControllerImpl implements DPIController {
 
     private static final Log log = Log.getLog(DPIControllerImpl.class);
 
+    /**
+     * Lock of a remote object. Calls of the same object are serialized, calls of different objects run concurrently.
+     */
+    private static class ObjectLock {
+        // Number of result set rows read so far or -1 if cursor was moved by direct calls
+        private long resultPosition = -1;
+    }
+
     private final DPIContext context;
     private final Map<String, DPISession> sessions = new LinkedHashMap<>();
+    private final Map<String, ObjectLock> objectLocks = new ConcurrentHashMap<>();
     private RestServer<?> server;
 
     public DPIControllerImpl(DPIContext context) {
@@ -133,11 +146,32 @@ public class DPIControllerImpl implements DPIController {
     }
 
     @Override
-    public synchronized Object callMethod(@NotNull String objectId, @NotNull String method, @Nullable Object[] args) throws DBException {
+    public Object callMethod(@NotNull String objectId, @NotNull String method, @Nullable Object[] args) throws DBException {
         Object object = context.getObject(objectId);
         if (object == null) {
             throw new DBException("DPI object '" + objectId + "' not found");
         }
+        ObjectLock lock = getObjectLock(objectId);
+        try {
+            synchronized (lock) {
+                if (object instanceof DBCResultSet && (method.equals("nextRow") || method.equals("moveTo"))) {
+                    lock.resultPosition = -1;
+                }
+                return callObjectMethod(objectId, object, method, args);
+            }
+        } finally {
+            if (method.equals("close")) {
+                objectLocks.remove(objectId);
+            }
+        }
+    }
+
+    private Object callObjectMethod(
+        @NotNull String objectId,
+        @NotNull Object object,
+        @NotNull String method,
+        @Nullable Object[] args
+    ) throws DBException {
         for (Method objMethod : object.getClass().getMethods()) {
             if (objMethod.getName().equals(method)) {
                 Class<?>[] argTypes = objMethod.getParameterTypes();
@@ -171,6 +205,68 @@ public class DPIControllerImpl implements DPIController {
         return invokeObjectMethod(object, method, null);
     }
 
+    @NotNull
+    @Override
+    public DPIResultPage fetchResultPage(@NotNull String resultSetId, long offset, int maxRows) throws DBException {
+        Object object = context.getObject(resultSetId);
+        if (!(object instanceof DBCResultSet resultSet)) {
+            throw new DBException("DPI object '" + resultSetId + "' is not a result set");
+        }
+        if (maxRows <= 0) {
+            throw new DBException("Wrong page size: " + maxRows);
+        }
+        ObjectLock lock = getObjectLock(resultSetId);
+        synchronized (lock) {
+            // Fresh cursor or cursor moved by direct calls continues from the client position
+            long position = lock.resultPosition < 0 ? offset : lock.resultPosition;
+            if (offset >= 0 && offset < position) {
+                throw new DBException("Result set '" + resultSetId + "' is at row " + position +
+                    ", can't read rows from " + offset);
+            }
+            // Position is unknown if reading fails
+            lock.resultPosition = -1;
+            while (offset >= 0 && position < offset) {
+                if (!resultSet.nextRow()) {
+                    lock.resultPosition = position;
+                    return new DPIResultPage(position, 0, new Object[resultSet.getMeta().getAttributes().size()][0], true);
+                }
+                position++;
+            }
+            DPIResultPage page = readResultPage(resultSet, position, maxRows);
+            lock.resultPosition = page.getNextOffset();
+            return page;
+        }
+    }
+
+    @NotNull
+    private static DPIResultPage readResultPage(@NotNull DBCResultSet resultSet, long offset, int maxRows) throws DBException {
+        int columnCount = resultSet.getMeta().getAttributes().size();
+        Object[][] columns = new Object[columnCount][maxRows];
+        int rowCount = 0;
+        boolean lastPage = false;
+        while (rowCount < maxRows) {
+            if (!resultSet.nextRow()) {
+                lastPage = true;
+                break;
+            }
+            for (int i = 0; i < columnCount; i++) {
+                columns[i][rowCount] = resultSet.getAttributeValue(i);
+            }
+            rowCount++;
+        }
+        if (rowCount < maxRows) {
+            for (int i = 0; i < columnCount; i++) {
+                columns[i] = Arrays.copyOf(columns[i], rowCount);
+            }
+        }
+        return new DPIResultPage(offset, rowCount, columns, lastPage);
+    }
+
+    @NotNull
+    private ObjectLock getObjectLock(@NotNull String objectId) {
+        return objectLocks.computeIfAbsent(objectId, id -> new ObjectLock());
+    }
+
     private Object invokeObjectMethod(Object object, Method method, Object[] args) throws DBException {
         boolean originalAccessible = method.canAccess(object);
         method.setAccessible(true);
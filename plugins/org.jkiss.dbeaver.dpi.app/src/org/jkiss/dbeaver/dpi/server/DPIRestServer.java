@@ -18,6 +18,7 @@ package org.jkiss.dbeaver.dpi.server;
 
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.dpi.model.DPIContext;
+import org.jkiss.dbeaver.dpi.model.channel.DPIChannelServer;
 import org.jkiss.dbeaver.model.app.DBPApplication;
 import org.jkiss.dbeaver.model.dpi.DPIController;
 import org.jkiss.dbeaver.model.runtime.LoggingProgressMonitor;
@@ -31,6 +32,7 @@ public class DPIRestServer {
     private static final Log log = Log.getLog(DPIRestServer.class);
 
     private final RestServer<?> restServer;
+    private final DPIChannelServer channelServer;
 
     public DPIRestServer(DBPApplication application, int portNumber) throws IOException {
         DPIContext dpiContext = new DPIContext(new LoggingProgressMonitor(log), application);
@@ -43,11 +45,20 @@ public class DPIRestServer {
             .setGson(dpiContext.getGson())
             .create();
         dpiController.setServer(restServer);
+        channelServer = new DPIChannelServer(dpiController, dpiContext.getGson(), 0);
+    }
+
+    public int getChannelPort() {
+        return channelServer.getPort();
     }
 
     public void join() {
-        while (restServer.isRunning()) {
-            RuntimeUtils.pause(100);
+        try {
+            while (restServer.isRunning()) {
+                RuntimeUtils.pause(100);
+            }
+        } finally {
+            channelServer.close();
         }
     }
 
@@ -23,6 +23,7 @@ public class DPIConstants {
 
 
     public static final String PARAM_SERVER_PORT = "serverPort";
+    public static final String PARAM_CHANNEL_PORT = "channelPort";
 
     public static final String ARG_ENABLE_ENV = "-envVariablesEnabled";
 
@@ -0,0 +1,312 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.dpi.model.channel;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.dpi.DPIController;
+import org.jkiss.dbeaver.model.dpi.DPIDataSourceParameters;
+import org.jkiss.dbeaver.model.dpi.DPIResultPage;
+import org.jkiss.dbeaver.model.dpi.DPISession;
+import org.jkiss.utils.rest.RestProxy;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Binary DPI channel client.
+ * <p>
+ * All calls share a single socket. Each request gets its own id, so concurrent calls don't wait for each other.
+ * Posted calls don't wait for result, they are buffered and sent together with the next request
+ * (or when {@link #POST_BATCH_SIZE} posts are collected or {@link #flush()} is called).
+ * If the channel is broken then calls are redirected to the fallback controller (if any).
+ * Fallback controller is not closed by this client.
+ */
+public class DPIChannelClient implements DPIController, RestProxy {
+
+    private static final Log log = Log.getLog(DPIChannelClient.class);
+
+    public static final int POST_BATCH_SIZE = 64;
+
+    private static final int SOCKET_BUFFER_SIZE = 64 * 1024;
+
+    @FunctionalInterface
+    private interface FallbackCall<T> {
+        T call(@NotNull DPIController controller) throws DBException;
+    }
+
+    private final Gson gson;
+    private final Socket socket;
+    private final DataOutputStream out;
+    private final DataInputStream in;
+    @Nullable
+    private final DPIController fallbackController;
+    private final Map<Integer, CompletableFuture<DPIChannelProtocol.Frame>> pendingCalls = new ConcurrentHashMap<>();
+    private final AtomicInteger requestCounter = new AtomicInteger();
+    private final ThreadLocal<Type> nextCallResultType = new ThreadLocal<>();
+    private int pendingPosts;
+    private volatile boolean connected;
+
+    public DPIChannelClient(int portNumber, @NotNull Gson gson, @Nullable DPIController fallbackController) throws IOException {
+        this.gson = gson;
+        this.fallbackController = fallbackController;
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), portNumber);
+        try {
+            socket.setTcpNoDelay(true);
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), SOCKET_BUFFER_SIZE));
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), SOCKET_BUFFER_SIZE));
+            DPIChannelProtocol.writeHandshake(out);
+            DPIChannelProtocol.readHandshake(in);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        this.connected = true;
+
+        Thread readerThread = new Thread(this::readResponses, "DPI channel client " + portNumber);
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public void setNextCallResultType(Type type) {
+        nextCallResultType.set(type);
+    }
+
+    @Override
+    public String ping() throws DBException {
+        return invoke("ping", String.class, DPIController::ping);
+    }
+
+    @Override
+    public DPISession openSession() throws DBException {
+        return invoke("openSession", DPISession.class, DPIController::openSession);
+    }
+
+    @NotNull
+    @Override
+    public DBPDataSource openDataSource(@NotNull DPIDataSourceParameters parameters) throws DBException {
+        return invoke("openDataSource", DBPDataSource.class, c -> c.openDataSource(parameters), parameters);
+    }
+
+    @Override
+    public void closeSession(@NotNull String sessionId) throws DBException {
+        invoke("closeSession", void.class, c -> {
+            c.closeSession(sessionId);
+            return null;
+        }, sessionId);
+    }
+
+    @Override
+    public Object callMethod(@NotNull String objectId, @NotNull String method, @Nullable Object[] args) throws DBException {
+        return invoke("callMethod", Object.class, c -> c.callMethod(objectId, method, args), objectId, method, args);
+    }
+
+    @Override
+    public Object readProperty(@NotNull String objectId, @NotNull String propertyName) throws DBException {
+        return invoke("readProperty", Object.class, c -> c.readProperty(objectId, propertyName), objectId, propertyName);
+    }
+
+    @NotNull
+    @Override
+    public DPIResultPage fetchResultPage(@NotNull String resultSetId, long offset, int maxRows) throws DBException {
+        return invoke("fetchResultPage", DPIResultPage.class, c -> c.fetchResultPage(resultSetId, offset, maxRows), resultSetId, offset, maxRows);
+    }
+
+    /**
+     * Calls object method without waiting for the result.
+     * Errors of posted calls are reported in the detached process log only.
+     */
+    public void postMethod(@NotNull String objectId, @NotNull String method, @Nullable Object[] args) throws DBException {
+        if (!connected) {
+            getFallbackController().callMethod(objectId, method, args);
+            return;
+        }
+        byte[] payload = encodeRequest("callMethod", objectId, method, args);
+        try {
+            synchronized (out) {
+                DPIChannelProtocol.writeFrame(out, 0, DPIChannelProtocol.FRAME_POST, payload);
+                if (++pendingPosts >= POST_BATCH_SIZE) {
+                    pendingPosts = 0;
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            disconnect(e);
+            throw new DBException("Error posting DPI call", e);
+        }
+    }
+
+    /**
+     * Sends all buffered posted calls
+     */
+    public void flush() throws DBException {
+        try {
+            synchronized (out) {
+                pendingPosts = 0;
+                out.flush();
+            }
+        } catch (IOException e) {
+            disconnect(e);
+            throw new DBException("Error flushing DPI channel", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (connected) {
+            try {
+                flush();
+            } catch (DBException e) {
+                log.debug(e.getMessage());
+            }
+        }
+        disconnect(null);
+    }
+
+    private <T> T invoke(
+        @NotNull String methodName,
+        @NotNull Type defaultResultType,
+        @NotNull FallbackCall<T> fallbackCall,
+        Object... args
+    ) throws DBException {
+        Type resultType = nextCallResultType.get();
+        nextCallResultType.remove();
+        if (resultType == null) {
+            resultType = defaultResultType;
+        }
+        if (!connected) {
+            return callFallback(resultType, fallbackCall);
+        }
+
+        byte[] payload = encodeRequest(methodName, args);
+        int requestId = requestCounter.incrementAndGet();
+        CompletableFuture<DPIChannelProtocol.Frame> future = new CompletableFuture<>();
+        pendingCalls.put(requestId, future);
+        try {
+            synchronized (out) {
+                DPIChannelProtocol.writeFrame(out, requestId, DPIChannelProtocol.FRAME_REQUEST, payload);
+                pendingPosts = 0;
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Request wasn't sent, so it is safe to repeat it
+            pendingCalls.remove(requestId);
+            disconnect(e);
+            return callFallback(resultType, fallbackCall);
+        }
+
+        DPIChannelProtocol.Frame response;
+        try {
+            response = future.get();
+        } catch (InterruptedException e) {
+            pendingCalls.remove(requestId);
+            Thread.currentThread().interrupt();
+            throw new DBException("DPI call '" + methodName + "' interrupted");
+        } catch (ExecutionException e) {
+            throw new DBException("DPI call '" + methodName + "' failed", e.getCause());
+        }
+        if (response.getKind() == DPIChannelProtocol.FRAME_ERROR) {
+            throw new DBException(response.getPayloadText());
+        }
+        if (resultType == void.class) {
+            return null;
+        }
+        return gson.fromJson(response.getPayloadText(), resultType);
+    }
+
+    @NotNull
+    private byte[] encodeRequest(@NotNull String methodName, Object... args) {
+        JsonArray jsonArgs = new JsonArray(args.length);
+        for (Object arg : args) {
+            jsonArgs.add(gson.toJsonTree(arg));
+        }
+        return DPIChannelProtocol.encodeRequest(methodName, gson.toJson(jsonArgs));
+    }
+
+    private <T> T callFallback(@Nullable Type resultType, @NotNull FallbackCall<T> fallbackCall) throws DBException {
+        DPIController controller = getFallbackController();
+        if (controller instanceof RestProxy restProxy) {
+            restProxy.setNextCallResultType(resultType);
+        }
+        return fallbackCall.call(controller);
+    }
+
+    @NotNull
+    private DPIController getFallbackController() throws DBException {
+        if (fallbackController == null) {
+            throw new DBException("DPI channel is closed");
+        }
+        return fallbackController;
+    }
+
+    private void readResponses() {
+        try {
+            while (connected) {
+                DPIChannelProtocol.Frame frame = DPIChannelProtocol.readFrame(in);
+                if (frame == null) {
+                    break;
+                }
+                CompletableFuture<DPIChannelProtocol.Frame> future = pendingCalls.remove(frame.getRequestId());
+                if (future != null) {
+                    future.complete(frame);
+                } else {
+                    log.debug("Response to unknown DPI request " + frame.getRequestId());
+                }
+            }
+            disconnect(new EOFException("DPI channel closed by server"));
+        } catch (IOException e) {
+            disconnect(e);
+        }
+    }
+
+    private void disconnect(@Nullable IOException error) {
+        if (connected && error != null) {
+            log.debug("DPI channel disconnected: " + error.getMessage());
+        }
+        connected = false;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // ignore
+        }
+        IOException failure = error != null ? error : new EOFException("DPI channel closed");
+        for (Integer requestId : pendingCalls.keySet()) {
+            CompletableFuture<DPIChannelProtocol.Frame> future = pendingCalls.remove(requestId);
+            if (future != null) {
+                future.completeExceptionally(failure);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.dpi.model.channel;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * DPI channel wire format.
+ * <p>
+ * Connection starts with a handshake ({@link #MAGIC} and {@link #PROTOCOL_VERSION}) sent by both sides.
+ * After that both sides exchange length-prefixed frames:
+ * <pre>
+ *     int    length     (size of the rest of the frame)
+ *     int    requestId  (matches responses to requests, 0 for posted calls)
+ *     byte   kind       (FRAME_*)
+ *     byte[] payload
+ * </pre>
+ * Request payload is the controller method name followed by JSON array of arguments.
+ * Response payload is JSON of the result, error payload is the error message.
+ */
+public final class DPIChannelProtocol {
+
+    public static final int MAGIC = 0x44504943; // DPIC
+    public static final int PROTOCOL_VERSION = 1;
+    public static final int MAX_FRAME_SIZE = 256 * 1024 * 1024;
+
+    public static final byte FRAME_REQUEST = 1;
+    public static final byte FRAME_POST = 2;
+    public static final byte FRAME_RESPONSE = 3;
+    public static final byte FRAME_ERROR = 4;
+
+    private static final int FRAME_HEADER_SIZE = 5;
+
+    private DPIChannelProtocol() {
+    }
+
+    public static final class Frame {
+        private final int requestId;
+        private final byte kind;
+        private final byte[] payload;
+
+        public Frame(int requestId, byte kind, @NotNull byte[] payload) {
+            this.requestId = requestId;
+            this.kind = kind;
+            this.payload = payload;
+        }
+
+        public int getRequestId() {
+            return requestId;
+        }
+
+        public byte getKind() {
+            return kind;
+        }
+
+        @NotNull
+        public byte[] getPayload() {
+            return payload;
+        }
+
+        @NotNull
+        public String getPayloadText() {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+    }
+
+    public static void writeHandshake(@NotNull DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(PROTOCOL_VERSION);
+        out.flush();
+    }
+
+    public static void readHandshake(@NotNull DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("Bad DPI channel handshake");
+        }
+        int version = in.readInt();
+        if (version != PROTOCOL_VERSION) {
+            throw new IOException("Unsupported DPI channel protocol version " + version);
+        }
+    }
+
+    /**
+     * Writes frame into the stream. Stream is not flushed.
+     * Caller must synchronize writes of frames which may be sent from different threads.
+     */
+    public static void writeFrame(@NotNull DataOutputStream out, int requestId, byte kind, @NotNull byte[] payload) throws IOException {
+        if (payload.length > MAX_FRAME_SIZE - FRAME_HEADER_SIZE) {
+            throw new IOException("DPI frame is too big (" + payload.length + " bytes)");
+        }
+        out.writeInt(FRAME_HEADER_SIZE + payload.length);
+        out.writeInt(requestId);
+        out.writeByte(kind);
+        out.write(payload);
+    }
+
+    /**
+     * Reads next frame from the stream.
+     *
+     * @return frame or null if the stream was closed by the other side
+     */
+    @Nullable
+    public static Frame readFrame(@NotNull DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < FRAME_HEADER_SIZE || length > MAX_FRAME_SIZE) {
+            throw new IOException("Bad DPI frame length: " + length);
+        }
+        int requestId = in.readInt();
+        byte kind = in.readByte();
+        byte[] payload = new byte[length - FRAME_HEADER_SIZE];
+        in.readFully(payload);
+        return new Frame(requestId, kind, payload);
+    }
+
+    @NotNull
+    public static byte[] encodeRequest(@NotNull String method, @NotNull String argsJson) {
+        byte[] methodBytes = method.getBytes(StandardCharsets.UTF_8);
+        if (methodBytes.length > 0xFF) {
+            throw new IllegalArgumentException("DPI method name is too long: " + method);
+        }
+        byte[] argsBytes = argsJson.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = new byte[1 + methodBytes.length + argsBytes.length];
+        payload[0] = (byte) methodBytes.length;
+        System.arraycopy(methodBytes, 0, payload, 1, methodBytes.length);
+        System.arraycopy(argsBytes, 0, payload, 1 + methodBytes.length, argsBytes.length);
+        return payload;
+    }
+
+    @NotNull
+    public static String decodeRequestMethod(@NotNull byte[] payload) {
+        return new String(payload, 1, payload[0] & 0xFF, StandardCharsets.UTF_8);
+    }
+
+    @NotNull
+    public static String decodeRequestArguments(@NotNull byte[] payload) {
+        int offset = 1 + (payload[0] & 0xFF);
+        return new String(payload, offset, payload.length - offset, StandardCharsets.UTF_8);
+    }
+
+}
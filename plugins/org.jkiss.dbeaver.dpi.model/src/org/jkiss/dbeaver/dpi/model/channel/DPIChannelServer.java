@@ -0,0 +1,208 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.dpi.model.channel;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.dpi.DPIController;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.rest.RequestMapping;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Binary DPI channel server.
+ * Listens on a loopback port and dispatches framed calls to the controller.
+ * Requests of the same connection are executed concurrently, responses are sent as soon as they are ready.
+ * Posted calls are executed by the connection thread in the order they were sent,
+ * so they are finished before any request sent after them is started.
+ */
+public class DPIChannelServer implements AutoCloseable {
+
+    private static final Log log = Log.getLog(DPIChannelServer.class);
+
+    private static final int SOCKET_BUFFER_SIZE = 64 * 1024;
+
+    private final DPIController controller;
+    private final Gson gson;
+    private final Map<String, Method> methods = new HashMap<>();
+    private final ServerSocket serverSocket;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor;
+    private volatile boolean running = true;
+
+    public DPIChannelServer(@NotNull DPIController controller, @NotNull Gson gson, int portNumber) throws IOException {
+        this.controller = controller;
+        this.gson = gson;
+        for (Method method : DPIController.class.getMethods()) {
+            if (method.getAnnotation(RequestMapping.class) != null) {
+                methods.put(method.getName(), method);
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "DPI channel worker " + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.serverSocket = new ServerSocket(portNumber, 50, InetAddress.getLoopbackAddress());
+
+        Thread acceptThread = new Thread(this::acceptConnections, "DPI channel server");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.debug("Error closing DPI channel socket", e);
+        }
+        for (Socket socket : connections) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+        executor.shutdown();
+    }
+
+    private void acceptConnections() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread connectionThread = new Thread(() -> serveConnection(socket), "DPI channel connection " + socket.getPort());
+                connectionThread.setDaemon(true);
+                connectionThread.start();
+            } catch (IOException e) {
+                if (running) {
+                    log.error("Error accepting DPI channel connection", e);
+                }
+            }
+        }
+    }
+
+    private void serveConnection(@NotNull Socket socket) {
+        connections.add(socket);
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), SOCKET_BUFFER_SIZE));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), SOCKET_BUFFER_SIZE));
+            DPIChannelProtocol.readHandshake(in);
+            DPIChannelProtocol.writeHandshake(out);
+            while (running) {
+                DPIChannelProtocol.Frame frame = DPIChannelProtocol.readFrame(in);
+                if (frame == null) {
+                    break;
+                }
+                switch (frame.getKind()) {
+                    case DPIChannelProtocol.FRAME_REQUEST -> executor.execute(() -> processRequest(frame, out));
+                    case DPIChannelProtocol.FRAME_POST -> processPost(frame);
+                    default -> throw new IOException("Unexpected DPI frame kind: " + frame.getKind());
+                }
+            }
+        } catch (SocketException | RejectedExecutionException e) {
+            // Connection or server closed
+        } catch (IOException e) {
+            log.error("DPI channel connection error", e);
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    private void processRequest(@NotNull DPIChannelProtocol.Frame frame, @NotNull DataOutputStream out) {
+        byte kind;
+        byte[] payload;
+        try {
+            Object result = invokeController(frame.getPayload());
+            kind = DPIChannelProtocol.FRAME_RESPONSE;
+            payload = gson.toJson(result).getBytes(StandardCharsets.UTF_8);
+        } catch (Throwable e) {
+            kind = DPIChannelProtocol.FRAME_ERROR;
+            payload = CommonUtils.notEmpty(e.getMessage()).getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            synchronized (out) {
+                DPIChannelProtocol.writeFrame(out, frame.getRequestId(), kind, payload);
+                out.flush();
+            }
+        } catch (IOException e) {
+            log.debug("Error sending DPI channel response: " + e.getMessage());
+        }
+    }
+
+    private void processPost(@NotNull DPIChannelProtocol.Frame frame) {
+        try {
+            invokeController(frame.getPayload());
+        } catch (Throwable e) {
+            log.error("Error processing posted DPI call", e);
+        }
+    }
+
+    private Object invokeController(@NotNull byte[] payload) throws Throwable {
+        String methodName = DPIChannelProtocol.decodeRequestMethod(payload);
+        Method method = methods.get(methodName);
+        if (method == null) {
+            throw new IOException("Unknown DPI method '" + methodName + "'");
+        }
+        JsonArray jsonArgs = JsonParser.parseString(DPIChannelProtocol.decodeRequestArguments(payload)).getAsJsonArray();
+        Type[] paramTypes = method.getGenericParameterTypes();
+        if (jsonArgs.size() != paramTypes.length) {
+            throw new IOException("Wrong number of arguments for DPI method '" + methodName + "'");
+        }
+        Object[] args = new Object[paramTypes.length];
+        for (int i = 0; i < paramTypes.length; i++) {
+            args[i] = gson.fromJson(jsonArgs.get(i), paramTypes[i]);
+        }
+        try {
+            return method.invoke(controller, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+}
@@ -22,7 +22,12 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.dpi.model.DPIContext;
 import org.jkiss.dbeaver.dpi.model.DPISerializer;
+import org.jkiss.dbeaver.dpi.model.channel.DPIChannelClient;
+import org.jkiss.dbeaver.model.DBPCloseableObject;
 import org.jkiss.dbeaver.model.dpi.*;
+import org.jkiss.dbeaver.model.exec.DBCAttributeMetaData;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeItem;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -36,6 +41,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class DPIClientProxy implements DPIClientObject, InvocationHandler {
@@ -44,6 +50,9 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
     public static final Object SELF_REFERENCE = new Object();
     public static final Object NULL_VALUE = new Object();
 
+    // Maximum number of result set rows read by one remote call
+    public static final int RESULT_PAGE_SIZE = 200;
+
     private final DPIContext context;
     private final String objectId;
     private final String objectType;
@@ -53,6 +62,12 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
     private Map<String, Object> objectContainers;
     private Map<String, Object> propertyValues;
     private Map<Class<?>, Object> factoryObjects;
+    // Current page of the remote result set. Remote cursor is positioned after the last row of the page.
+    private DPIResultPage resultPage;
+    private int resultPageRow;
+    // Position of the next page as reported by the server, -1 if unknown
+    private long resultOffset;
+    private Map<String, Integer> resultAttributeIndexes;
 
     public DPIClientProxy(
         @NotNull DPIContext context,
@@ -172,6 +187,36 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
             return null;
         }
 
+        if (objectInstance instanceof DBCResultSet) {
+            switch (methodName) {
+                case "nextRow":
+                    if (args == null) {
+                        return nextResultRow();
+                    }
+                    break;
+                case "getAttributeValue":
+                    if (resultPage != null && args != null && args.length == 1) {
+                        return getResultValue(args[0]);
+                    }
+                    break;
+                case "moveTo":
+                    resultPage = null;
+                    resultOffset = -1;
+                    break;
+            }
+        }
+        if (objectInstance instanceof DBPCloseableObject && methodName.equals("close") && args == null &&
+            context.getDpiController() instanceof DPIChannelClient channelClient
+        ) {
+            // Close doesn't return anything, so it is sent together with the next call
+            try {
+                channelClient.postMethod(objectId, methodName, null);
+            } catch (DBException e) {
+                log.debug("Error closing remote object: " + e.getMessage());
+            }
+            return null;
+        }
+
         DPIContainer containerAnno = DPISerializer.getMethodAnno(method, DPIContainer.class);
         if (containerAnno != null) {
             if (containerAnno.root()) {
@@ -250,6 +295,57 @@ public class DPIClientProxy implements DPIClientObject, InvocationHandler {
         return result;
     }
 
+    /**
+     * Moves to the next row of the current result page. Next page is read when the current one is over.
+     */
+    private boolean nextResultRow() throws DBException {
+        if (resultPage != null) {
+            if (resultPageRow + 1 < resultPage.getRowCount()) {
+                resultPageRow++;
+                return true;
+            }
+            if (resultPage.isLastPage()) {
+                resultPageRow = resultPage.getRowCount();
+                return false;
+            }
+        }
+        DPIController controller = context.getDpiController();
+        if (controller == null) {
+            throw new DBException("No DPI controller in client context");
+        }
+        resultPage = controller.fetchResultPage(objectId, resultOffset, RESULT_PAGE_SIZE);
+        resultOffset = resultPage.getNextOffset();
+        resultPageRow = 0;
+        return resultPage.getRowCount() > 0;
+    }
+
+    private Object getResultValue(@Nullable Object attribute) throws DBCException {
+        int index;
+        if (attribute instanceof Integer attrIndex) {
+            index = attrIndex;
+        } else {
+            index = getResultAttributeIndex(String.valueOf(attribute));
+        }
+        if (resultPageRow >= resultPage.getRowCount() || index < 0 || index >= resultPage.getColumnCount()) {
+            throw new DBCException("No value of attribute '" + attribute + "' in current result set row");
+        }
+        return resultPage.getValue(resultPageRow, index);
+    }
+
+    private int getResultAttributeIndex(@NotNull String name) throws DBCException {
+        if (resultAttributeIndexes == null) {
+            Map<String, Integer> indexes = new HashMap<>();
+            List<DBCAttributeMetaData> attributes = ((DBCResultSet) objectInstance).getMeta().getAttributes();
+            for (int i = 0; i < attributes.size(); i++) {
+                indexes.putIfAbsent(attributes.get(i).getLabel(), i);
+                indexes.putIfAbsent(attributes.get(i).getName(), i);
+            }
+            resultAttributeIndexes = indexes;
+        }
+        Integer index = resultAttributeIndexes.get(name);
+        return index == null ? -1 : index;
+    }
+
     private void cachePropertyValue(String propertyName, Object value) {
         if (propertyValues == null) {
             propertyValues = new HashMap<>();
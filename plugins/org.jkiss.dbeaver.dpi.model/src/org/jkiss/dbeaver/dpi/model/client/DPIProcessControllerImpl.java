@@ -16,12 +16,14 @@
  */
 package org.jkiss.dbeaver.dpi.model.client;
 
+import com.google.gson.Gson;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.dpi.model.DPIConstants;
 import org.jkiss.dbeaver.dpi.model.DPIContext;
 import org.jkiss.dbeaver.dpi.model.DPISerializer;
+import org.jkiss.dbeaver.dpi.model.channel.DPIChannelClient;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.dpi.DPIController;
 import org.jkiss.dbeaver.model.dpi.DPIProcessController;
@@ -46,7 +48,9 @@ public class DPIProcessControllerImpl implements DPIProcessController {
 
     public static final int PROCESS_PAWN_TIMEOUT = 10000;
     private DPIController dpiRestClient;
+    private DPIController dpiClient;
     private int dpiServerPort;
+    private int dpiChannelPort;
     private final Process process;
 
 
@@ -68,6 +72,7 @@ public class DPIProcessControllerImpl implements DPIProcessController {
             if (Files.exists(serverConfigFile)) {
                 Map<String, String> props = ConfigUtils.readPropertiesFromFile(serverConfigFile);
                 dpiServerPort = CommonUtils.toInt(props.get(DPIConstants.PARAM_SERVER_PORT));
+                dpiChannelPort = CommonUtils.toInt(props.get(DPIConstants.PARAM_CHANNEL_PORT));
                 if (dpiServerPort == 0) {
                     // Maybe it was incomplete config file
                     continue;
@@ -87,10 +92,11 @@ public class DPIProcessControllerImpl implements DPIProcessController {
             throw new IOException("Child DPI process start is failed (" + process.exitValue() + ")");
         }
 
+        Gson gson = DPISerializer.createSerializer(dpiContext);
         try {
             dpiRestClient = RestClient
                 .builder(getRemoteEndpoint(), DPIController.class)
-                .setGson(DPISerializer.createSerializer(dpiContext))
+                .setGson(gson)
                 .create();
 
             validateRestClient();
@@ -98,10 +104,38 @@ public class DPIProcessControllerImpl implements DPIProcessController {
             terminateChildProcess();
             throw new IOException("Error connecting to DPI Server", e);
         }
-        dpiContext.setController(dpiRestClient);
+        dpiClient = openChannelClient(gson);
+        dpiContext.setController(dpiClient);
+    }
+
+    /**
+     * Connects to the binary channel of the detached process.
+     * REST client is used if channel is not available (and as a fallback when channel breaks).
+     */
+    @NotNull
+    private DPIController openChannelClient(@NotNull Gson gson) {
+        if (dpiChannelPort <= 0) {
+            return dpiRestClient;
+        }
+        DPIChannelClient channelClient = null;
+        try {
+            channelClient = new DPIChannelClient(dpiChannelPort, gson, dpiRestClient);
+            channelClient.ping();
+            return channelClient;
+        } catch (Throwable e) {
+            log.debug("DPI channel is not available, REST transport will be used: " + e.getMessage());
+            if (channelClient != null) {
+                channelClient.close();
+            }
+            return dpiRestClient;
+        }
     }
 
     private void terminateChildProcess() {
+        if (dpiClient != null && dpiClient != dpiRestClient) {
+            dpiClient.close();
+        }
+        dpiClient = null;
         if (dpiRestClient != null) {
             try {
                 dpiRestClient.close();
@@ -133,7 +167,7 @@ public class DPIProcessControllerImpl implements DPIProcessController {
     }
 
     public DPIController getClient() {
-        return dpiRestClient;
+        return dpiClient;
     }
 
     @Override
@@ -39,6 +39,9 @@ public class DiagramObjectCollector {
 
     private static final Log log = Log.getLog(DiagramObjectCollector.class);
 
+    // Structure of the whole container is read if diagram contains at least this number of its tables
+    private static final int BATCH_LOAD_MIN_TABLES = 10;
+
     private final ERDDiagram diagram;
     private final List<ERDEntity> erdEntities = new ArrayList<>();
     private boolean showViews;
@@ -147,6 +150,7 @@ public class DiagramObjectCollector {
         throws DBException
     {
         Collection<DBSEntity> tables = collectTables(monitor, roots, settings, showViews);
+        cacheTableContainers(monitor, tables);
         for (DBSEntity table : tables) {
             if (DBUtils.isHiddenObject(table)) {
                 // Skip hidden tables
@@ -161,6 +165,33 @@ public class DiagramObjectCollector {
         }
     }
 
+    /**
+     * Reads attributes and associations of all tables of the same container at once.
+     * Otherwise they are read table by table which is slow for large schemas.
+     */
+    private static void cacheTableContainers(DBRProgressMonitor monitor, Collection<DBSEntity> tables) {
+        Map<DBSObjectContainer, Integer> containers = new LinkedHashMap<>();
+        for (DBSEntity table : tables) {
+            if (table.getParentObject() instanceof DBSObjectContainer container) {
+                containers.merge(container, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<DBSObjectContainer, Integer> entry : containers.entrySet()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            if (entry.getValue() >= BATCH_LOAD_MIN_TABLES) {
+                monitor.subTask("Read structure of '" + entry.getKey().getName() + "'");
+                try {
+                    entry.getKey().cacheStructure(monitor, DBSObjectContainer.STRUCT_ATTRIBUTES | DBSObjectContainer.STRUCT_ASSOCIATIONS);
+                } catch (DBException e) {
+                    // Tables will be read one by one
+                    log.debug("Error reading structure of '" + entry.getKey().getName() + "'", e);
+                }
+            }
+        }
+    }
+
     private void addDiagramEntity(DBRProgressMonitor monitor, DBSEntity table)
     {
         if (diagram.containsTable(table) && !diagram.getContentProvider().allowEntityDuplicates()) {
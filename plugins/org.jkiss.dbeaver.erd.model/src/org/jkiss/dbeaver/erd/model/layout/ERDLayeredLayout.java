@@ -0,0 +1,445 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.erd.model.layout;
+
+import java.util.*;
+
+/**
+ * Layered diagram layout which doesn't depend on UI and may be computed in a background thread.
+ * <p>
+ * The graph is split into connected components. Each component is laid out independently (in parallel) with
+ * layers going from left to right: cycles are broken by depth-first search, nodes are assigned to the longest path
+ * layers, and crossings are reduced with a fixed number of barycenter sweeps. Layers which are too tall are
+ * wrapped into several columns. Laid out components are packed into rows.
+ */
+public class ERDLayeredLayout {
+
+    public static final int MAX_CROSSING_SWEEPS = 4;
+
+    private static final double PACKING_ASPECT_RATIO = 1.6;
+
+    private final int horizontalSpacing;
+    private final int verticalSpacing;
+
+    private int nodeCount;
+    private int[] widths = new int[64];
+    private int[] heights = new int[64];
+    private int edgeCount;
+    private int[] edgeSources = new int[64];
+    private int[] edgeTargets = new int[64];
+
+    private int[] xs;
+    private int[] ys;
+    private int totalWidth;
+    private int totalHeight;
+
+    public ERDLayeredLayout(int horizontalSpacing, int verticalSpacing) {
+        this.horizontalSpacing = horizontalSpacing;
+        this.verticalSpacing = verticalSpacing;
+    }
+
+    /**
+     * Adds node and returns its index
+     */
+    public int addNode(int width, int height) {
+        if (nodeCount == widths.length) {
+            widths = Arrays.copyOf(widths, nodeCount * 2);
+            heights = Arrays.copyOf(heights, nodeCount * 2);
+        }
+        widths[nodeCount] = Math.max(width, 0);
+        heights[nodeCount] = Math.max(height, 0);
+        return nodeCount++;
+    }
+
+    /**
+     * Adds directed edge. Source nodes are placed to the left of target nodes (unless edge makes a cycle).
+     */
+    public void addEdge(int source, int target) {
+        if (source < 0 || source >= nodeCount || target < 0 || target >= nodeCount) {
+            throw new IllegalArgumentException("Bad edge " + source + " -> " + target);
+        }
+        if (source == target) {
+            return;
+        }
+        if (edgeCount == edgeSources.length) {
+            edgeSources = Arrays.copyOf(edgeSources, edgeCount * 2);
+            edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+        }
+        edgeSources[edgeCount] = source;
+        edgeTargets[edgeCount] = target;
+        edgeCount++;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Computes node locations
+     */
+    public void layout() {
+        xs = new int[nodeCount];
+        ys = new int[nodeCount];
+        totalWidth = 0;
+        totalHeight = 0;
+        if (nodeCount == 0) {
+            return;
+        }
+        int[][] outgoing = buildAdjacency(edgeSources, edgeTargets);
+        int[][] incoming = buildAdjacency(edgeTargets, edgeSources);
+        int[] localIndexes = new int[nodeCount];
+        List<Component> components = findComponents(localIndexes);
+        // Components don't share nodes, so each one writes its own slots of coordinate arrays
+        components.parallelStream().forEach(c -> c.layout(outgoing, incoming, localIndexes));
+        packComponents(components);
+    }
+
+    public int getX(int node) {
+        return xs[node];
+    }
+
+    public int getY(int node) {
+        return ys[node];
+    }
+
+    public int getTotalWidth() {
+        return totalWidth;
+    }
+
+    public int getTotalHeight() {
+        return totalHeight;
+    }
+
+    private int[][] buildAdjacency(int[] from, int[] to) {
+        int[] counts = new int[nodeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            counts[from[i]]++;
+        }
+        int[][] result = new int[nodeCount][];
+        for (int i = 0; i < nodeCount; i++) {
+            result[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            result[from[i]][counts[from[i]]++] = to[i];
+        }
+        return result;
+    }
+
+    private List<Component> findComponents(int[] localIndexes) {
+        int[] parents = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            parents[i] = i;
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            int a = findRoot(parents, edgeSources[i]);
+            int b = findRoot(parents, edgeTargets[i]);
+            if (a != b) {
+                parents[Math.max(a, b)] = Math.min(a, b);
+            }
+        }
+        // Component roots are their smallest nodes, so components keep order of nodes
+        int[] sizes = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            sizes[findRoot(parents, i)]++;
+        }
+        Component[] byRoot = new Component[nodeCount];
+        List<Component> components = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            int root = parents[i];
+            if (byRoot[root] == null) {
+                byRoot[root] = new Component(sizes[root]);
+                components.add(byRoot[root]);
+            }
+            Component component = byRoot[root];
+            localIndexes[i] = component.size;
+            component.nodes[component.size++] = i;
+        }
+        return components;
+    }
+
+    private static int findRoot(int[] parents, int node) {
+        while (parents[node] != node) {
+            parents[node] = parents[parents[node]];
+            node = parents[node];
+        }
+        return node;
+    }
+
+    private void packComponents(List<Component> components) {
+        long totalArea = 0;
+        int maxComponentWidth = 0;
+        for (Component component : components) {
+            totalArea += (long) (component.width + horizontalSpacing) * (component.height + verticalSpacing);
+            maxComponentWidth = Math.max(maxComponentWidth, component.width);
+        }
+        int rowWidth = Math.max(maxComponentWidth, (int) Math.sqrt(totalArea * PACKING_ASPECT_RATIO));
+
+        // Tall components go first so rows have similar heights
+        List<Component> sorted = new ArrayList<>(components);
+        sorted.sort(Comparator.comparingInt((Component c) -> c.height).reversed());
+        int x = 0, y = 0, currentRowHeight = 0;
+        for (Component component : sorted) {
+            if (x > 0 && x + component.width > rowWidth) {
+                x = 0;
+                y += currentRowHeight + verticalSpacing;
+                currentRowHeight = 0;
+            }
+            for (int i = 0; i < component.size; i++) {
+                int node = component.nodes[i];
+                xs[node] += x;
+                ys[node] += y;
+            }
+            totalWidth = Math.max(totalWidth, x + component.width);
+            totalHeight = Math.max(totalHeight, y + component.height);
+            x += component.width + horizontalSpacing;
+            currentRowHeight = Math.max(currentRowHeight, component.height);
+        }
+    }
+
+    private class Component {
+        private final int[] nodes;
+        private int size;
+        private int width;
+        private int height;
+
+        Component(int capacity) {
+            this.nodes = new int[capacity];
+        }
+
+        void layout(int[][] outgoing, int[][] incoming, int[] localIndexes) {
+            if (size == 1) {
+                int node = nodes[0];
+                width = widths[node];
+                height = heights[node];
+                return;
+            }
+            int[][] successors = toLocal(outgoing, localIndexes);
+            int[][] predecessors = toLocal(incoming, localIndexes);
+
+            int[] order = topologicalOrder(successors);
+            int[] rank = new int[size];
+            for (int i = 0; i < size; i++) {
+                rank[order[i]] = i;
+            }
+            int[] layers = assignLayers(order, rank, successors, predecessors);
+            List<int[]> layerNodes = orderLayers(order, layers, successors, predecessors);
+            placeNodes(layerNodes);
+        }
+
+        private int[][] toLocal(int[][] adjacency, int[] localIndexes) {
+            int[][] result = new int[size][];
+            for (int i = 0; i < size; i++) {
+                int[] global = adjacency[nodes[i]];
+                int[] local = new int[global.length];
+                for (int k = 0; k < global.length; k++) {
+                    local[k] = localIndexes[global[k]];
+                }
+                result[i] = local;
+            }
+            return result;
+        }
+
+        /**
+         * Reverse DFS post-order. Edges which go backwards in this order close cycles and are ignored by layering.
+         */
+        private int[] topologicalOrder(int[][] successors) {
+            int[] order = new int[size];
+            int orderPos = size;
+            boolean[] visited = new boolean[size];
+            int[] stack = new int[size];
+            int[] edgePos = new int[size];
+            for (int start = 0; start < size; start++) {
+                if (visited[start]) {
+                    continue;
+                }
+                int depth = 0;
+                stack[0] = start;
+                visited[start] = true;
+                while (depth >= 0) {
+                    int node = stack[depth];
+                    if (edgePos[node] < successors[node].length) {
+                        int next = successors[node][edgePos[node]++];
+                        if (!visited[next]) {
+                            visited[next] = true;
+                            stack[++depth] = next;
+                        }
+                    } else {
+                        order[--orderPos] = node;
+                        depth--;
+                    }
+                }
+            }
+            return order;
+        }
+
+        private int[] assignLayers(int[] order, int[] rank, int[][] successors, int[][] predecessors) {
+            int[] layers = new int[size];
+            for (int node : order) {
+                for (int next : successors[node]) {
+                    if (rank[next] > rank[node]) {
+                        layers[next] = Math.max(layers[next], layers[node] + 1);
+                    }
+                }
+            }
+            // Longest path layering puts all sources into the first layer. Move them next to their targets.
+            for (int i = size - 1; i >= 0; i--) {
+                int node = order[i];
+                boolean hasPredecessors = false;
+                for (int prev : predecessors[node]) {
+                    if (rank[prev] < rank[node]) {
+                        hasPredecessors = true;
+                        break;
+                    }
+                }
+                int minTargetLayer = Integer.MAX_VALUE;
+                for (int next : successors[node]) {
+                    if (rank[next] > rank[node]) {
+                        minTargetLayer = Math.min(minTargetLayer, layers[next]);
+                    }
+                }
+                if (!hasPredecessors && minTargetLayer != Integer.MAX_VALUE) {
+                    layers[node] = minTargetLayer - 1;
+                }
+            }
+            return layers;
+        }
+
+        private List<int[]> orderLayers(int[] order, int[] layers, int[][] successors, int[][] predecessors) {
+            int layerCount = 0;
+            for (int layer : layers) {
+                layerCount = Math.max(layerCount, layer + 1);
+            }
+            int[] layerSizes = new int[layerCount];
+            for (int layer : layers) {
+                layerSizes[layer]++;
+            }
+            List<int[]> layerNodes = new ArrayList<>(layerCount);
+            for (int i = 0; i < layerCount; i++) {
+                layerNodes.add(new int[layerSizes[i]]);
+                layerSizes[i] = 0;
+            }
+            // Initial order follows DFS, so connected nodes are already close
+            for (int node : order) {
+                layerNodes.get(layers[node])[layerSizes[layers[node]]++] = node;
+            }
+
+            double[] positions = new double[size];
+            for (int[] nodesInLayer : layerNodes) {
+                updatePositions(nodesInLayer, positions);
+            }
+            for (int sweep = 0; sweep < MAX_CROSSING_SWEEPS; sweep++) {
+                for (int i = 1; i < layerCount; i++) {
+                    sortByBarycenter(layerNodes.get(i), successors, predecessors, layers, true, positions);
+                }
+                for (int i = layerCount - 2; i >= 0; i--) {
+                    sortByBarycenter(layerNodes.get(i), successors, predecessors, layers, false, positions);
+                }
+            }
+            return layerNodes;
+        }
+
+        /**
+         * Sorts layer nodes by average position of their neighbors in previous (lower) or next layers
+         */
+        private void sortByBarycenter(int[] nodesInLayer, int[][] successors, int[][] predecessors, int[] layers, boolean lower, double[] positions) {
+            double[] barycenters = new double[size];
+            for (int node : nodesInLayer) {
+                double sum = 0;
+                int count = 0;
+                for (int[] neighbors : new int[][]{successors[node], predecessors[node]}) {
+                    for (int neighbor : neighbors) {
+                        if (lower ? layers[neighbor] < layers[node] : layers[neighbor] > layers[node]) {
+                            sum += positions[neighbor];
+                            count++;
+                        }
+                    }
+                }
+                barycenters[node] = count == 0 ? positions[node] : sum / count;
+            }
+            Integer[] sorted = new Integer[nodesInLayer.length];
+            for (int i = 0; i < nodesInLayer.length; i++) {
+                sorted[i] = nodesInLayer[i];
+            }
+            Arrays.sort(sorted, Comparator.comparingDouble(node -> barycenters[node]));
+            for (int i = 0; i < nodesInLayer.length; i++) {
+                nodesInLayer[i] = sorted[i];
+            }
+            updatePositions(nodesInLayer, positions);
+        }
+
+        private void updatePositions(int[] nodesInLayer, double[] positions) {
+            for (int i = 0; i < nodesInLayer.length; i++) {
+                positions[nodesInLayer[i]] = (i + 0.5) / nodesInLayer.length;
+            }
+        }
+
+        private void placeNodes(List<int[]> layerNodes) {
+            long area = 0;
+            int maxNodeHeight = 0;
+            for (int i = 0; i < size; i++) {
+                int node = nodes[i];
+                area += (long) (widths[node] + horizontalSpacing) * (heights[node] + verticalSpacing);
+                maxNodeHeight = Math.max(maxNodeHeight, heights[node]);
+            }
+            // Wrap tall layers into several columns to keep diagram readable
+            int maxColumnHeight = Math.max(maxNodeHeight, (int) Math.sqrt(area / PACKING_ASPECT_RATIO));
+
+            int x = 0;
+            List<int[]> columns = new ArrayList<>();
+            List<Integer> columnHeights = new ArrayList<>();
+            for (int[] nodesInLayer : layerNodes) {
+                if (nodesInLayer.length == 0) {
+                    continue;
+                }
+                int columnStart = 0, columnHeight = 0;
+                for (int i = 0; i <= nodesInLayer.length; i++) {
+                    int nodeHeight = i < nodesInLayer.length ? heights[nodes[nodesInLayer[i]]] : 0;
+                    if (i == nodesInLayer.length || (i > columnStart && columnHeight + verticalSpacing + nodeHeight > maxColumnHeight)) {
+                        int[] column = Arrays.copyOfRange(nodesInLayer, columnStart, i);
+                        int columnWidth = 0;
+                        for (int node : column) {
+                            columnWidth = Math.max(columnWidth, widths[nodes[node]]);
+                            xs[nodes[node]] = x;
+                        }
+                        columns.add(column);
+                        columnHeights.add(columnHeight);
+                        x += columnWidth + horizontalSpacing;
+                        columnStart = i;
+                        columnHeight = nodeHeight;
+                    } else {
+                        columnHeight += (i > columnStart ? verticalSpacing : 0) + nodeHeight;
+                    }
+                }
+            }
+            width = x - horizontalSpacing;
+            height = 0;
+            for (int columnHeight : columnHeights) {
+                height = Math.max(height, columnHeight);
+            }
+            // Center columns vertically
+            for (int i = 0; i < columns.size(); i++) {
+                int y = (height - columnHeights.get(i)) / 2;
+                for (int node : columns.get(i)) {
+                    ys[nodes[node]] = y;
+                    y += heights[nodes[node]] + verticalSpacing;
+                }
+            }
+        }
+    }
+
+}
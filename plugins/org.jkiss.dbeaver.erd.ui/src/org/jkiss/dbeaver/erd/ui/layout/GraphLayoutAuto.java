@@ -19,25 +19,48 @@
  */
 package org.jkiss.dbeaver.erd.ui.layout;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.draw2d.AbstractLayout;
 import org.eclipse.draw2d.Animation;
 import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Insets;
 import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.gef.EditPart;
+import org.eclipse.gef.GraphicalEditPart;
+import org.eclipse.gef.editparts.AbstractConnectionEditPart;
+import org.jkiss.dbeaver.erd.model.layout.ERDLayeredLayout;
 import org.jkiss.dbeaver.erd.ui.layout.algorithm.direct.DirectedGraphLayoutVisitor;
+import org.jkiss.dbeaver.erd.ui.part.AttributePart;
 import org.jkiss.dbeaver.erd.ui.part.DiagramPart;
+import org.jkiss.dbeaver.erd.ui.part.NodePart;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.ui.UIUtils;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
- * Uses the DirectedGraphLayoutVisitor to automatically lay out figures on diagram
+ * Uses the DirectedGraphLayoutVisitor to automatically lay out figures on diagram.
+ * Large diagrams are laid out by ERDLayeredLayout in a background job, results are applied to figures in one pass.
  * @author Serge Rider
  */
 public class GraphLayoutAuto extends AbstractLayout
 {
 
+	/**
+	 * Diagrams with at least this number of nodes are laid out in background
+	 */
+	public static final int BACKGROUND_LAYOUT_MIN_NODES = 200;
+
 	private DiagramPart diagram;
+	private LayoutResult pendingResult;
+	private LayoutResult lastResult;
 
 	public GraphLayoutAuto(DiagramPart diagram)
 	{
@@ -62,6 +85,11 @@ public class GraphLayoutAuto extends AbstractLayout
 	@Override
     public void layout(IFigure container)
 	{
+		List<NodePart> nodeParts = getNodeParts();
+		if (nodeParts.size() >= BACKGROUND_LAYOUT_MIN_NODES) {
+			layoutInBackground(nodeParts);
+			return;
+		}
         Animation.markBegin();
 /*
 		GraphAnimation.recordInitialState(container);
@@ -76,5 +104,139 @@ public class GraphLayoutAuto extends AbstractLayout
 
         Animation.run(400);
 	}
+
+	private List<NodePart> getNodeParts()
+	{
+		List<NodePart> nodeParts = new ArrayList<>();
+		for (Object child : diagram.getChildren()) {
+			if (child instanceof NodePart nodePart && nodePart.getFigure() != null) {
+				nodeParts.add(nodePart);
+			}
+		}
+		return nodeParts;
+	}
+
+	private void layoutInBackground(List<NodePart> nodeParts)
+	{
+		Dimension[] sizes = new Dimension[nodeParts.size()];
+		for (int i = 0; i < sizes.length; i++) {
+			sizes[i] = nodeParts.get(i).getFigure().getPreferredSize();
+		}
+		if (lastResult != null && lastResult.matches(nodeParts, sizes)) {
+			// Diagram is revalidated after the results are applied
+			lastResult.apply();
+			return;
+		}
+		if (pendingResult != null && pendingResult.matches(nodeParts, sizes)) {
+			return;
+		}
+
+		Insets padding = diagram.getDiagram().getDecorator().getDefaultEntityInsets();
+		ERDLayeredLayout graph = new ERDLayeredLayout(padding.getWidth(), padding.getHeight());
+		Map<EditPart, Integer> nodeIndexes = new IdentityHashMap<>();
+		for (int i = 0; i < sizes.length; i++) {
+			NodePart nodePart = nodeParts.get(i);
+			nodeIndexes.put(nodePart, graph.addNode(sizes[i].width, sizes[i].height));
+			// Keep figures where they are until the layout is ready
+			IFigure figure = nodePart.getFigure();
+			figure.setBounds(new Rectangle(figure.getBounds().getLocation(), sizes[i]));
+		}
+		for (NodePart nodePart : nodeParts) {
+			addEdges(graph, nodeIndexes, nodePart);
+			for (Object child : nodePart.getChildren()) {
+				if (child instanceof AttributePart attributePart) {
+					addEdges(graph, nodeIndexes, attributePart);
+				}
+			}
+		}
+
+		LayoutResult result = new LayoutResult(nodeParts, sizes, graph);
+		pendingResult = result;
+		new AbstractJob("Layout diagram") {
+			{
+				setUser(false);
+				setSystem(true);
+			}
+
+			@Override
+			protected IStatus run(DBRProgressMonitor monitor) {
+				graph.layout();
+				UIUtils.asyncExec(() -> applyBackgroundLayout(result));
+				return Status.OK_STATUS;
+			}
+		}.schedule();
+	}
+
+	private static void addEdges(ERDLayeredLayout graph, Map<EditPart, Integer> nodeIndexes, GraphicalEditPart part)
+	{
+		for (Object connection : part.getSourceConnections()) {
+			if (connection instanceof AbstractConnectionEditPart connectionPart) {
+				Integer source = getNodeIndex(nodeIndexes, connectionPart.getSource());
+				Integer target = getNodeIndex(nodeIndexes, connectionPart.getTarget());
+				if (source != null && target != null) {
+					graph.addEdge(source, target);
+				}
+			}
+		}
+	}
+
+	private static Integer getNodeIndex(Map<EditPart, Integer> nodeIndexes, EditPart part)
+	{
+		if (part == null) {
+			return null;
+		}
+		Integer index = nodeIndexes.get(part);
+		return index != null ? index : nodeIndexes.get(part.getParent());
+	}
+
+	private void applyBackgroundLayout(LayoutResult result)
+	{
+		if (pendingResult != result || !diagram.isActive()) {
+			return;
+		}
+		pendingResult = null;
+		lastResult = result;
+		result.apply();
+		diagram.setTableModelBounds();
+		diagram.setTableFigureBounds(true);
+		diagram.getFigure().revalidate();
+	}
+
+	private class LayoutResult {
+		private final List<NodePart> nodeParts;
+		private final Dimension[] sizes;
+		private final ERDLayeredLayout graph;
+
+		LayoutResult(List<NodePart> nodeParts, Dimension[] sizes, ERDLayeredLayout graph) {
+			this.nodeParts = nodeParts;
+			this.sizes = sizes;
+			this.graph = graph;
+		}
+
+		boolean matches(List<NodePart> parts, Dimension[] partSizes) {
+			if (parts.size() != nodeParts.size()) {
+				return false;
+			}
+			for (int i = 0; i < partSizes.length; i++) {
+				if (parts.get(i) != nodeParts.get(i) || !partSizes[i].equals(sizes[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void apply() {
+			Dimension snapSize = diagram.getDiagram().getDecorator().getEntitySnapSize();
+			for (int i = 0; i < sizes.length; i++) {
+				int x = graph.getX(i);
+				int y = graph.getY(i);
+				if (snapSize != null) {
+					x = x / snapSize.width * snapSize.width;
+					y = y / snapSize.height * snapSize.height;
+				}
+				nodeParts.get(i).getFigure().setBounds(new Rectangle(x, y, sizes[i].width, sizes[i].height));
+			}
+		}
+	}
 	
 }
\ No newline at end of file
@@ -18,6 +18,7 @@ package org.jkiss.dbeaver.ext.mssql.model.session;
 
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.admin.sessions.AbstractServerSession;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionActivity;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.meta.Property;
 
@@ -28,7 +29,7 @@ import java.util.Objects;
 /**
  * SQL Server session
  */
-public class SQLServerSession extends AbstractServerSession {
+public class SQLServerSession extends AbstractServerSession implements DBAServerSessionActivity {
     private static final String CAT_CLIENT = "Client";
     private static final String CAT_TIMING = "Timings";
 
@@ -62,6 +63,7 @@ public class SQLServerSession extends AbstractServerSession {
     private final String databaseName;
 
     private String sqlText;
+    private String waitType;
 
     public SQLServerSession(ResultSet dbResult) {
         this.id = JDBCUtils.safeGetInt(dbResult, "session_id");
@@ -94,6 +96,7 @@ public class SQLServerSession extends AbstractServerSession {
         databaseName = JDBCUtils.safeGetString(dbResult, "database_name");
 
         sqlText = JDBCUtils.safeGetString(dbResult, "sql_text");
+        waitType = JDBCUtils.safeGetString(dbResult, "wait_type");
     }
 
     @Property(viewable = true, order = 1)
@@ -218,6 +221,21 @@ public class SQLServerSession extends AbstractServerSession {
         return sqlText;
     }
 
+    @Override
+    public boolean isSessionActive() {
+        return "running".equalsIgnoreCase(status);
+    }
+
+    @Override
+    public String getSessionState() {
+        return status;
+    }
+
+    @Override
+    public String getSessionWaitEvent() {
+        return waitType;
+    }
+
     @Override
     public String toString()
     {
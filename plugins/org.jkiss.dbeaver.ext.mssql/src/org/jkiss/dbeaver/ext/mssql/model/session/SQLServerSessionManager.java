@@ -103,6 +103,7 @@ public class SQLServerSessionManager implements DBAServerSessionManager<SQLServe
         } else {
             sql.append("NULL as database_name,");
         }
+        sql.append("(select top 1 r.wait_type from sys.dm_exec_requests r where r.session_id=s.session_id) as wait_type,");
         sql.append("c.connection_id,(select text from sys.dm_exec_sql_text(c.most_recent_sql_handle)) as sql_text\n")
             .append("FROM sys.dm_exec_sessions s\n");
         if (onlyConnections) {
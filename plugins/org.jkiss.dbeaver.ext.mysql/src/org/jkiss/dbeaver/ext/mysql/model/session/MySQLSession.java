@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.ext.mysql.model.session;
 
 import org.jkiss.dbeaver.model.admin.sessions.AbstractServerSession;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionActivity;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.meta.IPropertyValueValidator;
 import org.jkiss.dbeaver.model.meta.Property;
@@ -29,7 +30,7 @@ import java.util.Objects;
 /**
  * MySQL session
  */
-public class MySQLSession extends AbstractServerSession {
+public class MySQLSession extends AbstractServerSession implements DBAServerSessionActivity {
 
     static final String CAT_PERFORMANCE = "Performance";
 
@@ -231,6 +232,21 @@ public class MySQLSession extends AbstractServerSession {
         return readPerformanceStats;
     }
 
+    @Override
+    public boolean isSessionActive() {
+        return command != null && !"Sleep".equalsIgnoreCase(command) && !"Daemon".equalsIgnoreCase(command);
+    }
+
+    @Override
+    public String getSessionState() {
+        return command;
+    }
+
+    @Override
+    public String getSessionWaitEvent() {
+        return state;
+    }
+
     @Override
     public String toString()
     {
@@ -23,7 +23,7 @@ import org.jkiss.dbeaver.model.app.DBPPlatform;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.data.storage.BytesContentStorage;
-import org.jkiss.dbeaver.model.data.storage.TemporaryContentStorage;
+import org.jkiss.dbeaver.model.data.storage.SpillContentStore;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
@@ -38,9 +38,6 @@ import org.jkiss.utils.BeanUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
 
 /**
  * BFILE content
@@ -154,25 +151,17 @@ public class OracleContentBFILE extends JDBCContentLOB {
                         throw new DBCException("IO error while reading content", e);
                     }
                 } else {
-                    // Create new local storage
-                    Path tempFile;
-                    try {
-                        tempFile = ContentUtils.createTempContentFile(monitor, platform, "blob" + bfile.hashCode());
-                    } catch (IOException e) {
-                        throw new DBCException("Can't create temporary file", e);
-                    }
-                    try (OutputStream os = Files.newOutputStream(tempFile)) {
+                    // Spill content to the shared store
+                    try (SpillContentStore.ContentWriter os = SpillContentStore.getInstance(monitor, platform).openWriter()) {
                         try (InputStream bs = getInputStream()) {
                             ContentUtils.copyStreams(bs, contentLength, os, monitor);
                         }
+                        this.storage = os.commit(getDefaultEncoding());
                     } catch (IOException e) {
-                        ContentUtils.deleteTempFile(tempFile);
                         throw new DBCException("IO error while copying stream", e);
                     } catch (Throwable e) {
-                        ContentUtils.deleteTempFile(tempFile);
                         throw new DBCException(e, executionContext);
                     }
-                    this.storage = new TemporaryContentStorage(platform, tempFile, getDefaultEncoding(), true);
                 }
                 // Free blob - we don't need it anymore
                 releaseBlob();
@@ -18,6 +18,7 @@ package org.jkiss.dbeaver.ext.oracle.model.session;
 
 import org.jkiss.dbeaver.ext.oracle.model.OracleConstants;
 import org.jkiss.dbeaver.model.admin.sessions.AbstractServerSession;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionActivity;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.meta.Property;
 
@@ -28,7 +29,7 @@ import java.util.Objects;
 /**
  * Session
  */
-public class OracleServerSession extends AbstractServerSession {
+public class OracleServerSession extends AbstractServerSession implements DBAServerSessionActivity {
 
     public static final String CAT_SESSION = "Session";
     public static final String CAT_SQL = "SQL";
@@ -269,6 +270,22 @@ public class OracleServerSession extends AbstractServerSession {
         return sqlId;
     }
 
+    @Override
+    public boolean isSessionActive() {
+        return "ACTIVE".equals(status);
+    }
+
+    @Override
+    public String getSessionState() {
+        return status;
+    }
+
+    @Override
+    public String getSessionWaitEvent() {
+        // Same as in ASH: session which doesn't wait is on CPU
+        return "WAITING".equals(state) ? event : "ON CPU";
+    }
+
     @Override
     public String toString() {
         return sid + " - " + event;
@@ -789,6 +789,15 @@ public class PostgreDialect extends JDBCSQLDialect implements TPRuleProvider, SQ
         return super.getStringEscapeCharacter();
     }
 
+    @Nullable
+    @Override
+    public String getSessionResetQuery() {
+        if (serverExtension != null && serverExtension.supportsDiscardAll()) {
+            return "DISCARD ALL";
+        }
+        return null;
+    }
+
     @Override
     public int getCatalogUsage() {
         return SQLDialect.USAGE_DML;
@@ -243,4 +243,9 @@ public interface PostgreServerExtension {
      * True if database can use pg_dump and pg_restore clients without errors.
      */
     boolean supportsNativeClient();
+
+    /**
+     * True if session state can be reset with DISCARD ALL.
+     */
+    boolean supportsDiscardAll();
 }
@@ -608,4 +608,9 @@ public abstract class PostgreServerExtensionBase implements PostgreServerExtensi
     public boolean supportsNativeClient() {
         return true;
     }
+
+    @Override
+    public boolean supportsDiscardAll() {
+        return false;
+    }
 }
@@ -95,4 +95,9 @@ public class PostgreServerPostgreSQL extends PostgreServerExtensionBase {
     public boolean supportsEventTriggers() {
         return dataSource.isServerVersionAtLeast(9, 3);
     }
+
+    @Override
+    public boolean supportsDiscardAll() {
+        return dataSource.isServerVersionAtLeast(8, 3);
+    }
 }
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.ext.postgresql.model.session;
 
 import org.jkiss.dbeaver.model.admin.sessions.AbstractServerSession;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionActivity;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.utils.CommonUtils;
@@ -28,7 +29,7 @@ import java.util.Objects;
 /**
  * PostgreSQL session
  */
-public class PostgreSession extends AbstractServerSession {
+public class PostgreSession extends AbstractServerSession implements DBAServerSessionActivity {
     private static final String CAT_CLIENT = "Client";
     private static final String CAT_TIMING = "Timings";
 
@@ -44,6 +45,8 @@ public class PostgreSession extends AbstractServerSession {
     private Date stateChange;
     private String state;
     private String appName;
+    private String waitEventType;
+    private String waitEvent;
 
     public PostgreSession(ResultSet dbResult) {
         this.pid = JDBCUtils.safeGetInt(dbResult, "pid");
@@ -63,6 +66,9 @@ public class PostgreSession extends AbstractServerSession {
 
         this.state = JDBCUtils.safeGetString(dbResult, "state");
         this.appName = JDBCUtils.safeGetString(dbResult, "application_name");
+        // Since 9.6
+        this.waitEventType = JDBCUtils.safeGetString(dbResult, "wait_event_type");
+        this.waitEvent = JDBCUtils.safeGetString(dbResult, "wait_event");
     }
 
     @Property(viewable = true, order = 1)
@@ -140,6 +146,24 @@ public class PostgreSession extends AbstractServerSession {
         return query;
     }
 
+    @Override
+    public boolean isSessionActive() {
+        return "active".equals(state);
+    }
+
+    @Override
+    public String getSessionState() {
+        return state;
+    }
+
+    @Override
+    public String getSessionWaitEvent() {
+        if (CommonUtils.isEmpty(waitEvent)) {
+            return null;
+        }
+        return CommonUtils.isEmpty(waitEventType) ? waitEvent : waitEventType + ":" + waitEvent;
+    }
+
     @Override
     public String toString()
     {
@@ -28,6 +28,7 @@ import org.jkiss.dbeaver.model.ai.completion.DAICompletionScope;
 import org.jkiss.dbeaver.model.ai.format.IAIFormatter;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContextDefaults;
+import org.jkiss.dbeaver.model.navigator.DBNModel;
 import org.jkiss.dbeaver.model.navigator.DBNUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
@@ -37,8 +38,10 @@ import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTable;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTablePartition;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.CommonUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class MetadataProcessor {
@@ -46,6 +49,11 @@ public class MetadataProcessor {
     private static final Log log = Log.getLog(MetadataProcessor.class);
 
     private static final boolean SUPPORTS_ATTRS = true;
+    // Digest keeps more entities than fit the request, so they can be ranked by relevance to the query
+    private static final int DIGEST_SIZE_FACTOR = 3;
+
+    private final SchemaDigestCache digestCache = new SchemaDigestCache();
+    private volatile boolean digestCacheRegistered;
 
     public String generateObjectDescription(
         @NotNull DBRProgressMonitor monitor,
@@ -102,6 +110,84 @@ public class MetadataProcessor {
         return description.toString();
     }
 
+    /**
+     * Builds descriptions of visible entities of the container and its nested containers.
+     * Containers are not loaded once descriptions exceed the token budget or the monitor is canceled.
+     */
+    @NotNull
+    public SchemaDigest buildSchemaDigest(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSObjectContainer container,
+        @Nullable DBCExecutionContext context,
+        @NotNull IAIFormatter formatter,
+        int maxTokens
+    ) throws DBException {
+        List<SchemaDigest.Entry> entries = new ArrayList<>();
+        long maxLength = (long) maxTokens * SchemaDigest.CHARS_PER_TOKEN * DIGEST_SIZE_FACTOR;
+        collectDigestEntries(monitor, container, context, formatter, entries, maxLength);
+        return new SchemaDigest(entries);
+    }
+
+    /**
+     * Returns the remaining description length
+     */
+    private long collectDigestEntries(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSObjectContainer container,
+        @Nullable DBCExecutionContext context,
+        @NotNull IAIFormatter formatter,
+        @NotNull List<SchemaDigest.Entry> entries,
+        long remainingLength
+    ) throws DBException {
+        if (monitor.isCanceled() || remainingLength <= 0) {
+            return remainingLength;
+        }
+        monitor.subTask("Load cache of " + container.getName());
+        container.cacheStructure(
+            monitor,
+            DBSObjectContainer.STRUCT_ENTITIES | DBSObjectContainer.STRUCT_ATTRIBUTES);
+        for (DBSObject child : container.getChildren(monitor)) {
+            if (monitor.isCanceled() || remainingLength <= 0) {
+                break;
+            }
+            if (DBUtils.isSystemObject(child) || DBUtils.isHiddenObject(child) || child instanceof DBSTablePartition) {
+                continue;
+            }
+            if (child instanceof DBSEntity entity) {
+                String description = generateObjectDescription(
+                    monitor,
+                    entity,
+                    context,
+                    formatter,
+                    Integer.MAX_VALUE / SchemaDigest.CHARS_PER_TOKEN,
+                    isRequiresFullyQualifiedName(entity, context)
+                );
+                if (description.isEmpty()) {
+                    continue;
+                }
+                List<String> attributeNames = new ArrayList<>();
+                List<? extends DBSEntityAttribute> attributes = entity.getAttributes(monitor);
+                if (attributes != null) {
+                    for (DBSEntityAttribute attribute : attributes) {
+                        attributeNames.add(attribute.getName());
+                    }
+                }
+                entries.add(new SchemaDigest.Entry(entity.getName(), attributeNames, description));
+                remainingLength -= description.length();
+            } else if (child instanceof DBSObjectContainer childContainer &&
+                DBNUtils.getNodeByObject(monitor, child, false) != null
+            ) {
+                remainingLength = collectDigestEntries(monitor, childContainer, context, formatter, entries, remainingLength);
+            }
+        }
+        return remainingLength;
+    }
+
+    @NotNull
+    public SchemaDigestCache getDigestCache() {
+        return digestCache;
+    }
+
     /**
      * Creates a new message containing completion metadata for the request
      */
@@ -114,6 +200,24 @@ public class MetadataProcessor {
         boolean isChatAPI,
         int maxRequestTokens,
         boolean chatCompletion
+    ) throws DBException {
+        return createMetadataMessage(monitor, context, mainObject, formatter, isChatAPI, maxRequestTokens, chatCompletion, null);
+    }
+
+    /**
+     * Creates a new message containing completion metadata for the request.
+     * Container entities are taken from the cached schema digest and ranked by relevance to the query text.
+     */
+    @NotNull
+    public DAICompletionMessage createMetadataMessage(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DAICompletionContext context,
+        @Nullable DBSObjectContainer mainObject,
+        @NotNull IAIFormatter formatter,
+        boolean isChatAPI,
+        int maxRequestTokens,
+        boolean chatCompletion,
+        @Nullable String queryText
     ) throws DBException {
         if (mainObject == null || mainObject.getDataSource() == null) {
             throw new DBException("Invalid completion request");
@@ -171,7 +275,7 @@ public class MetadataProcessor {
                     isRequiresFullyQualifiedName(entity, executionContext)
                 ));
             }
-        } else {
+        } else if (mainObject instanceof DBSEntity) {
             sb.append(
                 generateObjectDescription(
                 monitor,
@@ -181,6 +285,19 @@ public class MetadataProcessor {
                 remainingRequestTokens,
                 false
             ));
+        } else {
+            registerDigestCache();
+            DBCExecutionContextDefaults<?, ?> contextDefaults = executionContext.getContextDefaults();
+            SchemaDigest digest = digestCache.getDigest(
+                monitor,
+                mainObject,
+                formatter,
+                contextDefaults == null ? null : contextDefaults.getDefaultCatalog(),
+                contextDefaults == null ? null : contextDefaults.getDefaultSchema(),
+                remainingRequestTokens,
+                container -> buildSchemaDigest(monitor, container, executionContext, formatter, remainingRequestTokens)
+            );
+            sb.append(digest.render(queryText, remainingRequestTokens));
         }
 
         return new DAICompletionMessage(
@@ -217,6 +334,21 @@ public class MetadataProcessor {
         return prevAttribute;
     }
 
+    private void registerDigestCache() {
+        if (digestCacheRegistered) {
+            return;
+        }
+        synchronized (digestCache) {
+            if (!digestCacheRegistered) {
+                DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
+                if (navigatorModel != null) {
+                    navigatorModel.addListener(digestCache);
+                    digestCacheRegistered = true;
+                }
+            }
+        }
+    }
+
     private boolean isRequiresFullyQualifiedName(@NotNull DBSObject object, @Nullable DBCExecutionContext context) {
         if (context == null || context.getContextDefaults() == null) {
             return false;
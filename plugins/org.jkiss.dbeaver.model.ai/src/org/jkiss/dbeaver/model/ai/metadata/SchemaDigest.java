@@ -0,0 +1,174 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.ai.metadata;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+
+import java.util.*;
+
+/**
+ * Precomputed schema description for AI completion.
+ * <p>
+ * Contains descriptions of all container entities. Rendering ranks entities by relevance
+ * to identifiers of the current request and truncates the result to the token budget,
+ * so the database model is not walked for each request.
+ */
+public final class SchemaDigest {
+
+    private static final Log log = Log.getLog(SchemaDigest.class);
+
+    /**
+     * Rough estimation of text characters per prompt token
+     */
+    public static final int CHARS_PER_TOKEN = 3;
+
+    private static final int SCORE_NAME = 4;
+    private static final int SCORE_NAME_PART = 2;
+    private static final int SCORE_ATTRIBUTE = 1;
+
+    private final List<Entry> entries;
+
+    public SchemaDigest(@NotNull List<Entry> entries) {
+        this.entries = List.copyOf(entries);
+    }
+
+    @NotNull
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Renders entity descriptions which fit into the token budget.
+     * Entities referenced by the query text go first, others keep their original order.
+     */
+    @NotNull
+    public String render(@Nullable String queryText, int maxTokens) {
+        final long maxLength = (long) maxTokens * CHARS_PER_TOKEN;
+        final Set<String> identifiers = extractIdentifiers(queryText);
+        final List<Entry> ranked;
+        if (identifiers.isEmpty()) {
+            ranked = entries;
+        } else {
+            int[] scores = new int[entries.size()];
+            Integer[] order = new Integer[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                scores[i] = entries.get(i).getScore(identifiers);
+                order[i] = i;
+            }
+            // Stable sort keeps original order of entities with the same score
+            Arrays.sort(order, (o1, o2) -> Integer.compare(scores[o2], scores[o1]));
+            ranked = new ArrayList<>(order.length);
+            for (Integer index : order) {
+                ranked.add(entries.get(index));
+            }
+        }
+
+        StringBuilder description = new StringBuilder();
+        for (Entry entry : ranked) {
+            if (description.length() + entry.description.length() > maxLength) {
+                log.debug("Trim AI metadata prompt at table '" + entry.name + "' - too long request");
+                break;
+            }
+            description.append(entry.description);
+        }
+        return description.toString();
+    }
+
+    /**
+     * Extracts lower-cased identifiers and their parts from the text
+     */
+    @NotNull
+    static Set<String> extractIdentifiers(@Nullable String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> result = new HashSet<>();
+        int length = text.length();
+        for (int i = 0; i < length; ) {
+            if (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_') {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_')) {
+                    i++;
+                }
+                String identifier = text.substring(start, i).toLowerCase(Locale.ENGLISH);
+                result.add(identifier);
+                Collections.addAll(result, splitName(identifier));
+            } else {
+                i++;
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static String[] splitName(@NotNull String name) {
+        return Arrays.stream(name.split("_"))
+            .filter(part -> part.length() > 1)
+            .toArray(String[]::new);
+    }
+
+    /**
+     * Entity description and the names used for its ranking
+     */
+    public static final class Entry {
+        private final String name;
+        private final String[] nameParts;
+        private final String[] attributeNames;
+        private final String description;
+
+        public Entry(@NotNull String name, @NotNull Collection<String> attributeNames, @NotNull String description) {
+            this.name = name.toLowerCase(Locale.ENGLISH);
+            this.nameParts = splitName(this.name);
+            this.attributeNames = attributeNames.stream()
+                .map(attr -> attr.toLowerCase(Locale.ENGLISH))
+                .toArray(String[]::new);
+            this.description = description;
+        }
+
+        @NotNull
+        public String getName() {
+            return name;
+        }
+
+        @NotNull
+        public String getDescription() {
+            return description;
+        }
+
+        int getScore(@NotNull Set<String> identifiers) {
+            if (identifiers.contains(name)) {
+                return SCORE_NAME;
+            }
+            int score = 0;
+            for (String part : nameParts) {
+                if (identifiers.contains(part)) {
+                    score = SCORE_NAME_PART;
+                    break;
+                }
+            }
+            for (String attributeName : attributeNames) {
+                if (identifiers.contains(attributeName)) {
+                    score += SCORE_ATTRIBUTE;
+                    break;
+                }
+            }
+            return score;
+        }
+    }
+}
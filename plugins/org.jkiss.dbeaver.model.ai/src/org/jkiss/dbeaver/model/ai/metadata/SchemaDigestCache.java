@@ -0,0 +1,185 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.ai.metadata;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.ai.format.IAIFormatter;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNEvent;
+import org.jkiss.dbeaver.model.navigator.INavigatorListener;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Schema digests cached per datasource.
+ * When the navigator reports added, removed or refreshed objects, only digests which include them are dropped:
+ * digests of the object's containers and of containers nested in it.
+ */
+public class SchemaDigestCache implements INavigatorListener {
+
+    @FunctionalInterface
+    public interface DigestBuilder {
+        @NotNull
+        SchemaDigest buildDigest(@NotNull DBSObjectContainer container) throws DBException;
+    }
+
+    /**
+     * Digest depends on the formatter and on the default catalog and schema, which define qualification of entity names.
+     * Digest size is limited by the token budget.
+     */
+    private record DigestKey(
+        @NotNull DBSObjectContainer container,
+        @NotNull IAIFormatter formatter,
+        @Nullable DBSObject defaultCatalog,
+        @Nullable DBSObject defaultSchema,
+        int maxTokens
+    ) {
+    }
+
+    private static class DataSourceDigests {
+        private final Map<DigestKey, SchemaDigest> digests = new ConcurrentHashMap<>();
+        private volatile int generation;
+    }
+
+    private final Map<DBPDataSourceContainer, DataSourceDigests> dataSources = new ConcurrentHashMap<>();
+
+    /**
+     * Returns cached digest or builds a new one.
+     * Digest built while the monitor is canceled may be incomplete, so it is not cached.
+     */
+    @NotNull
+    public SchemaDigest getDigest(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSObjectContainer container,
+        @NotNull IAIFormatter formatter,
+        @Nullable DBSObject defaultCatalog,
+        @Nullable DBSObject defaultSchema,
+        int maxTokens,
+        @NotNull DigestBuilder builder
+    ) throws DBException {
+        DBPDataSourceContainer dataSourceContainer = getDataSourceContainer(container);
+        if (dataSourceContainer == null) {
+            return builder.buildDigest(container);
+        }
+        DataSourceDigests dsDigests = dataSources.computeIfAbsent(dataSourceContainer, ds -> new DataSourceDigests());
+        DigestKey key = new DigestKey(container, formatter, defaultCatalog, defaultSchema, maxTokens);
+        SchemaDigest digest = dsDigests.digests.get(key);
+        if (digest == null) {
+            int generation = dsDigests.generation;
+            digest = builder.buildDigest(container);
+            synchronized (dsDigests) {
+                // Do not cache digests built from the metadata which was changed in the meantime
+                if (generation == dsDigests.generation && !monitor.isCanceled()) {
+                    dsDigests.digests.put(key, digest);
+                }
+            }
+        }
+        return digest;
+    }
+
+    public void invalidate(@NotNull DBPDataSourceContainer dataSourceContainer) {
+        DataSourceDigests dsDigests = dataSources.get(dataSourceContainer);
+        if (dsDigests != null) {
+            synchronized (dsDigests) {
+                dsDigests.generation++;
+                dsDigests.digests.clear();
+            }
+        }
+    }
+
+    /**
+     * Drops digests which include the specified object: digests of its containers and of containers nested in it
+     */
+    public void invalidateObject(@NotNull DBSObject object) {
+        DBPDataSourceContainer dataSourceContainer = getDataSourceContainer(object);
+        DataSourceDigests dsDigests = dataSourceContainer == null ? null : dataSources.get(dataSourceContainer);
+        if (dsDigests != null) {
+            synchronized (dsDigests) {
+                dsDigests.generation++;
+                dsDigests.digests.keySet().removeIf(key ->
+                    key.container == object || isChildOf(object, key.container) || isChildOf(key.container, object));
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        for (DBPDataSourceContainer dataSourceContainer : dataSources.keySet()) {
+            invalidate(dataSourceContainer);
+        }
+    }
+
+    public int getDigestCount() {
+        int count = 0;
+        for (DataSourceDigests dsDigests : dataSources.values()) {
+            count += dsDigests.digests.size();
+        }
+        return count;
+    }
+
+    @Override
+    public void nodeChanged(DBNEvent event) {
+        if (!(event.getNode() instanceof DBNDatabaseNode databaseNode)) {
+            return;
+        }
+        DBSObject object = databaseNode.getObject();
+        if (object instanceof DBPDataSourceContainer dataSourceContainer) {
+            if (event.getAction() == DBNEvent.Action.REMOVE || event.getNodeChange() == DBNEvent.NodeChange.UNLOAD) {
+                // Disconnected or deleted
+                dataSources.remove(dataSourceContainer);
+            } else if (isRefreshEvent(event)) {
+                invalidate(dataSourceContainer);
+            }
+            return;
+        }
+        if (object != null && (event.getAction() != DBNEvent.Action.UPDATE || isRefreshEvent(event))) {
+            // Loading and selection of nodes doesn't change metadata
+            invalidateObject(object);
+        }
+    }
+
+    private static boolean isRefreshEvent(@NotNull DBNEvent event) {
+        return event.getAction() == DBNEvent.Action.UPDATE && (
+            event.getNodeChange() == DBNEvent.NodeChange.REFRESH ||
+            event.getNodeChange() == DBNEvent.NodeChange.STRUCT_REFRESH);
+    }
+
+    private static boolean isChildOf(@NotNull DBSObject object, @NotNull DBSObject container) {
+        for (DBSObject parent = object.getParentObject(); parent != null; parent = parent.getParentObject()) {
+            if (parent == container) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static DBPDataSourceContainer getDataSourceContainer(@Nullable DBSObject object) {
+        if (object instanceof DBPDataSourceContainer dataSourceContainer) {
+            return dataSourceContainer;
+        }
+        DBPDataSource dataSource = object == null ? null : object.getDataSource();
+        return dataSource == null ? null : dataSource.getContainer();
+    }
+}
@@ -165,7 +165,8 @@ public class OpenAICompletionEngine extends AbstractAICompletionEngine<GPTComple
             formatter,
             model.isChatAPI(),
             getMaxTokens() - AIConstants.MAX_RESPONSE_TOKENS,
-            chatCompletion
+            chatCompletion,
+            getLastUserMessage(messages)
         );
 
         final List<DAICompletionMessage> mergedMessages = new ArrayList<>();
@@ -191,6 +192,16 @@ public class OpenAICompletionEngine extends AbstractAICompletionEngine<GPTComple
         );
     }
 
+    @Nullable
+    private static String getLastUserMessage(@NotNull List<DAICompletionMessage> messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i).role() == DAICompletionMessage.Role.USER) {
+                return messages.get(i).content();
+            }
+        }
+        return null;
+    }
+
     protected int getMaxTokens() {
         return GPTModel.getByName(getModelName()).getMaxTokens();
     }
@@ -72,4 +72,16 @@ public abstract class WSAbstractEvent implements WSEvent {
     public long getTimestamp() {
         return timestamp;
     }
+
+    /**
+     * Makes coalescing key from the event id, session, user and the specified object identifiers
+     */
+    @NotNull
+    protected String makeCoalescingKey(@NotNull Object... objectIds) {
+        StringBuilder key = new StringBuilder(id).append('/').append(sessionId).append('/').append(userId);
+        for (Object objectId : objectIds) {
+            key.append('/').append(objectId);
+        }
+        return key.toString();
+    }
 }
\ No newline at end of file
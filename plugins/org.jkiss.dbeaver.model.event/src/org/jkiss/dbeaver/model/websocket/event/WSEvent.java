@@ -33,4 +33,14 @@ public interface WSEvent {
     String getUserId();
 
     long getTimestamp();
+
+    /**
+     * Returns key of the object state described by this event.
+     * Pending events with the same key are coalesced: only the latest of them is delivered.
+     * Events without key are always delivered.
+     */
+    @Nullable
+    default String getCoalescingKey() {
+        return null;
+    }
 }
@@ -26,14 +26,25 @@ import org.jkiss.dbeaver.model.websocket.WSEventHandler;
 import org.jkiss.dbeaver.model.websocket.registry.WSEventHandlersRegistry;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Dispatches websocket events to the event handlers.
+ * Dispatcher wakes up as soon as event is added, collects events of the same burst during a short
+ * {@link #COALESCE_WINDOW window} and delivers them with duplicate object updates removed.
+ */
 public class WSEventController {
     private static final Log log = Log.getLog(WSEventController.class);
 
-    private final Map<String, List<WSEventHandler>> eventHandlersByType = new HashMap<>();
+    /**
+     * Time to collect events of the same burst (ms)
+     */
+    public static final long COALESCE_WINDOW = 20;
+
+    private final Map<String, List<WSEventHandler>> eventHandlersByType = new ConcurrentHashMap<>();
     protected final List<WSEvent> eventsPool = new ArrayList<>();
     private boolean forceSkipEvents = false;
 
@@ -43,9 +54,7 @@ public class WSEventController {
 
         eventHandlerDescriptors.forEach(descriptor -> {
             var handler = descriptor.getInstance();
-            descriptor.getSupportedTopics().forEach(
-                topic -> eventHandlersByType.computeIfAbsent(topic, x -> new ArrayList<>()).add(handler)
-            );
+            descriptor.getSupportedTopics().forEach(topic -> addEventHandler(topic, handler));
         });
     }
 
@@ -58,11 +67,19 @@ public class WSEventController {
         }
         synchronized (eventsPool) {
             eventsPool.add(event);
+            eventsPool.notifyAll();
         }
     }
 
     /**
-     * Add cb event to the event pool
+     * Registers handler of the specified event topic
+     */
+    public void addEventHandler(@NotNull String topicId, @NotNull WSEventHandler handler) {
+        eventHandlersByType.computeIfAbsent(topicId, x -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /**
+     * Starts events dispatcher job
      */
     public void scheduleCheckJob() {
         new CBEventCheckJob().schedule();
@@ -75,8 +92,68 @@ public class WSEventController {
         this.forceSkipEvents = forceSkipEvents;
     }
 
+    /**
+     * Waits for the next burst of events and removes them from the pool
+     */
+    @NotNull
+    private List<WSEvent> waitForEvents(@NotNull DBRProgressMonitor monitor, long timeout) throws InterruptedException {
+        synchronized (eventsPool) {
+            if (eventsPool.isEmpty()) {
+                eventsPool.wait(timeout);
+                if (eventsPool.isEmpty()) {
+                    return List.of();
+                }
+            }
+            long windowEnd = System.currentTimeMillis() + COALESCE_WINDOW;
+            for (long delay = COALESCE_WINDOW; delay > 0 && !monitor.isCanceled(); delay = windowEnd - System.currentTimeMillis()) {
+                eventsPool.wait(delay);
+            }
+            return takeEvents();
+        }
+    }
+
+    /**
+     * Removes all pending events from the pool, duplicate object updates are coalesced
+     */
+    @NotNull
+    private List<WSEvent> takeEvents() {
+        synchronized (eventsPool) {
+            if (eventsPool.isEmpty()) {
+                return List.of();
+            }
+            List<WSEvent> events = WSEventQueue.coalesce(eventsPool);
+            eventsPool.clear();
+            return events;
+        }
+    }
+
+    /**
+     * Closes the current coalescing window: dispatches all pending events in the calling thread
+     */
+    void flushEvents() {
+        List<WSEvent> events = takeEvents();
+        if (!events.isEmpty()) {
+            dispatchEvents(events);
+        }
+    }
+
+    private void dispatchEvents(@NotNull List<WSEvent> events) {
+        for (WSEvent event : events) {
+            eventHandlersByType.getOrDefault(event.getTopicId(), List.of()).forEach(handler -> {
+                try {
+                    handler.handleEvent(event);
+                } catch (Exception e) {
+                    log.error(
+                        "Error on event handle " + event.getTopicId(),
+                        e
+                    );
+                }
+            });
+        }
+    }
 
     private class CBEventCheckJob extends AbstractJob {
+        // Max wait time. Events are dispatched immediately if they are added with addEvent
         private static final long CHECK_PERIOD = 1000;
 
         protected CBEventCheckJob() {
@@ -87,29 +164,17 @@ public class WSEventController {
 
         @Override
         protected IStatus run(DBRProgressMonitor monitor) {
-            List<WSEvent> events;
-
-            synchronized (eventsPool) {
-                events = List.copyOf(eventsPool);
-                eventsPool.clear();
-            }
-            if (events.isEmpty()) {
-                schedule(CHECK_PERIOD);
-                return Status.OK_STATUS;
+            try {
+                List<WSEvent> events = waitForEvents(monitor, CHECK_PERIOD);
+                if (!events.isEmpty()) {
+                    dispatchEvents(events);
+                }
+            } catch (InterruptedException e) {
+                return Status.CANCEL_STATUS;
             }
-            for (WSEvent event : events) {
-                eventHandlersByType.getOrDefault(event.getTopicId(), List.of()).forEach(handler -> {
-                    try {
-                        handler.handleEvent(event);
-                    } catch (Exception e) {
-                        log.error(
-                            "Error on event handle " + event.getTopicId(),
-                            e
-                        );
-                    }
-                });
+            if (!monitor.isCanceled()) {
+                schedule();
             }
-            schedule(CHECK_PERIOD);
             return Status.OK_STATUS;
         }
     }
@@ -0,0 +1,151 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.websocket.event;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.*;
+
+/**
+ * Bounded queue of pending websocket events (e.g. events of a single session).
+ * Events with the same {@link WSEvent#getCoalescingKey() coalescing key} replace each other
+ * (the latest event takes place at the end of the queue).
+ * If the queue is full then the oldest event is dropped, so slow consumers never block event producers.
+ */
+public class WSEventQueue {
+
+    private final int capacity;
+    @Nullable
+    private final Runnable readyListener;
+    private final LinkedHashMap<Object, WSEvent> events = new LinkedHashMap<>();
+    private long coalescedCount;
+    private long droppedCount;
+
+    /**
+     * @param capacity      maximum number of pending events
+     * @param readyListener called (outside of the queue lock) when the first event is added to the empty queue
+     */
+    public WSEventQueue(int capacity, @Nullable Runnable readyListener) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Bad queue capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.readyListener = readyListener;
+    }
+
+    /**
+     * Adds event to the queue.
+     *
+     * @return false if some pending event was dropped because of the queue overflow
+     */
+    public boolean offer(@NotNull WSEvent event) {
+        boolean wasEmpty;
+        boolean dropped = false;
+        synchronized (this) {
+            wasEmpty = events.isEmpty();
+            Object key = getEventKey(event);
+            if (events.remove(key) != null) {
+                coalescedCount++;
+            } else if (events.size() >= capacity) {
+                Iterator<WSEvent> iterator = events.values().iterator();
+                iterator.next();
+                iterator.remove();
+                droppedCount++;
+                dropped = true;
+            }
+            events.put(key, event);
+        }
+        if (wasEmpty && readyListener != null) {
+            readyListener.run();
+        }
+        return !dropped;
+    }
+
+    /**
+     * Removes and returns all pending events
+     */
+    @NotNull
+    public synchronized List<WSEvent> drain() {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        List<WSEvent> result = new ArrayList<>(events.values());
+        events.clear();
+        return result;
+    }
+
+    public synchronized int size() {
+        return events.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Number of events replaced by later events with the same coalescing key
+     */
+    public synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Number of events dropped because of the queue overflow
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Removes events which are replaced by later events with the same coalescing key.
+     * Order of the remaining events is preserved.
+     */
+    @NotNull
+    public static List<WSEvent> coalesce(@NotNull Collection<WSEvent> events) {
+        LinkedHashMap<Object, WSEvent> result = new LinkedHashMap<>(events.size());
+        for (WSEvent event : events) {
+            Object key = getEventKey(event);
+            result.remove(key);
+            result.put(key, event);
+        }
+        return result.size() == events.size() ? List.copyOf(events) : List.copyOf(result.values());
+    }
+
+    @NotNull
+    private static Object getEventKey(@NotNull WSEvent event) {
+        String key = event.getCoalescingKey();
+        // Events without key are compared by identity
+        return key == null ? new IdentityKey(event) : key;
+    }
+
+    private record IdentityKey(WSEvent event) {
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IdentityKey other && other.event == event;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(event);
+        }
+    }
+}
@@ -99,4 +99,10 @@ public class WSDataSourceEvent extends WSProjectResourceEvent {
     public WSDataSourceProperty getProperty() {
         return property;
     }
+
+    @Nullable
+    @Override
+    public String getCoalescingKey() {
+        return makeCoalescingKey(projectId, property, dataSourceIds);
+    }
 }
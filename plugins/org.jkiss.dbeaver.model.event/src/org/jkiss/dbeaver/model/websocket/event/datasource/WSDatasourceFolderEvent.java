@@ -85,4 +85,10 @@ public class WSDatasourceFolderEvent extends WSProjectResourceEvent {
     public List<String> getNodePaths() {
         return nodePaths;
     }
+
+    @Nullable
+    @Override
+    public String getCoalescingKey() {
+        return makeCoalescingKey(projectId, nodePaths);
+    }
 }
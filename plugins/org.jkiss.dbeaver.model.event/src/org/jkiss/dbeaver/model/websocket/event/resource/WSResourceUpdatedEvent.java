@@ -121,4 +121,10 @@ public class WSResourceUpdatedEvent extends WSProjectResourceEvent {
     public String getDetails() {
         return details;
     }
+
+    @Nullable
+    @Override
+    public String getCoalescingKey() {
+        return makeCoalescingKey(projectId, resourcePath, property);
+    }
 }
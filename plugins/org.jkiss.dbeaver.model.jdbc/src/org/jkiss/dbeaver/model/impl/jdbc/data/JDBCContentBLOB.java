@@ -26,7 +26,7 @@ import org.jkiss.dbeaver.model.data.DBDContentCached;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.data.storage.BytesContentStorage;
-import org.jkiss.dbeaver.model.data.storage.TemporaryContentStorage;
+import org.jkiss.dbeaver.model.data.storage.SpillContentStore;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
@@ -40,9 +40,6 @@ import org.jkiss.dbeaver.utils.MimeTypes;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.sql.Blob;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
@@ -105,25 +102,17 @@ public class JDBCContentBLOB extends JDBCContentLOB {
                         throw new DBCException(e, executionContext);
                     }
                 } else {
-                    // Create new local storage
-                    Path tempFile;
-                    try {
-                        tempFile = ContentUtils.createTempContentFile(monitor, platform, "blob" + blob.hashCode());
-                    } catch (IOException e) {
-                        throw new DBCException("Can't create temporary file", e);
-                    }
-                    try (OutputStream os = Files.newOutputStream(tempFile)) {
+                    // Spill content to the shared store
+                    try (SpillContentStore.ContentWriter os = SpillContentStore.getInstance(monitor, platform).openWriter()) {
                         try (InputStream bs = blob.getBinaryStream()) {
                             ContentUtils.copyStreams(bs, contentLength, os, monitor);
                         }
+                        this.storage = os.commit(getDefaultEncoding());
                     } catch (IOException e) {
-                        ContentUtils.deleteTempFile(tempFile);
                         throw new DBCException("IO error while copying stream", e);
                     } catch (Throwable e) {
-                        ContentUtils.deleteTempFile(tempFile);
                         throw new DBCException(e, executionContext);
                     }
-                    this.storage = new TemporaryContentStorage(platform, tempFile, getDefaultEncoding(), true);
                 }
             } catch (DBCException e) {
                 handleContentReadingException(e);
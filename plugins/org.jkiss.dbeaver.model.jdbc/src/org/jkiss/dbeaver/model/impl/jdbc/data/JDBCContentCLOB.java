@@ -25,8 +25,8 @@ import org.jkiss.dbeaver.model.data.DBDContentCached;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.data.storage.ExternalContentStorage;
+import org.jkiss.dbeaver.model.data.storage.SpillContentStore;
 import org.jkiss.dbeaver.model.data.storage.StringContentStorage;
-import org.jkiss.dbeaver.model.data.storage.TemporaryContentStorage;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
@@ -38,12 +38,8 @@ import org.jkiss.dbeaver.utils.ContentUtils;
 import org.jkiss.dbeaver.utils.MimeTypes;
 import org.jkiss.utils.CommonUtils;
 
-import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
+import java.io.*;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.sql.Clob;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
@@ -107,23 +103,17 @@ public class JDBCContentCLOB extends JDBCContentLOB implements DBDContent {
                         }
                     }
                 } else {
-                    // Create new local storage
-                    Path tempFile;
-                    try {
-                        tempFile = ContentUtils.createTempContentFile(monitor, platform, "clob" + clob.hashCode());
-                    } catch (IOException e) {
-                        throw new DBCException("Can't create temp file", e);
-                    }
-                    try (Writer os = Files.newBufferedWriter(tempFile, Charset.forName(getDefaultEncoding()))) {
-                        ContentUtils.copyStreams(clob.getCharacterStream(), contentLength, os, monitor);
+                    // Spill content to the shared store
+                    try (SpillContentStore.ContentWriter os = SpillContentStore.getInstance(monitor, platform).openWriter()) {
+                        Writer writer = new BufferedWriter(new OutputStreamWriter(os, Charset.forName(getDefaultEncoding())));
+                        ContentUtils.copyStreams(clob.getCharacterStream(), contentLength, writer, monitor);
+                        writer.flush();
+                        this.storage = os.commit(getDefaultEncoding());
                     } catch (IOException e) {
-                        ContentUtils.deleteTempFile(tempFile);
                         throw new DBCException("IO error while copying content", e);
                     } catch (Throwable e) {
-                        ContentUtils.deleteTempFile(tempFile);
                         throw new DBCException(e, executionContext);
                     }
-                    this.storage = new TemporaryContentStorage(platform, tempFile, getDefaultEncoding(), true);
                 }
             } catch (DBCException e) {
                 handleContentReadingException(e);
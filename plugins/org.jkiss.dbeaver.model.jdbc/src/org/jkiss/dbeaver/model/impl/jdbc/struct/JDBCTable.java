@@ -41,6 +41,7 @@ import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLExpressionFormatter;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.virtual.DBVDictionaryLabelCache;
 import org.jkiss.dbeaver.model.virtual.DBVEntity;
 import org.jkiss.dbeaver.model.virtual.DBVUtils;
 import org.jkiss.utils.ArrayUtils;
@@ -568,6 +569,11 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
         String descColumns = DBVUtils.getDictionaryDescriptionColumns(monitor, keyColumn);
         if (descColumns != null) {
+            Collection<DBSEntityAttribute> descAttributes = DBVEntity.getDescriptionColumns(monitor, this, descColumns);
+            if (DBUtils.findObject(descAttributes, keyColumn.getName(), true) != null) {
+                // Add alias for value column to avoid ambiguity
+                query.append(" dbvrvalue");
+            }
             query.append(", ").append(descColumns);
         }
         query.append(" FROM ").append(DBUtils.getObjectFullName(this, DBPEvaluationContext.DML)).append(" WHERE ");
@@ -1037,6 +1043,11 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         @NotNull
         @Override
         public List<DBDLabelValuePair> getValueEntry(@NotNull Object keyValue) throws DBException {
+            if (preceedingKeysInfo.isEmpty()) {
+                DBDLabelValuePair entry = DBVDictionaryLabelCache.getInstance().getEntry(
+                    session.getProgressMonitor(), JDBCTable.this, keyColumn, keyValue);
+                return entry == null ? new ArrayList<>() : new ArrayList<>(List.of(entry));
+            }
             DBDDataFilter filter = new DBDDataFilter(this.filter);
             List<DBDAttributeConstraint> constraints = filter.getConstraints();
             DBDAttributeConstraint constraint = new DBDAttributeConstraint(keyColumn, constraints.size());
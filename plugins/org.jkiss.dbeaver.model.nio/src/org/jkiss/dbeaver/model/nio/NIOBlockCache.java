@@ -0,0 +1,202 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.nio;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Local disk cache of remote file blocks.
+ * Files are split into fixed-size blocks. Each block is stored in a separate file in the cache folder.
+ * Least recently used blocks are evicted when total size of cached blocks exceeds the limit.
+ * Each cache instance keeps its blocks in its own folder, so caches created over the same
+ * parent folder never touch blocks of each other.
+ */
+public class NIOBlockCache {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    public static final long DEFAULT_MAX_CACHE_SIZE = 512L * 1024 * 1024;
+
+    private static final String CACHE_FOLDER_PREFIX = "nio-blocks-";
+    private static final String BLOCK_FILE_PREFIX = "nio-block-";
+    private static final String BLOCK_FILE_EXT = ".block";
+    private static final String TEMP_FILE_EXT = ".tmp";
+
+    private final Path cacheFolder;
+    private final int blockSize;
+    private final long maxCacheSize;
+
+    // Access-ordered map of cached blocks and their sizes
+    private final LinkedHashMap<String, Integer> blocks = new LinkedHashMap<>(64, 0.75f, true);
+    private long cacheSize;
+
+    public NIOBlockCache(@NotNull Path parentFolder) throws IOException {
+        this(parentFolder, DEFAULT_BLOCK_SIZE, DEFAULT_MAX_CACHE_SIZE);
+    }
+
+    /**
+     * @param parentFolder folder where the cache creates its own blocks folder
+     */
+    public NIOBlockCache(@NotNull Path parentFolder, int blockSize, long maxCacheSize) throws IOException {
+        if (blockSize <= 0 || maxCacheSize < blockSize) {
+            throw new IllegalArgumentException("Bad block cache size: " + blockSize + "/" + maxCacheSize);
+        }
+        Files.createDirectories(parentFolder);
+        this.cacheFolder = Files.createTempDirectory(parentFolder, CACHE_FOLDER_PREFIX);
+        this.blockSize = blockSize;
+        this.maxCacheSize = maxCacheSize;
+    }
+
+    @NotNull
+    public Path getCacheFolder() {
+        return cacheFolder;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public long getMaxCacheSize() {
+        return maxCacheSize;
+    }
+
+    public synchronized long getCacheSize() {
+        return cacheSize;
+    }
+
+    public synchronized boolean hasBlock(@NotNull String contentKey, long blockIndex) {
+        return blocks.containsKey(makeBlockId(contentKey, blockIndex));
+    }
+
+    /**
+     * Reads cached block.
+     *
+     * @return block content or null if block is not cached
+     */
+    @Nullable
+    public ByteBuffer readBlock(@NotNull String contentKey, long blockIndex) throws IOException {
+        final String blockId = makeBlockId(contentKey, blockIndex);
+        synchronized (this) {
+            if (blocks.get(blockId) == null) {
+                return null;
+            }
+        }
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(getBlockFile(blockId)));
+        } catch (NoSuchFileException e) {
+            // Evicted by concurrent writer
+            synchronized (this) {
+                removeBlock(blockId);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Stores block in the cache. Block size must not exceed cache block size.
+     */
+    public void writeBlock(@NotNull String contentKey, long blockIndex, @NotNull ByteBuffer data) throws IOException {
+        final int length = data.remaining();
+        if (length > blockSize) {
+            throw new IllegalArgumentException("Block is too big: " + length);
+        }
+        final String blockId = makeBlockId(contentKey, blockIndex);
+        final Path blockFile = getBlockFile(blockId);
+        final Path tempFile = Files.createTempFile(cacheFolder, BLOCK_FILE_PREFIX + blockId, TEMP_FILE_EXT);
+        try {
+            try (var channel = Files.newByteChannel(tempFile, StandardOpenOption.WRITE)) {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            }
+            Files.move(tempFile, blockFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        final List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            removeBlock(blockId);
+            blocks.put(blockId, length);
+            cacheSize += length;
+            for (Iterator<Map.Entry<String, Integer>> iter = blocks.entrySet().iterator(); cacheSize > maxCacheSize && iter.hasNext(); ) {
+                Map.Entry<String, Integer> entry = iter.next();
+                if (entry.getKey().equals(blockId)) {
+                    continue;
+                }
+                iter.remove();
+                cacheSize -= entry.getValue();
+                evicted.add(entry.getKey());
+            }
+        }
+        for (String evictedId : evicted) {
+            Files.deleteIfExists(getBlockFile(evictedId));
+        }
+    }
+
+    /**
+     * Removes all cached blocks, including blocks left by the previous session
+     */
+    public void clear() throws IOException {
+        synchronized (this) {
+            blocks.clear();
+            cacheSize = 0;
+        }
+        try (Stream<Path> files = Files.list(cacheFolder)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (isCacheFile(file) && Files.isRegularFile(file)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private void removeBlock(String blockId) {
+        final Integer prevSize = blocks.remove(blockId);
+        if (prevSize != null) {
+            cacheSize -= prevSize;
+        }
+    }
+
+    @NotNull
+    private Path getBlockFile(@NotNull String blockId) {
+        return cacheFolder.resolve(BLOCK_FILE_PREFIX + blockId + BLOCK_FILE_EXT);
+    }
+
+    private static boolean isCacheFile(@NotNull Path file) {
+        final String fileName = file.getFileName().toString();
+        return fileName.startsWith(BLOCK_FILE_PREFIX) && (fileName.endsWith(BLOCK_FILE_EXT) || fileName.endsWith(TEMP_FILE_EXT));
+    }
+
+    @NotNull
+    private static String makeBlockId(@NotNull String contentKey, long blockIndex) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(digest.digest(contentKey.getBytes(StandardCharsets.UTF_8))) + "_" + blockIndex;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
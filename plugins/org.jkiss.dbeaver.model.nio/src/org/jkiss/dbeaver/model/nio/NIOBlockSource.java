@@ -0,0 +1,46 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.nio;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Remote file content which supports range reads.
+ * Implemented by virtual file system providers and used by {@link NIOCachedChannel}.
+ */
+public interface NIOBlockSource {
+
+    /**
+     * Unique key of the file content. Must change when the remote file changes
+     * (e.g. include modification time or ETag), otherwise stale cached blocks will be read.
+     */
+    @NotNull
+    String getContentKey();
+
+    long getSize() throws IOException;
+
+    /**
+     * Reads bytes starting from the specified position into the buffer.
+     *
+     * @return number of bytes read or -1 if position is beyond the end of file
+     */
+    int read(long position, @NotNull ByteBuffer buffer) throws IOException;
+
+}
@@ -0,0 +1,192 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.nio;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Read-only channel which reads remote file content through the local block cache.
+ * Only blocks which are actually read are downloaded. When reading is sequential, the following
+ * blocks are fetched with the same range request (read-ahead).
+ */
+public class NIOCachedChannel implements SeekableByteChannel {
+
+    public static final int DEFAULT_READ_AHEAD_BLOCKS = 4;
+
+    private final NIOBlockSource source;
+    private final NIOBlockCache cache;
+    private final String contentKey;
+    private final int blockSize;
+    private final int readAheadBlocks;
+    private final long size;
+
+    private long position;
+    private long currentBlockIndex = -1;
+    private ByteBuffer currentBlock;
+    private boolean closed;
+
+    public NIOCachedChannel(@NotNull NIOBlockSource source, @NotNull NIOBlockCache cache) throws IOException {
+        this(source, cache, DEFAULT_READ_AHEAD_BLOCKS);
+    }
+
+    public NIOCachedChannel(@NotNull NIOBlockSource source, @NotNull NIOBlockCache cache, int readAheadBlocks) throws IOException {
+        this.source = source;
+        this.cache = cache;
+        this.contentKey = source.getContentKey();
+        this.blockSize = cache.getBlockSize();
+        this.readAheadBlocks = Math.max(1, readAheadBlocks);
+        this.size = source.getSize();
+    }
+
+    @Override
+    public synchronized int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+        if (position >= size) {
+            return -1;
+        }
+        int totalRead = 0;
+        while (dst.hasRemaining() && position < size) {
+            final long blockIndex = position / blockSize;
+            final ByteBuffer block = getBlock(blockIndex);
+            final int offset = (int) (position - blockIndex * blockSize);
+            if (offset >= block.limit()) {
+                // Source returned less data than expected
+                break;
+            }
+            final int length = Math.min(dst.remaining(), block.limit() - offset);
+            dst.put(block.duplicate().position(offset).limit(offset + length));
+            position += length;
+            totalRead += length;
+        }
+        return totalRead;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public synchronized SeekableByteChannel position(long newPosition) throws IOException {
+        ensureOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Illegal position " + newPosition);
+        }
+        this.position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized boolean isOpen() {
+        return !closed;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        currentBlock = null;
+    }
+
+    @NotNull
+    private ByteBuffer getBlock(long blockIndex) throws IOException {
+        if (blockIndex == currentBlockIndex) {
+            return currentBlock;
+        }
+        ByteBuffer block = cache.readBlock(contentKey, blockIndex);
+        if (block == null) {
+            // Read ahead only if we read the file sequentially
+            final boolean sequential = currentBlockIndex >= 0 && blockIndex == currentBlockIndex + 1;
+            block = fetchBlocks(blockIndex, sequential ? readAheadBlocks : 1);
+        }
+        currentBlockIndex = blockIndex;
+        currentBlock = block;
+        return block;
+    }
+
+    /**
+     * Fetches a range of blocks from the source with a single read and puts them in the cache.
+     * Returns the first block.
+     */
+    @NotNull
+    private ByteBuffer fetchBlocks(long firstBlockIndex, int maxBlocks) throws IOException {
+        final long lastBlockIndex = (size - 1) / blockSize;
+        int blockCount = 1;
+        while (blockCount < maxBlocks &&
+            firstBlockIndex + blockCount <= lastBlockIndex &&
+            !cache.hasBlock(contentKey, firstBlockIndex + blockCount))
+        {
+            blockCount++;
+        }
+        final long rangeStart = firstBlockIndex * blockSize;
+        final int rangeLength = (int) Math.min((long) blockCount * blockSize, size - rangeStart);
+        final ByteBuffer buffer = ByteBuffer.allocate(rangeLength);
+        while (buffer.hasRemaining()) {
+            final int bytesRead = source.read(rangeStart + buffer.position(), buffer);
+            if (bytesRead < 0) {
+                break;
+            }
+            if (bytesRead == 0) {
+                // Source which makes no progress would hang the reader forever
+                throw new IOException("No data read from '" + contentKey + "' at position " + (rangeStart + buffer.position()));
+            }
+        }
+        buffer.flip();
+
+        ByteBuffer firstBlock = null;
+        for (int i = 0; i < blockCount; i++) {
+            final int blockStart = i * blockSize;
+            if (blockStart >= buffer.limit()) {
+                break;
+            }
+            final ByteBuffer block = buffer.duplicate().position(blockStart).limit(Math.min(blockStart + blockSize, buffer.limit())).slice();
+            cache.writeBlock(contentKey, firstBlockIndex + i, block.duplicate());
+            if (i == 0) {
+                firstBlock = block;
+            }
+        }
+        return firstBlock == null ? ByteBuffer.allocate(0) : firstBlock;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.model.nio;
 
+import org.jkiss.code.Nullable;
+
 import java.nio.file.FileSystem;
 import java.nio.file.PathMatcher;
 import java.nio.file.WatchService;
@@ -25,6 +27,22 @@ import java.util.Set;
 public abstract class NIOFileSystem extends FileSystem {
     public static final String SEPARATOR = "/";
 
+    @Nullable
+    private volatile NIOBlockCache blockCache;
+
+    /**
+     * Local cache of remote file blocks. Content of paths which support range reads
+     * (see {@link NIOPath#getBlockSource()}) is read through this cache.
+     */
+    @Nullable
+    public NIOBlockCache getBlockCache() {
+        return blockCache;
+    }
+
+    public void setBlockCache(@Nullable NIOBlockCache blockCache) {
+        this.blockCache = blockCache;
+    }
+
     @Override
     public String getSeparator() {
         return SEPARATOR;
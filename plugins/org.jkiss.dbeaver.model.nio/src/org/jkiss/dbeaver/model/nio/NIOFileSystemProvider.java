@@ -16,14 +16,20 @@
  */
 package org.jkiss.dbeaver.model.nio;
 
+import org.jkiss.code.Nullable;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.nio.file.LinkOption;
-import java.nio.file.Path;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.*;
 import java.nio.file.spi.FileSystemProvider;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public abstract class NIOFileSystemProvider extends FileSystemProvider {
     protected void validateUri(URI uri) {
@@ -32,6 +38,43 @@ public abstract class NIOFileSystemProvider extends FileSystemProvider {
         }
     }
 
+    @Override
+    public InputStream newInputStream(Path path, OpenOption... options) throws IOException {
+        final SeekableByteChannel channel = openCachedChannel(path, new HashSet<>(Arrays.asList(options)));
+        if (channel != null) {
+            return Channels.newInputStream(channel);
+        }
+        return super.newInputStream(path, options);
+    }
+
+    /**
+     * Opens read-only channel which reads remote file content through the block cache of the file system.
+     * Providers should call it from {@link #newByteChannel} before opening a direct channel.
+     *
+     * @return cached channel or null if the file system has no block cache, path doesn't support range reads
+     * or channel is opened for writing
+     */
+    @Nullable
+    protected SeekableByteChannel openCachedChannel(Path path, Set<? extends OpenOption> options) throws IOException {
+        for (OpenOption option : options) {
+            if (option != StandardOpenOption.READ) {
+                return null;
+            }
+        }
+        if (!(path instanceof NIOPath nioPath) || !(nioPath.getFileSystem() instanceof NIOFileSystem fileSystem)) {
+            return null;
+        }
+        final NIOBlockCache blockCache = fileSystem.getBlockCache();
+        if (blockCache == null) {
+            return null;
+        }
+        final NIOBlockSource blockSource = nioPath.getBlockSource();
+        if (blockSource == null) {
+            return null;
+        }
+        return new NIOCachedChannel(blockSource, blockCache);
+    }
+
     @Override
     public Map<String, Object> readAttributes(Path path, String attributes, LinkOption... options) throws IOException {
         return null;
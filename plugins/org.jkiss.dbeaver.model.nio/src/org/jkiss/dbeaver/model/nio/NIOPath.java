@@ -45,6 +45,14 @@ public abstract class NIOPath implements Path {
             || path.charAt(0) == '/';
     }
 
+    /**
+     * Returns range reader of the file content or null if the file system doesn't support range reads.
+     */
+    @Nullable
+    public NIOBlockSource getBlockSource() throws IOException {
+        return null;
+    }
+
     protected String resolveString(String otherPath) {
         return NIOUtils.resolve(getFileSystem().getSeparator(), path, otherPath);
     }
@@ -0,0 +1,41 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.admin.sessions;
+
+import org.jkiss.code.Nullable;
+
+/**
+ * Server session which reports its current activity.
+ * Activity of such sessions is sampled into {@link DBAServerSessionHistory}.
+ */
+public interface DBAServerSessionActivity extends DBAServerSession {
+
+    /**
+     * Returns true if session executes something at the moment (is not idle)
+     */
+    boolean isSessionActive();
+
+    @Nullable
+    String getSessionState();
+
+    /**
+     * Returns name of the event session waits for, or null if session doesn't wait
+     */
+    @Nullable
+    String getSessionWaitEvent();
+
+}
@@ -0,0 +1,220 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.admin.sessions;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Active session history.
+ * <p>
+ * Keeps samples of active sessions (time, state, wait event and query) in a fixed-size ring,
+ * so top queries and top waits for a recent period can be calculated without querying the server.
+ * Strings are stored in dictionaries, each sample takes a few primitive slots.
+ */
+public class DBAServerSessionHistory {
+
+    public static final int DEFAULT_CAPACITY = 100_000;
+
+    private static final int MAX_QUERY_TEXTS = 1000;
+    private static final int MAX_QUERY_LENGTH = 4000;
+    private static final int NO_VALUE = -1;
+
+    private static final Map<String, DBAServerSessionHistory> histories = new ConcurrentHashMap<>();
+
+    private final long[] times;
+    private final int[] states;
+    private final int[] waits;
+    private final int[] queries;
+    private int head;
+    private int size;
+
+    private final List<String> symbols = new ArrayList<>();
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private final Map<Integer, String> queryTexts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+            return size() > MAX_QUERY_TEXTS;
+        }
+    };
+
+    /**
+     * Returns activity history of the specified data source
+     */
+    @NotNull
+    public static DBAServerSessionHistory getHistory(@NotNull DBPDataSourceContainer container) {
+        return histories.computeIfAbsent(container.getId(), id -> new DBAServerSessionHistory(DEFAULT_CAPACITY));
+    }
+
+    public DBAServerSessionHistory(int capacity) {
+        this.times = new long[capacity];
+        this.states = new int[capacity];
+        this.waits = new int[capacity];
+        this.queries = new int[capacity];
+    }
+
+    /**
+     * Records one sample of all active sessions.
+     * Sessions which do not report their activity are ignored.
+     */
+    public synchronized void addSample(long timestamp, @NotNull Collection<? extends DBAServerSession> sessions) {
+        for (DBAServerSession session : sessions) {
+            if (!(session instanceof DBAServerSessionActivity) || !((DBAServerSessionActivity) session).isSessionActive()) {
+                continue;
+            }
+            final DBAServerSessionActivity activity = (DBAServerSessionActivity) session;
+            times[head] = timestamp;
+            states[head] = getSymbolId(activity.getSessionState());
+            waits[head] = getSymbolId(activity.getSessionWaitEvent());
+            queries[head] = getQueryId(activity.getActiveQuery());
+            head = (head + 1) % times.length;
+            if (size < times.length) {
+                size++;
+            }
+        }
+    }
+
+    public synchronized int getSampleCount() {
+        return size;
+    }
+
+    /**
+     * Returns time of the oldest sample or 0 if there are no samples
+     */
+    public synchronized long getFirstSampleTime() {
+        return size == 0 ? 0 : times[(head - size + times.length) % times.length];
+    }
+
+    /**
+     * Returns queries which were active most often since the specified time
+     */
+    @NotNull
+    public synchronized List<ActivityStat> getTopQueries(long fromTime, int maxResults) {
+        final Map<Integer, int[]> counters = new HashMap<>();
+        final int total = countSamples(fromTime, queries, counters);
+        final List<ActivityStat> result = new ArrayList<>(counters.size());
+        for (Map.Entry<Integer, int[]> entry : counters.entrySet()) {
+            String text = queryTexts.get(entry.getKey());
+            if (text == null) {
+                text = "#" + Integer.toHexString(entry.getKey());
+            }
+            result.add(new ActivityStat(text, entry.getValue()[0], total));
+        }
+        return getTop(result, maxResults);
+    }
+
+    /**
+     * Returns wait events which occurred most often since the specified time
+     */
+    @NotNull
+    public synchronized List<ActivityStat> getTopWaits(long fromTime, int maxResults) {
+        final Map<Integer, int[]> counters = new HashMap<>();
+        final int total = countSamples(fromTime, waits, counters);
+        final List<ActivityStat> result = new ArrayList<>(counters.size());
+        for (Map.Entry<Integer, int[]> entry : counters.entrySet()) {
+            result.add(new ActivityStat(symbols.get(entry.getKey()), entry.getValue()[0], total));
+        }
+        return getTop(result, maxResults);
+    }
+
+    /**
+     * Counts samples by value. Returns total number of samples in the period.
+     */
+    private int countSamples(long fromTime, int[] values, Map<Integer, int[]> counters) {
+        int total = 0;
+        for (int i = 1; i <= size; i++) {
+            final int index = (head - i + times.length) % times.length;
+            if (times[index] < fromTime) {
+                break;
+            }
+            total++;
+            if (values[index] != NO_VALUE) {
+                counters.computeIfAbsent(values[index], k -> new int[1])[0]++;
+            }
+        }
+        return total;
+    }
+
+    @NotNull
+    private static List<ActivityStat> getTop(@NotNull List<ActivityStat> stats, int maxResults) {
+        stats.sort(Comparator.comparingInt(ActivityStat::getSamples).reversed());
+        return stats.size() > maxResults ? new ArrayList<>(stats.subList(0, maxResults)) : stats;
+    }
+
+    private int getSymbolId(@Nullable String symbol) {
+        if (CommonUtils.isEmpty(symbol)) {
+            return NO_VALUE;
+        }
+        Integer id = symbolIds.get(symbol);
+        if (id == null) {
+            id = symbols.size();
+            symbols.add(symbol);
+            symbolIds.put(symbol, id);
+        }
+        return id;
+    }
+
+    private int getQueryId(@Nullable String query) {
+        if (CommonUtils.isEmptyTrimmed(query)) {
+            return NO_VALUE;
+        }
+        query = query.trim();
+        int hash = query.hashCode();
+        if (hash == NO_VALUE) {
+            // Keep the sentinel for samples without query
+            hash = Integer.MIN_VALUE;
+        }
+        queryTexts.put(hash, CommonUtils.truncateString(query, MAX_QUERY_LENGTH));
+        return hash;
+    }
+
+    /**
+     * Number of samples of some query or wait event
+     */
+    public static class ActivityStat {
+        private final String name;
+        private final int samples;
+        private final int totalSamples;
+
+        ActivityStat(@NotNull String name, int samples, int totalSamples) {
+            this.name = name;
+            this.samples = samples;
+            this.totalSamples = totalSamples;
+        }
+
+        @NotNull
+        public String getName() {
+            return name;
+        }
+
+        public int getSamples() {
+            return samples;
+        }
+
+        /**
+         * Share of samples in percent
+         */
+        public double getPercent() {
+            return totalSamples == 0 ? 0 : samples * 100.0 / totalSamples;
+        }
+    }
+}
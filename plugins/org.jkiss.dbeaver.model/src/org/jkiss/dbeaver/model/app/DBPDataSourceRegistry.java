@@ -131,6 +131,9 @@ public interface DBPDataSourceRegistry extends DBPObject, DBPSecretHolder {
     void removeAuthProfile(DBAAuthProfile profile);
 
 
+    /**
+     * Saves configuration. Implementations may save it asynchronously.
+     */
     void flushConfig();
     void refreshConfig();
 
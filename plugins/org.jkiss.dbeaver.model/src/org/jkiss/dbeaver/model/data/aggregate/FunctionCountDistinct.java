@@ -25,13 +25,12 @@ import java.util.Set;
 public class FunctionCountDistinct implements IAggregateFunction {
 
     private int count = 0;
-    private Set<Object> cache = new HashSet<>();
+    private final Set<Object> cache = new HashSet<>();
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
-        if (!cache.contains(value)) {
+        if (cache.add(value)) {
             count++;
-            cache.add(value);
             return true;
         }
         return false;
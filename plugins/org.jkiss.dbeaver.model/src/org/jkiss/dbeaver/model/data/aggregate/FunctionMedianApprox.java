@@ -0,0 +1,115 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Approximate median of numeric values.
+ * Uses P-square streaming estimation (Jain and Chlamtac), so values are not kept in memory.
+ */
+public class FunctionMedianApprox implements IAggregateFunction {
+
+    private static final int MARKERS = 5;
+    private static final double QUANTILE = 0.5;
+    private static final double[] POSITION_INCREMENTS = {0, QUANTILE / 2, QUANTILE, (1 + QUANTILE) / 2, 1};
+
+    // Marker heights, actual and desired positions
+    private final double[] heights = new double[MARKERS];
+    private final int[] positions = new int[MARKERS];
+    private final double[] desiredPositions = new double[MARKERS];
+    private int count;
+
+    @Override
+    public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        Number num = FunctionNumeric.getNumeric(value);
+        if (num == null) {
+            return false;
+        }
+        add(num.doubleValue());
+        return true;
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        if (count == 0) {
+            return null;
+        }
+        if (count < MARKERS) {
+            // Exact median of first values
+            double[] values = Arrays.copyOf(heights, count);
+            Arrays.sort(values);
+            int middle = count / 2;
+            return count % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2.0;
+        }
+        return heights[2];
+    }
+
+    private void add(double value) {
+        if (count < MARKERS) {
+            heights[count++] = value;
+            if (count == MARKERS) {
+                Arrays.sort(heights);
+                for (int i = 0; i < MARKERS; i++) {
+                    positions[i] = i;
+                    desiredPositions[i] = 4 * POSITION_INCREMENTS[i];
+                }
+            }
+            return;
+        }
+        int cell;
+        if (value < heights[0]) {
+            heights[0] = value;
+            cell = 0;
+        } else if (value >= heights[MARKERS - 1]) {
+            heights[MARKERS - 1] = value;
+            cell = MARKERS - 2;
+        } else {
+            cell = 0;
+            while (value >= heights[cell + 1]) {
+                cell++;
+            }
+        }
+        for (int i = cell + 1; i < MARKERS; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < MARKERS; i++) {
+            desiredPositions[i] += POSITION_INCREMENTS[i];
+        }
+        // Adjust heights of middle markers
+        for (int i = 1; i < MARKERS - 1; i++) {
+            double delta = desiredPositions[i] - positions[i];
+            if ((delta >= 1 && positions[i + 1] - positions[i] > 1) || (delta <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int step = delta >= 0 ? 1 : -1;
+                double height = parabolic(i, step);
+                if (heights[i - 1] < height && height < heights[i + 1]) {
+                    heights[i] = height;
+                } else {
+                    heights[i] = heights[i] + step * (heights[i + step] - heights[i]) / (positions[i + step] - positions[i]);
+                }
+                positions[i] += step;
+            }
+        }
+        count++;
+    }
+
+    private double parabolic(int i, int step) {
+        return heights[i] + (double) step / (positions[i + 1] - positions[i - 1]) * (
+            (positions[i] - positions[i - 1] + step) * (heights[i + 1] - heights[i]) / (positions[i + 1] - positions[i]) +
+            (positions[i + 1] - positions[i] - step) * (heights[i] - heights[i - 1]) / (positions[i] - positions[i - 1]));
+    }
+}
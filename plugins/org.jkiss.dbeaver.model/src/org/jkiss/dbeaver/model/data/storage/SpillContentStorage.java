@@ -0,0 +1,100 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.storage;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+/**
+ * Content storage referencing a value of {@link SpillContentStore}.
+ * Content is read from memory-mapped segment file.
+ */
+public class SpillContentStorage implements DBDContentStorage {
+
+    private final SpillContentStore store;
+    private final SpillContentStore.Entry entry;
+    private final String charset;
+    private boolean released;
+
+    SpillContentStorage(@NotNull SpillContentStore store, @NotNull SpillContentStore.Entry entry, @Nullable String charset) {
+        this.store = store;
+        this.entry = entry;
+        this.charset = CommonUtils.toString(charset, GeneralUtils.DEFAULT_ENCODING);
+    }
+
+    @Override
+    public InputStream getContentStream() throws IOException {
+        checkReleased();
+        return store.openContentStream(entry);
+    }
+
+    @Override
+    public Reader getContentReader() throws IOException {
+        return new InputStreamReader(getContentStream(), charset);
+    }
+
+    /**
+     * Returns read-only buffer mapped to the content
+     */
+    @NotNull
+    public ByteBuffer getContentBuffer() throws IOException {
+        checkReleased();
+        return store.mapContent(entry);
+    }
+
+    @Override
+    public long getContentLength() {
+        return entry.getLength();
+    }
+
+    @Override
+    public String getCharset() {
+        return charset;
+    }
+
+    @Override
+    public DBDContentStorage cloneStorage(DBRProgressMonitor monitor) throws IOException {
+        checkReleased();
+        // Content is immutable, so copy just references the same value
+        store.acquire(entry);
+        return new SpillContentStorage(store, entry, charset);
+    }
+
+    @Override
+    public synchronized void release() {
+        if (!released) {
+            released = true;
+            store.release(entry);
+        }
+    }
+
+    private synchronized void checkReleased() throws IOException {
+        if (released) {
+            throw new IOException("Content storage was released");
+        }
+    }
+}
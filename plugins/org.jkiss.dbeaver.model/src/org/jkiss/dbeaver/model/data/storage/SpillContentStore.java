@@ -0,0 +1,443 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.storage;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.app.DBPPlatform;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.utils.ContentUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Content-addressed storage of large LOB values.
+ * <p>
+ * Values are written to scratch files first and deduplicated by their SHA-256 digest.
+ * Only values which are not stored yet are appended to shared segment files,
+ * so identical values read from different rows occupy disk space only once.
+ * Segment files are never truncated because their regions may be memory-mapped by readers.
+ * <p>
+ * Values are reference counted by their content storages, values without references are kept for reuse
+ * until the size of segment files exceeds the limit. As disk space is released only with whole segment files,
+ * segments without referenced values are evicted then, starting with the one holding the least recently released value.
+ */
+public class SpillContentStore {
+
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    private static final String SPILL_DIR = "spill";
+    private static final String SCRATCH_PREFIX = "scratch-";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static SpillContentStore instance;
+
+    private final Path folder;
+    private final long segmentSize;
+    private final long maxSize;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Set<Entry> unreferencedEntries = new LinkedHashSet<>();
+    private final List<Segment> segments = new ArrayList<>();
+    // Size of stored values. Segment files may be bigger because of values copied concurrently by several writers.
+    private long totalSize;
+    // Size of segment files, it is limited by the max size
+    private long diskSize;
+    private int segmentCounter;
+
+    public SpillContentStore(@NotNull Path folder, long segmentSize, long maxSize) {
+        this.folder = folder;
+        this.segmentSize = segmentSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns spill store located in the platform LOB folder
+     */
+    @NotNull
+    public static synchronized SpillContentStore getInstance(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBPPlatform platform
+    ) throws IOException {
+        if (instance == null) {
+            Path folder = ContentUtils.getLobFolder(monitor, platform).resolve(SPILL_DIR);
+            Files.createDirectories(folder);
+            long maxSize = platform.getPreferenceStore().getLong(ModelPreferences.CONTENT_SPILL_MAX_SIZE) * 1024 * 1024;
+            instance = new SpillContentStore(folder, DEFAULT_SEGMENT_SIZE, maxSize);
+        }
+        return instance;
+    }
+
+    /**
+     * Opens stream for a new value. Value is stored and referenced by {@link ContentWriter#commit(String)}.
+     * Closing the stream without commit discards written data.
+     */
+    @NotNull
+    public ContentWriter openWriter() throws IOException {
+        return new ContentWriter(Files.createTempFile(folder, SCRATCH_PREFIX, ".tmp"));
+    }
+
+    /**
+     * Size of stored values
+     */
+    public synchronized long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * Size of segment files
+     */
+    public synchronized long getDiskSize() {
+        return diskSize;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    synchronized void acquire(@NotNull Entry entry) {
+        if (entry.refCount == 0) {
+            unreferencedEntries.remove(entry);
+            entry.segment.referencedCount++;
+        }
+        entry.refCount++;
+    }
+
+    synchronized void release(@NotNull Entry entry) {
+        if (--entry.refCount == 0) {
+            unreferencedEntries.add(entry);
+            entry.segment.referencedCount--;
+            evictSegments();
+        }
+    }
+
+    @NotNull
+    ByteBuffer mapContent(@NotNull Entry entry) throws IOException {
+        if (entry.length > Integer.MAX_VALUE) {
+            throw new IOException("Content is too big to be mapped (" + entry.length + " bytes)");
+        }
+        return entry.segment.channel.map(FileChannel.MapMode.READ_ONLY, entry.offset, entry.length);
+    }
+
+    @NotNull
+    InputStream openContentStream(@NotNull Entry entry) throws IOException {
+        if (entry.length > Integer.MAX_VALUE) {
+            return new ChannelInputStream(entry.segment.channel, entry.offset, entry.length);
+        }
+        return new BufferInputStream(mapContent(entry));
+    }
+
+    @NotNull
+    private Entry storeContent(@NotNull FileChannel scratch, @NotNull String digest, long length) throws IOException {
+        final Segment segment;
+        final long offset;
+        synchronized (this) {
+            Entry entry = findEntry(digest, length);
+            if (entry != null) {
+                // Same content is already stored - scratch copy is just dropped
+                acquire(entry);
+                return entry;
+            }
+            segment = acquireSegment();
+            offset = segment.size;
+            // Region is reserved before copy, so other writers append their values after it
+            segment.size += length;
+            segment.pendingWrites++;
+            diskSize += length;
+        }
+        Entry entry = null;
+        boolean copied = false;
+        try {
+            for (long position = 0; position < length; ) {
+                long count = segment.channel.transferFrom(scratch.position(position), offset + position, length - position);
+                if (count <= 0) {
+                    throw new IOException("Can't copy content to spill segment");
+                }
+                position += count;
+            }
+            copied = true;
+        } finally {
+            synchronized (this) {
+                segment.pendingWrites--;
+                if (copied) {
+                    // The same value may be stored by another writer meanwhile, then the copied region stays unused
+                    entry = findEntry(digest, length);
+                    if (entry == null) {
+                        entry = new Entry(digest, segment, offset, length);
+                        entries.put(digest, entry);
+                        segment.entryCount++;
+                        totalSize += length;
+                    }
+                    acquire(entry);
+                }
+                deleteSegmentIfEmpty(segment);
+                evictSegments();
+            }
+        }
+        return entry;
+    }
+
+    @Nullable
+    private Entry findEntry(@NotNull String digest, long length) {
+        Entry entry = entries.get(digest);
+        return entry != null && entry.length == length ? entry : null;
+    }
+
+    @NotNull
+    private Segment acquireSegment() throws IOException {
+        for (Segment segment : segments) {
+            if (segment.size < segmentSize) {
+                return segment;
+            }
+        }
+        Path file = folder.resolve("segment-" + (++segmentCounter) + "-" + System.currentTimeMillis() + ".data");
+        FileChannel channel = FileChannel.open(
+            file,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        Segment segment = new Segment(file, channel);
+        segments.add(segment);
+        return segment;
+    }
+
+    private void evictSegments() {
+        while (diskSize > maxSize) {
+            Segment segment = findEvictableSegment();
+            if (segment == null) {
+                // All segments hold referenced values
+                break;
+            }
+            for (Iterator<Entry> iter = unreferencedEntries.iterator(); iter.hasNext(); ) {
+                Entry entry = iter.next();
+                if (entry.segment == segment) {
+                    iter.remove();
+                    entries.remove(entry.digest);
+                    totalSize -= entry.length;
+                    segment.entryCount--;
+                }
+            }
+            deleteSegmentIfEmpty(segment);
+        }
+    }
+
+    @Nullable
+    private Segment findEvictableSegment() {
+        for (Entry entry : unreferencedEntries) {
+            if (entry.segment.referencedCount == 0 && entry.segment.pendingWrites == 0) {
+                return entry.segment;
+            }
+        }
+        return null;
+    }
+
+    private void deleteSegmentIfEmpty(@NotNull Segment segment) {
+        if (segment.entryCount > 0 || segment.pendingWrites > 0 || !segments.remove(segment)) {
+            return;
+        }
+        diskSize -= segment.size;
+        ContentUtils.close(segment.channel);
+        ContentUtils.deleteTempFile(segment.file);
+    }
+
+    static final class Entry {
+        private final String digest;
+        private final Segment segment;
+        private final long offset;
+        private final long length;
+        private int refCount;
+
+        private Entry(@NotNull String digest, @NotNull Segment segment, long offset, long length) {
+            this.digest = digest;
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        long getLength() {
+            return length;
+        }
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final FileChannel channel;
+        // Size of reserved content, new values are appended after it
+        private long size;
+        private int entryCount;
+        private int referencedCount;
+        private int pendingWrites;
+
+        private Segment(@NotNull Path file, @NotNull FileChannel channel) {
+            this.file = file;
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Writes value to the scratch file and calculates its digest
+     */
+    public final class ContentWriter extends OutputStream {
+        private final FileChannel scratch;
+        private final MessageDigest digest;
+        private long length;
+        private boolean finished;
+
+        private ContentWriter(@NotNull Path scratchFile) throws IOException {
+            try {
+                this.digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                ContentUtils.deleteTempFile(scratchFile);
+                throw new IOException(e);
+            }
+            this.scratch = FileChannel.open(
+                scratchFile,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(@NotNull byte[] b, int off, int len) throws IOException {
+            if (finished) {
+                throw new IOException("Content writer is closed");
+            }
+            digest.update(b, off, len);
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            while (buffer.hasRemaining()) {
+                scratch.write(buffer);
+            }
+            length += len;
+        }
+
+        /**
+         * Stores written content and returns storage holding reference to it
+         */
+        @NotNull
+        public SpillContentStorage commit(@Nullable String charset) throws IOException {
+            if (finished) {
+                throw new IOException("Content writer is closed");
+            }
+            finished = true;
+            try {
+                Entry entry = storeContent(scratch, HexFormat.of().formatHex(digest.digest()), length);
+                return new SpillContentStorage(SpillContentStore.this, entry, charset);
+            } finally {
+                ContentUtils.close(scratch);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!finished) {
+                finished = true;
+                ContentUtils.close(scratch);
+            }
+        }
+    }
+
+    private static class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(@NotNull ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(@NotNull byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    private static class ChannelInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+
+        ChannelInputStream(@NotNull FileChannel channel, long offset, long length) {
+            this.channel = channel;
+            this.position = offset;
+            this.end = offset + length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) <= 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(@NotNull byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= end) {
+                return -1;
+            }
+            int count = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (count > 0) {
+                position += count;
+            }
+            return count;
+        }
+    }
+}
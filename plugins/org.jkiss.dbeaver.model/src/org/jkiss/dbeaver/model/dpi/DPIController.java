@@ -59,4 +59,19 @@ public interface DPIController extends DBPPingController, AutoCloseable {
         @RequestParameter("object") @NotNull String objectId,
         @RequestParameter("property") @NotNull String propertyName) throws DBException;
 
+    /**
+     * Reads next page of rows from the result set object.
+     * Values are returned in columns, so the client doesn't have to call the result set for each row and value.
+     *
+     * @param offset position of the first row to read, as reported by the previous page of this result set.
+     *               Result sets are read forward only: rows before the offset are skipped,
+     *               an offset behind the cursor is an error. -1 reads from the current cursor position.
+     */
+    @RequestMapping
+    @NotNull
+    DPIResultPage fetchResultPage(
+        @RequestParameter("object") @NotNull String resultSetId,
+        @RequestParameter("offset") long offset,
+        @RequestParameter("maxRows") int maxRows) throws DBException;
+
 }
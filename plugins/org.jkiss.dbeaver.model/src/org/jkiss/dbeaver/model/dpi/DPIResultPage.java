@@ -0,0 +1,80 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.dpi;
+
+import org.jkiss.code.NotNull;
+
+/**
+ * Page of result set rows read by a detached process.
+ * Values are stored column by column, so each column of the page is transferred as a single array.
+ */
+public class DPIResultPage {
+
+    private final long offset;
+    private final int rowCount;
+    private final Object[][] columns;
+    private final boolean lastPage;
+
+    public DPIResultPage(long offset, int rowCount, @NotNull Object[][] columns, boolean lastPage) {
+        this.offset = offset;
+        this.rowCount = rowCount;
+        this.columns = columns;
+        this.lastPage = lastPage;
+    }
+
+    /**
+     * Returns position of the first page row in the result set or -1 if position of the remote cursor is unknown.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns position of the row which follows this page or -1 if position of the remote cursor is unknown.
+     */
+    public long getNextOffset() {
+        return offset < 0 ? -1 : offset + rowCount;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Returns values of the specified column. Array length is equal to the page row count.
+     */
+    @NotNull
+    public Object[] getColumn(int index) {
+        return columns[index];
+    }
+
+    public Object getValue(int row, int column) {
+        return columns[column][row];
+    }
+
+    /**
+     * Returns true if result set has no more rows after this page.
+     */
+    public boolean isLastPage() {
+        return lastPage;
+    }
+
+}
@@ -0,0 +1,367 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.exec;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPTransactionIsolation;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.connection.DBPConnectionBootstrap;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.*;
+
+/**
+ * Pool of isolated execution contexts of a database instance.
+ * Tasks and data transfers open an isolated context per table, pooled contexts let them skip connection handshake.
+ * <p>
+ * Contexts are validated on checkout. When they are returned, open transaction is rolled back and the whole
+ * server session state (session variables, temporary tables, prepared statements, etc.) is reset with the
+ * {@link org.jkiss.dbeaver.model.sql.SQLDialect#getSessionResetQuery() dialect session reset query}.
+ * Then auto-commit, isolation level and default catalog/schema are restored.
+ * Contexts of dialects without session reset and contexts with bootstrap init queries are never pooled,
+ * they are closed when returned. Idle contexts are closed after idle timeout.
+ */
+public class DBCExecutionContextPool {
+
+    private static final Log log = Log.getLog(DBCExecutionContextPool.class);
+
+    public static final int DEFAULT_MAX_IDLE_CONTEXTS = 4;
+    public static final long DEFAULT_MAX_IDLE_TIME = 60_000;
+
+    private static final Map<DBSInstance, DBCExecutionContextPool> pools = new WeakHashMap<>();
+
+    private final int maxIdleContexts;
+    private final long maxIdleTime;
+    private final Deque<IdleContext> idleContexts = new ArrayDeque<>();
+    private final Map<DBCExecutionContext, ContextState> activeContexts = new IdentityHashMap<>();
+    private final AbstractJob idleContextsJob;
+    private long hitCount;
+    private long missCount;
+
+    public DBCExecutionContextPool(int maxIdleContexts, long maxIdleTime) {
+        this.maxIdleContexts = maxIdleContexts;
+        this.maxIdleTime = maxIdleTime;
+        this.idleContextsJob = new AbstractJob("Close idle execution contexts") {
+            {
+                setUser(false);
+                setSystem(true);
+            }
+
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                long nextCheckDelay = closeIdleContexts(System.currentTimeMillis());
+                if (nextCheckDelay > 0) {
+                    schedule(nextCheckDelay);
+                }
+                return Status.OK_STATUS;
+            }
+        };
+    }
+
+    /**
+     * Returns shared pool of the specified instance
+     */
+    @NotNull
+    public static DBCExecutionContextPool getPool(@NotNull DBSInstance instance) {
+        synchronized (pools) {
+            return pools.computeIfAbsent(instance, i -> new DBCExecutionContextPool(DEFAULT_MAX_IDLE_CONTEXTS, DEFAULT_MAX_IDLE_TIME));
+        }
+    }
+
+    /**
+     * Returns isolated context of the specified instance. Idle pooled context is reused if it is still alive,
+     * otherwise new context is opened. Context must be returned with {@link #release(DBRProgressMonitor, DBCExecutionContext)}.
+     *
+     * @param initFrom context to copy default catalog and schema from
+     */
+    @NotNull
+    public DBCExecutionContext acquire(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSInstance instance,
+        @NotNull String purpose,
+        @Nullable DBCExecutionContext initFrom
+    ) throws DBException {
+        for (;;) {
+            IdleContext idle;
+            synchronized (this) {
+                idle = idleContexts.pollLast();
+                if (idle == null) {
+                    missCount++;
+                    break;
+                }
+            }
+            if (!isContextValid(monitor, idle.context)) {
+                closeContext(idle.context);
+                continue;
+            }
+            synchronized (this) {
+                hitCount++;
+                activeContexts.put(idle.context, idle.state);
+            }
+            if (initFrom != null) {
+                try {
+                    applyDefaults(monitor, idle.context, getDefaultCatalogName(initFrom), getDefaultSchemaName(initFrom));
+                } catch (DBException e) {
+                    release(monitor, idle.context);
+                    throw e;
+                }
+            }
+            return idle.context;
+        }
+        DBCExecutionContext context = instance.openIsolatedContext(monitor, purpose, initFrom);
+        ContextState state = captureState(context);
+        synchronized (this) {
+            activeContexts.put(context, state);
+        }
+        return context;
+    }
+
+    /**
+     * Returns context to the pool. Open transaction is rolled back and session state is reset.
+     * Context is closed if its session state can't be reset, if it wasn't obtained from this pool or if the pool is full.
+     */
+    public void release(@NotNull DBRProgressMonitor monitor, @NotNull DBCExecutionContext context) {
+        ContextState state;
+        synchronized (this) {
+            state = activeContexts.remove(context);
+        }
+        if (state == null || !context.isConnected() || !resetContext(monitor, context, state)) {
+            closeContext(context);
+            return;
+        }
+        synchronized (this) {
+            if (idleContexts.size() >= maxIdleContexts) {
+                state = null;
+            } else {
+                idleContexts.addLast(new IdleContext(context, state, System.currentTimeMillis()));
+            }
+        }
+        if (state == null) {
+            closeContext(context);
+            return;
+        }
+        int jobState = idleContextsJob.getState();
+        if (jobState != Job.SLEEPING && jobState != Job.WAITING) {
+            // Running job will be rescheduled after it finishes
+            idleContextsJob.schedule(maxIdleTime);
+        }
+    }
+
+    /**
+     * Closes all idle contexts. Active contexts are closed when they are released.
+     */
+    public void closeIdleContexts() {
+        List<IdleContext> toClose;
+        synchronized (this) {
+            toClose = new ArrayList<>(idleContexts);
+            idleContexts.clear();
+        }
+        for (IdleContext idle : toClose) {
+            closeContext(idle.context);
+        }
+    }
+
+    public synchronized int getIdleCount() {
+        return idleContexts.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns share of checkouts served by pooled contexts, from 0 to 1
+     */
+    public synchronized double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Closes contexts which are idle for longer than max idle time.
+     *
+     * @return delay of the next check or 0 if there are no idle contexts
+     */
+    long closeIdleContexts(long currentTime) {
+        List<IdleContext> toClose = new ArrayList<>();
+        long nextCheckDelay = 0;
+        synchronized (this) {
+            for (Iterator<IdleContext> iter = idleContexts.iterator(); iter.hasNext(); ) {
+                IdleContext idle = iter.next();
+                long idleTime = currentTime - idle.idleSince;
+                if (idleTime >= maxIdleTime) {
+                    iter.remove();
+                    toClose.add(idle);
+                } else {
+                    long delay = maxIdleTime - idleTime;
+                    if (nextCheckDelay == 0 || delay < nextCheckDelay) {
+                        nextCheckDelay = delay;
+                    }
+                }
+            }
+        }
+        for (IdleContext idle : toClose) {
+            closeContext(idle.context);
+        }
+        return nextCheckDelay;
+    }
+
+    private static boolean isContextValid(@NotNull DBRProgressMonitor monitor, @NotNull DBCExecutionContext context) {
+        if (!context.isConnected()) {
+            return false;
+        }
+        try {
+            context.checkContextAlive(monitor);
+            return true;
+        } catch (Exception e) {
+            log.debug("Pooled context '" + context.getContextName() + "' is not alive: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean resetContext(@NotNull DBRProgressMonitor monitor, @NotNull DBCExecutionContext context, @NotNull ContextState state) {
+        String resetQuery = getSessionResetQuery(context);
+        if (resetQuery == null) {
+            // Session variables and temporary objects would leak to the next user of the context
+            return false;
+        }
+        try {
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+            if (txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
+                try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Reset pooled context")) {
+                    txnManager.rollback(session, null);
+                }
+                // Session can't be reset inside of transaction
+                txnManager.setAutoCommit(monitor, true);
+            }
+            try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Reset pooled context")) {
+                try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.SCRIPT, resetQuery, false, false, false)) {
+                    dbStat.executeStatement();
+                }
+            }
+            if (txnManager != null && txnManager.isSupportsTransactions()) {
+                if (state.autoCommit != null && txnManager.isAutoCommit() != state.autoCommit) {
+                    txnManager.setAutoCommit(monitor, state.autoCommit);
+                }
+                if (state.isolation != null && !state.isolation.equals(txnManager.getTransactionIsolation())) {
+                    txnManager.setTransactionIsolation(monitor, state.isolation);
+                }
+            }
+            DBCExecutionContextDefaults<?, ?> defaults = context.getContextDefaults();
+            if (defaults != null) {
+                // Session reset dropped default schema and role applied from bootstrap settings
+                defaults.refreshDefaults(monitor, true);
+            }
+            applyDefaults(monitor, context, state.catalogName, state.schemaName);
+            return true;
+        } catch (Exception e) {
+            log.debug("Can't reset pooled context '" + context.getContextName() + "': " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void applyDefaults(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCExecutionContext context,
+        @Nullable String catalogName,
+        @Nullable String schemaName
+    ) throws DBException {
+        String curCatalogName = getDefaultCatalogName(context);
+        if (Objects.equals(curCatalogName, catalogName) && Objects.equals(getDefaultSchemaName(context), schemaName)) {
+            return;
+        }
+        DBExecUtils.setExecutionContextDefaults(monitor, context.getDataSource(), context, catalogName, curCatalogName, schemaName);
+    }
+
+    @Nullable
+    private static String getSessionResetQuery(@NotNull DBCExecutionContext context) {
+        DBPDataSource dataSource = context.getDataSource();
+        DBPConnectionBootstrap bootstrap = dataSource.getContainer().getActualConnectionConfiguration().getBootstrap();
+        if (!CommonUtils.isEmpty(bootstrap.getInitQueries())) {
+            // Init queries changed session state which would be lost after reset
+            return null;
+        }
+        return dataSource.getSQLDialect().getSessionResetQuery();
+    }
+
+    @NotNull
+    private static ContextState captureState(@NotNull DBCExecutionContext context) {
+        ContextState state = new ContextState();
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+        if (txnManager != null && txnManager.isSupportsTransactions()) {
+            try {
+                state.autoCommit = txnManager.isAutoCommit();
+                state.isolation = txnManager.getTransactionIsolation();
+            } catch (DBCException e) {
+                log.debug("Can't read transaction settings of context '" + context.getContextName() + "': " + e.getMessage());
+            }
+        }
+        state.catalogName = getDefaultCatalogName(context);
+        state.schemaName = getDefaultSchemaName(context);
+        return state;
+    }
+
+    @Nullable
+    private static String getDefaultCatalogName(@NotNull DBCExecutionContext context) {
+        DBCExecutionContextDefaults<?, ?> defaults = context.getContextDefaults();
+        return defaults == null ? null : getObjectName(defaults.getDefaultCatalog());
+    }
+
+    @Nullable
+    private static String getDefaultSchemaName(@NotNull DBCExecutionContext context) {
+        DBCExecutionContextDefaults<?, ?> defaults = context.getContextDefaults();
+        return defaults == null ? null : getObjectName(defaults.getDefaultSchema());
+    }
+
+    @Nullable
+    private static String getObjectName(@Nullable DBSObject object) {
+        return object == null ? null : object.getName();
+    }
+
+    private static void closeContext(@NotNull DBCExecutionContext context) {
+        try {
+            context.close();
+        } catch (Exception e) {
+            log.debug("Error closing pooled context: " + e.getMessage());
+        }
+    }
+
+    private static class ContextState {
+        private Boolean autoCommit;
+        private DBPTransactionIsolation isolation;
+        private String catalogName;
+        private String schemaName;
+    }
+
+    private record IdleContext(@NotNull DBCExecutionContext context, @NotNull ContextState state, long idleSince) {
+    }
+}
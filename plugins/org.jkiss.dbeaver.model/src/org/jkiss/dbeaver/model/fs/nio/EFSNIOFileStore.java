@@ -21,8 +21,15 @@ import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.filesystem.provider.FileStore;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.nio.NIOBlockCache;
+import org.jkiss.dbeaver.model.nio.NIOFileSystem;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
@@ -34,6 +41,12 @@ import java.nio.file.Path;
  */
 public class EFSNIOFileStore extends FileStore {
 
+    private static final Log log = Log.getLog(EFSNIOFileStore.class);
+
+    private static final String BLOCK_CACHE_FOLDER = "remote-file-cache";
+    private static NIOBlockCache blockCache;
+    private static boolean blockCacheFailed;
+
     private final URI dbvfsURI;
     private final Path path;
 
@@ -73,6 +86,10 @@ public class EFSNIOFileStore extends FileStore {
 
     @Override
     public InputStream openInputStream(int options, IProgressMonitor monitor) throws CoreException {
+        if (path.getFileSystem() instanceof NIOFileSystem fileSystem && fileSystem.getBlockCache() == null) {
+            // Remote files are read through the shared local cache of blocks
+            fileSystem.setBlockCache(getBlockCache());
+        }
         try {
             return Files.newInputStream(path);
         } catch (Exception e) {
@@ -94,4 +111,17 @@ public class EFSNIOFileStore extends FileStore {
         return dbvfsURI;
     }
 
+    @Nullable
+    private static synchronized NIOBlockCache getBlockCache() {
+        if (blockCache == null && !blockCacheFailed) {
+            try {
+                blockCache = new NIOBlockCache(DBWorkbench.getPlatform().getTempFolder(new VoidProgressMonitor(), BLOCK_CACHE_FOLDER));
+            } catch (IOException e) {
+                log.debug("Error creating remote file cache", e);
+                blockCacheFailed = true;
+            }
+        }
+        return blockCache;
+    }
+
 }
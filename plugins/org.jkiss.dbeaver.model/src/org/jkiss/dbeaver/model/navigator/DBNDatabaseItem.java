@@ -28,10 +28,19 @@ public class DBNDatabaseItem extends DBNDatabaseNode {
     private DBSObject object;
 
     DBNDatabaseItem(DBNNode parent, DBXTreeNode meta, DBSObject object, boolean reflect) {
+        this(parent, meta, object, reflect, true);
+    }
+
+    /**
+     * @param register register node in the model. Otherwise, it is registered by the first DBNModel#getNodeByObject
+     */
+    DBNDatabaseItem(DBNNode parent, DBXTreeNode meta, DBSObject object, boolean reflect, boolean register) {
         super(parent);
         this.meta = meta;
         this.object = object;
-        registerNode();
+        if (register) {
+            registerNode();
+        }
     }
 
     @Override
@@ -56,9 +65,13 @@ public class DBNDatabaseItem extends DBNDatabaseNode {
         if (this.object == newObject) {
             return false;
         }
-        unregisterNode(false);
-        this.object = newObject;
-        registerNode();
+        if (isRegistered()) {
+            unregisterNode(false);
+            this.object = newObject;
+            registerNode();
+        } else {
+            this.object = newObject;
+        }
 
         return true;
     }
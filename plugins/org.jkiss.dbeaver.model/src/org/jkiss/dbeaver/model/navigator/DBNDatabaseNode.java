@@ -56,10 +56,16 @@ import java.util.*;
 public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DBSWrapper, DBPContextProvider, DBPDataSourceContainerProvider {
 
     private static final DBNDatabaseNode[] EMPTY_NODES = new DBNDatabaseNode[0];
+    // Items of longer child lists are registered in the model on first lookup (see DBNModel#getNodeByObject)
+    static final int LAZY_REGISTRATION_THRESHOLD = 1000;
 
     private volatile boolean locked;
     protected volatile DBNDatabaseNode[] childNodes;
     private boolean filtered;
+    private volatile boolean registered;
+    // Children which are not registered in the model, by their objects
+    private Map<DBSObject, DBNDatabaseNode> lazyChildIndex;
+    private DBNDatabaseFolder[] childFolders;
 
     protected DBNDatabaseNode(DBNNode parentNode) {
         super(parentNode);
@@ -68,6 +74,12 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DB
     void registerNode() {
         DBNModel model = getModel();
         if (model != null) {
+            synchronized (this) {
+                if (registered) {
+                    return;
+                }
+                registered = true;
+            }
             model.addNode(this, false);
         }
     }
@@ -75,10 +87,72 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DB
     void unregisterNode(boolean reflect) {
         DBNModel model = getModel();
         if (model != null) {
-            model.removeNode(this, reflect);
+            boolean wasRegistered;
+            synchronized (this) {
+                wasRegistered = registered;
+                registered = false;
+            }
+            if (wasRegistered) {
+                model.removeNode(this, reflect);
+            } else if (reflect) {
+                model.fireNodeEvent(new DBNEvent(model, DBNEvent.Action.REMOVE, DBNEvent.NodeChange.UNLOAD, this));
+            }
         }
     }
 
+    boolean isRegistered() {
+        return registered;
+    }
+
+    /**
+     * Finds not registered child item of the specified object.
+     * Looks through folders of this node too.
+     */
+    @Nullable
+    DBNDatabaseNode findLazyChild(@NotNull DBSObject object) {
+        final DBNDatabaseFolder[] folders;
+        synchronized (this) {
+            final DBNDatabaseNode child = lazyChildIndex == null ? null : lazyChildIndex.get(object);
+            if (child != null) {
+                return child.isRegistered() ? null : child;
+            }
+            folders = childFolders;
+        }
+        if (folders != null) {
+            for (DBNDatabaseFolder folder : folders) {
+                final DBNDatabaseNode node = folder.findLazyChild(object);
+                if (node != null) {
+                    return node;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets loaded children. Children which are not registered in the model are indexed by their objects.
+     */
+    synchronized void setChildNodes(@NotNull DBNDatabaseNode[] children) {
+        Map<DBSObject, DBNDatabaseNode> index = null;
+        List<DBNDatabaseFolder> folders = null;
+        for (DBNDatabaseNode child : children) {
+            if (child instanceof DBNDatabaseFolder folder) {
+                if (folders == null) {
+                    folders = new ArrayList<>();
+                }
+                folders.add(folder);
+            } else if (!child.isRegistered() && child.getObject() != null) {
+                if (index == null) {
+                    index = new IdentityHashMap<>();
+                }
+                index.put(child.getObject(), child);
+            }
+        }
+        this.childNodes = children;
+        this.lazyChildIndex = index;
+        this.childFolders = folders == null ? null : folders.toArray(new DBNDatabaseFolder[0]);
+    }
+
     @Override
     protected void dispose(boolean reflect) {
         clearChildren(reflect);
@@ -228,13 +302,7 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DB
                 final List<DBNDatabaseNode> tmpList = new ArrayList<>();
                 loadChildren(monitor, getMeta(), null, tmpList, this, true);
                 if (!monitor.isCanceled()) {
-                    synchronized (this) {
-                        if (tmpList.isEmpty()) {
-                            this.childNodes = EMPTY_NODES;
-                        } else {
-                            this.childNodes = tmpList.toArray(new DBNDatabaseNode[0]);
-                        }
-                    }
+                    setChildNodes(tmpList.isEmpty() ? EMPTY_NODES : tmpList.toArray(new DBNDatabaseNode[0]));
                     this.afterChildRead();
                 }
             } else {
@@ -290,6 +358,9 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DB
                     if (child.getObject() == object) {
                         childNode = child;
                         childNodes = ArrayUtils.remove(DBNDatabaseNode.class, childNodes, i);
+                        if (lazyChildIndex != null) {
+                            lazyChildIndex.remove(object);
+                        }
                         break;
                     }
                 }
@@ -408,6 +479,8 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DB
         synchronized (this) {
             childrenCopy = childNodes == null ? null : Arrays.copyOf(childNodes, childNodes.length);
             childNodes = null;
+            lazyChildIndex = null;
+            childFolders = null;
         }
         if (childrenCopy != null) {
             for (DBNNode child : childrenCopy) {
@@ -629,10 +702,24 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DB
             // check it
             return false;
         }
-        List<DBNDatabaseNode> oldList = new LinkedList<>();
+        // Old children of this meta indexed by object class and unique name.
+        // Linear search through old children is too slow for huge lists on refresh.
+        final Map<Object, List<DBNDatabaseNode>> oldChildren = new HashMap<>();
         if (oldListCmp != null) {
-            Collections.addAll(oldList, oldListCmp);
+            for (DBNDatabaseNode oldChild : oldListCmp) {
+                if (oldChild.getMeta() != meta) {
+                    continue;
+                }
+                if (oldChild.getObject() == null) {
+                    // Broken node - it never matches new objects
+                    oldChild.dispose(true);
+                    continue;
+                }
+                oldChildren.computeIfAbsent(getObjectLookupKey(oldChild.getObject()), k -> new ArrayList<>(1)).add(oldChild);
+            }
         }
+        // Do not index all items of long lists in the model. Most of them are never opened.
+        final boolean registerItems = itemList.size() <= LAZY_REGISTRATION_THRESHOLD;
         for (Object childItem : itemList) {
             if (childItem == null) {
                 continue;
@@ -664,11 +751,12 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DB
             }
             DBSObject object = (DBSObject) childItem;
             boolean added = false;
-            if (!oldList.isEmpty()) {
+            final List<DBNDatabaseNode> oldCandidates = oldChildren.isEmpty() ? null : oldChildren.get(getObjectLookupKey(object));
+            if (oldCandidates != null) {
                 // Check that new object is a replacement of old one
-                for (Iterator<DBNDatabaseNode> iterator = oldList.iterator(); iterator.hasNext(); ) {
+                for (Iterator<DBNDatabaseNode> iterator = oldCandidates.iterator(); iterator.hasNext(); ) {
                     DBNDatabaseNode oldChild = iterator.next();
-                    if (oldChild.getMeta() == meta && equalObjects(oldChild.getObject(), object)) {
+                    if (equalObjects(oldChild.getObject(), object)) {
                         boolean updated = oldChild.reloadObject(monitor, object);
 
                         if (oldChild.hasChildren(false) && !oldChild.needsInitialization()) {
@@ -689,34 +777,50 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DB
             }
             if (!added) {
                 // Simply add new item
-                DBNDatabaseItem treeItem = new DBNDatabaseItem(this, meta, object, oldList != null);
+                DBNDatabaseItem treeItem = new DBNDatabaseItem(this, meta, object, true, registerItems);
                 toList.add(treeItem);
             }
         }
 
-        {
+        if (!oldChildren.isEmpty()) {
             // Now remove all non-existing items
-            for (DBNDatabaseNode oldChild : oldList) {
-                if (oldChild.getMeta() != meta) {
-                    // Wrong type
-                    continue;
-                }
-                boolean found = false;
-                for (Object childItem : itemList) {
-                    if (childItem instanceof DBSObject && equalObjects(oldChild.getObject(), (DBSObject) childItem)) {
-                        found = true;
-                        break;
+            Map<Object, List<DBSObject>> newObjects = null;
+            for (List<DBNDatabaseNode> oldCandidates : oldChildren.values()) {
+                for (DBNDatabaseNode oldChild : oldCandidates) {
+                    if (newObjects == null) {
+                        newObjects = new HashMap<>();
+                        for (Object childItem : itemList) {
+                            if (childItem instanceof DBSObject) {
+                                newObjects.computeIfAbsent(getObjectLookupKey((DBSObject) childItem), k -> new ArrayList<>(1)).add((DBSObject) childItem);
+                            }
+                        }
+                    }
+                    boolean found = false;
+                    final List<DBSObject> sameObjects = newObjects.get(getObjectLookupKey(oldChild.getObject()));
+                    if (sameObjects != null) {
+                        for (DBSObject childItem : sameObjects) {
+                            if (equalObjects(oldChild.getObject(), childItem)) {
+                                found = true;
+                                break;
+                            }
+                        }
+                    }
+                    if (!found) {
+                        // Remove old child object
+                        oldChild.dispose(true);
                     }
-                }
-                if (!found) {
-                    // Remove old child object
-                    oldChild.dispose(true);
                 }
             }
         }
         return true;
     }
 
+    @NotNull
+    private static Object getObjectLookupKey(@NotNull DBSObject object) {
+        // Objects with different class or unique name are never equal (see equalObjects)
+        return Arrays.asList(object.getClass(), DBUtils.getObjectUniqueName(object));
+    }
+
     @Nullable
     @Override
     public DBCExecutionContext getExecutionContext() {
@@ -850,9 +954,7 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DB
         }
         List<DBNDatabaseNode> newChildren = new ArrayList<>();
         loadChildren(monitor, getMeta(), oldChildren, newChildren, source, reflect);
-        synchronized (this) {
-            childNodes = newChildren.toArray(new DBNDatabaseNode[0]);
-        }
+        setChildNodes(newChildren.toArray(new DBNDatabaseNode[0]));
     }
 
     protected static boolean equalObjects(DBSObject object1, DBSObject object2) {
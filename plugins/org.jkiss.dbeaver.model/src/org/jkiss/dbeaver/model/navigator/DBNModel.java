@@ -195,7 +195,7 @@ public class DBNModel implements IResourceChangeListener {
             obj = nodeMap.get(object);
         }
         if (obj == null) {
-            return null;
+            return findLazyNode(object);
         } else if (obj instanceof DBNDatabaseNode) {
             return (DBNDatabaseNode)obj;
         } else if (obj instanceof List) {
@@ -225,6 +225,27 @@ public class DBNModel implements IResourceChangeListener {
 */
     }
 
+    /**
+     * Items of long child lists are not registered in the model when they are loaded.
+     * Finds such item in children of the parent object node and registers it.
+     */
+    @Nullable
+    private DBNDatabaseNode findLazyNode(@NotNull DBSObject object) {
+        DBSObject parentObject = object.getParentObject();
+        if (parentObject == null || parentObject == object) {
+            return null;
+        }
+        DBNDatabaseNode parentNode = getNodeByObject(parentObject);
+        if (parentNode == null) {
+            return null;
+        }
+        DBNDatabaseNode node = parentNode.findLazyChild(object);
+        if (node != null) {
+            node.registerNode();
+        }
+        return node;
+    }
+
     @Nullable
     public DBNDatabaseNode getNodeByObject(DBRProgressMonitor monitor, DBSObject object, boolean addFiltered)
     {
@@ -0,0 +1,182 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm;
+
+import org.jkiss.code.NotNull;
+
+import java.util.regex.Pattern;
+
+/**
+ * Query fingerprint.
+ * Produces a literal-free form of a query text, so that executions of the same statement
+ * with different constants or parameter values are accounted together.
+ * Comments are removed, string and numeric literals and parameter placeholders are replaced with {@code ?},
+ * unquoted text is lower-cased and whitespace is collapsed. Quoted identifiers are kept as is.
+ */
+public final class QMQueryFingerprint {
+
+    public static final int MAX_FINGERPRINT_LENGTH = 2048;
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s?,\\s?\\?)+");
+    private static final Pattern ROW_LIST = Pattern.compile("\\(\\?\\)(?:\\s?,\\s?\\(\\?\\))+");
+
+    private QMQueryFingerprint() {
+    }
+
+    @NotNull
+    public static String normalize(@NotNull String query) {
+        final int length = query.length();
+        final StringBuilder buffer = new StringBuilder(Math.min(length, MAX_FINGERPRINT_LENGTH) + 16);
+        boolean pendingSpace = false;
+        int pos = 0;
+        while (pos < length && buffer.length() < MAX_FINGERPRINT_LENGTH) {
+            char c = query.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                pos++;
+                continue;
+            }
+            if (c == '-' && pos + 1 < length && query.charAt(pos + 1) == '-') {
+                // Line comment
+                while (pos < length && query.charAt(pos) != '\n') {
+                    pos++;
+                }
+                pendingSpace = true;
+                continue;
+            }
+            if (c == '/' && pos + 1 < length && query.charAt(pos + 1) == '*') {
+                // Block comment
+                int end = query.indexOf("*/", pos + 2);
+                pos = end < 0 ? length : end + 2;
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && buffer.length() > 0) {
+                buffer.append(' ');
+            }
+            pendingSpace = false;
+
+            if (c == '\'') {
+                pos = skipQuoted(query, pos, '\'');
+                buffer.append('?');
+            } else if (c == '"' || c == '`') {
+                int end = skipQuoted(query, pos, c);
+                buffer.append(query, pos, end);
+                pos = end;
+            } else if (isNumberStart(query, pos) || ((c == '-' || c == '+') && isNumberStart(query, pos + 1) && isOperandExpected(buffer))) {
+                pos = skipNumber(query, c == '-' || c == '+' ? pos + 1 : pos);
+                buffer.append('?');
+            } else if ((c == '$' || c == ':') && pos + 1 < length && isParameterStart(query, pos)) {
+                // Numbered ($1) or named (:name) parameter
+                pos++;
+                while (pos < length && Character.isJavaIdentifierPart(query.charAt(pos))) {
+                    pos++;
+                }
+                buffer.append('?');
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int start = pos;
+                while (pos < length && Character.isJavaIdentifierPart(query.charAt(pos))) {
+                    pos++;
+                }
+                for (int i = start; i < pos; i++) {
+                    buffer.append(Character.toLowerCase(query.charAt(i)));
+                }
+            } else {
+                buffer.append(c);
+                pos++;
+            }
+        }
+        String result = buffer.toString();
+        if (result.indexOf('?') >= 0) {
+            result = PARAMETER_LIST.matcher(result).replaceAll("?");
+            result = ROW_LIST.matcher(result).replaceAll("(?)");
+        }
+        return result;
+    }
+
+    private static int skipQuoted(String query, int pos, char quote) {
+        final int length = query.length();
+        pos++;
+        while (pos < length) {
+            if (query.charAt(pos) == quote) {
+                if (pos + 1 < length && query.charAt(pos + 1) == quote) {
+                    // Escaped quote
+                    pos += 2;
+                    continue;
+                }
+                return pos + 1;
+            }
+            pos++;
+        }
+        return length;
+    }
+
+    private static int skipNumber(String query, int pos) {
+        final int length = query.length();
+        if (query.charAt(pos) == '0' && pos + 1 < length && (query.charAt(pos + 1) == 'x' || query.charAt(pos + 1) == 'X')) {
+            pos += 2;
+            while (pos < length && Character.digit(query.charAt(pos), 16) >= 0) {
+                pos++;
+            }
+            return pos;
+        }
+        while (pos < length) {
+            char c = query.charAt(pos);
+            if (Character.isDigit(c) || c == '.') {
+                pos++;
+            } else if ((c == 'e' || c == 'E') && pos + 1 < length
+                && (Character.isDigit(query.charAt(pos + 1)) || query.charAt(pos + 1) == '-' || query.charAt(pos + 1) == '+')) {
+                pos += 2;
+            } else {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    private static boolean isNumberStart(String query, int pos) {
+        if (pos >= query.length()) {
+            return false;
+        }
+        char c = query.charAt(pos);
+        return Character.isDigit(c) || (c == '.' && pos + 1 < query.length() && Character.isDigit(query.charAt(pos + 1)));
+    }
+
+    /**
+     * Checks whether sign belongs to a numeric literal (-1) rather than to a binary operator (a - 1)
+     */
+    private static boolean isOperandExpected(StringBuilder buffer) {
+        int pos = buffer.length() - 1;
+        if (pos >= 0 && buffer.charAt(pos) == ' ') {
+            pos--;
+        }
+        if (pos < 0) {
+            return true;
+        }
+        char prev = buffer.charAt(pos);
+        return !(Character.isJavaIdentifierPart(prev) || prev == ')' || prev == '?' || prev == '"' || prev == '`' || prev == ']');
+    }
+
+    private static boolean isParameterStart(String query, int pos) {
+        char next = query.charAt(pos + 1);
+        if (query.charAt(pos) == '$') {
+            return Character.isDigit(next);
+        }
+        // Skip PostgreSQL-style casts (::type) and assignment operators (:=)
+        return Character.isJavaIdentifierStart(next) && (pos == 0 || query.charAt(pos - 1) != ':');
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Per-query execution statistics.
+ * Executed queries are grouped by data source and query fingerprint (see {@link QMQueryFingerprint}).
+ * Execute and fetch latencies are measured in microseconds.
+ */
+public interface QMQueryStatistics {
+
+    /**
+     * Statistics of a single query fingerprint
+     */
+    interface Entry {
+
+        @NotNull
+        String getDataSourceId();
+
+        @NotNull
+        String getDataSourceName();
+
+        @NotNull
+        String getFingerprint();
+
+        long getErrorCount();
+
+        long getLastExecuteTime();
+
+        @NotNull
+        QMLatencyHistogram.Snapshot getExecuteLatency();
+
+        @NotNull
+        QMLatencyHistogram.Snapshot getFetchLatency();
+
+        @NotNull
+        QMLatencyHistogram.Snapshot getRowCounts();
+    }
+
+    /**
+     * Returns statistics snapshot ordered by total execution time (descending)
+     */
+    @NotNull
+    List<Entry> getEntries();
+
+    void reset();
+
+    /**
+     * Writes statistics snapshot in CSV format
+     */
+    void exportCSV(@NotNull Writer writer) throws IOException;
+
+}
@@ -28,6 +28,8 @@ public interface QMRegistry {
 
     QMEventBrowser getEventBrowser(boolean currentSessionOnly);
 
+    QMQueryStatistics getQueryStatistics();
+
     void registerHandler(QMExecutionHandler handler);
 
     void unregisterHandler(QMExecutionHandler handler);
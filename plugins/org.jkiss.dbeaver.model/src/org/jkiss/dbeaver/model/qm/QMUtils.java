@@ -88,6 +88,14 @@ public class QMUtils {
         return application.getQueryManager().getEventBrowser(currentSessionOnly);
     }
 
+    @Nullable
+    public static QMQueryStatistics getQueryStatistics() {
+        if (application == null) {
+            return null;
+        }
+        return application.getQueryManager().getQueryStatistics();
+    }
+
     public static boolean isTransactionActive(DBCExecutionContext executionContext) {
         return isTransactionActive(executionContext, true);
     }
@@ -524,4 +524,15 @@ public interface SQLDialect {
 
     default void afterDataSourceInitialization(@NotNull DBPDataSource dataSource) {
     }
+
+    /**
+     * Query which resets connection session state: session variables, temporary tables, prepared statements, etc.
+     * Must be executed outside of transaction.
+     *
+     * @return null if session state can't be reset
+     */
+    @Nullable
+    default String getSessionResetQuery() {
+        return null;
+    }
 }
@@ -26,6 +26,8 @@ import org.jkiss.dbeaver.model.app.DBPProject;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.Map;
 
@@ -64,6 +66,21 @@ public interface DBTTask extends DBPNamedObject, DBPObjectWithDescription {
     @NotNull
     DBTTaskRun[] getAllRuns();
 
+    /**
+     * Returns a page of task runs, newest first.
+     *
+     * @param offset   number of newest runs to skip
+     * @param maxCount maximum number of runs to return, or zero for all runs
+     */
+    @NotNull
+    default DBTTaskRun[] getRuns(int offset, int maxCount) {
+        DBTTaskRun[] allRuns = getAllRuns().clone();
+        Arrays.sort(allRuns, Comparator.comparing(DBTTaskRun::getStartTime).reversed());
+        int from = Math.min(Math.max(offset, 0), allRuns.length);
+        int to = maxCount <= 0 ? allRuns.length : (int) Math.min((long) from + maxCount, allRuns.length);
+        return Arrays.copyOfRange(allRuns, from, to);
+    }
+
     @Nullable
     Path getRunLog(@NotNull DBTTaskRun run);
 
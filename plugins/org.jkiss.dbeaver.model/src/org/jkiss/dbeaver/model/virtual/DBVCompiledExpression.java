@@ -0,0 +1,208 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.virtual;
+
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlExpression;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Data expression bound to a fixed attributes layout.
+ * <p>
+ * Variable names are resolved to attribute slots once, when expression is compiled for an attributes array,
+ * so evaluation doesn't scan attributes by name for each row. Top-level attributes are read directly
+ * from the row by their ordinal position.
+ * Expressions which consist of a single attribute reference are evaluated without the JEXL interpreter.
+ * Everything else is evaluated by JEXL, so expression semantics stay the same.
+ * <p>
+ * Compiled expression is immutable and may be evaluated concurrently.
+ */
+public final class DBVCompiledExpression {
+
+    private static final Set<String> RESERVED_WORDS = Set.of(
+        "null", "true", "false", "empty", "size", "not", "and", "or", "eq", "ne", "lt", "gt", "le", "ge",
+        "div", "mod", "new", "var", "function", "return", "if", "else", "for", "while", "do", "continue",
+        "break", "NaN", "let", "const", "switch", "case", "default", "try", "catch", "finally", "throw");
+
+    /**
+     * Variable resolved to attribute value
+     */
+    private static final class Slot {
+        private final DBDAttributeBinding attribute;
+        private final int index;
+
+        Slot(@NotNull DBDAttributeBinding attribute) {
+            this.attribute = attribute;
+            // Nested and custom attributes are resolved by DBUtils
+            this.index = !attribute.isCustom() && attribute.getParentObject() == null ? attribute.getOrdinalPosition() : -1;
+        }
+
+        @Nullable
+        Object getValue(@NotNull DBDAttributeBinding[] attributes, @NotNull Object[] row) {
+            if (index >= 0 && index < row.length) {
+                return row[index];
+            }
+            return DBUtils.getAttributeValue(attribute, attributes, row);
+        }
+    }
+
+    @NotNull
+    private final JexlExpression expression;
+    @NotNull
+    private final DBDAttributeBinding[] attributes;
+    @NotNull
+    private final Map<String, Object> namespaces;
+    @NotNull
+    private final Map<String, Slot> slots;
+    private final boolean undefinedIfNull;
+    @Nullable
+    private final Slot directSlot;
+
+    private DBVCompiledExpression(
+        @NotNull JexlExpression expression,
+        @NotNull DBDAttributeBinding[] attributes,
+        @NotNull Map<String, Object> namespaces,
+        @NotNull Map<String, Slot> slots,
+        boolean undefinedIfNull
+    ) {
+        this.expression = expression;
+        this.attributes = attributes;
+        this.namespaces = namespaces;
+        this.slots = slots;
+        this.undefinedIfNull = undefinedIfNull;
+
+        String source = expression.getSourceText();
+        String name = source == null ? null : source.trim();
+        if (name != null && isIdentifier(name) && !RESERVED_WORDS.contains(name) && !namespaces.containsKey(name)) {
+            this.directSlot = slots.get(name);
+        } else {
+            this.directSlot = null;
+        }
+    }
+
+    /**
+     * Binds expression to attributes.
+     *
+     * @param nameProvider    provides variable name of an attribute. The first attribute with matching name wins.
+     * @param namespaces      objects which are resolved by name before attributes
+     * @param excludedName    variable name which is never resolved (e.g. the name of the calculated attribute itself)
+     * @param undefinedIfNull if true then variables with null values are reported as undefined to JEXL
+     */
+    @NotNull
+    public static DBVCompiledExpression compile(
+        @NotNull JexlExpression expression,
+        @NotNull DBDAttributeBinding[] attributes,
+        @NotNull Function<DBDAttributeBinding, String> nameProvider,
+        @Nullable Map<String, Object> namespaces,
+        @Nullable String excludedName,
+        boolean undefinedIfNull
+    ) {
+        Map<String, Slot> slots = new HashMap<>(attributes.length);
+        for (DBDAttributeBinding attribute : attributes) {
+            String name = nameProvider.apply(attribute);
+            if (name != null && !name.equals(excludedName)) {
+                slots.putIfAbsent(name, new Slot(attribute));
+            }
+        }
+        return new DBVCompiledExpression(
+            expression,
+            attributes,
+            namespaces == null ? Collections.emptyMap() : namespaces,
+            slots,
+            undefinedIfNull);
+    }
+
+    @NotNull
+    public JexlExpression getExpression() {
+        return expression;
+    }
+
+    /**
+     * Checks whether this expression was compiled for the specified attributes array (by identity)
+     */
+    public boolean isBoundTo(@NotNull JexlExpression expression, @NotNull DBDAttributeBinding[] attributes) {
+        return this.expression == expression && this.attributes == attributes;
+    }
+
+    /**
+     * Evaluates expression over a row of the attributes layout this expression was compiled for.
+     * JEXL errors are propagated as is.
+     */
+    @Nullable
+    public Object evaluate(@NotNull Object[] row) {
+        if (directSlot != null) {
+            Object value = directSlot.getValue(attributes, row);
+            if (value != null) {
+                return value;
+            }
+            // Let JEXL decide what undefined/null variable means
+        }
+        return expression.evaluate(new SlotContext(row));
+    }
+
+    private static boolean isIdentifier(@NotNull String name) {
+        if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            if (!Character.isJavaIdentifierPart(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final class SlotContext implements JexlContext {
+        private final Object[] row;
+
+        SlotContext(@NotNull Object[] row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(String name) {
+            Object ns = namespaces.get(name);
+            if (ns != null) {
+                return ns;
+            }
+            Slot slot = slots.get(name);
+            return slot == null ? null : slot.getValue(attributes, row);
+        }
+
+        @Override
+        public void set(String name, Object value) {
+            // Read-only
+        }
+
+        @Override
+        public boolean has(String name) {
+            if (undefinedIfNull) {
+                return get(name) != null;
+            }
+            return namespaces.containsKey(name) || slots.containsKey(name);
+        }
+    }
+}
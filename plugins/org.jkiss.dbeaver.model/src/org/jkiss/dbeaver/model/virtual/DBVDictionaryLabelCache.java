@@ -0,0 +1,343 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.virtual;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.data.DBDLabelValuePair;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNEvent;
+import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.navigator.INavigatorListener;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDictionary;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSFolder;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+
+import java.math.BigDecimal;
+import java.time.temporal.Temporal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary labels of reference values cached per datasource.
+ * Missing labels are read with one {@code IN (...)} query per dictionary table (see {@link DBSDictionary#getDictionaryValues}).
+ * Labels of a table are dropped when the table or its container is refreshed or removed in navigator,
+ * or when its data is edited. Labels of a datasource are dropped on disconnect.
+ */
+public class DBVDictionaryLabelCache implements INavigatorListener {
+
+    static final int MAX_LABELS_PER_DATASOURCE = 10_000;
+    static final int MAX_BATCH_SIZE = 500;
+
+    private static DBVDictionaryLabelCache instance;
+
+    /**
+     * Labels depend on the description columns which can be changed in the virtual model
+     */
+    private record LabelKey(
+        @NotNull DBSEntity dictionary,
+        @NotNull String keyColumn,
+        @Nullable String descColumns,
+        @NotNull Object keyValue
+    ) {
+    }
+
+    /**
+     * Cached label. Null value means that the key is missing in dictionary.
+     */
+    private record LabelEntry(@Nullable DBDLabelValuePair pair) {
+    }
+
+    private static class DataSourceLabels {
+        private final Map<LabelKey, LabelEntry> labels = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LabelKey, LabelEntry> eldest) {
+                return size() > MAX_LABELS_PER_DATASOURCE;
+            }
+        };
+        private int generation;
+    }
+
+    private final Map<DBPDataSourceContainer, DataSourceLabels> dataSources = new ConcurrentHashMap<>();
+    private boolean listenerRegistered;
+
+    DBVDictionaryLabelCache() {
+    }
+
+    @NotNull
+    public static synchronized DBVDictionaryLabelCache getInstance() {
+        if (instance == null) {
+            instance = new DBVDictionaryLabelCache();
+        }
+        if (!instance.listenerRegistered) {
+            DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
+            if (navigatorModel != null) {
+                navigatorModel.addListener(instance);
+                instance.listenerRegistered = true;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns dictionary entry of the specified key or null if there is no such key in dictionary.
+     */
+    @Nullable
+    public DBDLabelValuePair getEntry(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSDictionary dictionary,
+        @NotNull DBSEntityAttribute keyColumn,
+        @NotNull Object keyValue
+    ) throws DBException {
+        return getEntries(monitor, dictionary, keyColumn, List.of(keyValue)).get(keyValue);
+    }
+
+    /**
+     * Returns dictionary entries of the specified keys. Keys which are missing in dictionary are not returned.
+     * Keys which are not cached yet are read in batches.
+     */
+    @NotNull
+    public Map<Object, DBDLabelValuePair> getEntries(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSDictionary dictionary,
+        @NotNull DBSEntityAttribute keyColumn,
+        @NotNull Collection<?> keyValues
+    ) throws DBException {
+        DBSEntity entity = keyColumn.getParentObject();
+        DBPDataSourceContainer dataSourceContainer = getDataSourceContainer(entity);
+        String descColumns = getDescriptionColumns(monitor, keyColumn);
+        DataSourceLabels dsLabels = dataSourceContainer == null ? null :
+            dataSources.computeIfAbsent(dataSourceContainer, ds -> new DataSourceLabels());
+
+        Map<Object, DBDLabelValuePair> result = new LinkedHashMap<>();
+        Map<Object, LabelKey> missingKeys = new LinkedHashMap<>();
+        int generation = 0;
+        if (dsLabels != null) {
+            synchronized (dsLabels) {
+                generation = dsLabels.generation;
+                for (Object keyValue : keyValues) {
+                    Object normalizedKey = normalizeKey(keyValue);
+                    if (normalizedKey == null) {
+                        missingKeys.putIfAbsent(keyValue, null);
+                        continue;
+                    }
+                    LabelKey labelKey = new LabelKey(entity, keyColumn.getName(), descColumns, normalizedKey);
+                    LabelEntry entry = dsLabels.labels.get(labelKey);
+                    if (entry == null) {
+                        missingKeys.putIfAbsent(keyValue, labelKey);
+                    } else if (entry.pair != null) {
+                        result.put(keyValue, copyPair(entry.pair));
+                    }
+                }
+            }
+        } else {
+            for (Object keyValue : keyValues) {
+                missingKeys.putIfAbsent(keyValue, null);
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return result;
+        }
+
+        List<Object> batch = new ArrayList<>(Math.min(missingKeys.size(), MAX_BATCH_SIZE));
+        Map<Object, DBDLabelValuePair> loaded = new HashMap<>();
+        for (Iterator<Object> iter = missingKeys.keySet().iterator(); iter.hasNext(); ) {
+            batch.add(iter.next());
+            if (batch.size() == MAX_BATCH_SIZE || !iter.hasNext()) {
+                for (DBDLabelValuePair pair : dictionary.getDictionaryValues(monitor, keyColumn, batch, null, true, true)) {
+                    Object normalizedKey = normalizeKey(pair.getValue());
+                    loaded.put(normalizedKey == null ? pair.getValue() : normalizedKey, pair);
+                }
+                batch.clear();
+                if (monitor.isCanceled()) {
+                    break;
+                }
+            }
+        }
+
+        Map<LabelKey, LabelEntry> newEntries = new LinkedHashMap<>();
+        for (Map.Entry<Object, LabelKey> missing : missingKeys.entrySet()) {
+            Object normalizedKey = normalizeKey(missing.getKey());
+            DBDLabelValuePair pair = loaded.get(normalizedKey == null ? missing.getKey() : normalizedKey);
+            LabelKey labelKey = missing.getValue();
+            if (pair != null) {
+                result.put(missing.getKey(), copyPair(pair));
+            }
+            if (labelKey != null) {
+                newEntries.put(labelKey, new LabelEntry(pair));
+            }
+        }
+        if (dsLabels != null && !monitor.isCanceled()) {
+            synchronized (dsLabels) {
+                // Do not cache labels which were read before the dictionary was changed
+                if (generation == dsLabels.generation) {
+                    dsLabels.labels.putAll(newEntries);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops cached labels of the specified dictionary table
+     */
+    public void invalidate(@NotNull DBSEntity dictionary) {
+        DBPDataSourceContainer dataSourceContainer = getDataSourceContainer(dictionary);
+        DataSourceLabels dsLabels = dataSourceContainer == null ? null : dataSources.get(dataSourceContainer);
+        if (dsLabels != null) {
+            synchronized (dsLabels) {
+                dsLabels.generation++;
+                dsLabels.labels.keySet().removeIf(key -> key.dictionary == dictionary);
+            }
+        }
+    }
+
+    /**
+     * Drops all cached labels of the specified datasource
+     */
+    void invalidate(@NotNull DBPDataSourceContainer dataSourceContainer) {
+        DataSourceLabels dsLabels = dataSources.get(dataSourceContainer);
+        if (dsLabels != null) {
+            synchronized (dsLabels) {
+                dsLabels.generation++;
+                dsLabels.labels.clear();
+            }
+        }
+    }
+
+    void invalidateAll() {
+        for (DBPDataSourceContainer dataSourceContainer : dataSources.keySet()) {
+            invalidate(dataSourceContainer);
+        }
+    }
+
+    int getLabelCount() {
+        int count = 0;
+        for (DataSourceLabels dsLabels : dataSources.values()) {
+            synchronized (dsLabels) {
+                count += dsLabels.labels.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Drops cached labels of all dictionary tables of the specified container (schema, catalog or folder)
+     */
+    void invalidateContainer(@NotNull DBSObject container) {
+        DBPDataSourceContainer dataSourceContainer = getDataSourceContainer(container);
+        DataSourceLabels dsLabels = dataSourceContainer == null ? null : dataSources.get(dataSourceContainer);
+        if (dsLabels != null) {
+            synchronized (dsLabels) {
+                dsLabels.generation++;
+                dsLabels.labels.keySet().removeIf(key -> isChildOf(key.dictionary, container));
+            }
+        }
+    }
+
+    @Override
+    public void nodeChanged(DBNEvent event) {
+        if (!(event.getNode() instanceof DBNDatabaseNode databaseNode)) {
+            return;
+        }
+        DBSObject object = databaseNode.getObject();
+        if (object instanceof DBPDataSourceContainer dataSourceContainer) {
+            if (event.getAction() == DBNEvent.Action.REMOVE || event.getNodeChange() == DBNEvent.NodeChange.UNLOAD) {
+                // Disconnected or deleted
+                dataSources.remove(dataSourceContainer);
+            } else if (isRefreshEvent(event)) {
+                invalidate(dataSourceContainer);
+            }
+            return;
+        }
+        if (event.getAction() != DBNEvent.Action.REMOVE && !isRefreshEvent(event)) {
+            // Loading and selection of nodes doesn't change data
+            return;
+        }
+        if (object instanceof DBSEntity entity) {
+            invalidate(entity);
+        } else if (object instanceof DBSFolder folder && folder.getParentObject() != null) {
+            invalidateContainer(folder.getParentObject());
+        } else if (object instanceof DBSObjectContainer container) {
+            invalidateContainer(container);
+        }
+    }
+
+    private static boolean isRefreshEvent(@NotNull DBNEvent event) {
+        return event.getAction() == DBNEvent.Action.UPDATE && (
+            event.getNodeChange() == DBNEvent.NodeChange.REFRESH ||
+            event.getNodeChange() == DBNEvent.NodeChange.STRUCT_REFRESH);
+    }
+
+    private static boolean isChildOf(@NotNull DBSObject object, @NotNull DBSObject container) {
+        for (DBSObject parent = object.getParentObject(); parent != null; parent = parent.getParentObject()) {
+            if (parent == container) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    String getDescriptionColumns(@NotNull DBRProgressMonitor monitor, @NotNull DBSEntityAttribute keyColumn) throws DBException {
+        return DBVUtils.getDictionaryDescriptionColumns(monitor, keyColumn);
+    }
+
+    /**
+     * Converts key to a form which doesn't depend on the value type (e.g. integer foreign key may reference bigint key).
+     * Returns null for values which can't be compared by value, they are not cached.
+     */
+    @Nullable
+    private static Object normalizeKey(@Nullable Object keyValue) {
+        if (keyValue instanceof Number) {
+            try {
+                return new BigDecimal(keyValue.toString()).stripTrailingZeros().toPlainString();
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        if (keyValue instanceof CharSequence || keyValue instanceof Boolean || keyValue instanceof Character ||
+            keyValue instanceof UUID || keyValue instanceof Date || keyValue instanceof Temporal
+        ) {
+            return keyValue.getClass().getSimpleName() + ":" + keyValue;
+        }
+        return null;
+    }
+
+    @NotNull
+    private static DBDLabelValuePair copyPair(@NotNull DBDLabelValuePair pair) {
+        // Pair value is mutable
+        return new DBDLabelValuePair(pair.getLabel(), pair.getValue());
+    }
+
+    @Nullable
+    private static DBPDataSourceContainer getDataSourceContainer(@Nullable DBSObject object) {
+        if (object instanceof DBPDataSourceContainer dataSourceContainer) {
+            return dataSourceContainer;
+        }
+        DBPDataSource dataSource = object == null ? null : object.getDataSource();
+        return dataSource == null ? null : dataSource.getContainer();
+    }
+}
@@ -20,6 +20,7 @@ import org.apache.commons.jexl3.JexlExpression;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.*;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDAttributeTransformerDescriptor;
 import org.jkiss.dbeaver.model.data.json.JSONUtils;
 import org.jkiss.dbeaver.model.meta.Property;
@@ -53,6 +54,7 @@ public class DBVEntityAttribute implements DBSEntityAttribute, DBPNamedObject2,
     private DBVTransformSettings transformSettings;
     private Map<String, Object> properties;
     private JexlExpression parsedExpression;
+    private volatile DBVCompiledExpression compiledExpression;
 
     public DBVEntityAttribute(DBVEntity entity, DBVEntityAttribute parent, String name) {
         this.entity = entity;
@@ -273,6 +275,7 @@ public class DBVEntityAttribute implements DBSEntityAttribute, DBPNamedObject2,
     public void setExpression(String expression) {
         this.expression = expression;
         this.parsedExpression = null;
+        this.compiledExpression = null;
     }
 
     public List<DBVEntityAttribute> getChildren() {
@@ -342,6 +345,24 @@ public class DBVEntityAttribute implements DBSEntityAttribute, DBPNamedObject2,
         return parsedExpression;
     }
 
+    /**
+     * Returns expression compiled for the specified attributes layout.
+     * The last compiled expression is reused while attributes array stays the same.
+     */
+    @Nullable
+    public DBVCompiledExpression getCompiledExpression(@NotNull DBDAttributeBinding[] allAttributes) {
+        JexlExpression jexlExpression = getParsedExpression();
+        if (jexlExpression == null) {
+            return null;
+        }
+        DBVCompiledExpression compiled = compiledExpression;
+        if (compiled == null || !compiled.isBoundTo(jexlExpression, allAttributes)) {
+            compiled = DBVUtils.compileDataExpression(allAttributes, jexlExpression, name);
+            compiledExpression = compiled;
+        }
+        return compiled;
+    }
+
     @Override
     public String toString() {
         return name;
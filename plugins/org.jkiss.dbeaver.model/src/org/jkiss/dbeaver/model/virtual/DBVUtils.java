@@ -17,7 +17,6 @@
 package org.jkiss.dbeaver.model.virtual;
 
 import org.apache.commons.jexl3.JexlBuilder;
-import org.apache.commons.jexl3.JexlContext;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlExpression;
 import org.eclipse.core.runtime.IAdaptable;
@@ -410,47 +409,39 @@ public abstract class DBVUtils {
         if (CommonUtils.isEmpty(exprString)) {
             return null;
         }
-        JexlExpression expression = attribute.getParsedExpression();
+        DBVCompiledExpression expression = attribute.getCompiledExpression(allAttributes);
         if (expression == null) {
             return null;
         }
 
-        return evaluateDataExpression(allAttributes, row, expression, attribute.getName());
+        return evaluateDataExpression(expression, row);
     }
 
     public static Object evaluateDataExpression(DBDAttributeBinding[] allAttributes, Object[] row, JexlExpression expression, String attributeName) {
-        Map<String, Object> nsList = getExpressionNamespaces();
-
-        JexlContext context = new JexlContext() {
-            @Override
-            public Object get(String s) {
-                Object ns = nsList.get(s);
-                if (ns != null) {
-                    return ns;
-                }
-                if (s.equals(attributeName)) {
-                    return null;
-                }
-                for (DBDAttributeBinding attr : allAttributes) {
-                    if (s.equals(attr.getLabel())) {
-                        return DBUtils.getAttributeValue(attr, allAttributes, row);
-                    }
-                }
-                return null;
-            }
-
-            @Override
-            public void set(String s, Object o) {
+        return evaluateDataExpression(compileDataExpression(allAttributes, expression, attributeName), row);
+    }
 
-            }
+    /**
+     * Binds virtual attribute expression to attributes. Variables are resolved by attribute labels.
+     */
+    @NotNull
+    public static DBVCompiledExpression compileDataExpression(
+        @NotNull DBDAttributeBinding[] allAttributes,
+        @NotNull JexlExpression expression,
+        @Nullable String attributeName
+    ) {
+        return DBVCompiledExpression.compile(
+            expression,
+            allAttributes,
+            DBDAttributeBinding::getLabel,
+            getExpressionNamespaces(),
+            attributeName,
+            true);
+    }
 
-            @Override
-            public boolean has(String s) {
-                return get(s) != null;
-            }
-        };
+    public static Object evaluateDataExpression(@NotNull DBVCompiledExpression expression, @NotNull Object[] row) {
         try {
-            return expression.evaluate(context);
+            return expression.evaluate(row);
         } catch (Exception e) {
             return GeneralUtils.getExpressionParseMessage(e);
         }
@@ -137,7 +137,7 @@ public class WebUtils {
                         String newUrl = connection.getHeaderField("Location");
                         return openURLConnection(newUrl, authInfo, referrer, retryNumber + 1);
                     }
-                    throw new IOException("Can't open '" + urlString + "': " + httpConnection.getResponseMessage());
+                    throw new HttpStatusException("Can't open '" + urlString + "': " + httpConnection.getResponseMessage(), responseCode);
                 }
             }
         }
@@ -54,6 +54,7 @@ public abstract class ObjectAttributeDescriptor {
     private final int orderNumber;
     private String id;
     private final Method getter;
+    private final ObjectPropertyMetadata.PropertyAccessor accessor;
     private boolean isLazy;
     private IPropertyCacheValidator cacheValidator;
     private final Class<?> declaringClass;
@@ -68,6 +69,7 @@ public abstract class ObjectAttributeDescriptor {
         this.source = source;
         this.parent = parent;
         this.getter = getter;
+        this.accessor = ObjectPropertyMetadata.getAccessor(getter);
         this.orderNumber = orderNumber;
         this.id = id;
         if (CommonUtils.isEmpty(this.id)) {
@@ -120,6 +122,11 @@ public abstract class ObjectAttributeDescriptor {
         return getter;
     }
 
+    @NotNull
+    ObjectPropertyMetadata.PropertyAccessor getAccessor() {
+        return accessor;
+    }
+
     public boolean isNameProperty() {
         return id.equals(DBConstants.PROP_ID_NAME) || orderNumber == 1;
     }
@@ -224,10 +231,10 @@ public abstract class ObjectAttributeDescriptor {
         @Nullable String locale)
     {
         Object object = source == null ? null : source.getEditableValue();
-        Method[] methods = theClass.getMethods();
         Map<String, Method> passedNames = new HashMap<>();
-        for (Method method : methods) {
-            String methodFullName = method.getDeclaringClass().getName() + "." + method.getName();
+        for (ObjectPropertyMetadata.PropertyMethod propertyMethod : ObjectPropertyMetadata.getPropertyMethods(theClass)) {
+            final Method method = propertyMethod.getMethod();
+            String methodFullName = propertyMethod.getFullName();
             final Method prevMethod = passedNames.get(methodFullName);
             if (prevMethod != null) {
                 // The same method but probably with another return type
@@ -238,14 +245,14 @@ public abstract class ObjectAttributeDescriptor {
                 }
                 // Let it another chance. New return types seems to be subclass of previous
             }
-            final PropertyGroup propGroupInfo = method.getAnnotation(PropertyGroup.class);
-            if (propGroupInfo != null && method.getReturnType() != null) {
+            final PropertyGroup propGroupInfo = propertyMethod.getPropertyGroup();
+            if (propGroupInfo != null) {
                 // Property group
                 ObjectPropertyGroupDescriptor groupDescriptor = new ObjectPropertyGroupDescriptor(source, parent, method, propGroupInfo, filter, locale);
                 annoProps.addAll(groupDescriptor.getChildren());
             } else {
-                final Property propInfo = method.getAnnotation(Property.class);
-                if (propInfo == null || !BeanUtils.isGetterName(method.getName()) || method.getReturnType() == null) {
+                final Property propInfo = propertyMethod.getProperty();
+                if (propInfo == null) {
                     continue;
                 }
                 // Single property
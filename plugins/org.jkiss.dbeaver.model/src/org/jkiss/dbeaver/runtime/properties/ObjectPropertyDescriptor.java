@@ -76,17 +76,8 @@ public class ObjectPropertyDescriptor extends ObjectAttributeDescriptor implemen
         super(source, parent, getter, propInfo.id(), propInfo.order());
         this.propInfo = propInfo;
 
-        final String propertyName = BeanUtils.getPropertyNameFromGetter(getter.getName());
         declaringClass = getter.getDeclaringClass();
-        Class<?> c = declaringClass;
-        while (setter == null && c != Object.class && c != null) {
-            this.setter = BeanUtils.getSetMethod(
-                c,
-                propertyName);
-            if (setter == null) {
-                c = c.getSuperclass();
-            }
-        }
+        this.setter = getAccessor().getSetter();
 
         // Obtain value transformer
         Class<? extends IPropertyValueTransformer> valueTransformerClass = propInfo.valueTransformer();
@@ -118,13 +109,22 @@ public class ObjectPropertyDescriptor extends ObjectAttributeDescriptor implemen
             }
         }
 
-        this.propName = getLocalizedString(propInfo.name(), Property.RESOURCE_TYPE_NAME, getId(), !propInfo.hidden(), locale);
-        this.propDescription = CommonUtils.isEmpty(propInfo.description()) ?
-                propName :
-                getLocalizedString(propInfo.name(), Property.RESOURCE_TYPE_DESCRIPTION, propName, false, locale);
-        this.propHint = CommonUtils.isEmpty(propInfo.hint()) ?
+        final String[] texts = getAccessor().getLocalizedTexts(locale, this::resolveLocalizedTexts);
+        this.propName = texts[0];
+        this.propDescription = texts[1];
+        this.propHint = texts[2];
+    }
+
+    @NotNull
+    private String[] resolveLocalizedTexts(@Nullable String locale) {
+        String name = getLocalizedString(propInfo.name(), Property.RESOURCE_TYPE_NAME, getId(), !propInfo.hidden(), locale);
+        String description = CommonUtils.isEmpty(propInfo.description()) ?
+            name :
+            getLocalizedString(propInfo.name(), Property.RESOURCE_TYPE_DESCRIPTION, name, false, locale);
+        String hint = CommonUtils.isEmpty(propInfo.hint()) ?
             null :
-            getLocalizedString(propInfo.name(), Property.RESOURCE_TYPE_HINT, propName, false, locale);
+            getLocalizedString(propInfo.name(), Property.RESOURCE_TYPE_HINT, name, false, locale);
+        return new String[] { name, description, hint };
     }
 
     @Override
@@ -428,7 +428,7 @@ public class ObjectPropertyDescriptor extends ObjectAttributeDescriptor implemen
         } else {
             readPropertyMethod = () -> {
                 try {
-                    return getGetter().invoke(finalObject, params);
+                    return getAccessor().read(finalObject, params);
                 } catch (Exception e) {
                     throw new InvocationTargetException(e, e.getMessage());
                 }
@@ -76,9 +76,9 @@ public class ObjectPropertyGroupDescriptor extends ObjectAttributeDescriptor
             }
         }
         if (isLazy()) {
-            return getGetter().invoke(object, progressMonitor);
+            return getAccessor().read(object, new Object[] { progressMonitor });
         } else {
-            return getGetter().invoke(object);
+            return getAccessor().read(object, null);
         }
     }
 }
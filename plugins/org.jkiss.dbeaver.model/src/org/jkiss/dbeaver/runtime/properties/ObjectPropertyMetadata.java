@@ -0,0 +1,219 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.properties;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.meta.Property;
+import org.jkiss.dbeaver.model.meta.PropertyGroup;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.BeanUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Class-level property metadata cache.
+ * Annotated property methods are collected once per class and each getter is bound to a method handle,
+ * so property sources and object lists don't rescan classes and don't use reflective calls for each value.
+ */
+public final class ObjectPropertyMetadata {
+
+    private static final Log log = Log.getLog(ObjectPropertyMetadata.class);
+
+    private static final ClassValue<List<PropertyMethod>> CLASS_PROPERTIES = new ClassValue<>() {
+        @Override
+        protected List<PropertyMethod> computeValue(Class<?> type) {
+            return collectPropertyMethods(type);
+        }
+    };
+
+    private static final ClassValue<Map<Method, PropertyAccessor>> CLASS_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<Method, PropertyAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private ObjectPropertyMetadata() {
+    }
+
+    /**
+     * Returns annotated property and property group getters of the specified class.
+     * Methods are returned in the same order as they are returned by {@link Class#getMethods()}.
+     */
+    @NotNull
+    public static List<PropertyMethod> getPropertyMethods(@NotNull Class<?> theClass) {
+        return CLASS_PROPERTIES.get(theClass);
+    }
+
+    @NotNull
+    public static PropertyAccessor getAccessor(@NotNull Method getter) {
+        return CLASS_ACCESSORS.get(getter.getDeclaringClass()).computeIfAbsent(getter, PropertyAccessor::new);
+    }
+
+    private static List<PropertyMethod> collectPropertyMethods(Class<?> theClass) {
+        List<PropertyMethod> result = new ArrayList<>();
+        for (Method method : theClass.getMethods()) {
+            if (method.getReturnType() == null) {
+                continue;
+            }
+            final PropertyGroup propGroupInfo = method.getAnnotation(PropertyGroup.class);
+            if (propGroupInfo != null) {
+                result.add(new PropertyMethod(method, null, propGroupInfo));
+                continue;
+            }
+            final Property propInfo = method.getAnnotation(Property.class);
+            if (propInfo != null && BeanUtils.isGetterName(method.getName())) {
+                result.add(new PropertyMethod(method, propInfo, null));
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * Annotated property (or property group) getter
+     */
+    public static final class PropertyMethod {
+        private final Method method;
+        private final String fullName;
+        private final Property property;
+        private final PropertyGroup propertyGroup;
+
+        PropertyMethod(@NotNull Method method, @Nullable Property property, @Nullable PropertyGroup propertyGroup) {
+            this.method = method;
+            this.fullName = method.getDeclaringClass().getName() + "." + method.getName();
+            this.property = property;
+            this.propertyGroup = propertyGroup;
+        }
+
+        @NotNull
+        public Method getMethod() {
+            return method;
+        }
+
+        @NotNull
+        public String getFullName() {
+            return fullName;
+        }
+
+        @Nullable
+        public Property getProperty() {
+            return property;
+        }
+
+        @Nullable
+        public PropertyGroup getPropertyGroup() {
+            return propertyGroup;
+        }
+    }
+
+    /**
+     * Bound property getter/setter.
+     * Getters are invoked through method handles. Methods which can't be accessed via public lookup
+     * are invoked with regular reflection.
+     */
+    public static final class PropertyAccessor {
+        private final Method getter;
+        private final MethodHandle getterHandle;
+        private volatile Method setter;
+        private volatile boolean setterResolved;
+        private final Map<String, String[]> localizedTexts = new ConcurrentHashMap<>();
+
+        private PropertyAccessor(@NotNull Method getter) {
+            this.getter = getter;
+            this.getterHandle = bindGetter(getter);
+        }
+
+        @NotNull
+        public Method getGetter() {
+            return getter;
+        }
+
+        @Nullable
+        public Method getSetter() {
+            if (!setterResolved) {
+                final String propertyName = BeanUtils.getPropertyNameFromGetter(getter.getName());
+                Method result = null;
+                for (Class<?> c = getter.getDeclaringClass(); result == null && c != Object.class && c != null; c = c.getSuperclass()) {
+                    result = BeanUtils.getSetMethod(c, propertyName);
+                }
+                setter = result;
+                setterResolved = true;
+            }
+            return setter;
+        }
+
+        /**
+         * Reads property value. Parameters are the same as for {@link Method#invoke(Object, Object...)}.
+         */
+        public Object read(@NotNull Object object, @Nullable Object[] params) throws InvocationTargetException {
+            try {
+                if (getterHandle == null) {
+                    return getter.invoke(object, params);
+                } else if (params == null) {
+                    return (Object) getterHandle.invokeExact(object);
+                } else {
+                    return (Object) getterHandle.invokeExact(object, (DBRProgressMonitor) params[0]);
+                }
+            } catch (InvocationTargetException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e, e.getMessage());
+            }
+        }
+
+        /**
+         * Returns localized texts (name, description, hint) of this property.
+         * Texts are evaluated once per locale.
+         */
+        @NotNull
+        String[] getLocalizedTexts(@Nullable String locale, @NotNull Function<String, String[]> resolver) {
+            return localizedTexts.computeIfAbsent(CommonUtils.notEmpty(locale), key -> resolver.apply(locale));
+        }
+
+        @Nullable
+        private static MethodHandle bindGetter(@NotNull Method getter) {
+            final Class<?>[] paramTypes = getter.getParameterTypes();
+            final MethodType handleType;
+            if (paramTypes.length == 0) {
+                handleType = MethodType.methodType(Object.class, Object.class);
+            } else if (paramTypes.length == 1 && paramTypes[0] == DBRProgressMonitor.class) {
+                handleType = MethodType.methodType(Object.class, Object.class, DBRProgressMonitor.class);
+            } else {
+                return null;
+            }
+            try {
+                return MethodHandles.publicLookup().unreflect(getter).asType(handleType);
+            } catch (Exception e) {
+                log.debug("Can't bind property getter " + getter + ", reflection will be used: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,337 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.qm.QMLatencyHistogram;
+import org.jkiss.dbeaver.model.qm.QMQueryFingerprint;
+import org.jkiss.dbeaver.model.qm.QMQueryStatistics;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Query statistics collector.
+ * Aggregates execute/fetch latencies and row counts per data source and query fingerprint.
+ * Handlers don't take locks: statistics entries are looked up in concurrent maps and histograms are lock-free.
+ * Number of tracked fingerprints is limited, least recently executed fingerprints are evicted first.
+ */
+public class QMQueryStatisticsCollector extends DefaultExecutionHandler implements QMQueryStatistics {
+
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+
+    private static final String[] CSV_HEADER = {
+        "data_source", "fingerprint", "executions", "errors",
+        "execute_avg_us", "execute_p50_us", "execute_p95_us", "execute_p99_us", "execute_max_us",
+        "fetches", "fetch_avg_us", "fetch_p95_us", "fetch_max_us",
+        "rows_avg", "rows_max"
+    };
+
+    private final int maxEntries;
+    private final Map<String, EntryImpl> entries = new ConcurrentHashMap<>();
+    private final Map<DBCStatement, StatementTrace> traces = new ConcurrentHashMap<>();
+    private final AtomicLong useCounter = new AtomicLong();
+
+    public QMQueryStatisticsCollector() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public QMQueryStatisticsCollector(int maxEntries) {
+        this.maxEntries = Math.max(maxEntries, 1);
+    }
+
+    @NotNull
+    @Override
+    public String getHandlerName() {
+        return "Query statistics";
+    }
+
+    @Override
+    public void handleStatementExecuteBegin(@NotNull DBCStatement statement) {
+        StatementTrace trace = traces.computeIfAbsent(statement, s -> new StatementTrace());
+        trace.executeStartTime = System.nanoTime();
+    }
+
+    @Override
+    public void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
+        StatementTrace trace = traces.get(statement);
+        if (trace == null || trace.executeStartTime == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - trace.executeStartTime;
+        trace.executeStartTime = 0;
+        EntryImpl entry = getEntry(statement);
+        trace.entry = entry;
+        if (entry != null) {
+            entry.executeLatency.record(elapsed / 1000);
+            if (error != null) {
+                entry.errorCount.incrementAndGet();
+            } else if (rows >= 0) {
+                entry.rowCounts.record(rows);
+            }
+        }
+    }
+
+    @Override
+    public void handleStatementClose(@NotNull DBCStatement statement, long rows) {
+        traces.remove(statement);
+    }
+
+    @Override
+    public void handleResultSetOpen(@NotNull DBCResultSet resultSet) {
+        StatementTrace trace = getTrace(resultSet);
+        if (trace != null) {
+            trace.fetchStartTime = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
+        StatementTrace trace = getTrace(resultSet);
+        if (trace == null || trace.fetchStartTime == 0 || trace.entry == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - trace.fetchStartTime;
+        trace.fetchStartTime = 0;
+        trace.entry.fetchLatency.record(elapsed / 1000);
+        if (rowCount >= 0) {
+            trace.entry.rowCounts.record(rowCount);
+        }
+    }
+
+    @NotNull
+    @Override
+    public List<Entry> getEntries() {
+        List<EntryImpl> result = new ArrayList<>(entries.values());
+        Map<EntryImpl, Long> totalTimes = new HashMap<>(result.size());
+        for (EntryImpl entry : result) {
+            totalTimes.put(entry, entry.executeLatency.getSnapshot().getTotal() + entry.fetchLatency.getSnapshot().getTotal());
+        }
+        result.sort(Comparator.comparing((EntryImpl e) -> totalTimes.get(e)).reversed());
+        return new ArrayList<>(result);
+    }
+
+    @Override
+    public void reset() {
+        entries.clear();
+    }
+
+    @Override
+    public void exportCSV(@NotNull Writer writer) throws IOException {
+        writeCSVLine(writer, CSV_HEADER);
+        for (Entry entry : getEntries()) {
+            QMLatencyHistogram.Snapshot execute = entry.getExecuteLatency();
+            QMLatencyHistogram.Snapshot fetch = entry.getFetchLatency();
+            QMLatencyHistogram.Snapshot rows = entry.getRowCounts();
+            writeCSVLine(writer, new String[]{
+                entry.getDataSourceName(),
+                entry.getFingerprint(),
+                String.valueOf(execute.getCount()),
+                String.valueOf(entry.getErrorCount()),
+                formatMean(execute.getMean()),
+                String.valueOf(execute.getPercentile(50)),
+                String.valueOf(execute.getPercentile(95)),
+                String.valueOf(execute.getPercentile(99)),
+                String.valueOf(execute.getMax()),
+                String.valueOf(fetch.getCount()),
+                formatMean(fetch.getMean()),
+                String.valueOf(fetch.getPercentile(95)),
+                String.valueOf(fetch.getMax()),
+                formatMean(rows.getMean()),
+                String.valueOf(rows.getMax())
+            });
+        }
+        writer.flush();
+    }
+
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Records a query execution. Used for queries which are not executed through DBC statements.
+     */
+    public void recordExecution(
+        @NotNull String dataSourceId,
+        @NotNull String dataSourceName,
+        @NotNull String query,
+        long executeMicros,
+        long rows,
+        boolean failed
+    ) {
+        EntryImpl entry = getEntry(dataSourceId, dataSourceName, query);
+        entry.executeLatency.record(executeMicros);
+        if (failed) {
+            entry.errorCount.incrementAndGet();
+        } else if (rows >= 0) {
+            entry.rowCounts.record(rows);
+        }
+    }
+
+    @Nullable
+    private StatementTrace getTrace(@NotNull DBCResultSet resultSet) {
+        DBCStatement statement = resultSet.getSourceStatement();
+        return statement == null ? null : traces.get(statement);
+    }
+
+    @Nullable
+    private EntryImpl getEntry(@NotNull DBCStatement statement) {
+        String query = statement.getQueryString();
+        if (CommonUtils.isEmpty(query)) {
+            return null;
+        }
+        DBPDataSourceContainer container = statement.getSession().getDataSource().getContainer();
+        return getEntry(container.getId(), container.getName(), query);
+    }
+
+    @NotNull
+    private EntryImpl getEntry(@NotNull String dataSourceId, @NotNull String dataSourceName, @NotNull String query) {
+        String fingerprint = QMQueryFingerprint.normalize(query);
+        String key = dataSourceId + '\n' + fingerprint;
+        EntryImpl entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size() >= maxEntries) {
+                evictEntries();
+            }
+            entry = entries.computeIfAbsent(key, k -> new EntryImpl(dataSourceId, dataSourceName, fingerprint));
+        }
+        entry.lastUsed = useCounter.incrementAndGet();
+        entry.lastExecuteTime = System.currentTimeMillis();
+        return entry;
+    }
+
+    /**
+     * Removes least recently used entries (about 10% of the limit) so that eviction doesn't happen on each new fingerprint.
+     */
+    private synchronized void evictEntries() {
+        int overflow = entries.size() - maxEntries;
+        if (overflow < 0) {
+            return;
+        }
+        List<EntryImpl> candidates = new ArrayList<>(entries.values());
+        candidates.sort(Comparator.comparingLong(e -> e.lastUsed));
+        int toRemove = Math.min(candidates.size(), overflow + Math.max(1, maxEntries / 10));
+        for (int i = 0; i < toRemove; i++) {
+            EntryImpl entry = candidates.get(i);
+            entries.remove(entry.dataSourceId + '\n' + entry.fingerprint, entry);
+        }
+    }
+
+    private static String formatMean(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static void writeCSVLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static class StatementTrace {
+        volatile long executeStartTime;
+        volatile long fetchStartTime;
+        volatile EntryImpl entry;
+    }
+
+    private static class EntryImpl implements Entry {
+        private final String dataSourceId;
+        private final String dataSourceName;
+        private final String fingerprint;
+        private final AtomicLong errorCount = new AtomicLong();
+        private final QMLatencyHistogram executeLatency = new QMLatencyHistogram();
+        private final QMLatencyHistogram fetchLatency = new QMLatencyHistogram();
+        private final QMLatencyHistogram rowCounts = new QMLatencyHistogram();
+        private volatile long lastUsed;
+        private volatile long lastExecuteTime;
+
+        EntryImpl(String dataSourceId, String dataSourceName, String fingerprint) {
+            this.dataSourceId = dataSourceId;
+            this.dataSourceName = dataSourceName;
+            this.fingerprint = fingerprint;
+        }
+
+        @NotNull
+        @Override
+        public String getDataSourceId() {
+            return dataSourceId;
+        }
+
+        @NotNull
+        @Override
+        public String getDataSourceName() {
+            return dataSourceName;
+        }
+
+        @NotNull
+        @Override
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        @Override
+        public long getErrorCount() {
+            return errorCount.get();
+        }
+
+        @Override
+        public long getLastExecuteTime() {
+            return lastExecuteTime;
+        }
+
+        @NotNull
+        @Override
+        public QMLatencyHistogram.Snapshot getExecuteLatency() {
+            return executeLatency.getSnapshot();
+        }
+
+        @NotNull
+        @Override
+        public QMLatencyHistogram.Snapshot getFetchLatency() {
+            return fetchLatency.getSnapshot();
+        }
+
+        @NotNull
+        @Override
+        public QMLatencyHistogram.Snapshot getRowCounts() {
+            return rowCounts.getSnapshot();
+        }
+    }
+}
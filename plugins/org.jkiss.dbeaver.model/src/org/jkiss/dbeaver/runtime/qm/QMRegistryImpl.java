@@ -44,6 +44,7 @@ public class QMRegistryImpl implements QMRegistry {
 
     private QMExecutionHandler defaultHandler;
     private QMMCollectorImpl metaHandler;
+    private QMQueryStatisticsCollector statisticsHandler;
     private final List<QMExecutionHandler> handlers = new ArrayList<>();
     private QMEventBrowser eventBrowser;
     private DefaultEventBrowser defaultEventBrowser = new DefaultEventBrowser();
@@ -56,6 +57,9 @@ public class QMRegistryImpl implements QMRegistry {
 
         metaHandler = new QMMCollectorImpl();
         registerHandler(metaHandler);
+
+        statisticsHandler = new QMQueryStatisticsCollector();
+        registerHandler(statisticsHandler);
     }
 
     public void dispose()
@@ -65,6 +69,11 @@ public class QMRegistryImpl implements QMRegistry {
             metaHandler.dispose();
             metaHandler = null;
         }
+        if (statisticsHandler != null) {
+            unregisterHandler(statisticsHandler);
+            statisticsHandler.reset();
+            statisticsHandler = null;
+        }
 
         synchronized (handlers) {
             if (!handlers.isEmpty()) {
@@ -102,6 +111,11 @@ public class QMRegistryImpl implements QMRegistry {
         return eventBrowser;
     }
 
+    @Override
+    public QMQueryStatistics getQueryStatistics() {
+        return statisticsHandler;
+    }
+
     @Override
     public void registerHandler(QMExecutionHandler handler) {
         synchronized (handlers) {
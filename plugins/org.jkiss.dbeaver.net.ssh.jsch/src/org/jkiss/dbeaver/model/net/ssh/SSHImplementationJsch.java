@@ -50,8 +50,24 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
 
     private static final Log log = Log.getLog(SSHImplementationJsch.class);
 
+    private static final SSHSessionPool<Session[]> SESSION_POOL = new SSHSessionPool<>(
+        new SSHSessionPool.SessionHandler<>() {
+            @Override
+            public boolean isSessionAlive(@NotNull Session[] sessions) {
+                return sessions[sessions.length - 1].isConnected();
+            }
+
+            @Override
+            public void closeSession(@NotNull Session[] sessions) {
+                disconnectSessions(sessions);
+            }
+        },
+        SSHConstants.SHARED_SESSION_IDLE_TIMEOUT);
+
     private transient JSch jsch;
+    private transient SSHSessionPool.Lease<Session[]> sessionLease;
     private transient volatile Session[] sessions;
+    private transient SSHPortForwardConfiguration portForwarding;
 
     @Override
     protected synchronized void setupTunnel(@NotNull DBRProgressMonitor monitor, @NotNull DBWHandlerConfiguration configuration, @NotNull SSHHostConfiguration[] hosts, @NotNull SSHPortForwardConfiguration portForward) throws DBException, IOException {
@@ -60,7 +76,25 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
             JSch.setLogger(new JschLoggerProxy());
         }
 
-        sessions = new Session[hosts.length];
+        // Tunnels to the same hosts with the same credentials share one session
+        sessionLease = SESSION_POOL.acquire(
+            getSessionKey(configuration, hosts),
+            () -> openSessions(monitor, configuration, hosts));
+        sessions = sessionLease.getSession();
+
+        try {
+            log.debug("Set port forwarding " + portForward.getLocalHost() + ":" + portForward.getLocalPort() + " -> " + portForward.getRemoteHost() + ":" + portForward.getRemotePort());
+            sessions[sessions.length - 1].setPortForwardingL(portForward.getLocalHost(), portForward.getLocalPort(), portForward.getRemoteHost(), portForward.getRemotePort());
+            portForwarding = portForward;
+        } catch (JSchException e) {
+            closeTunnel(monitor);
+            throw new DBException("Cannot establish port forwarding to " + portForward.getRemoteHost() + ":" + portForward.getRemotePort(), e);
+        }
+    }
+
+    @NotNull
+    private Session[] openSessions(@NotNull DBRProgressMonitor monitor, @NotNull DBWHandlerConfiguration configuration, @NotNull SSHHostConfiguration[] hosts) throws DBException, IOException {
+        final Session[] sessions = new Session[hosts.length];
 
         for (int index = 0; index < hosts.length; index++) {
             final SSHHostConfiguration host = hosts[index];
@@ -119,18 +153,14 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
                 log.debug("Connect to tunnel host");
 
                 session.connect();
-
-                if (index == hosts.length - 1) {
-                    log.debug("Set port forwarding " + portForward.getLocalHost() + ":" + portForward.getLocalPort() + " -> " + portForward.getRemoteHost() + ":" + portForward.getRemotePort());
-                    session.setPortForwardingL(portForward.getLocalHost(), portForward.getLocalPort(), portForward.getRemoteHost(), portForward.getRemotePort());
-                }
             } catch (JSchException e) {
-                closeTunnel(monitor);
+                disconnectSessions(sessions);
                 throw new DBException("Cannot establish tunnel to " + host.getHostname() + ":" + host.getPort(), e);
             }
 
             sessions[index] = session;
         }
+        return sessions;
     }
 
     private void setupHostKeyVerification(Session session, DBWHandlerConfiguration configuration) throws JSchException {
@@ -164,18 +194,35 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
         if (ArrayUtils.isEmpty(sessions)) {
             return;
         }
-        RuntimeUtils.runTask(monitor1 -> {
-            Session[] sessions = this.sessions;
-            if (ArrayUtils.isEmpty(sessions)) {
-                return;
+        if (portForwarding != null) {
+            try {
+                Session session = sessions[sessions.length - 1];
+                if (session.isConnected()) {
+                    session.delPortForwardingL(portForwarding.getLocalHost(), portForwarding.getLocalPort());
+                }
+            } catch (JSchException e) {
+                log.debug("Error removing port forwarding: " + e.getMessage());
             }
-            for (Session session : sessions) {
+            portForwarding = null;
+        }
+        if (sessionLease != null) {
+            // Shared session is closed by the pool when it is not used anymore
+            sessionLease.release();
+            sessionLease = null;
+        }
+        sessions = null;
+    }
+
+    private static void disconnectSessions(@NotNull Session[] sessions) {
+        RuntimeUtils.runTask(monitor -> {
+            // Close jump hosts last
+            for (int i = sessions.length - 1; i >= 0; i--) {
+                Session session = sessions[i];
                 if (session != null && session.isConnected()) {
                     session.disconnect();
                 }
             }
         }, "Close SSH session", 1000);
-        sessions = null;
     }
 
     @Override
@@ -202,6 +249,14 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
             }
         }
         if (!isAlive) {
+            synchronized (this) {
+                if (sessionLease != null && !sessionLease.isSessionAlive()) {
+                    // Drop broken shared session so the pool opens a new one
+                    sessionLease.invalidate();
+                    sessionLease = null;
+                }
+            }
+            // Live shared session is kept for other tunnels, only port forwarding of this tunnel is recreated
             closeTunnel(monitor);
             initTunnel(monitor, savedConfiguration, savedConnectionInfo);
         }
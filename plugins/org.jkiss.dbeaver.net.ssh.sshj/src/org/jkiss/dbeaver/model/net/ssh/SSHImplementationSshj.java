@@ -62,7 +62,23 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
 
     private static final Log log = Log.getLog(SSHImplementationSshj.class);
 
+    private static final SSHSessionPool<SSHClient[]> SESSION_POOL = new SSHSessionPool<>(
+        new SSHSessionPool.SessionHandler<>() {
+            @Override
+            public boolean isSessionAlive(@NotNull SSHClient[] clients) {
+                final SSHClient client = clients[clients.length - 1];
+                return client.isConnected() && client.isAuthenticated();
+            }
+
+            @Override
+            public void closeSession(@NotNull SSHClient[] clients) {
+                disconnectClients(clients);
+            }
+        },
+        SSHConstants.SHARED_SESSION_IDLE_TIMEOUT);
+
     private final List<LocalPortListener> listeners = new ArrayList<>();
+    private SSHSessionPool.Lease<SSHClient[]> session;
     private SSHClient[] clients;
 
     @Override
@@ -71,8 +87,36 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
         @NotNull DBWHandlerConfiguration configuration,
         @NotNull SSHHostConfiguration[] hosts,
         @NotNull SSHPortForwardConfiguration portForward
+    ) throws DBException, IOException {
+        // Tunnels to the same hosts with the same credentials share one session
+        this.session = SESSION_POOL.acquire(
+            getSessionKey(configuration, hosts),
+            () -> openClients(monitor, configuration, hosts));
+        this.clients = session.getSession();
+
+        final SSHClient client = clients[clients.length - 1];
+        try {
+            log.debug(String.format(
+                "Set port forwarding %s:%d -> %s:%d",
+                portForward.getLocalHost(), portForward.getLocalPort(),
+                portForward.getRemoteHost(), portForward.getRemotePort()));
+            setPortForwarding(
+                client,
+                portForward.getLocalHost(), portForward.getLocalPort(),
+                portForward.getRemoteHost(), portForward.getRemotePort());
+        } catch (IOException e) {
+            closeTunnel(monitor);
+            throw new DBException("Cannot establish port forwarding to " + portForward.getRemoteHost() + ":" + portForward.getRemotePort(), e);
+        }
+    }
+
+    @NotNull
+    private SSHClient[] openClients(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBWHandlerConfiguration configuration,
+        @NotNull SSHHostConfiguration[] hosts
     ) throws DBException {
-        this.clients = new SSHClient[hosts.length];
+        final SSHClient[] clients = new SSHClient[hosts.length];
 
         final int connectTimeout = configuration.getIntProperty(SSHConstants.PROP_CONNECT_TIMEOUT);
         final int keepAliveInterval = configuration.getIntProperty(SSHConstants.PROP_ALIVE_INTERVAL) / 1000; // sshj uses seconds for keep-alive interval
@@ -145,22 +189,12 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
                     default:
                         break;
                 }
-
-                if (index == hosts.length - 1) {
-                    log.debug(String.format(
-                        "Set port forwarding %s:%d -> %s:%d",
-                        portForward.getLocalHost(), portForward.getLocalPort(),
-                        portForward.getRemoteHost(), portForward.getRemotePort()));
-                    setPortForwarding(
-                        client,
-                        portForward.getLocalHost(), portForward.getLocalPort(),
-                        portForward.getRemoteHost(), portForward.getRemotePort());
-                }
             } catch (IOException e) {
-                closeTunnel(monitor);
+                disconnectClients(clients);
                 throw new DBException("Cannot establish tunnel to " + host.getHostname() + ":" + host.getPort(), e);
             }
         }
+        return clients;
     }
 
     private static void setupHostKeyVerification(
@@ -185,27 +219,33 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
         listeners.forEach(LocalPortListener::disconnect);
         listeners.clear();
 
-        if (!ArrayUtils.isEmpty(clients)) {
-            SSHClient[] clientsCopy = this.clients;
-            new AbstractJob("Close SSHJ clients") {
-                @Override
-                protected IStatus run(DBRProgressMonitor monitor) {
-                    for (SSHClient client : clientsCopy) {
-                        if (client != null && client.isConnected()) {
-                            try {
-                                log.debug("Disconnect SSHJ tunnel " + client);
-                                client.disconnect();
-                            } catch (Throwable e) {
-                                log.debug("Error closing session: " + e.getMessage());
-                            }
+        if (session != null) {
+            // Shared session is closed by the pool when it is not used anymore
+            session.release();
+            session = null;
+        }
+        clients = null;
+    }
+
+    private static void disconnectClients(@NotNull SSHClient[] clients) {
+        new AbstractJob("Close SSHJ clients") {
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                // Close jump hosts last
+                for (int i = clients.length - 1; i >= 0; i--) {
+                    final SSHClient client = clients[i];
+                    if (client != null && client.isConnected()) {
+                        try {
+                            log.debug("Disconnect SSHJ tunnel " + client);
+                            client.disconnect();
+                        } catch (Throwable e) {
+                            log.debug("Error closing session: " + e.getMessage());
                         }
                     }
-                    return Status.OK_STATUS;
                 }
-            }.schedule();
-        }
-
-        clients = null;
+                return Status.OK_STATUS;
+            }
+        }.schedule();
     }
 
     @Override
@@ -220,6 +260,14 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
 
     @Override
     public void invalidateTunnel(DBRProgressMonitor monitor) throws DBException, IOException {
+        synchronized (this) {
+            if (session != null && !session.isSessionAlive()) {
+                // Drop broken shared session so the pool opens a new one
+                session.invalidate();
+                session = null;
+            }
+        }
+        // Live shared session is kept for other tunnels, only port forwarding of this tunnel is recreated
         closeTunnel(monitor);
         initTunnel(monitor, savedConfiguration, savedConnectionInfo);
     }
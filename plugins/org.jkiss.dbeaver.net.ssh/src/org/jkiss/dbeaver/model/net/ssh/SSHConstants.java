@@ -23,6 +23,8 @@ public class SSHConstants {
 
     public static final int DEFAULT_SSH_PORT = 22;
     public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+    // Time to keep shared SSH session open after the last tunnel is closed
+    public static final long SHARED_SESSION_IDLE_TIMEOUT = 60000;
 
     public static final String PROP_IMPLEMENTATION = "implementation";
     public static final String PROP_AUTH_TYPE = "authType";
@@ -151,6 +151,18 @@ public abstract class SSHImplementationAbstract implements SSHImplementation {
         @NotNull SSHPortForwardConfiguration portForwardingConfiguration
     ) throws DBException, IOException;
 
+    /**
+     * Returns key of the shared session. Tunnels with equal keys use the same authenticated session.
+     */
+    @NotNull
+    protected SSHSessionKey getSessionKey(@NotNull DBWHandlerConfiguration configuration, @NotNull SSHHostConfiguration[] hosts) {
+        String settings = getClass().getName() +
+            "/" + configuration.getIntProperty(SSHConstants.PROP_CONNECT_TIMEOUT) +
+            "/" + configuration.getIntProperty(SSHConstants.PROP_ALIVE_INTERVAL) +
+            "/" + configuration.getBooleanProperty(SSHConstants.PROP_BYPASS_HOST_VERIFICATION);
+        return new SSHSessionKey(hosts, settings);
+    }
+
     @NotNull
     private static SSHHostConfiguration loadConfiguration(@NotNull DBWHandlerConfiguration configuration, @NotNull String prefix) throws DBException {
         final SSHConstants.AuthType authType = CommonUtils.valueOf(SSHConstants.AuthType.class, configuration.getStringProperty(prefix + SSHConstants.PROP_AUTH_TYPE), SSHConstants.AuthType.PASSWORD);
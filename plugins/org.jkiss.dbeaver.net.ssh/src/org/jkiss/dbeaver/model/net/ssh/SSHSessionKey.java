@@ -0,0 +1,85 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.net.ssh.config.SSHAuthConfiguration;
+import org.jkiss.dbeaver.model.net.ssh.config.SSHHostConfiguration;
+import org.jkiss.utils.CommonUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Identity of a shared SSH session: chain of hosts (jump hosts first), users, credentials and session settings.
+ * Credentials are kept as a digest, so keys can be logged and compared safely.
+ */
+public final class SSHSessionKey {
+
+    private final List<String> hosts;
+    private final String settings;
+
+    public SSHSessionKey(@NotNull SSHHostConfiguration[] hosts, @NotNull String settings) {
+        this.hosts = new ArrayList<>(hosts.length);
+        for (SSHHostConfiguration host : hosts) {
+            this.hosts.add(host.getUsername() + "@" + host.getHostname() + ":" + host.getPort() + "/" + getAuthDigest(host.getAuthConfiguration()));
+        }
+        this.settings = settings;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof SSHSessionKey key && hosts.equals(key.hosts) && settings.equals(key.settings);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hosts, settings);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (String host : hosts) {
+            if (!result.isEmpty()) {
+                result.append(" -> ");
+            }
+            // Hide credentials digest
+            result.append(host, 0, host.lastIndexOf('/'));
+        }
+        return result.toString();
+    }
+
+    @NotNull
+    private static String getAuthDigest(@NotNull SSHAuthConfiguration auth) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : new Object[] {auth.getType(), auth.getPassword(), auth.getKeyFile(), auth.getKeyValue()}) {
+                digest.update(CommonUtils.toString(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
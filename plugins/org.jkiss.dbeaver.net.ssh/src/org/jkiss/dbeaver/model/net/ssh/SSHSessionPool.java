@@ -0,0 +1,295 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Pool of authenticated SSH sessions.
+ * <p>
+ * Tunnels with the same {@link SSHSessionKey} share one session and open their own port forwardings over it.
+ * Sessions are reference counted. Broken session is reopened by the next {@link #acquire}.
+ * Session which is not used by any tunnel is closed after the idle timeout.
+ * All sessions of all pools are closed by {@link #closeAllPools()} on plugin shutdown.
+ *
+ * @param <S> session type (implementation specific)
+ */
+public class SSHSessionPool<S> {
+
+    private static final Log log = Log.getLog(SSHSessionPool.class);
+
+    private static final Set<SSHSessionPool<?>> pools = Collections.newSetFromMap(new WeakHashMap<>());
+
+    public interface SessionFactory<S> {
+        @NotNull
+        S openSession() throws DBException, IOException;
+    }
+
+    public interface SessionHandler<S> {
+        boolean isSessionAlive(@NotNull S session);
+
+        /**
+         * Closes session. Must not throw errors and should not block for a long time.
+         */
+        void closeSession(@NotNull S session);
+    }
+
+    private final SessionHandler<S> handler;
+    private final long idleTimeout;
+    private final Map<SSHSessionKey, Entry<S>> entries = new HashMap<>();
+    private final AbstractJob idleSessionsJob;
+    // Guarded by entries. Set when the idle job is scheduled or is going to reschedule itself.
+    private boolean idleCheckScheduled;
+
+    public SSHSessionPool(@NotNull SessionHandler<S> handler, long idleTimeout) {
+        this.handler = handler;
+        this.idleTimeout = idleTimeout;
+        this.idleSessionsJob = new AbstractJob("Close idle SSH sessions") {
+            {
+                setUser(false);
+                setSystem(true);
+            }
+
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                long nextCheckDelay = closeIdleSessions(System.currentTimeMillis());
+                if (nextCheckDelay > 0) {
+                    schedule(nextCheckDelay);
+                }
+                return Status.OK_STATUS;
+            }
+        };
+        synchronized (pools) {
+            pools.add(this);
+        }
+    }
+
+    /**
+     * Closes sessions of all pools. Called on plugin shutdown.
+     */
+    public static void closeAllPools() {
+        List<SSHSessionPool<?>> allPools;
+        synchronized (pools) {
+            allPools = new ArrayList<>(pools);
+        }
+        for (SSHSessionPool<?> pool : allPools) {
+            pool.closeAll();
+        }
+    }
+
+    /**
+     * Returns shared session for the specified key. Opens new session if there is no session yet or if it is broken.
+     * Returned lease must be released when the tunnel is closed.
+     */
+    @NotNull
+    public Lease<S> acquire(@NotNull SSHSessionKey key, @NotNull SessionFactory<S> factory) throws DBException, IOException {
+        Entry<S> entry;
+        synchronized (entries) {
+            entry = entries.computeIfAbsent(key, Entry::new);
+            entry.refCount++;
+        }
+        boolean success = false;
+        try {
+            S session;
+            synchronized (entry) {
+                if (entry.session != null && !handler.isSessionAlive(entry.session)) {
+                    log.debug("Shared SSH session " + key + " is broken. Reconnecting.");
+                    handler.closeSession(entry.session);
+                    entry.session = null;
+                }
+                if (entry.session == null) {
+                    entry.session = factory.openSession();
+                } else {
+                    log.debug("Reuse shared SSH session " + key);
+                }
+                session = entry.session;
+            }
+            success = true;
+            return new Lease<>(this, entry, session);
+        } finally {
+            if (!success) {
+                release(entry);
+            }
+        }
+    }
+
+    /**
+     * Closes sessions which are not used longer than the idle timeout.
+     *
+     * @return delay of the next check or 0 if there are no unused sessions
+     */
+    public long closeIdleSessions(long currentTime) {
+        List<S> idleSessions = new ArrayList<>();
+        long nextCheckDelay = 0;
+        synchronized (entries) {
+            for (var iter = entries.values().iterator(); iter.hasNext(); ) {
+                Entry<S> entry = iter.next();
+                if (entry.refCount > 0) {
+                    continue;
+                }
+                long idleTime = currentTime - entry.idleSince;
+                if (idleTime >= idleTimeout) {
+                    iter.remove();
+                    if (entry.session != null) {
+                        idleSessions.add(entry.session);
+                    }
+                } else if (nextCheckDelay == 0 || idleTimeout - idleTime < nextCheckDelay) {
+                    nextCheckDelay = idleTimeout - idleTime;
+                }
+            }
+            // Caller reschedules the check if there are unused sessions left.
+            // Otherwise the next release schedules it.
+            idleCheckScheduled = nextCheckDelay > 0;
+        }
+        for (S session : idleSessions) {
+            handler.closeSession(session);
+        }
+        return nextCheckDelay;
+    }
+
+    /**
+     * Closes all sessions, including used ones
+     */
+    public void closeAll() {
+        idleSessionsJob.cancel();
+        List<S> sessions = new ArrayList<>();
+        synchronized (entries) {
+            idleCheckScheduled = false;
+            for (Entry<S> entry : entries.values()) {
+                if (entry.session != null) {
+                    sessions.add(entry.session);
+                    entry.session = null;
+                }
+            }
+            entries.clear();
+        }
+        sessions.forEach(handler::closeSession);
+    }
+
+    public int getSessionCount() {
+        synchronized (entries) {
+            return (int) entries.values().stream().filter(e -> e.session != null).count();
+        }
+    }
+
+    private void release(@NotNull Entry<S> entry) {
+        synchronized (entries) {
+            entry.refCount--;
+            if (entry.refCount > 0 || entries.get(entry.key) != entry) {
+                return;
+            }
+            if (entry.session == null) {
+                entries.remove(entry.key);
+                return;
+            }
+            entry.idleSince = System.currentTimeMillis();
+            if (idleCheckScheduled) {
+                // Pending check will see this entry and reschedule itself
+                return;
+            }
+            idleCheckScheduled = true;
+        }
+        // If the job is running right now it is scheduled again after it finishes
+        idleSessionsJob.schedule(idleTimeout);
+    }
+
+    private boolean isSessionAlive(@NotNull S session) {
+        return handler.isSessionAlive(session);
+    }
+
+    private void invalidate(@NotNull Entry<S> entry, @NotNull S session) {
+        synchronized (entry) {
+            // Session may be already reopened by another tunnel
+            if (entry.session == session) {
+                entry.session = null;
+            } else {
+                return;
+            }
+        }
+        handler.closeSession(session);
+    }
+
+    private static class Entry<S> {
+        private final SSHSessionKey key;
+        private int refCount;
+        private long idleSince;
+        @Nullable
+        private S session;
+
+        Entry(@NotNull SSHSessionKey key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Reference to the shared session held by a single tunnel
+     */
+    public static final class Lease<S> {
+        private final SSHSessionPool<S> pool;
+        private final Entry<S> entry;
+        private final S session;
+        private boolean released;
+
+        private Lease(@NotNull SSHSessionPool<S> pool, @NotNull Entry<S> entry, @NotNull S session) {
+            this.pool = pool;
+            this.entry = entry;
+            this.session = session;
+        }
+
+        @NotNull
+        public S getSession() {
+            return session;
+        }
+
+        /**
+         * Checks whether the shared session is still connected. Live session may be used by other tunnels,
+         * so a failed tunnel must not invalidate it.
+         */
+        public boolean isSessionAlive() {
+            return pool.isSessionAlive(session);
+        }
+
+        /**
+         * Releases session. Session is closed when it is not used by any tunnel for the idle timeout.
+         */
+        public synchronized void release() {
+            if (!released) {
+                released = true;
+                pool.release(entry);
+            }
+        }
+
+        /**
+         * Closes broken session and releases it. Next {@link SSHSessionPool#acquire} opens new session.
+         * Session is closed for all tunnels which share it, so call it only if {@link #isSessionAlive()} is false.
+         */
+        public synchronized void invalidate() {
+            pool.invalidate(entry, session);
+            release();
+        }
+    }
+}
@@ -65,6 +65,10 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
     public static final String DEFAULT_ACTIVE_OBJECT = "default.activeObject"; //$NON-NLS-1$
 
     private static final long DISCONNECT_ALL_TIMEOUT = 5000;
+    // Configuration changes are coalesced: save starts after this delay since the last change...
+    private static final long SAVE_DEBOUNCE_DELAY = 300;
+    // ...but not later than this delay since the first unsaved change
+    private static final long SAVE_MAX_DELAY = 2000;
 
     private static final Log log = Log.getLog(DataSourceRegistry.class);
 
@@ -81,9 +85,15 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
     private final List<DBWNetworkProfile> networkProfiles = new ArrayList<>();
     private final Map<String, DBAAuthProfile> authProfiles = new LinkedHashMap<>();
     private volatile boolean saveInProgress = false;
+    // Unsaved changes. Guarded by itself.
+    private final Set<String> dirtyDataSources = new HashSet<>();
+    private boolean configDirty;
+    private long firstUnsavedChangeTime;
+    private final DataSourceSerializationCache serializationCache = new DataSourceSerializationCache();
 
     private final DBVModel.ModelChangeListener modelChangeListener = new DBVModel.ModelChangeListener();
     private volatile ConfigSaver configSaver;
+    private volatile boolean disposed;
     private DBACredentialsProvider authCredentialsProvider;
     protected Throwable lastError;
 
@@ -127,7 +137,15 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
         closeConnections(DISCONNECT_ALL_TIMEOUT);
         // Do not save config on shutdown.
         // Some data source might be broken due to misconfiguration
-        // and we don't want to lose their config just after restart
+        // and we don't want to lose their config just after restart.
+        // Only changes which are still waiting for the delayed save are written.
+        flushPendingChanges();
+        // Descriptors are disposed below, nothing must be saved after this point
+        disposed = true;
+        ConfigSaver saver = configSaver;
+        if (saver != null) {
+            saver.cancel();
+        }
 //        if (getProjectNode().isOpen()) {
 //            flushConfig();
 //        }
@@ -598,39 +616,99 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
         persistDataSourceUpdate(container);
     }
 
+    /**
+     * Schedules asynchronous save of the changed data source configuration.
+     * Changes are written by a background job after a short delay, several changes are saved at once.
+     * Pending changes are written on registry dispose (project close or application shutdown),
+     * use {@link #flushPendingChanges()} to write them immediately.
+     */
     protected void persistDataSourceUpdate(@NotNull DBPDataSourceContainer container) {
-        saveDataSources();
+        scheduleSave(container.getId());
     }
 
     protected void persistDataFolderDelete(@NotNull String folderPath, boolean dropContents) {
-        saveDataSources();
+        scheduleSave(null);
     }
 
     protected void persistDataSourceDelete(@NotNull DBPDataSourceContainer container) {
-        saveDataSources();
+        scheduleSave(container.getId());
     }
 
+    /**
+     * Schedules asynchronous save of the whole configuration (see {@link #persistDataSourceUpdate}).
+     */
     @Override
     public void flushConfig() {
-        if (project.isInMemory()) {
+        scheduleSave(null);
+    }
+
+    /**
+     * Schedules delayed configuration save.
+     * Use async config saver to avoid too frequent configuration re-save during some massive configuration update.
+     *
+     * @param dataSourceId changed data source or null if any other configuration part was changed
+     */
+    private void scheduleSave(@Nullable String dataSourceId) {
+        if (project.isInMemory() || disposed) {
             return;
         }
-        // Use async config saver to avoid too frequent configuration re-save during some massive configuration update
-        if (configSaver == null) {
-            configSaver = new ConfigSaver();
+        long delay;
+        synchronized (dirtyDataSources) {
+            if (dataSourceId == null) {
+                configDirty = true;
+            } else {
+                dirtyDataSources.add(dataSourceId);
+            }
+            long currentTime = System.currentTimeMillis();
+            if (firstUnsavedChangeTime == 0) {
+                firstUnsavedChangeTime = currentTime;
+            }
+            delay = Math.max(0, Math.min(SAVE_DEBOUNCE_DELAY, firstUnsavedChangeTime + SAVE_MAX_DELAY - currentTime));
+        }
+        ConfigSaver saver = configSaver;
+        if (saver == null) {
+            synchronized (this) {
+                if (configSaver == null) {
+                    configSaver = new ConfigSaver();
+                }
+                saver = configSaver;
+            }
+        }
+        // Re-scheduling of a sleeping job restarts its delay
+        saver.schedule(delay);
+    }
+
+    private boolean hasUnsavedChanges() {
+        synchronized (dirtyDataSources) {
+            return configDirty || !dirtyDataSources.isEmpty();
+        }
+    }
+
+    /**
+     * Synchronously saves changes which are waiting for the delayed save (if any)
+     */
+    public void flushPendingChanges() {
+        if (!hasUnsavedChanges()) {
+            return;
+        }
+        ConfigSaver saver = configSaver;
+        if (saver != null) {
+            saver.cancel();
+        }
+        synchronized (this) {
+            saveDataSources(new VoidProgressMonitor(), false);
         }
-        configSaver.schedule(100);
     }
 
     @Override
     public void refreshConfig() {
-        if (!saveInProgress) {
+        if (!saveInProgress && !hasUnsavedChanges()) {
             this.loadDataSources(true);
         }
     }
 
     public void refreshConfig(@Nullable Collection<String> dataSourceIds) {
-        if (saveInProgress) {
+        if (saveInProgress || hasUnsavedChanges()) {
             return;
         }
         loadDataSources(
@@ -757,6 +835,8 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
         if (!project.isOpen() || project.isInMemory()) {
             return false;
         }
+        // Configuration may differ from what was written last time
+        serializationCache.invalidateAll();
         // Clear filters before reload
         savedFilters.clear();
 
@@ -854,9 +934,20 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
     }
 
     protected void saveDataSources(DBRProgressMonitor monitor) {
+        saveDataSources(monitor, true);
+    }
+
+    /**
+     * Saves configuration.
+     *
+     * @param fullSave re-serialize all data sources. Otherwise only data sources changed since the last save are
+     *                 serialized (unless some other configuration part was changed).
+     */
+    protected void saveDataSources(DBRProgressMonitor monitor, boolean fullSave) {
         if (project.isInMemory()) {
             return;
         }
+        resetUnsavedChanges(fullSave);
 
         updateProjectNature();
         saveInProgress = true;
@@ -870,7 +961,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
                 List<DataSourceDescriptor> localDataSources = getDataSources(storage);
 
                 try {
-                    DataSourceSerializer serializer = new DataSourceSerializerModern(this);
+                    DataSourceSerializer serializer = new DataSourceSerializerModern(this, serializationCache);
                     serializer.saveDataSources(
                         monitor,
                         configurationManager,
@@ -897,6 +988,26 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
         }
     }
 
+    /**
+     * Marks all pending changes as saved and drops serialized state of changed data sources.
+     * Must be called by save implementations before configuration serialization.
+     */
+    protected final void resetUnsavedChanges(boolean fullSave) {
+        synchronized (dirtyDataSources) {
+            if (fullSave || configDirty) {
+                serializationCache.invalidateFragments();
+            } else {
+                serializationCache.invalidate(dirtyDataSources);
+            }
+            dirtyDataSources.clear();
+            configDirty = false;
+            firstUnsavedChangeTime = 0;
+        }
+        synchronized (dataSources) {
+            serializationCache.retainFragments(dataSources.keySet());
+        }
+    }
+
     private List<DataSourceDescriptor> getDataSources(DBPDataSourceConfigurationStorage storage) {
         List<DataSourceDescriptor> result = new ArrayList<>();
         synchronized (dataSources) {
@@ -1077,8 +1188,11 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
         @Override
         protected IStatus run(DBRProgressMonitor monitor) {
             synchronized (DataSourceRegistry.this) {
+                if (disposed) {
+                    return Status.CANCEL_STATUS;
+                }
                 //log.debug("Save column config " + System.currentTimeMillis());
-                saveDataSources(monitor);
+                saveDataSources(monitor, false);
             }
             return Status.OK_STATUS;
         }
@@ -0,0 +1,205 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPExternalConfiguration;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Serialized data source configuration cache.
+ * <p>
+ * Keeps serialized JSON of each data source (with its secure properties) until the data source is changed,
+ * so saving the registry after a single connection change doesn't re-serialize all other connections.
+ * Also keeps digests of the last written configuration files, so unchanged files are not re-encrypted and rewritten.
+ */
+public class DataSourceSerializationCache {
+
+    /**
+     * Serialized data source
+     */
+    public static class Fragment {
+        @NotNull
+        private final String json;
+        @Nullable
+        private final Map<String, Map<String, String>> secureProperties;
+        @NotNull
+        private final Map<String, DBPExternalConfiguration> externalConfigurations;
+
+        public Fragment(
+            @NotNull String json,
+            @Nullable Map<String, Map<String, String>> secureProperties,
+            @NotNull Map<String, DBPExternalConfiguration> externalConfigurations
+        ) {
+            this.json = json;
+            this.secureProperties = secureProperties == null ? null : copySecureProperties(secureProperties);
+            this.externalConfigurations = Collections.unmodifiableMap(new LinkedHashMap<>(externalConfigurations));
+        }
+
+        @NotNull
+        public String getJson() {
+            return json;
+        }
+
+        /**
+         * Returns a copy of secure properties, so serializer may modify them
+         */
+        @Nullable
+        public Map<String, Map<String, String>> getSecureProperties() {
+            return secureProperties == null ? null : copySecureProperties(secureProperties);
+        }
+
+        @NotNull
+        public Map<String, DBPExternalConfiguration> getExternalConfigurations() {
+            return externalConfigurations;
+        }
+    }
+
+    /**
+     * Writes a single JSON value
+     */
+    public interface ValueSerializer {
+        void serialize(@NotNull JsonWriter json) throws IOException;
+    }
+
+    private final Map<String, Fragment> fragments = new HashMap<>();
+    private final Map<String, byte[]> writtenFiles = new HashMap<>();
+    private long serializedCount;
+
+    @Nullable
+    public synchronized Fragment getFragment(@NotNull String dataSourceId) {
+        return fragments.get(dataSourceId);
+    }
+
+    public synchronized void putFragment(@NotNull String dataSourceId, @NotNull Fragment fragment) {
+        fragments.put(dataSourceId, fragment);
+        serializedCount++;
+    }
+
+    public synchronized void invalidate(@NotNull Collection<String> dataSourceIds) {
+        fragments.keySet().removeAll(dataSourceIds);
+    }
+
+    /**
+     * Drops all serialized data sources. File digests are kept, they are still valid.
+     */
+    public synchronized void invalidateFragments() {
+        fragments.clear();
+    }
+
+    /**
+     * Drops everything. Used after configuration was re-read, it may differ from what we wrote last time.
+     */
+    public synchronized void invalidateAll() {
+        fragments.clear();
+        writtenFiles.clear();
+    }
+
+    /**
+     * Removes fragments of data sources which aren't present anymore
+     */
+    public synchronized void retainFragments(@NotNull Collection<String> dataSourceIds) {
+        fragments.keySet().retainAll(dataSourceIds);
+    }
+
+    /**
+     * Number of data sources serialized (not taken from cache) since the cache creation
+     */
+    public synchronized long getSerializedCount() {
+        return serializedCount;
+    }
+
+    /**
+     * Checks whether the specified file contents is the same as the last written one
+     */
+    public synchronized boolean isFileUpToDate(@NotNull String fileName, @Nullable String contents) {
+        byte[] digest = writtenFiles.get(fileName);
+        return digest != null && Arrays.equals(digest, computeDigest(contents));
+    }
+
+    public synchronized void setFileWritten(@NotNull String fileName, @Nullable String contents) {
+        writtenFiles.put(fileName, computeDigest(contents));
+    }
+
+    public synchronized void resetFile(@NotNull String fileName) {
+        writtenFiles.remove(fileName);
+    }
+
+    /**
+     * Serializes value into a standalone JSON string formatted with the specified indent.
+     */
+    @NotNull
+    public static String serializeValue(
+        @NotNull Gson gson,
+        @NotNull String indent,
+        @NotNull ValueSerializer serializer
+    ) throws IOException {
+        StringWriter buffer = new StringWriter();
+        try (JsonWriter json = gson.newJsonWriter(buffer)) {
+            json.setIndent(indent);
+            serializer.serialize(json);
+            json.flush();
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Writes value serialized by {@link #serializeValue} at the specified nesting depth.
+     * Result is the same as if the value was written by the target writer itself.
+     */
+    public static void writeValue(
+        @NotNull JsonWriter json,
+        @NotNull String value,
+        @NotNull String indent,
+        int depth
+    ) throws IOException {
+        if (!indent.isEmpty() && depth > 0) {
+            value = value.replace("\n", "\n" + indent.repeat(depth));
+        }
+        json.jsonValue(value);
+    }
+
+    @NotNull
+    private static byte[] computeDigest(@Nullable String contents) {
+        if (contents == null) {
+            return new byte[0];
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(contents.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @NotNull
+    private static Map<String, Map<String, String>> copySecureProperties(@NotNull Map<String, Map<String, String>> properties) {
+        Map<String, Map<String, String>> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, String>> entry : properties.entrySet()) {
+            copy.put(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
+        }
+        return copy;
+    }
+}
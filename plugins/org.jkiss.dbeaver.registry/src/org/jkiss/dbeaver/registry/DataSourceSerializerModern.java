@@ -79,6 +79,8 @@ class DataSourceSerializerModern implements DataSourceSerializer
 
     private static final Log log = Log.getLog(DataSourceSerializerModern.class);
     private static final String NODE_CONNECTION = "#connection";
+    // Connection objects are written at the second level: root / connections / connection
+    private static final int CONNECTION_DEPTH = 2;
 
     private static final Gson CONFIG_GSON = new GsonBuilder()
         .setLenient()
@@ -94,6 +96,8 @@ class DataSourceSerializerModern implements DataSourceSerializer
 
     @NotNull
     private final DataSourceRegistry registry;
+    @Nullable
+    private final DataSourceSerializationCache cache;
     // Secure props.
     //  0 level: datasource ID
     //  1 level: object type (connection or handler id)
@@ -102,7 +106,12 @@ class DataSourceSerializerModern implements DataSourceSerializer
     private final boolean isDetachedProcess = DBWorkbench.getPlatform().getApplication().isDetachedProcess();
 
     DataSourceSerializerModern(@NotNull DataSourceRegistry registry) {
+        this(registry, null);
+    }
+
+    DataSourceSerializerModern(@NotNull DataSourceRegistry registry, @Nullable DataSourceSerializationCache cache) {
         this.registry = registry;
+        this.cache = cache;
     }
 
     @Override
@@ -341,6 +350,10 @@ class DataSourceSerializerModern implements DataSourceSerializer
     }
 
     private void saveConfigFile(DataSourceConfigurationManager configurationManager, String name, String contents, boolean teamPrivate, boolean encrypt) throws DBException, IOException {
+        if (cache != null && cache.isFileUpToDate(name, contents)) {
+            // Nothing was changed since the last write. Skip encryption and write.
+            return;
+        }
         byte[] binaryContents = null;
         if (contents != null) {
             if (encrypt) {
@@ -354,6 +367,9 @@ class DataSourceSerializerModern implements DataSourceSerializer
 
         // Save result to file
         configurationManager.writeConfiguration(name, binaryContents);
+        if (cache != null) {
+            cache.setFileWritten(name, contents);
+        }
     }
 
     private void saveSecureCredentialsFile(DataSourceConfigurationManager configurationManager, DBPDataSourceConfigurationStorage storage) {
@@ -1026,6 +1042,39 @@ class DataSourceSerializerModern implements DataSourceSerializer
         throws IOException
     {
         json.name(dataSource.getId());
+        if (cache == null) {
+            serializeDataSource(configurationManager, json, dataSource, externalConfigurations);
+            return;
+        }
+        DataSourceSerializationCache.Fragment fragment = cache.getFragment(dataSource.getId());
+        if (fragment == null) {
+            // Serialize separately and remember result until the data source is changed
+            Map<String, DBPExternalConfiguration> dsExternalConfigurations = new LinkedHashMap<>();
+            String dsJson = DataSourceSerializationCache.serializeValue(
+                CONFIG_GSON,
+                JSONUtils.DEFAULT_INDENT,
+                writer -> serializeDataSource(configurationManager, writer, dataSource, dsExternalConfigurations));
+            fragment = new DataSourceSerializationCache.Fragment(
+                dsJson,
+                secureProperties.get(dataSource.getId()),
+                dsExternalConfigurations);
+            cache.putFragment(dataSource.getId(), fragment);
+        } else {
+            Map<String, Map<String, String>> dsSecureProperties = fragment.getSecureProperties();
+            if (dsSecureProperties != null) {
+                secureProperties.put(dataSource.getId(), dsSecureProperties);
+            }
+        }
+        DataSourceSerializationCache.writeValue(json, fragment.getJson(), JSONUtils.DEFAULT_INDENT, CONNECTION_DEPTH);
+        externalConfigurations.putAll(fragment.getExternalConfigurations());
+    }
+
+    private void serializeDataSource(
+        DataSourceConfigurationManager configurationManager, @NotNull JsonWriter json,
+        @NotNull DataSourceDescriptor dataSource,
+        @NotNull Map<String, DBPExternalConfiguration> externalConfigurations)
+        throws IOException
+    {
         json.beginObject();
         JSONUtils.field(json, RegistryConstants.ATTR_PROVIDER, dataSource.getDriver().getProviderDescriptor().getId());
         JSONUtils.field(json, RegistryConstants.ATTR_DRIVER, dataSource.getDriver().getId());
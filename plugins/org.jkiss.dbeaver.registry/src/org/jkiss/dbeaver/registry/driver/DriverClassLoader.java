@@ -17,26 +17,220 @@
 
 package org.jkiss.dbeaver.registry.driver;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.connection.DBPDriverLibrary;
 import org.jkiss.utils.CommonUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipFile;
 
 /**
- * DriverClassLoader
+ * DriverClassLoader.
+ * If driver jars are indexed then classes and resources are loaded directly from the jars which contain
+ * their packages, instead of looking through all jars. Names which are not found through the index
+ * (e.g. classes of jars from the manifest Class-Path) are looked up by the regular URL class loader.
  */
 public class DriverClassLoader extends URLClassLoader
 {
+    private static final Log log = Log.getLog(DriverClassLoader.class);
+
     private final DriverDescriptor driver;
+    @Nullable
+    private final DriverPackageIndex packageIndex;
+    private final URL[] jarURLs;
+    private final JarFile[] jarFiles;
 
     public DriverClassLoader(DriverDescriptor driver, URL[] urls, ClassLoader parent)
     {
         super(urls, parent);
         this.driver = driver;
+        this.packageIndex = null;
+        this.jarURLs = urls;
+        this.jarFiles = null;
+    }
+
+    DriverClassLoader(@NotNull DriverDescriptor driver, @NotNull URL[] urls, @NotNull DriverPackageIndex packageIndex, ClassLoader parent)
+    {
+        super(urls, parent);
+        this.driver = driver;
+        this.packageIndex = packageIndex;
+        this.jarURLs = urls;
+        this.jarFiles = new JarFile[urls.length];
+    }
+
+    public boolean isIndexed() {
+        return packageIndex != null;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException
+    {
+        if (packageIndex == null) {
+            return super.findClass(name);
+        }
+        final int divPos = name.lastIndexOf('.');
+        final String folder = divPos < 0 ? "" : name.substring(0, divPos).replace('.', '/');
+        final String entryName = name.replace('.', '/').concat(".class");
+        for (int jarIndex : packageIndex.getJarsForFolder(folder)) {
+            try {
+                final JarFile jarFile = getJarFile(jarIndex);
+                final JarEntry entry = jarFile.getJarEntry(entryName);
+                if (entry != null) {
+                    return defineJarClass(name, divPos < 0 ? null : name.substring(0, divPos), jarIndex, jarFile, entry);
+                }
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+        return super.findClass(name);
+    }
+
+    @Override
+    public URL findResource(String name)
+    {
+        if (packageIndex == null || name.isEmpty() || name.endsWith("/")) {
+            return super.findResource(name);
+        }
+        for (int jarIndex : packageIndex.getJarsForFolder(getResourceFolder(name))) {
+            final URL url = findJarResource(jarIndex, name);
+            if (url != null) {
+                return url;
+            }
+        }
+        return super.findResource(name);
+    }
+
+    @Override
+    public Enumeration<URL> findResources(String name) throws IOException
+    {
+        if (packageIndex == null || name.isEmpty() || name.endsWith("/")) {
+            return super.findResources(name);
+        }
+        final List<URL> result = new ArrayList<>();
+        for (int jarIndex : packageIndex.getJarsForFolder(getResourceFolder(name))) {
+            final URL url = findJarResource(jarIndex, name);
+            if (url != null) {
+                result.add(url);
+            }
+        }
+        final Enumeration<URL> otherResources = super.findResources(name);
+        if (otherResources.hasMoreElements()) {
+            final Set<String> foundResources = new HashSet<>();
+            for (URL url : result) {
+                foundResources.add(url.toExternalForm());
+            }
+            while (otherResources.hasMoreElements()) {
+                final URL url = otherResources.nextElement();
+                if (foundResources.add(url.toExternalForm())) {
+                    result.add(url);
+                }
+            }
+        }
+        return Collections.enumeration(result);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try {
+            super.close();
+        } finally {
+            if (jarFiles != null) {
+                synchronized (jarFiles) {
+                    for (int i = 0; i < jarFiles.length; i++) {
+                        if (jarFiles[i] != null) {
+                            try {
+                                jarFiles[i].close();
+                            } catch (IOException e) {
+                                log.debug("Error closing driver jar: " + e.getMessage());
+                            }
+                            jarFiles[i] = null;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static String getResourceFolder(@NotNull String name) {
+        final int divPos = name.lastIndexOf('/');
+        return divPos < 0 ? "" : name.substring(0, divPos);
+    }
+
+    @Nullable
+    private URL findJarResource(int jarIndex, @NotNull String name) {
+        try {
+            if (getJarFile(jarIndex).getJarEntry(name) == null) {
+                return null;
+            }
+            return new URL("jar:" + jarURLs[jarIndex] + "!/" + name);
+        } catch (MalformedURLException e) {
+            return null;
+        } catch (IOException e) {
+            log.debug("Error reading driver jar '" + jarURLs[jarIndex] + "': " + e.getMessage());
+            return null;
+        }
+    }
+
+    @NotNull
+    private JarFile getJarFile(int jarIndex) throws IOException {
+        synchronized (jarFiles) {
+            JarFile jarFile = jarFiles[jarIndex];
+            if (jarFile == null) {
+                jarFile = new JarFile(packageIndex.getJars().get(jarIndex).toFile(), true, ZipFile.OPEN_READ, Runtime.version());
+                jarFiles[jarIndex] = jarFile;
+            }
+            return jarFile;
+        }
+    }
+
+    @NotNull
+    private Class<?> defineJarClass(
+        @NotNull String name,
+        @Nullable String packageName,
+        int jarIndex,
+        @NotNull JarFile jarFile,
+        @NotNull JarEntry entry
+    ) throws IOException {
+        final byte[] bytes;
+        try (InputStream is = jarFile.getInputStream(entry)) {
+            bytes = is.readAllBytes();
+        }
+        final URL jarURL = jarURLs[jarIndex];
+        if (packageName != null && getDefinedPackage(packageName) == null) {
+            try {
+                final Manifest manifest = jarFile.getManifest();
+                if (manifest != null) {
+                    definePackage(packageName, manifest, jarURL);
+                } else {
+                    definePackage(packageName, null, null, null, null, null, null, null);
+                }
+            } catch (IllegalArgumentException e) {
+                // Package was defined concurrently
+            }
+        }
+        // Code signers are available after the entry was read
+        final CodeSource codeSource = new CodeSource(jarURL, entry.getCodeSigners());
+        return defineClass(name, bytes, 0, bytes.length, codeSource);
     }
 
     @Override
@@ -21,9 +21,14 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.connection.DBPDriverDependencies;
 import org.jkiss.dbeaver.model.connection.DBPDriverLibrary;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * DriverDependencies
@@ -32,6 +37,8 @@ public class DriverDependencies implements DBPDriverDependencies
 {
     private static final Log log = Log.getLog(DriverDependencies.class);
 
+    private static final int MAX_RESOLVE_THREADS = 8;
+
     private final List<DBPDriverLibrary> rootLibraries;
     private final List<DependencyNode> rootNodes = new ArrayList<>();
     private final List<DependencyNode> libraryList = new ArrayList<>();
@@ -43,6 +50,7 @@ public class DriverDependencies implements DBPDriverDependencies
     @Override
     public void resolveDependencies(DBRProgressMonitor monitor) throws DBException {
         IOException lastError = null;
+        prefetchDependencies(monitor);
         {
             rootNodes.clear();
 
@@ -92,6 +100,56 @@ public class DriverDependencies implements DBPDriverDependencies
         }
     }
 
+    /**
+     * Loads dependencies of the whole graph in several threads, level by level.
+     * Loaded artifact information is cached by Maven registry, so the dependency tree is then
+     * built sequentially with the same result as before, but without waiting for each POM download.
+     * Errors are ignored here, they are reported by the sequential resolution.
+     */
+    private void prefetchDependencies(DBRProgressMonitor monitor) {
+        final ExecutorService executor = Executors.newFixedThreadPool(MAX_RESOLVE_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "Driver dependencies resolver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final Set<String> visited = new HashSet<>();
+            List<DBPDriverLibrary> level = new ArrayList<>();
+            for (DBPDriverLibrary library : rootLibraries) {
+                if (visited.add(library.getId())) {
+                    level.add(library);
+                }
+            }
+            while (!level.isEmpty() && !monitor.isCanceled()) {
+                monitor.subTask("Resolve dependencies (" + visited.size() + " libraries)");
+                final List<Future<Collection<? extends DBPDriverLibrary>>> results = new ArrayList<>(level.size());
+                for (DBPDriverLibrary library : level) {
+                    results.add(executor.submit(() -> library.getDependencies(new VoidProgressMonitor())));
+                }
+                final List<DBPDriverLibrary> nextLevel = new ArrayList<>();
+                for (Future<Collection<? extends DBPDriverLibrary>> result : results) {
+                    try {
+                        Collection<? extends DBPDriverLibrary> dependencies = result.get();
+                        if (dependencies != null) {
+                            for (DBPDriverLibrary dependency : dependencies) {
+                                if (visited.add(dependency.getId())) {
+                                    nextLevel.add(dependency);
+                                }
+                            }
+                        }
+                    } catch (ExecutionException e) {
+                        log.debug("Error prefetching library dependencies: " + e.getCause().getMessage());
+                    }
+                }
+                level = nextLevel;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private void dumpNode(DependencyNode node, int level) {
         if (node.duplicate) {
             return;
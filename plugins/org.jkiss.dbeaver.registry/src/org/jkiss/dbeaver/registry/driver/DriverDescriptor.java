@@ -57,6 +57,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -223,6 +224,7 @@ public class DriverDescriptor extends AbstractDescriptor implements DBPDriver {
     private boolean isLoaded;
     private Object driverInstance;
     private DriverClassLoader classLoader;
+    private long driverLoadTime;
 
     private transient boolean isFailed = false;
 
@@ -574,6 +576,14 @@ public class DriverDescriptor extends AbstractDescriptor implements DBPDriver {
         return classLoader;
     }
 
+    /**
+     * Returns time (in ms) of the last driver load: libraries lookup, class loader creation
+     * and driver class initialization. Returns 0 if driver wasn't loaded.
+     */
+    public long getDriverLoadTime() {
+        return driverLoadTime;
+    }
+
     @NotNull
     @Override
     public DataSourceProviderDescriptor getProviderDescriptor() {
@@ -1254,6 +1264,7 @@ public class DriverDescriptor extends AbstractDescriptor implements DBPDriver {
             return;
         }
         isLoaded = false;
+        final long loadStartTime = System.currentTimeMillis();
 
         loadGlobalLibraries();
         loadLibraries(monitor);
@@ -1282,6 +1293,9 @@ public class DriverDescriptor extends AbstractDescriptor implements DBPDriver {
 
                 isLoaded = true;
                 isFailed = false;
+                driverLoadTime = System.currentTimeMillis() - loadStartTime;
+                log.debug("Driver '" + getFullId() + "' loaded in " + driverLoadTime + "ms" +
+                    (classLoader != null && classLoader.isIndexed() ? " (indexed)" : ""));
             }
         } catch (DBException e) {
             isFailed = true;
@@ -1295,6 +1309,7 @@ public class DriverDescriptor extends AbstractDescriptor implements DBPDriver {
         List<Path> allLibraryFiles = validateFilesPresence(monitor, false);
 
         List<URL> libraryURLs = new ArrayList<>();
+        List<Path> libraryPaths = new ArrayList<>();
         // Load libraries
         for (Path file : allLibraryFiles) {
             URL url;
@@ -1305,6 +1320,7 @@ public class DriverDescriptor extends AbstractDescriptor implements DBPDriver {
                 continue;
             }
             libraryURLs.add(url);
+            libraryPaths.add(file);
         }
         // Make class loader
         ClassLoader baseClassLoader = rootClassLoader;
@@ -1318,10 +1334,45 @@ public class DriverDescriptor extends AbstractDescriptor implements DBPDriver {
                 baseClassLoader = DBPDataSource.class.getClassLoader();
             }
         }
-        this.classLoader = new DriverClassLoader(
-            this,
-            libraryURLs.toArray(new URL[0]),
-            baseClassLoader);
+        DriverPackageIndex packageIndex = getPackageIndex(libraryPaths);
+        if (packageIndex != null) {
+            this.classLoader = new DriverClassLoader(
+                this,
+                libraryURLs.toArray(new URL[0]),
+                packageIndex,
+                baseClassLoader);
+        } else {
+            this.classLoader = new DriverClassLoader(
+                this,
+                libraryURLs.toArray(new URL[0]),
+                baseClassLoader);
+        }
+    }
+
+    /**
+     * Returns index of driver jar packages. Index is stored in the drivers folder.
+     * Returns null if driver has no jars or some of its files are not jars.
+     */
+    @Nullable
+    private DriverPackageIndex getPackageIndex(@NotNull List<Path> libraryFiles) {
+        if (libraryFiles.size() < 2) {
+            // Nothing to look up
+            return null;
+        }
+        try {
+            Path indexFile = getCustomDriversHome()
+                .resolve(DriverPackageIndex.INDEX_FOLDER)
+                .resolve(UUID.nameUUIDFromBytes(getFullId().getBytes(StandardCharsets.UTF_8)) + ".idx");
+            DriverPackageIndex index = DriverPackageIndex.getIndex(indexFile, libraryFiles);
+            if (index != null) {
+                log.debug("Driver '" + getFullId() + "' package index " + (index.isCached() ? "loaded" : "created") +
+                    " (" + index.getPackageCount() + " packages in " + libraryFiles.size() + " files)");
+            }
+            return index;
+        } catch (Exception e) {
+            log.debug("Can't index driver '" + getFullId() + "' files", e);
+            return null;
+        }
     }
 
     private static synchronized void loadGlobalLibraries() {
@@ -29,6 +29,7 @@ import org.jkiss.utils.CommonUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -305,8 +306,9 @@ public class DriverLibraryMavenArtifact extends DriverLibraryAbstract
 
     public void downloadLibraryFile(@NotNull DBRProgressMonitor monitor, boolean forceUpdate, String taskName) throws IOException, InterruptedException {
         //monitor.beginTask(taskName + " - update localVersion information", 1);
+        MavenArtifactVersion localVersion;
         try {
-            MavenArtifactVersion localVersion = resolveLocalVersion(monitor, forceUpdate);
+            localVersion = resolveLocalVersion(monitor, forceUpdate);
             if (localVersion.getArtifact().getRepository().getType() == MavenRepository.RepositoryType.LOCAL) {
                 // No need to download local artifacts
                 return;
@@ -314,7 +316,25 @@ public class DriverLibraryMavenArtifact extends DriverLibraryAbstract
         } finally {
             //monitor.done();
         }
+        final Path localFile = getLocalFile();
+        if (localFile == null || (!forceUpdate && Files.exists(localFile) && Files.size(localFile) > 0)) {
+            super.downloadLibraryFile(monitor, forceUpdate, taskName);
+            return;
+        }
+        final MavenArtifactCache artifactCache = MavenArtifactCache.getInstance();
+        final String externalURL = localVersion.getExternalURL();
+        final DBPAuthInfo authInfo = localVersion.getArtifact().getRepository().getAuthInfo();
+        if (artifactCache.restoreFromStore(externalURL, authInfo, localFile)) {
+            // The same file was downloaded before (e.g. from another repository or for another driver)
+            return;
+        }
         super.downloadLibraryFile(monitor, forceUpdate, taskName);
+        try {
+            artifactCache.storeFile(externalURL, authInfo, localFile);
+        } catch (IOException e) {
+            Files.deleteIfExists(localFile);
+            throw e;
+        }
     }
 
     @Nullable
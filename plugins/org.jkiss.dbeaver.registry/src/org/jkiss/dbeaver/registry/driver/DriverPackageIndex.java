@@ -0,0 +1,248 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.driver;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Maps resource folders (packages) of driver jars to the jars which contain them.
+ * <p>
+ * Index is built once and stored in the drivers folder. Stored index is reused
+ * while jar list, sizes and modification times (jar checksums) stay the same.
+ */
+class DriverPackageIndex {
+
+    private static final Log log = Log.getLog(DriverPackageIndex.class);
+
+    static final String INDEX_FOLDER = ".index";
+    private static final String INDEX_HEADER = "dbeaver-driver-index-1";
+    private static final String VERSIONS_PREFIX = "META-INF/versions/";
+    private static final int[] NO_JARS = new int[0];
+
+    private final List<Path> jars;
+    private final Map<String, int[]> packages;
+    private final boolean cached;
+
+    private DriverPackageIndex(@NotNull List<Path> jars, @NotNull Map<String, int[]> packages, boolean cached) {
+        this.jars = jars;
+        this.packages = packages;
+        this.cached = cached;
+    }
+
+    @NotNull
+    List<Path> getJars() {
+        return jars;
+    }
+
+    /**
+     * Returns true if index was read from the index file
+     */
+    boolean isCached() {
+        return cached;
+    }
+
+    int getPackageCount() {
+        return packages.size();
+    }
+
+    /**
+     * Returns indexes of jars containing the specified folder ('/' separated, without trailing slash).
+     * Root folder is an empty string.
+     */
+    @NotNull
+    int[] getJarsForFolder(@NotNull String folder) {
+        final int[] result = packages.get(folder);
+        return result == null ? NO_JARS : result;
+    }
+
+    /**
+     * Returns index of the specified jars or null if some of them can't be indexed.
+     * Index is read from the index file if it is up-to-date, otherwise it is built and saved.
+     */
+    @Nullable
+    static DriverPackageIndex getIndex(@NotNull Path indexFile, @NotNull List<Path> jars) {
+        final List<String> checksums = new ArrayList<>(jars.size());
+        for (Path jar : jars) {
+            final String checksum = getFileChecksum(jar);
+            if (checksum == null) {
+                // Folders and missing files can't be indexed
+                return null;
+            }
+            checksums.add(checksum);
+        }
+        if (Files.exists(indexFile)) {
+            try {
+                final DriverPackageIndex index = readIndex(indexFile, jars, checksums);
+                if (index != null) {
+                    return index;
+                }
+            } catch (IOException e) {
+                log.debug("Error reading driver index '" + indexFile + "': " + e.getMessage());
+            }
+        }
+        final DriverPackageIndex index;
+        try {
+            index = buildIndex(jars);
+        } catch (IOException e) {
+            log.debug("Error indexing driver files: " + e.getMessage());
+            return null;
+        }
+        try {
+            saveIndex(indexFile, index, checksums);
+        } catch (IOException e) {
+            log.debug("Error saving driver index '" + indexFile + "': " + e.getMessage());
+        }
+        return index;
+    }
+
+    @Nullable
+    private static String getFileChecksum(@NotNull Path file) {
+        try {
+            final BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attrs.isRegularFile()) {
+                return null;
+            }
+            return file.toAbsolutePath() + "|" + attrs.size() + "|" + attrs.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @NotNull
+    static DriverPackageIndex buildIndex(@NotNull List<Path> jars) throws IOException {
+        final Map<String, Set<Integer>> folders = new HashMap<>();
+        for (int i = 0; i < jars.size(); i++) {
+            // Read the central directory only, entries are not decompressed
+            try (ZipFile zipFile = new ZipFile(jars.get(i).toFile())) {
+                final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+                while (entries.hasMoreElements()) {
+                    final ZipEntry entry = entries.nextElement();
+                    if (entry.isDirectory()) {
+                        continue;
+                    }
+                    String name = entry.getName();
+                    if (name.startsWith(VERSIONS_PREFIX)) {
+                        // Multi-release entry, register it for the base package too
+                        final int versionEnd = name.indexOf('/', VERSIONS_PREFIX.length());
+                        if (versionEnd > 0) {
+                            addFolder(folders, name.substring(versionEnd + 1), i);
+                        }
+                    }
+                    addFolder(folders, name, i);
+                }
+            }
+        }
+        final Map<String, int[]> packages = new HashMap<>(folders.size());
+        for (Map.Entry<String, Set<Integer>> entry : folders.entrySet()) {
+            packages.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).sorted().toArray());
+        }
+        return new DriverPackageIndex(List.copyOf(jars), packages, false);
+    }
+
+    private static void addFolder(@NotNull Map<String, Set<Integer>> folders, @NotNull String entryName, int jarIndex) {
+        final int divPos = entryName.lastIndexOf('/');
+        final String folder = divPos < 0 ? "" : entryName.substring(0, divPos);
+        folders.computeIfAbsent(folder, k -> new LinkedHashSet<>(2)).add(jarIndex);
+    }
+
+    @Nullable
+    private static DriverPackageIndex readIndex(
+        @NotNull Path indexFile,
+        @NotNull List<Path> jars,
+        @NotNull List<String> checksums
+    ) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            if (!INDEX_HEADER.equals(reader.readLine())) {
+                return null;
+            }
+            final int jarCount = Integer.parseInt(reader.readLine());
+            if (jarCount != checksums.size()) {
+                return null;
+            }
+            for (String checksum : checksums) {
+                if (!checksum.equals(reader.readLine())) {
+                    // Driver files were changed
+                    return null;
+                }
+            }
+            final Map<String, int[]> packages = new HashMap<>();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                final int divPos = line.lastIndexOf('\t');
+                if (divPos < 0) {
+                    return null;
+                }
+                final String[] jarIds = line.substring(divPos + 1).split(",");
+                final int[] jarIndexes = new int[jarIds.length];
+                for (int i = 0; i < jarIds.length; i++) {
+                    jarIndexes[i] = Integer.parseInt(jarIds[i]);
+                    if (jarIndexes[i] < 0 || jarIndexes[i] >= jarCount) {
+                        return null;
+                    }
+                }
+                packages.put(line.substring(0, divPos), jarIndexes);
+            }
+            return new DriverPackageIndex(List.copyOf(jars), packages, true);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void saveIndex(
+        @NotNull Path indexFile,
+        @NotNull DriverPackageIndex index,
+        @NotNull List<String> checksums
+    ) throws IOException {
+        Files.createDirectories(indexFile.getParent());
+        final Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            writer.write(INDEX_HEADER);
+            writer.write('\n');
+            writer.write(String.valueOf(checksums.size()));
+            writer.write('\n');
+            for (String checksum : checksums) {
+                writer.write(checksum);
+                writer.write('\n');
+            }
+            for (Map.Entry<String, int[]> entry : index.packages.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write('\t');
+                final int[] jarIndexes = entry.getValue();
+                for (int i = 0; i < jarIndexes.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(String.valueOf(jarIndexes[i]));
+                }
+                writer.write('\n');
+            }
+        }
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+}
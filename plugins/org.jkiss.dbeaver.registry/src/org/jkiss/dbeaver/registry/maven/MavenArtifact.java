@@ -34,6 +34,8 @@ import org.xml.sax.Attributes;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
@@ -49,6 +51,7 @@ public class MavenArtifact implements IMavenIdentifier
     private static final Log log = Log.getLog(MavenArtifact.class);
 
     public static final String MAVEN_METADATA_XML = "maven-metadata.xml";
+    private static final String DIRECTORY_LISTING_FILE = ".listing.html";
 
     public static final String FILE_JAR = "jar";
     public static final String FILE_POM = "pom";
@@ -101,20 +104,23 @@ public class MavenArtifact implements IMavenIdentifier
         snapshotVersions.clear();
         lastUpdate = null;
         String metadataPath = getBaseArtifactURL();
+        String metadataFile = groupId + "/" + artifactId + "/";
         // The repository is a SNAPSHOT repo, artifact metadata is stored inside the version
         if (version != null) {
             metadataPath += version + "/";
+            metadataFile += version + "/";
         }
         metadataPath += MAVEN_METADATA_XML;
+        metadataFile += MAVEN_METADATA_XML;
         monitor.subTask("Load metadata " + this + "");
 
-        try (InputStream mdStream = WebUtils.openConnection(metadataPath, getRepository().getAuthInfo(), null).getInputStream()) {
+        try (InputStream mdStream = openMetadata(metadataPath, metadataFile)) {
             parseMetadata(mdStream);
         } catch (XMLException e) {
             log.warn("Error parsing artifact metadata", e);
         } catch (IOException e) {
             // Metadata xml not found. It happens in rare cases. Let's try to get directory listing
-            try (InputStream dirStream = WebUtils.openConnection(getBaseArtifactURL(), getRepository().getAuthInfo(), null).getInputStream()) {
+            try (InputStream dirStream = openMetadata(getBaseArtifactURL(), groupId + "/" + artifactId + "/" + DIRECTORY_LISTING_FILE)) {
                 parseDirectory(dirStream);
             } catch (XMLException e1) {
                 log.warn("Error parsing artifact directory", e);
@@ -126,6 +132,18 @@ public class MavenArtifact implements IMavenIdentifier
         metadataLoaded = true;
     }
 
+    private InputStream openMetadata(String metadataPath, String metadataFile) throws IOException {
+        if (repository.getType() == MavenRepository.RepositoryType.LOCAL) {
+            return WebUtils.openConnection(metadataPath, getRepository().getAuthInfo(), null).getInputStream();
+        }
+        // Remote metadata is cached and refreshed only when it changes
+        Path localFile = MavenArtifactCache.getInstance().fetchMetadata(
+            metadataPath,
+            getRepository().getAuthInfo(),
+            repository.getLocalCacheDir().resolve(metadataFile));
+        return Files.newInputStream(localFile);
+    }
+
     private void removeIgnoredVersions() {
         versions.removeIf(version ->
             MavenRegistry.getInstance().isVersionIgnored(groupId + ":" + artifactId + ":" + version));
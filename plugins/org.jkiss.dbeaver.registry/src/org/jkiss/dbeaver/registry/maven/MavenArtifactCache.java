@@ -0,0 +1,363 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.maven;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.connection.DBPAuthInfo;
+import org.jkiss.dbeaver.registry.driver.DriverDescriptor;
+import org.jkiss.dbeaver.runtime.HttpStatusException;
+import org.jkiss.dbeaver.runtime.WebUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local cache of remote Maven repository files.
+ * <ul>
+ *     <li>Downloaded files are verified with repository SHA-1 checksums and kept in a content-addressed store
+ *     shared by all repositories, so the same file is never downloaded twice.</li>
+ *     <li>Missing files (404) are remembered for a day, like Maven's <code>lastUpdated</code> markers.</li>
+ *     <li>Cached metadata is refreshed with conditional requests (ETag/Last-Modified).</li>
+ * </ul>
+ */
+public class MavenArtifactCache {
+
+    private static final Log log = Log.getLog(MavenArtifactCache.class);
+
+    public static final String STORE_FOLDER = ".store";
+
+    private static final String CHECKSUM_EXT = ".sha1";
+    private static final String MISSING_MARKER_EXT = ".lastUpdated";
+    private static final String VALIDATORS_EXT = ".etag";
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final long MISSING_FILE_TTL = 24 * 60 * 60 * 1000L;
+    private static final String NO_CHECKSUM = "";
+
+    /**
+     * Opens connection to the remote file. Must throw {@link HttpStatusException} or
+     * {@link FileNotFoundException} if the file can't be read.
+     */
+    public interface Connector {
+        @NotNull
+        URLConnection openConnection(@NotNull String url, @Nullable DBPAuthInfo authInfo, @NotNull Map<String, String> headers) throws IOException;
+    }
+
+    private static MavenArtifactCache instance;
+
+    private final Path storeFolder;
+    private final Connector connector;
+    private final Map<String, String> remoteChecksums = new ConcurrentHashMap<>();
+    private volatile long resetTime;
+
+    @NotNull
+    public static synchronized MavenArtifactCache getInstance() {
+        if (instance == null) {
+            instance = new MavenArtifactCache(
+                DriverDescriptor.getCustomDriversHome().resolve("maven").resolve(STORE_FOLDER),
+                (url, authInfo, headers) -> WebUtils.openURLConnection(url, authInfo, null, "GET", 1, 10000, headers));
+        }
+        return instance;
+    }
+
+    public MavenArtifactCache(@NotNull Path storeFolder, @NotNull Connector connector) {
+        this.storeFolder = storeFolder;
+        this.connector = connector;
+    }
+
+    /**
+     * Forgets missing files and remote checksums. Files are requested again on next access.
+     */
+    public void resetMissingFiles() {
+        resetTime = System.currentTimeMillis();
+        remoteChecksums.clear();
+    }
+
+    /**
+     * Reads remote metadata file into the local file.
+     * If metadata was read before then it is requested only if it was changed since then.
+     * If the remote repository is not available, previously read metadata is returned.
+     */
+    @NotNull
+    public Path fetchMetadata(@NotNull String url, @Nullable DBPAuthInfo authInfo, @NotNull Path localFile) throws IOException {
+        checkMissingFile(url, localFile);
+        final boolean cached = Files.exists(localFile);
+        final Map<String, String> headers = new HashMap<>();
+        if (cached) {
+            final Properties validators = readValidators(localFile);
+            if (validators.getProperty(HEADER_ETAG) != null) {
+                headers.put("If-None-Match", validators.getProperty(HEADER_ETAG));
+            }
+            if (validators.getProperty(HEADER_LAST_MODIFIED) != null) {
+                headers.put("If-Modified-Since", validators.getProperty(HEADER_LAST_MODIFIED));
+            }
+        }
+        final URLConnection connection;
+        try {
+            connection = connector.openConnection(url, authInfo, headers);
+        } catch (HttpStatusException e) {
+            if (cached && e.getStatusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return localFile;
+            }
+            if (cached && e.getStatusCode() != HttpURLConnection.HTTP_NOT_FOUND) {
+                log.debug("Can't refresh '" + url + "', cached metadata is used: " + e.getMessage());
+                return localFile;
+            }
+            throw handleOpenError(url, localFile, e);
+        } catch (FileNotFoundException e) {
+            throw handleOpenError(url, localFile, e);
+        } catch (IOException e) {
+            if (cached) {
+                log.debug("Can't refresh '" + url + "', cached metadata is used: " + e.getMessage());
+                return localFile;
+            }
+            throw e;
+        }
+        final Path tempFile = downloadFile(connection, localFile);
+        try {
+            Files.move(tempFile, localFile, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        writeValidators(localFile, connection);
+        return localFile;
+    }
+
+    /**
+     * Downloads remote file into the local file.
+     * Downloaded file is verified with repository checksum. If file with the same checksum
+     * is in the store then it is not downloaded.
+     */
+    @NotNull
+    public Path fetchFile(@NotNull String url, @Nullable DBPAuthInfo authInfo, @NotNull Path localFile) throws IOException {
+        checkMissingFile(url, localFile);
+        if (restoreFromStore(url, authInfo, localFile)) {
+            return localFile;
+        }
+        final URLConnection connection;
+        try {
+            connection = connector.openConnection(url, authInfo, Map.of());
+        } catch (FileNotFoundException e) {
+            throw handleOpenError(url, localFile, e);
+        } catch (HttpStatusException e) {
+            throw handleOpenError(url, localFile, e);
+        }
+        final Path tempFile = downloadFile(connection, localFile);
+        try {
+            storeFile(url, authInfo, tempFile);
+            Files.move(tempFile, localFile, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return localFile;
+    }
+
+    /**
+     * Copies file from the store if the store contains file with the same checksum as the remote file.
+     * Returns false if remote checksum is unknown or file is not in the store.
+     */
+    public boolean restoreFromStore(@NotNull String url, @Nullable DBPAuthInfo authInfo, @NotNull Path localFile) throws IOException {
+        final String checksum = getRemoteChecksum(url, authInfo);
+        if (checksum == null) {
+            return false;
+        }
+        final Path storedFile = getStoredFile(checksum);
+        if (!Files.exists(storedFile)) {
+            return false;
+        }
+        Files.createDirectories(localFile.getParent());
+        final Path tempFile = Files.createTempFile(localFile.getParent(), localFile.getFileName().toString(), ".tmp");
+        try {
+            Files.copy(storedFile, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempFile, localFile, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        log.debug("Maven file '" + url + "' restored from local store");
+        return true;
+    }
+
+    /**
+     * Verifies file with the remote checksum and puts it into the store.
+     * Throws an error if checksums do not match.
+     */
+    public void storeFile(@NotNull String url, @Nullable DBPAuthInfo authInfo, @NotNull Path file) throws IOException {
+        final String checksum = computeChecksum(file);
+        final String remoteChecksum = getRemoteChecksum(url, authInfo);
+        if (remoteChecksum != null && !remoteChecksum.equals(checksum)) {
+            throw new IOException("Checksum mismatch for '" + url + "': expected " + remoteChecksum + ", actual " + checksum);
+        }
+        final Path storedFile = getStoredFile(checksum);
+        if (Files.exists(storedFile)) {
+            return;
+        }
+        Files.createDirectories(storedFile.getParent());
+        final Path tempFile = Files.createTempFile(storedFile.getParent(), checksum, ".tmp");
+        try {
+            Files.copy(file, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempFile, storedFile, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Returns SHA-1 checksum published by repository or null if repository doesn't provide it
+     */
+    @Nullable
+    private String getRemoteChecksum(@NotNull String url, @Nullable DBPAuthInfo authInfo) {
+        String checksum = remoteChecksums.get(url);
+        if (checksum == null) {
+            checksum = NO_CHECKSUM;
+            try (InputStream is = connector.openConnection(url + CHECKSUM_EXT, authInfo, Map.of()).getInputStream()) {
+                // Checksum file may contain file name after the checksum
+                final String text = new String(is.readNBytes(1024), StandardCharsets.US_ASCII).trim();
+                final String value = text.split("\\s+")[0].toLowerCase();
+                if (value.length() == 40 && value.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+                    checksum = value;
+                } else {
+                    log.debug("Bad checksum of '" + url + "': " + CommonUtils.truncateString(text, 100));
+                }
+            } catch (IOException e) {
+                log.debug("Checksum of '" + url + "' is not available: " + e.getMessage());
+            }
+            remoteChecksums.put(url, checksum);
+        }
+        return checksum.isEmpty() ? null : checksum;
+    }
+
+    @NotNull
+    private Path getStoredFile(@NotNull String checksum) {
+        return storeFolder.resolve(checksum.substring(0, 2)).resolve(checksum);
+    }
+
+    @NotNull
+    private static String computeChecksum(@NotNull Path file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        try (InputStream is = Files.newInputStream(file)) {
+            final byte[] buffer = new byte[65536];
+            for (int count = is.read(buffer); count > 0; count = is.read(buffer)) {
+                digest.update(buffer, 0, count);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void checkMissingFile(@NotNull String url, @NotNull Path localFile) throws IOException {
+        final Path marker = getMissingMarker(localFile);
+        if (!Files.exists(marker)) {
+            return;
+        }
+        final long markTime = Files.getLastModifiedTime(marker).toMillis();
+        if (markTime > resetTime && System.currentTimeMillis() - markTime < MISSING_FILE_TTL) {
+            throw new FileNotFoundException("Remote file '" + url + "' is missing (cached)");
+        }
+        Files.deleteIfExists(marker);
+    }
+
+    @NotNull
+    private static IOException handleOpenError(@NotNull String url, @NotNull Path localFile, @NotNull IOException error) {
+        final boolean missing = error instanceof FileNotFoundException ||
+            (error instanceof HttpStatusException && ((HttpStatusException) error).getStatusCode() == HttpURLConnection.HTTP_NOT_FOUND);
+        if (missing) {
+            try {
+                Files.createDirectories(localFile.getParent());
+                Files.writeString(getMissingMarker(localFile), url);
+            } catch (IOException e) {
+                log.debug("Can't save missing file marker: " + e.getMessage());
+            }
+        }
+        return error;
+    }
+
+    @NotNull
+    private static Path downloadFile(@NotNull URLConnection connection, @NotNull Path localFile) throws IOException {
+        Files.createDirectories(localFile.getParent());
+        final Path tempFile = Files.createTempFile(localFile.getParent(), localFile.getFileName().toString(), ".tmp");
+        try (InputStream is = connection.getInputStream()) {
+            Files.copy(is, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        return tempFile;
+    }
+
+    @NotNull
+    private static Properties readValidators(@NotNull Path localFile) {
+        final Properties validators = new Properties();
+        final Path validatorsFile = localFile.resolveSibling(localFile.getFileName() + VALIDATORS_EXT);
+        if (Files.exists(validatorsFile)) {
+            try (Reader reader = Files.newBufferedReader(validatorsFile, StandardCharsets.UTF_8)) {
+                validators.load(reader);
+            } catch (IOException e) {
+                log.debug("Can't read cache validators of '" + localFile + "': " + e.getMessage());
+            }
+        }
+        return validators;
+    }
+
+    private static void writeValidators(@NotNull Path localFile, @NotNull URLConnection connection) {
+        final Path validatorsFile = localFile.resolveSibling(localFile.getFileName() + VALIDATORS_EXT);
+        final Properties validators = new Properties();
+        final String etag = connection.getHeaderField(HEADER_ETAG);
+        if (etag != null) {
+            validators.setProperty(HEADER_ETAG, etag);
+        }
+        final String lastModified = connection.getHeaderField(HEADER_LAST_MODIFIED);
+        if (lastModified != null) {
+            validators.setProperty(HEADER_LAST_MODIFIED, lastModified);
+        }
+        try {
+            if (validators.isEmpty()) {
+                Files.deleteIfExists(validatorsFile);
+            } else {
+                try (Writer writer = Files.newBufferedWriter(validatorsFile, StandardCharsets.UTF_8)) {
+                    validators.store(writer, null);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Can't save cache validators of '" + localFile + "': " + e.getMessage());
+        }
+    }
+
+    @NotNull
+    private static Path getMissingMarker(@NotNull Path localFile) {
+        return localFile.resolveSibling(localFile.getFileName() + MISSING_MARKER_EXT);
+    }
+
+}
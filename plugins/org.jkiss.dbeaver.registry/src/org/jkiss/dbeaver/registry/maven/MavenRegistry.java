@@ -39,6 +39,7 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MavenRegistry {
     private static final Log log = Log.getLog(MavenRegistry.class);
@@ -62,7 +63,7 @@ public class MavenRegistry {
     private final List<MavenRepository> repositories = new ArrayList<>();
     private MavenRepository localRepository;
     // Cache for not found artifact ids. Avoid multiple remote metadata reading
-    private final Set<String> notFoundArtifacts = new HashSet<>();
+    private final Set<String> notFoundArtifacts = ConcurrentHashMap.newKeySet();
 
     private static final PasswordEncrypter ENCRYPTOR = new SimpleStringEncrypter();
 
@@ -114,6 +115,7 @@ public class MavenRegistry {
     public void setCustomRepositories(List<MavenRepository> customRepositories) {
         // Clear not-found cache
         notFoundArtifacts.clear();
+        MavenArtifactCache.getInstance().resetMissingFiles();
         // Remove old custom repos
         for (Iterator<MavenRepository> iter = this.repositories.iterator(); iter.hasNext(); ) {
             if (iter.next().getType() == MavenRepository.RepositoryType.CUSTOM) {
@@ -194,6 +196,7 @@ public class MavenRegistry {
 
     public void resetArtifactInfo(MavenArtifactReference artifactReference) {
         notFoundArtifacts.remove(artifactReference.getId());
+        MavenArtifactCache.getInstance().resetMissingFiles();
 
         for (MavenRepository repository : repositories) {
             repository.resetArtifactCache(artifactReference);
@@ -32,9 +32,9 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Maven repository manager.
@@ -66,7 +66,7 @@ public class MavenRepository
     private boolean isSnapshot = false;
     private final DBPAuthInfo authInfo = new DBPAuthInfo();
 
-    private final transient Map<String, MavenArtifact> cachedArtifacts = new LinkedHashMap<>();
+    private final transient Map<String, MavenArtifact> cachedArtifacts = new ConcurrentHashMap<>();
 
     public MavenRepository(IConfigurationElement config)
     {
@@ -193,27 +193,33 @@ public class MavenRepository
     }
 
     @Nullable
-    public synchronized MavenArtifactVersion findArtifact(@NotNull DBRProgressMonitor monitor, @NotNull MavenArtifactReference ref) {
+    public MavenArtifactVersion findArtifact(@NotNull DBRProgressMonitor monitor, @NotNull MavenArtifactReference ref) {
         boolean newArtifact = false;
         MavenArtifact artifact = cachedArtifacts.get(ref.getId());
         if (artifact == null) {
-            artifact = new MavenArtifact(this, ref.getGroupId(), ref.getArtifactId(), ref.getClassifier(), ref.getFallbackVersion());
-            newArtifact = true;
+            MavenArtifact createdArtifact = new MavenArtifact(this, ref.getGroupId(), ref.getArtifactId(), ref.getClassifier(), ref.getFallbackVersion());
+            artifact = cachedArtifacts.putIfAbsent(ref.getId(), createdArtifact);
+            if (artifact == null) {
+                artifact = createdArtifact;
+                newArtifact = true;
+            }
         }
-        try {
-            MavenArtifactVersion version = artifact.resolveVersion(monitor, ref.getVersion(), ref.isResolveOptionalDependencies());
-            if (newArtifact) {
-                cachedArtifacts.put(ref.getId(), artifact);
+        // Lock the artifact only, so different artifacts may be resolved in parallel
+        synchronized (artifact) {
+            try {
+                return artifact.resolveVersion(monitor, ref.getVersion(), ref.isResolveOptionalDependencies());
+            } catch (IOException e) {
+                if (newArtifact) {
+                    cachedArtifacts.remove(ref.getId(), artifact);
+                }
+                // Generally it is ok. Artifact not present in this repository
+                log.debug("Maven artifact '" + ref + "' not found in repository '" + this + "': " + e.getMessage());
+                return null;
             }
-            return version;
-        } catch (IOException e) {
-            // Generally it is ok. Artifact not present in this repository
-            log.debug("Maven artifact '" + ref + "' not found in repository '" + this + "': " + e.getMessage());
-            return null;
         }
     }
 
-    synchronized void resetArtifactCache(@NotNull MavenArtifactReference artifactReference) {
+    void resetArtifactCache(@NotNull MavenArtifactReference artifactReference) {
         cachedArtifacts.remove(artifactReference.getId());
     }
 
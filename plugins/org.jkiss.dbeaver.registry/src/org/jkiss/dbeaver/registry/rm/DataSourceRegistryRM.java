@@ -148,10 +148,12 @@ public class DataSourceRegistryRM extends DataSourceRegistry {
     }
 
     @Override
-    protected void saveDataSources(DBRProgressMonitor monitor) {
+    protected void saveDataSources(DBRProgressMonitor monitor, boolean fullSave) {
         if (getProject().isInMemory()) {
             return;
         }
+        // Remote configuration is always sent as a whole
+        resetUnsavedChanges(true);
 
         DataSourceConfigurationManagerBuffer buffer = new DataSourceConfigurationManagerBuffer();
         saveConfigurationToManager(monitor, buffer, null);
@@ -22,18 +22,23 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPNamedObject2;
 import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.task.*;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.Writer;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * TaskImpl
@@ -42,7 +47,6 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
     public static String META_FILE_NAME = "meta.json";
 
     private static final Log log = Log.getLog(TaskImpl.class);
-    private static final int MAX_RUNS_IN_STATS = 100;
     private static final Gson gson = new GsonBuilder()
         .setLenient()
         .setDateFormat(GeneralUtils.DEFAULT_TIMESTAMP_PATTERN)
@@ -56,7 +60,7 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
     private Date updateTime;
     private DBTTaskType type;
     private Map<String, Object> properties;
-    private List<DBTTaskRun> runs;
+    private volatile TaskRunHistory runHistory;
     private DBTTaskFolder taskFolder;
 
     protected TaskImpl(
@@ -156,49 +160,50 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
     @Nullable
     @Override
     public DBTTaskRun getLastRun() {
-        loadRunsIfNeeded();
-        return runs.isEmpty() ? null : runs.get(runs.size() - 1);
+        return getRunHistory().getLastRun();
     }
 
     @NotNull
     @Override
     public DBTTaskRun[] getAllRuns() {
-        loadRunsIfNeeded();
-        return runs.toArray(DBTTaskRun[]::new);
+        List<TaskRunImpl> allRuns = new ArrayList<>(getRunHistory().getRuns(0, 0));
+        Collections.reverse(allRuns);
+        return allRuns.toArray(DBTTaskRun[]::new);
+    }
+
+    @NotNull
+    @Override
+    public DBTTaskRun[] getRuns(int offset, int maxCount) {
+        return getRunHistory().getRuns(offset, maxCount).toArray(DBTTaskRun[]::new);
     }
 
     @Nullable
     @Override
     public Path getRunLog(@NotNull DBTTaskRun run) {
-        return getTaskStatsFolder(false).resolve(TaskUtils.buildRunLogFileName(run.getId()));
+        Path statsFolder = getTaskStatsFolder(false);
+        Path logFile = statsFolder.resolve(TaskUtils.buildRunLogFileName(run.getId()));
+        if (!Files.exists(logFile) && Files.exists(statsFolder.resolve(TaskUtils.buildCompressedRunLogFileName(run.getId())))) {
+            // Compressed logs are available as a stream only
+            return null;
+        }
+        return logFile;
     }
 
     @NotNull
     @Override
     public InputStream getRunLogInputStream(@NotNull DBTTaskRun run) throws DBException, IOException {
+        Path compressedLog = getTaskStatsFolder(false).resolve(TaskUtils.buildCompressedRunLogFileName(run.getId()));
+        if (Files.exists(compressedLog)) {
+            return new GZIPInputStream(Files.newInputStream(compressedLog));
+        }
         return Files.newInputStream(Objects.requireNonNull(getRunLog(run)));
     }
 
     @Override
     public void removeRun(DBTTaskRun taskRun) {
         synchronized (this) {
-            loadRunsIfNeeded();
-
-            if (!runs.remove(taskRun)) {
-                return;
-            }
-
-            Path runLog = getRunLog(taskRun);
-
-            if (runLog != null) {
-                try {
-                    Files.deleteIfExists(runLog);
-                } catch (IOException e) {
-                    log.error("Can't delete log file '" + runLog.toAbsolutePath() + "'", e);
-                }
-            }
-
-            flushRunStatistics(runs);
+            getRunHistory().removeRun(taskRun.getId());
+            deleteRunLogs(taskRun.getId());
         }
 
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
@@ -222,16 +227,13 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
                 log.error("Can't delete logs folder '" + statsFolder.toAbsolutePath() + "'", e);
             }
         }
-        if (runs != null) {
-            runs.clear();
-        }
-        flushRunStatistics(List.of());
+        getRunHistory().reset();
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
 
     @Override
     public void refreshRunStatistics() {
-        runs = new ArrayList<>(loadRunStatistics());
+        getRunHistory().reset();
     }
 
     @Override
@@ -256,17 +258,9 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
         return taskStatsFolder;
     }
 
-    void addNewRun(@NotNull DBTTaskRun taskRun) {
+    void addNewRun(@NotNull TaskRunImpl taskRun) {
         synchronized (this) {
-            loadRunsIfNeeded();
-
-            runs.add(taskRun);
-
-            while (runs.size() > MAX_RUNS_IN_STATS) {
-                runs.remove(0);
-            }
-
-            flushRunStatistics(runs);
+            getRunHistory().addRun(taskRun);
         }
 
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
@@ -274,51 +268,71 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
 
     void updateRun(@NotNull TaskRunImpl taskRun) {
         synchronized (this) {
-            loadRunsIfNeeded();
-
-            for (int i = 0; i < runs.size(); i++) {
-                if (runs.get(i).getId().equals(taskRun.getId())) {
-                    runs.set(i, taskRun);
-                    break;
-                }
-            }
-
-            flushRunStatistics(runs);
+            getRunHistory().updateRun(taskRun);
         }
 
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
 
+    /**
+     * Replaces plain run log with its gzip-compressed copy. Called after the run log is closed.
+     */
+    void compressRunLog(@NotNull DBTTaskRun taskRun) {
+        Path statsFolder = getTaskStatsFolder(false);
+        Path logFile = statsFolder.resolve(TaskUtils.buildRunLogFileName(taskRun.getId()));
+        if (!Files.exists(logFile)) {
+            return;
+        }
+        Path compressedLog = statsFolder.resolve(TaskUtils.buildCompressedRunLogFileName(taskRun.getId()));
+        try (InputStream in = Files.newInputStream(logFile);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressedLog))
+        ) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            log.error("Can't compress task run log '" + logFile.toAbsolutePath() + "'", e);
+            deleteFile(compressedLog);
+            return;
+        }
+        deleteFile(logFile);
+    }
+
     @Override
     public String toString() {
         return id + " " + label + " (" + type.getName() + ")";
     }
 
     @NotNull
-    protected List<? extends DBTTaskRun> loadRunStatistics() {
-        return TaskUtils.loadRunStatistics(getTaskStatsFolder(false).resolve(META_FILE_NAME), gson);
-    }
-
-    protected void flushRunStatistics(@NotNull List<? extends DBTTaskRun> runs) {
-        Path metaFile = getTaskStatsFolder(true).resolve(META_FILE_NAME);
-        try (Writer writer = Files.newBufferedWriter(metaFile)) {
-            final List<TaskRunImpl> filteredRuns = runs.stream()
-                .filter(run -> run instanceof TaskRunImpl)
-                .map(run -> (TaskRunImpl) run)
-                .collect(Collectors.toList());
-            writer.write(gson.toJson(new RunStatistics(filteredRuns)));
-        } catch (IOException e) {
-            log.error("Error writing task run statistics", e);
-        }
-    }
-
-    private void loadRunsIfNeeded() {
-        if (runs == null) {
+    protected TaskRunHistory getRunHistory() {
+        if (runHistory == null) {
             synchronized (this) {
-                if (runs == null) {
-                    runs = new ArrayList<>(loadRunStatistics());
+                if (runHistory == null) {
+                    TaskRunHistory history = new TaskRunHistory(
+                        getTaskStatsFolder(false),
+                        gson,
+                        TaskRunHistory.DEFAULT_SEGMENT_RECORDS,
+                        this::deleteRunLogs);
+                    DBPPreferenceStore preferences = ModelPreferences.getPreferences();
+                    history.setRetention(
+                        preferences.getInt(ModelPreferences.TASK_HISTORY_MAX_RUNS),
+                        TimeUnit.DAYS.toMillis(preferences.getInt(ModelPreferences.TASK_HISTORY_MAX_DAYS)));
+                    runHistory = history;
                 }
             }
         }
+        return runHistory;
+    }
+
+    private void deleteRunLogs(@NotNull String runId) {
+        Path statsFolder = getTaskStatsFolder(false);
+        deleteFile(statsFolder.resolve(TaskUtils.buildRunLogFileName(runId)));
+        deleteFile(statsFolder.resolve(TaskUtils.buildCompressedRunLogFileName(runId)));
+    }
+
+    private static void deleteFile(@NotNull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.error("Can't delete log file '" + file.toAbsolutePath() + "'", e);
+        }
     }
 }
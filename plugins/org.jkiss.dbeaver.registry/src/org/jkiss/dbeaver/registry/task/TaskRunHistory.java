@@ -0,0 +1,555 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only task run history.
+ * <p>
+ * Each run start, finish or removal is appended as a single JSON line to the active segment file.
+ * Segments are rotated after a fixed number of records. Closed segments are summarized in a small index
+ * (time range, run and failure counters, removed run ids), so time and status queries read only matching segments
+ * and retention drops whole segments without rewriting anything.
+ */
+public class TaskRunHistory {
+
+    private static final Log log = Log.getLog(TaskRunHistory.class);
+
+    public static final String SEGMENT_PREFIX = "runs-";
+    public static final String SEGMENT_EXT = ".jsonl";
+    public static final String INDEX_FILE_NAME = "runs.idx";
+
+    public static final int DEFAULT_SEGMENT_RECORDS = 500;
+
+    private static final String OP_PUT = "put";
+    private static final String OP_REMOVE = "remove";
+
+    private final Path folder;
+    private final Gson gson;
+    private final int segmentRecords;
+    private final Consumer<String> dropHandler;
+    private int maxRuns;
+    private long maxAge;
+
+    // Oldest first, the last one is the active segment
+    private List<Segment> segments;
+    private SegmentContent active;
+    // Last run is requested by task lists for each repaint, so it is cached until the next write
+    private TaskRunImpl lastRun;
+    private boolean lastRunResolved;
+
+    /**
+     * @param folder         task statistics folder
+     * @param segmentRecords number of records after which the active segment is closed
+     * @param dropHandler    receives ids of runs dropped by retention
+     */
+    public TaskRunHistory(@NotNull Path folder, @NotNull Gson gson, int segmentRecords, @Nullable Consumer<String> dropHandler) {
+        this.folder = folder;
+        this.gson = gson;
+        this.segmentRecords = Math.max(segmentRecords, 1);
+        this.dropHandler = dropHandler;
+    }
+
+    /**
+     * Sets retention limits. Zero values disable the corresponding limit.
+     * Retention is applied to closed segments only, so the actual history may be slightly larger than the limits.
+     */
+    public synchronized void setRetention(int maxRuns, long maxAgeMillis) {
+        this.maxRuns = Math.max(maxRuns, 0);
+        this.maxAge = Math.max(maxAgeMillis, 0);
+    }
+
+    /**
+     * Drops cached state, it will be read from disk on next access.
+     */
+    public synchronized void reset() {
+        segments = null;
+        active = null;
+        lastRunResolved = false;
+    }
+
+    @Nullable
+    public synchronized TaskRunImpl getLastRun() {
+        if (!lastRunResolved) {
+            List<TaskRunImpl> runs = findRuns(null, null, null, 0, 1);
+            lastRun = runs.isEmpty() ? null : runs.get(0);
+            lastRunResolved = true;
+        }
+        return lastRun;
+    }
+
+    /**
+     * Returns page of runs, newest first
+     */
+    @NotNull
+    public synchronized List<TaskRunImpl> getRuns(int offset, int limit) {
+        return findRuns(null, null, null, offset, limit);
+    }
+
+    /**
+     * Searches runs by start time and status, newest first.
+     *
+     * @param since   minimal start time (inclusive)
+     * @param until   maximal start time (inclusive)
+     * @param success required status. Failed runs are finished runs with error.
+     */
+    @NotNull
+    public synchronized List<TaskRunImpl> findRuns(
+        @Nullable Date since,
+        @Nullable Date until,
+        @Nullable Boolean success,
+        int offset,
+        int limit
+    ) {
+        loadIfNeeded();
+        List<TaskRunImpl> result = new ArrayList<>();
+        if (limit <= 0) {
+            limit = Integer.MAX_VALUE;
+        }
+        // Ids of runs already seen in newer segments (updated or removed there)
+        Set<String> seen = new HashSet<>();
+        for (int i = segments.size() - 1; i >= 0 && result.size() < limit; i--) {
+            Segment segment = segments.get(i);
+            if (segment.matches(since, until, success)) {
+                SegmentContent content = i == segments.size() - 1 ? active : readSegment(segmentFile(segment.number));
+                // Stored start time has minute precision, so equal times keep the reversed append order
+                List<TaskRunImpl> runs = new ArrayList<>(content.runs.values());
+                Collections.reverse(runs);
+                runs.sort(Comparator.comparing(TaskRunImpl::getStartTime).reversed());
+                for (TaskRunImpl run : runs) {
+                    if (!seen.add(run.getId()) || !matches(run, since, until, success)) {
+                        continue;
+                    }
+                    if (offset > 0) {
+                        offset--;
+                        continue;
+                    }
+                    result.add(run);
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+            if (segment.removed != null) {
+                seen.addAll(segment.removed);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Estimated number of runs in history
+     */
+    public synchronized int getRunCount() {
+        loadIfNeeded();
+        int count = 0;
+        for (Segment segment : segments) {
+            count += segment.runCount;
+        }
+        return count;
+    }
+
+    public synchronized void addRun(@NotNull TaskRunImpl run) {
+        loadIfNeeded();
+        if (active.records >= segmentRecords) {
+            rotate();
+        }
+        appendRun(run);
+    }
+
+    public synchronized void updateRun(@NotNull TaskRunImpl run) {
+        loadIfNeeded();
+        appendRun(run);
+    }
+
+    public synchronized void removeRun(@NotNull String runId) {
+        loadIfNeeded();
+        RunRecord record = new RunRecord();
+        record.op = OP_REMOVE;
+        record.id = runId;
+        if (appendRecord(record)) {
+            active.apply(record);
+            active.summarize(getActiveSegment());
+            lastRunResolved = false;
+        }
+    }
+
+    /**
+     * Deletes all segments and the index
+     */
+    public synchronized void clear() {
+        if (Files.exists(folder)) {
+            for (Path file : listSegmentFiles()) {
+                deleteFile(file);
+            }
+            deleteFile(folder.resolve(INDEX_FILE_NAME));
+        }
+        reset();
+    }
+
+    ////////////////////////////////////////////////////////////////
+    // Filters
+
+    private static boolean matches(@NotNull TaskRunImpl run, @Nullable Date since, @Nullable Date until, @Nullable Boolean success) {
+        if (since != null && run.getStartTime().before(since)) {
+            return false;
+        }
+        if (until != null && run.getStartTime().after(until)) {
+            return false;
+        }
+        return success == null || (success ? run.isRunSuccess() : isFailed(run));
+    }
+
+    private static boolean isFailed(@NotNull TaskRunImpl run) {
+        return run.isFinished() && !run.isRunSuccess();
+    }
+
+    ////////////////////////////////////////////////////////////////
+    // Persistence
+
+    private void appendRun(@NotNull TaskRunImpl run) {
+        RunRecord record = new RunRecord();
+        record.op = OP_PUT;
+        record.run = run;
+        if (appendRecord(record)) {
+            active.apply(record);
+            active.summarize(getActiveSegment());
+            lastRunResolved = false;
+        }
+    }
+
+    private boolean appendRecord(@NotNull RunRecord record) {
+        Path segmentFile = segmentFile(getActiveSegment().number);
+        try {
+            Files.createDirectories(folder);
+            try (Writer writer = Files.newBufferedWriter(
+                segmentFile,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)
+            ) {
+                writer.write(gson.toJson(record));
+                writer.write('\n');
+            }
+            active.records++;
+            return true;
+        } catch (IOException e) {
+            log.error("Error writing task run history to '" + segmentFile.toAbsolutePath() + "'", e);
+            return false;
+        }
+    }
+
+    private void rotate() {
+        Segment next = new Segment();
+        next.number = getActiveSegment().number + 1;
+        segments.add(next);
+        active = new SegmentContent();
+        applyRetention();
+        saveIndex();
+    }
+
+    private void applyRetention() {
+        long now = System.currentTimeMillis();
+        int totalRuns = 0;
+        for (Segment segment : segments) {
+            totalRuns += segment.runCount;
+        }
+        while (segments.size() > 1) {
+            Segment oldest = segments.get(0);
+            boolean overCount = maxRuns > 0 && totalRuns - oldest.runCount >= maxRuns;
+            boolean overAge = maxAge > 0 && oldest.lastTime > 0 && oldest.lastTime < now - maxAge;
+            if (!overCount && !overAge) {
+                break;
+            }
+            Path file = segmentFile(oldest.number);
+            if (dropHandler != null) {
+                for (String runId : readSegment(file).runs.keySet()) {
+                    dropHandler.accept(runId);
+                }
+            }
+            deleteFile(file);
+            segments.remove(0);
+            totalRuns -= oldest.runCount;
+        }
+    }
+
+    private void loadIfNeeded() {
+        if (segments != null) {
+            return;
+        }
+        segments = new ArrayList<>();
+        List<Path> segmentFiles = listSegmentFiles();
+        if (segmentFiles.isEmpty()) {
+            segmentFiles = migrateLegacyStatistics();
+        }
+        Map<Integer, Segment> index = loadIndex();
+        boolean indexChanged = false;
+        for (int i = 0; i < segmentFiles.size(); i++) {
+            Path file = segmentFiles.get(i);
+            int number = getSegmentNumber(file);
+            boolean isActive = i == segmentFiles.size() - 1;
+            Segment segment = isActive ? null : index.get(number);
+            if (segment == null) {
+                SegmentContent content = readSegment(file);
+                segment = new Segment();
+                segment.number = number;
+                content.summarize(segment);
+                if (isActive) {
+                    active = content;
+                } else {
+                    indexChanged = true;
+                }
+            }
+            segments.add(segment);
+        }
+        if (segments.isEmpty()) {
+            Segment first = new Segment();
+            first.number = 1;
+            segments.add(first);
+            active = new SegmentContent();
+        }
+        int segmentCount = segments.size();
+        applyRetention();
+        if (indexChanged || segmentCount != segments.size() || index.size() != segmentCount - 1) {
+            saveIndex();
+        }
+    }
+
+    @NotNull
+    private List<Path> migrateLegacyStatistics() {
+        Path metaFile = folder.resolve(TaskImpl.META_FILE_NAME);
+        if (!Files.exists(metaFile)) {
+            return List.of();
+        }
+        List<TaskRunImpl> legacyRuns = TaskUtils.loadRunStatistics(metaFile, gson);
+        Path segmentFile = segmentFile(1);
+        try (Writer writer = Files.newBufferedWriter(segmentFile, StandardCharsets.UTF_8)) {
+            for (TaskRunImpl run : legacyRuns) {
+                RunRecord record = new RunRecord();
+                record.op = OP_PUT;
+                record.run = run;
+                writer.write(gson.toJson(record));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            log.error("Error migrating task run statistics '" + metaFile.toAbsolutePath() + "'", e);
+            return List.of();
+        }
+        deleteFile(metaFile);
+        return List.of(segmentFile);
+    }
+
+    @NotNull
+    private SegmentContent readSegment(@NotNull Path file) {
+        SegmentContent content = new SegmentContent();
+        if (!Files.exists(file)) {
+            return content;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                content.records++;
+                try {
+                    RunRecord record = gson.fromJson(line, RunRecord.class);
+                    if (record != null) {
+                        content.apply(record);
+                    }
+                } catch (Exception e) {
+                    // Most likely a partially written last line
+                    log.debug("Skip broken task run record in '" + file.getFileName() + "': " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error reading task run history '" + file.toAbsolutePath() + "'", e);
+        }
+        return content;
+    }
+
+    @NotNull
+    private Map<Integer, Segment> loadIndex() {
+        Map<Integer, Segment> result = new HashMap<>();
+        Path indexFile = folder.resolve(INDEX_FILE_NAME);
+        if (!Files.exists(indexFile)) {
+            return result;
+        }
+        try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            List<Segment> list = gson.fromJson(reader, new TypeToken<List<Segment>>() {}.getType());
+            if (list != null) {
+                for (Segment segment : list) {
+                    result.put(segment.number, segment);
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Error reading task run history index, it will be rebuilt: " + e.getMessage());
+        }
+        return result;
+    }
+
+    private void saveIndex() {
+        Path indexFile = folder.resolve(INDEX_FILE_NAME);
+        List<Segment> closed = segments.subList(0, segments.size() - 1);
+        try {
+            if (closed.isEmpty()) {
+                Files.deleteIfExists(indexFile);
+                return;
+            }
+            Files.createDirectories(folder);
+            try (Writer writer = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8)) {
+                gson.toJson(closed, writer);
+            }
+        } catch (IOException e) {
+            log.error("Error writing task run history index '" + indexFile.toAbsolutePath() + "'", e);
+        }
+    }
+
+    @NotNull
+    private List<Path> listSegmentFiles() {
+        if (!Files.exists(folder)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(folder)) {
+            return files
+                .filter(file -> getSegmentNumber(file) > 0)
+                .sorted(Comparator.comparingInt(TaskRunHistory::getSegmentNumber))
+                .toList();
+        } catch (IOException e) {
+            log.error("Error reading task run history folder '" + folder.toAbsolutePath() + "'", e);
+            return List.of();
+        }
+    }
+
+    @NotNull
+    private Segment getActiveSegment() {
+        return segments.get(segments.size() - 1);
+    }
+
+    @NotNull
+    private Path segmentFile(int number) {
+        return folder.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_EXT));
+    }
+
+    private static int getSegmentNumber(@NotNull Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_EXT)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_EXT.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void deleteFile(@NotNull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.error("Can't delete task run history file '" + file.toAbsolutePath() + "'", e);
+        }
+    }
+
+    /**
+     * Single history line
+     */
+    private static class RunRecord {
+        String op;
+        String id;
+        TaskRunImpl run;
+    }
+
+    /**
+     * Segment summary, stored in the index
+     */
+    private static class Segment {
+        int number;
+        long firstTime;
+        long lastTime;
+        int runCount;
+        int failedCount;
+        List<String> removed;
+
+        boolean matches(@Nullable Date since, @Nullable Date until, @Nullable Boolean success) {
+            if (runCount == 0) {
+                return false;
+            }
+            if (since != null && lastTime < since.getTime()) {
+                return false;
+            }
+            if (until != null && firstTime > until.getTime()) {
+                return false;
+            }
+            return !Boolean.FALSE.equals(success) || failedCount > 0;
+        }
+    }
+
+    /**
+     * Runs of a single segment with all its records applied
+     */
+    private static class SegmentContent {
+        final Map<String, TaskRunImpl> runs = new LinkedHashMap<>();
+        final Set<String> removed = new LinkedHashSet<>();
+        int records;
+
+        void apply(@NotNull RunRecord record) {
+            if (OP_REMOVE.equals(record.op) && record.id != null) {
+                runs.remove(record.id);
+                removed.add(record.id);
+            } else if (record.run != null) {
+                runs.put(record.run.getId(), record.run);
+            }
+        }
+
+        void summarize(@NotNull Segment segment) {
+            segment.runCount = runs.size();
+            segment.failedCount = 0;
+            segment.firstTime = 0;
+            segment.lastTime = 0;
+            for (TaskRunImpl run : runs.values()) {
+                long startTime = run.getStartTime().getTime();
+                if (segment.firstTime == 0 || startTime < segment.firstTime) {
+                    segment.firstTime = startTime;
+                }
+                if (startTime > segment.lastTime) {
+                    segment.lastTime = startTime;
+                }
+                if (isFailed(run)) {
+                    segment.failedCount++;
+                }
+            }
+            segment.removed = removed.isEmpty() ? null : new ArrayList<>(removed);
+        }
+    }
+}
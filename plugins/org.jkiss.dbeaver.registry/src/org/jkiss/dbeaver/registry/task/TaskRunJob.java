@@ -121,6 +121,7 @@ public class TaskRunJob extends AbstractJob implements DBRRunnableContext {
         } catch (IOException e) {
             log.error("Error opning task run log file", e);
         }
+        task.compressRunLog(taskRun);
         return Status.OK_STATUS;
     }
 
@@ -29,6 +29,7 @@ public class TaskUtils {
     private static final Log log = Log.getLog(TaskUtils.class);
     static final String RUN_LOG_PREFIX = "run_";
     static final String RUN_LOG_EXT = "log";
+    static final String RUN_LOG_COMPRESSED_EXT = "log.gz";
 
 
     public static List<TaskRunImpl> loadRunStatistics(Path metaFile, Gson gson) {
@@ -52,4 +53,8 @@ public class TaskUtils {
     public static String buildRunLogFileName(String runId) {
         return RUN_LOG_PREFIX + runId + "." + RUN_LOG_EXT;
     }
+
+    public static String buildCompressedRunLogFileName(String runId) {
+        return RUN_LOG_PREFIX + runId + "." + RUN_LOG_COMPRESSED_EXT;
+    }
 }
@@ -66,6 +66,7 @@ public class TaskUIViewMessages extends NLS {
 	public static String db_tasks_view_clear_run_log_confirm_clear;
 	public static String db_tasks_view_clear_run_log_confirm_delete_log;
 	public static String db_tasks_view_open_run_log_folder_open;
+	public static String db_tasks_view_run_log_load_more;
 
 	public static String task_handler_copy_name_dialog_enter_task;
 	public static String task_handler_delete_confirm_title_delete_task;
@@ -59,7 +59,6 @@ import org.jkiss.dbeaver.ui.dialogs.DialogUtils;
 import org.jkiss.dbeaver.ui.editors.EditorUtils;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
-import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.InputStream;
@@ -86,6 +85,7 @@ public class DatabaseTasksView extends ViewPart implements DBTTaskListener {
     public static final String GROUP_TASK_CMD_ID = "org.jkiss.dbeaver.task.group";
 
     private static final ArrayList<Object> EMPTY_TASK_RUN_LIST = new ArrayList<>();
+    private static final int TASK_RUNS_PAGE_SIZE = 200;
 
     private DatabaseTasksTree tasksTree;
 
@@ -93,6 +93,8 @@ public class DatabaseTasksView extends ViewPart implements DBTTaskListener {
     private ViewerColumnController<?,?> taskRunColumnController;
     private DBPProjectListener projectListener;
     private transient DBTTask currentTask;
+    private final List<DBTTaskRun> currentTaskRuns = new ArrayList<>();
+    private boolean hasMoreTaskRuns;
 
     public DatabaseTasksView() {
     }
@@ -285,6 +287,10 @@ public class DatabaseTasksView extends ViewPart implements DBTTaskListener {
                 manager.add(new ClearRunLogAction());
                 manager.add(new OpenRunLogFolderAction());
             }
+            if (task != null && hasMoreTaskRuns) {
+                manager.add(new Separator());
+                manager.add(new LoadMoreRunsAction());
+            }
             manager.add(new Separator(IWorkbenchActionConstants.MB_ADDITIONS));
             manager.add(new Separator());
             taskRunColumnController.fillConfigMenu(manager);
@@ -416,17 +422,25 @@ public class DatabaseTasksView extends ViewPart implements DBTTaskListener {
             return;
         }
         currentTask = selectedTask;
+        currentTaskRuns.clear();
+        hasMoreTaskRuns = false;
         if (selectedTask == null) {
             taskRunViewer.setInput(EMPTY_TASK_RUN_LIST);
         } else {
             selectedTask.refreshRunStatistics();
-            DBTTaskRun[] runs = selectedTask.getAllRuns();
-            if (ArrayUtils.isEmpty(runs)) {
-                taskRunViewer.setInput(EMPTY_TASK_RUN_LIST);
-            } else {
-                Arrays.sort(runs, Comparator.comparing(DBTTaskRun::getStartTime).reversed());
-                taskRunViewer.setInput(Arrays.asList(runs));
-            }
+            loadNextTaskRuns(selectedTask);
+        }
+    }
+
+    private void loadNextTaskRuns(@NotNull DBTTask task) {
+        // Runs are read page by page, newest first. Older pages are loaded on demand.
+        DBTTaskRun[] runs = task.getRuns(currentTaskRuns.size(), TASK_RUNS_PAGE_SIZE);
+        hasMoreTaskRuns = runs.length >= TASK_RUNS_PAGE_SIZE;
+        Collections.addAll(currentTaskRuns, runs);
+        if (currentTaskRuns.isEmpty()) {
+            taskRunViewer.setInput(EMPTY_TASK_RUN_LIST);
+        } else {
+            taskRunViewer.setInput(new ArrayList<>(currentTaskRuns));
         }
     }
 
@@ -622,6 +636,21 @@ public class DatabaseTasksView extends ViewPart implements DBTTaskListener {
         }
     }
 
+    private class LoadMoreRunsAction extends Action {
+
+        LoadMoreRunsAction() {
+            super(TaskUIViewMessages.db_tasks_view_run_log_load_more);
+        }
+
+        @Override
+        public void run() {
+            DBTTask task = tasksTree.getSelectedTask();
+            if (task != null && task == currentTask) {
+                loadNextTaskRuns(task);
+            }
+        }
+    }
+
     private class OpenRunLogFolderAction extends Action {
 
         OpenRunLogFolderAction() {
@@ -0,0 +1,245 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.ui.controls.lightgrid;
+
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPImage;
+import org.jkiss.dbeaver.ui.DBeaverIcons;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cell display text and text extent cache.
+ * <p>
+ * Entries are keyed by (column, row index) and belong to the current display format: any change of data,
+ * value formats or transformers must call {@link #invalidate()}.
+ * Text widths are calculated from the font advance widths table, so measuring doesn't involve
+ * native text layout for most of values. Texts with characters missing in the table are measured with GC.
+ * <p>
+ * The cache is used by column packing and tooltips. Cell renderer formats and clips visible cells itself.
+ * Value formatters are not thread-safe and GC can be used only in UI thread, so the cache is accessed in UI thread only.
+ */
+class GridCellTextCache {
+
+    private static final int MAX_CACHED_CELLS = 200_000;
+    private static final int MEASURED_CHARS = 0x500;
+
+    /**
+     * Cached cell text
+     */
+    static final class CellText {
+        final String text;
+        final int imageWidth;
+        final int lineCount;
+        int textWidth;
+
+        CellText(String text, int imageWidth, int lineCount, int textWidth) {
+            this.text = text;
+            this.imageWidth = imageWidth;
+            this.lineCount = lineCount;
+            this.textWidth = textWidth;
+        }
+    }
+
+    /**
+     * Grid side of the cache: cell information, value formatting and font metrics
+     */
+    interface CellSource {
+
+        @NotNull
+        IGridContentProvider.CellInformation getCellInfo(@NotNull GridColumn column, int row);
+
+        @NotNull
+        String getCellText(@NotNull IGridContentProvider.CellInformation cellInfo);
+
+        int getImageWidth(@NotNull IGridContentProvider.CellInformation cellInfo);
+
+        int getAdvanceWidth(char c);
+
+        int getTextWidth(@NotNull String text);
+
+        int getLineHeight();
+    }
+
+    private final CellSource source;
+    private final Map<GridColumn, Map<Integer, CellText>> columnTexts = new HashMap<>();
+    private int cellCount;
+    @Nullable
+    private int[] charWidths;
+
+    GridCellTextCache(@NotNull LightGrid grid) {
+        this(new GridCellSource(grid));
+    }
+
+    GridCellTextCache(@NotNull CellSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Drops all cached texts. Must be called on any change of data, formatting or grid structure.
+     */
+    void invalidate() {
+        columnTexts.clear();
+        cellCount = 0;
+    }
+
+    /**
+     * Drops cached texts and char widths. Called when grid font changes.
+     */
+    void resetFont() {
+        charWidths = null;
+        invalidate();
+    }
+
+    int getCellCount() {
+        return cellCount;
+    }
+
+    @NotNull
+    CellText getCellText(@NotNull GridColumn column, int row) {
+        Map<Integer, CellText> rowTexts = columnTexts.computeIfAbsent(column, c -> new HashMap<>());
+        CellText cellText = rowTexts.get(row);
+        if (cellText == null) {
+            cellText = createCellText(column, row);
+            if (cellCount >= MAX_CACHED_CELLS) {
+                // Simply start over. Cache is refilled from the visible area.
+                columnTexts.clear();
+                cellCount = 0;
+                rowTexts = columnTexts.computeIfAbsent(column, c -> new HashMap<>());
+            }
+            rowTexts.put(row, cellText);
+            cellCount++;
+        }
+        if (cellText.textWidth < 0) {
+            cellText.textWidth = source.getTextWidth(cellText.text);
+        }
+        return cellText;
+    }
+
+    @NotNull
+    private CellText createCellText(@NotNull GridColumn column, int row) {
+        IGridContentProvider.CellInformation cellInfo = source.getCellInfo(column, row);
+        String text = source.getCellText(cellInfo);
+        int imageWidth = source.getImageWidth(cellInfo);
+        int lineCount = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lineCount++;
+            }
+        }
+        return new CellText(text, imageWidth, lineCount, measureText(text));
+    }
+
+    /**
+     * Returns text width calculated from char advance widths or -1 if the text can't be measured this way.
+     * Multi-line texts are measured by the longest line, as GC.textExtent does.
+     */
+    int measureText(@NotNull String text) {
+        int[] widths = getCharWidths();
+        int maxWidth = 0, lineWidth = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                maxWidth = Math.max(maxWidth, lineWidth);
+                lineWidth = 0;
+            } else if (c == '\r') {
+                // Skip
+            } else if (c >= widths.length || widths[c] <= 0) {
+                // Tabs, control chars and glyphs which are not in the table
+                return -1;
+            } else {
+                lineWidth += widths[c];
+            }
+        }
+        return Math.max(maxWidth, lineWidth);
+    }
+
+    @NotNull
+    private int[] getCharWidths() {
+        if (charWidths == null) {
+            int[] widths = new int[MEASURED_CHARS];
+            for (char c = ' '; c < MEASURED_CHARS; c++) {
+                if (!Character.isISOControl(c)) {
+                    widths[c] = source.getAdvanceWidth(c);
+                }
+            }
+            charWidths = widths;
+        }
+        return charWidths;
+    }
+
+    /**
+     * Returns cached text extent. Height is calculated from the number of text lines.
+     */
+    @NotNull
+    Point getTextExtent(@NotNull CellText cellText) {
+        return new Point(cellText.textWidth, cellText.lineCount * source.getLineHeight());
+    }
+
+    private static final class GridCellSource implements CellSource {
+        private final LightGrid grid;
+
+        GridCellSource(@NotNull LightGrid grid) {
+            this.grid = grid;
+        }
+
+        @NotNull
+        @Override
+        public IGridContentProvider.CellInformation getCellInfo(@NotNull GridColumn column, int row) {
+            return grid.getContentProvider().getCellInfo(column, grid.getRow(row), false);
+        }
+
+        @NotNull
+        @Override
+        public String getCellText(@NotNull IGridContentProvider.CellInformation cellInfo) {
+            return grid.getCellText(cellInfo.text);
+        }
+
+        @Override
+        public int getImageWidth(@NotNull IGridContentProvider.CellInformation cellInfo) {
+            if (GridCellRenderer.isLinkState(cellInfo.state)) {
+                return GridCellRenderer.LINK_IMAGE_BOUNDS.width;
+            }
+            DBPImage image = cellInfo.image;
+            if (image != null) {
+                Rectangle imageBounds = DBeaverIcons.getImage(image).getBounds();
+                return imageBounds.width;
+            }
+            return 0;
+        }
+
+        @Override
+        public int getAdvanceWidth(char c) {
+            return grid.sizingGC.getAdvanceWidth(c);
+        }
+
+        @Override
+        public int getTextWidth(@NotNull String text) {
+            return grid.sizingGC.textExtent(text).x;
+        }
+
+        @Override
+        public int getLineHeight() {
+            return grid.fontMetrics.getHeight();
+        }
+    }
+}
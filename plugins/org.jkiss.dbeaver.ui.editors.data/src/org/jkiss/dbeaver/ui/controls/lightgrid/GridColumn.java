@@ -21,8 +21,6 @@ import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.jkiss.code.Nullable;
-import org.jkiss.dbeaver.model.DBPImage;
-import org.jkiss.dbeaver.ui.DBeaverIcons;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.ArrayList;
@@ -40,6 +38,10 @@ public class GridColumn implements IGridColumn {
      * Default width of the column.
      */
     private static final int DEFAULT_WIDTH = 10;
+    /**
+     * Maximum number of rows (besides visible ones) used to calculate column width
+     */
+    private static final int PACK_SAMPLE_SIZE = 100;
 
     static final int topMargin = 6;
     static final int bottomMargin = 6;
@@ -254,13 +256,21 @@ public class GridColumn implements IGridColumn {
     void pack(boolean reflect) {
         int newWidth = computeHeaderWidth();
         if (CommonUtils.isEmpty(children)) {
-            // Calculate width of visible cells
+            // Calculate width of visible cells and of evenly sampled rows
+            int itemCount = grid.getItemCount();
             int topIndex = grid.getTopIndex();
             int bottomIndex = grid.getBottomIndex();
             if (topIndex >= 0 && bottomIndex >= topIndex) {
-                int itemCount = grid.getItemCount();
                 for (int i = topIndex; i <= bottomIndex && i < itemCount; i++) {
-                    newWidth = Math.max(newWidth, computeCellWidth(grid.getRow(i)));
+                    newWidth = Math.max(newWidth, computeCellWidth(i));
+                }
+            }
+            if (itemCount > 0) {
+                int step = Math.max(1, itemCount / PACK_SAMPLE_SIZE);
+                for (int i = 0; i < itemCount; i += step) {
+                    if (i < topIndex || i > bottomIndex) {
+                        newWidth = Math.max(newWidth, computeCellWidth(i));
+                    }
                 }
             }
         } else {
@@ -284,28 +294,17 @@ public class GridColumn implements IGridColumn {
         }
     }
 
-    private int computeCellWidth(IGridRow row) {
+    private int computeCellWidth(int rowIndex) {
         int x = 0;
 
         x += leftMargin;
 
-        IGridContentProvider.CellInformation cellInfo = grid.getContentProvider().getCellInfo(
-            this, row, false);
-
-        String cellText = grid.getCellText(cellInfo.text);
-        int state = cellInfo.state;
-        Rectangle imageBounds;
-        if (GridCellRenderer.isLinkState(state)) {
-            imageBounds = GridCellRenderer.LINK_IMAGE_BOUNDS;
-        } else {
-            DBPImage image = cellInfo.image;
-            imageBounds = image == null ? null : DBeaverIcons.getImage(image).getBounds();
-        }
-        if (imageBounds != null) {
-            x += imageBounds.width + insideMargin;
+        GridCellTextCache.CellText cellText = grid.textCache.getCellText(this, rowIndex);
+        if (cellText.imageWidth > 0) {
+            x += cellText.imageWidth + insideMargin;
         }
 
-        x += grid.sizingGC.textExtent(cellText).x + rightMargin;
+        x += cellText.textWidth + rightMargin;
         return x;
     }
 
@@ -316,6 +316,7 @@ public abstract class LightGrid extends Canvas {
     private Listener disposeListener;
 
     final GC sizingGC;
+    final GridCellTextCache textCache;
     FontMetrics fontMetrics;
     Font normalFont;
     Font boldFont;
@@ -433,6 +434,7 @@ public abstract class LightGrid extends Canvas {
 
         sizingGC = new GC(this);
         fontMetrics = sizingGC.getFontMetrics();
+        textCache = new GridCellTextCache(this);
         normalFont = getFont();
         boldFont = UIUtils.makeBoldFont(normalFont);
         italicFont = UIUtils.modifyFont(normalFont, SWT.ITALIC);
@@ -706,6 +708,8 @@ public abstract class LightGrid extends Canvas {
     }
 
     public void refreshRowsData() {
+        // Row indexes and cell values may change
+        textCache.invalidate();
         // Prepare rows
         Object[] initialElements = getContentProvider().getElements(false);
 
@@ -4083,6 +4087,13 @@ public abstract class LightGrid extends Canvas {
         redraw(clientArea.x, clientArea.y, clientArea.width, clientArea.height, false);
     }
 
+    /**
+     * Drops cached cell texts. Must be called when cell values change without full data refresh.
+     */
+    public void invalidateCellTexts() {
+        textCache.invalidate();
+    }
+
     /**
      * Returns the intersection of the given column and given item.
      *
@@ -4683,6 +4694,7 @@ public abstract class LightGrid extends Canvas {
         super.setFont(font);
         sizingGC.setFont(font);
         fontMetrics = sizingGC.getFontMetrics();
+        textCache.resetFont();
         normalFont = font;
         UIUtils.dispose(boldFont);
         UIUtils.dispose(italicFont);
@@ -4726,12 +4738,10 @@ public abstract class LightGrid extends Canvas {
         if (col == null || row < 0 || row >= gridRows.length) {
             return null;
         }
-        String toolTip = getCellText(col, gridRows[row]);
-        if (toolTip == null) {
-            return null;
-        }
+        GridCellTextCache.CellText cellText = textCache.getCellText(col, row);
+        String toolTip = cellText.text;
         // Show tooltip only if it's larger than column width
-        Point ttSize = sizingGC.textExtent(toolTip);
+        Point ttSize = textCache.getTextExtent(cellText);
         if (ttSize.x > col.getWidth() || ttSize.y > getItemHeight()) {
             int gridHeight = getBounds().height;
             if (ttSize.y > gridHeight) {
@@ -35,6 +35,7 @@ import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.struct.rdb.DBSForeignKeyModifyRule;
 import org.jkiss.dbeaver.model.struct.rdb.DBSManipulationType;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTableForeignKey;
+import org.jkiss.dbeaver.model.virtual.DBVDictionaryLabelCache;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.jobs.DataSourceJob;
 import org.jkiss.dbeaver.ui.ISmartTransactionManager;
@@ -647,6 +648,7 @@ class ResultSetPersister {
             }
 
             if (!generateScript) {
+                invalidateDictionaryLabels();
                 // Reflect changes
                 UIUtils.syncExec(() -> {
                     boolean rowsChanged = false;
@@ -682,6 +684,19 @@ class ResultSetPersister {
             return Status.OK_STATUS;
         }
 
+        private void invalidateDictionaryLabels() {
+            // Edited table may be a dictionary of other tables
+            Set<DBSEntity> entities = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (List<DataStatementInfo> statements : List.of(deleteStatements, insertStatements, updateStatements)) {
+                for (DataStatementInfo statement : statements) {
+                    entities.add(statement.entity);
+                }
+            }
+            for (DBSEntity entity : entities) {
+                DBVDictionaryLabelCache.getInstance().invalidate(entity);
+            }
+        }
+
         private Throwable executeStatements(DBRProgressMonitor monitor) {
             monitor.beginTask(
                 ResultSetMessages.controls_resultset_viewer_monitor_aply_changes,
@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.ui.controls.resultset.panel.aggregate;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.action.*;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.viewers.ISelection;
@@ -26,6 +28,8 @@ import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.*;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBIcon;
@@ -33,6 +37,8 @@ import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.registry.functions.AggregateFunctionDescriptor;
 import org.jkiss.dbeaver.registry.functions.FunctionsRegistry;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
@@ -75,6 +81,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     private final List<AggregateFunctionDescriptor> enabledFunctions = new ArrayList<>();
     private boolean featureTracked;
+    private volatile AggregateJob aggregateJob;
 
     public AggregateColumnsPanel() {
     }
@@ -198,13 +205,19 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     @Override
     public void refresh(boolean force) {
+        final AggregateJob prevJob = aggregateJob;
+        if (prevJob != null) {
+            prevJob.cancel();
+            aggregateJob = null;
+        }
+        AggregateJob job = null;
         aggregateTable.setRedraw(false);
         try {
             aggregateTable.removeAll();
             if (this.presentation instanceof ISelectionProvider) {
                 ISelection selection = ((ISelectionProvider) presentation).getSelection();
                 if (selection instanceof IResultSetSelection) {
-                    aggregateSelection((IResultSetSelection)selection);
+                    job = aggregateSelection((IResultSetSelection)selection);
                 }
             }
             UIUtils.packColumns(aggregateTable, false, null);
@@ -212,6 +225,11 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             aggregateTable.setRedraw(true);
         }
         saveSettings();
+        if (job != null) {
+            // Read and calculate values in background - it may take a while for big selections
+            aggregateJob = job;
+            aggregateJob.schedule();
+        }
     }
 
     @Override
@@ -219,7 +237,12 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         fillToolBar(manager);
     }
 
-    private void aggregateSelection(IResultSetSelection selection) {
+    /**
+     * Creates result items for the selection. Only selected rows and attributes are read here,
+     * cell values are collected by the returned job.
+     */
+    @NotNull
+    private AggregateJob aggregateSelection(IResultSetSelection selection) {
         if (!featureTracked) {
             DataEditorFeatures.RESULT_SET_PANEL_CALC.use(Map.of(
                 "functions", enabledFunctions.stream()
@@ -228,41 +251,39 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             ));
             featureTracked = true;
         }
-        ResultSetModel model = presentation.getController().getModel();
-        if (groupByColumns) {
-            Map<DBDAttributeBinding, List<Object>> attrValues = new LinkedHashMap<>();
+        final List<DBDAttributeBinding> attributes = selection.getSelectedAttributes();
+        final List<ResultSetRow> rows = selection.getSelectedRows();
+        List<SelectedCell> cells = null;
+        if ((long) attributes.size() * rows.size() != selection.size()) {
+            // Not a rectangular selection. Resolve cells here, selection elements refer to the presentation state
+            cells = new ArrayList<>(selection.size());
             for (Object element : selection.toList()) {
                 DBDAttributeBinding attr = selection.getElementAttribute(element);
                 ResultSetRow row = selection.getElementRow(element);
-                Object cellValue = model.getCellValue(attr, row);
-                List<Object> values = attrValues.computeIfAbsent(attr, k -> new ArrayList<>());
-                values.add(cellValue);
+                if (attr != null && row != null) {
+                    cells.add(new SelectedCell(attr, row));
+                }
             }
+        }
 
-            for (Map.Entry<DBDAttributeBinding, List<Object>> entry : attrValues.entrySet()) {
+        final List<AggregateGroup> groups = new ArrayList<>();
+        if (groupByColumns) {
+            for (DBDAttributeBinding attr : attributes) {
                 TreeItem attrItem = new TreeItem(aggregateTable, SWT.NONE);
-                attrItem.setText(entry.getKey().getName());
-                attrItem.setImage(DBeaverIcons.getImage(DBValueFormatting.getObjectImage(entry.getKey())));
-                aggregateValues(attrItem, entry.getValue());
+                attrItem.setText(attr.getName());
+                attrItem.setImage(DBeaverIcons.getImage(DBValueFormatting.getObjectImage(attr)));
+                groups.add(createAggregateGroup(attrItem, attr));
                 attrItem.setExpanded(true);
             }
         } else {
-            List<Object> allValues = new ArrayList<>(selection.size());
-            for (Object element : selection.toList()) {
-                DBDAttributeBinding attr = selection.getElementAttribute(element);
-                ResultSetRow row = selection.getElementRow(element);
-                if (row != null) {
-                    Object cellValue = model.getCellValue(attr, row);
-                    allValues.add(cellValue);
-                }
-            }
-            aggregateValues(null, allValues);
+            groups.add(createAggregateGroup(null, null));
         }
+        return new AggregateJob(presentation.getController().getModel(), groups, attributes, rows, cells, aggregateAsStrings);
     }
 
-    private void aggregateValues(TreeItem parentItem, Collection<Object> values) {
+    private AggregateGroup createAggregateGroup(TreeItem parentItem, DBDAttributeBinding attribute) {
         List<AggregateFunctionDescriptor> functions = enabledFunctions;
-        Map<IAggregateFunction, TreeItem> funcMap = new IdentityHashMap<>();
+        AggregateGroup group = new AggregateGroup(attribute);
         for (AggregateFunctionDescriptor funcDesc : functions) {
             TreeItem funcItem = (parentItem == null) ?
                 new TreeItem(aggregateTable, SWT.NONE) :
@@ -275,29 +296,22 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             }
             try {
                 IAggregateFunction func = funcDesc.createFunction();
-                funcMap.put(func, funcItem);
+                group.funcMap.put(func, funcItem);
             } catch (DBException e) {
                 log.error(e);
             }
         }
+        return group;
+    }
 
-        IAggregateFunction[] funcs = funcMap.keySet().toArray(new IAggregateFunction[funcMap.size()]);
-        int[] funcCount = new int[funcs.length];
-        for (Object element : values) {
-            for (int i = 0; i < funcs.length; i++) {
-                if (funcs[i].accumulate(element, aggregateAsStrings)) {
-                    funcCount[i]++;
+    private void showAggregateResults(List<AggregateGroup> groups) {
+        for (AggregateGroup group : groups) {
+            for (Map.Entry<IAggregateFunction, Object> entry : group.results.entrySet()) {
+                TreeItem treeItem = group.funcMap.get(entry.getKey());
+                if (treeItem == null || treeItem.isDisposed()) {
+                    continue;
                 }
-            }
-        }
-        for (int i = 0; i < funcs.length; i++) {
-            if (funcCount[i] <= 0) {
-                continue;
-            }
-            IAggregateFunction func = funcs[i];
-            Object result = func.getResult(funcCount[i]);
-            if (result != null) {
-                TreeItem treeItem = funcMap.get(func);
+                Object result = entry.getValue();
                 String strValue;
                 if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
                     strValue = DOUBLE_FORMAT.format(result);
@@ -311,6 +325,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
                 }
             }
         }
+        UIUtils.packColumns(aggregateTable, false, null);
     }
 
     public void clearValue()
@@ -485,4 +500,123 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         }
     }
 
+
+    private record SelectedCell(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
+    }
+
+    private static class AggregateGroup {
+        @Nullable
+        private final DBDAttributeBinding attribute;
+        private final Map<IAggregateFunction, TreeItem> funcMap = new IdentityHashMap<>();
+        private final Map<IAggregateFunction, Object> results = new IdentityHashMap<>();
+        private IAggregateFunction[] functions;
+        private int[] functionCounts;
+
+        AggregateGroup(@Nullable DBDAttributeBinding attribute) {
+            this.attribute = attribute;
+        }
+
+        void accumulate(Object value, boolean aggregateAsStrings) {
+            for (int i = 0; i < functions.length; i++) {
+                if (functions[i].accumulate(value, aggregateAsStrings)) {
+                    functionCounts[i]++;
+                }
+            }
+        }
+    }
+
+    private class AggregateJob extends AbstractJob {
+        private final ResultSetModel model;
+        private final List<AggregateGroup> groups;
+        private final List<DBDAttributeBinding> attributes;
+        private final List<ResultSetRow> rows;
+        @Nullable
+        private final List<SelectedCell> cells;
+        private final boolean aggregateAsStrings;
+        private int valueCount;
+
+        /**
+         * @param cells selected cells, or null if all cells of selected rows and attributes are selected
+         */
+        AggregateJob(
+            ResultSetModel model,
+            List<AggregateGroup> groups,
+            List<DBDAttributeBinding> attributes,
+            List<ResultSetRow> rows,
+            @Nullable List<SelectedCell> cells,
+            boolean aggregateAsStrings
+        ) {
+            super("Calculate aggregate values");
+            setSystem(true);
+            setUser(false);
+            this.model = model;
+            this.groups = groups;
+            this.attributes = attributes;
+            this.rows = rows;
+            this.cells = cells;
+            this.aggregateAsStrings = aggregateAsStrings;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            final Map<DBDAttributeBinding, AggregateGroup> attrGroups = new IdentityHashMap<>();
+            for (AggregateGroup group : groups) {
+                group.functions = group.funcMap.keySet().toArray(new IAggregateFunction[0]);
+                group.functionCounts = new int[group.functions.length];
+                if (group.attribute != null) {
+                    attrGroups.put(group.attribute, group);
+                }
+            }
+            if (cells == null) {
+                for (ResultSetRow row : rows) {
+                    for (DBDAttributeBinding attr : attributes) {
+                        if (!accumulate(monitor, attrGroups, attr, row)) {
+                            return Status.CANCEL_STATUS;
+                        }
+                    }
+                }
+            } else {
+                for (SelectedCell cell : cells) {
+                    if (!accumulate(monitor, attrGroups, cell.attribute(), cell.row())) {
+                        return Status.CANCEL_STATUS;
+                    }
+                }
+            }
+            for (AggregateGroup group : groups) {
+                for (int i = 0; i < group.functions.length; i++) {
+                    if (group.functionCounts[i] <= 0) {
+                        continue;
+                    }
+                    Object result = group.functions[i].getResult(group.functionCounts[i]);
+                    if (result != null) {
+                        group.results.put(group.functions[i], result);
+                    }
+                }
+            }
+            UIUtils.asyncExec(() -> {
+                if (aggregateJob == this && !aggregateTable.isDisposed()) {
+                    aggregateJob = null;
+                    showAggregateResults(groups);
+                }
+            });
+            return Status.OK_STATUS;
+        }
+
+        private boolean accumulate(
+            DBRProgressMonitor monitor,
+            Map<DBDAttributeBinding, AggregateGroup> attrGroups,
+            DBDAttributeBinding attr,
+            ResultSetRow row
+        ) {
+            if (++valueCount % 10000 == 0 && monitor.isCanceled()) {
+                return false;
+            }
+            final AggregateGroup group = attrGroups.isEmpty() ? groups.get(0) : attrGroups.get(attr);
+            if (group != null) {
+                group.accumulate(model.getCellValue(attr, row), aggregateAsStrings);
+            }
+            return true;
+        }
+    }
+
 }
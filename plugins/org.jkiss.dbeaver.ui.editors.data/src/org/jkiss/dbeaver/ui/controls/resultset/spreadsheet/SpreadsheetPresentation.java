@@ -947,6 +947,7 @@ public class SpreadsheetPresentation extends AbstractPresentation
 
     @Override
     public void updateValueView() {
+        spreadsheet.invalidateCellTexts();
         spreadsheet.redrawGrid();
         spreadsheet.updateScrollbars();
 
@@ -1882,10 +1883,12 @@ public class SpreadsheetPresentation extends AbstractPresentation
                         }
                     }
                 } else {
+                    // Nested collections have several grid rows of the same row
+                    Set<ResultSetRow> addedRows = Collections.newSetFromMap(new IdentityHashMap<>());
                     for (Integer row : spreadsheet.getRowSelection()) {
                         IGridRow gridRow = spreadsheet.getRow(row);
                         ResultSetRow rsr = (ResultSetRow) gridRow.getElement();
-                        if (!rows.contains(rsr)) {
+                        if (addedRows.add(rsr)) {
                             rows.add(rsr);
                         }
                     }
@@ -45,9 +45,14 @@ import org.jkiss.dbeaver.model.navigator.DBNUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.load.AbstractLoadService;
 import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.virtual.DBVDictionaryLabelCache;
 import org.jkiss.dbeaver.ui.*;
 import org.jkiss.dbeaver.ui.controls.ProgressLoaderVisualizer;
+import org.jkiss.dbeaver.ui.controls.resultset.IResultSetController;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetModel;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetRow;
 import org.jkiss.dbeaver.ui.controls.resultset.ResultSetUtils;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetValueController;
 import org.jkiss.dbeaver.ui.controls.resultset.internal.ResultSetMessages;
 import org.jkiss.dbeaver.ui.data.IAttributeController;
 import org.jkiss.dbeaver.ui.data.IValueController;
@@ -59,10 +64,7 @@ import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.ReaderWriterLock.ExceptableFunction;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 
 /**
  * ReferenceValueEditor
@@ -72,6 +74,9 @@ import java.util.List;
 public class ReferenceValueEditor {
     private static final Log log = Log.getLog(ReferenceValueEditor.class);
 
+    // Maximum number of fetched row keys which labels are read together with the current value label
+    private static final int MAX_PREFETCH_KEYS = 1000;
+
     private final IValueController valueController;
     private IValueEditor valueEditor;
     private DBSEntityReferrer refConstraint;
@@ -213,6 +218,15 @@ public class ReferenceValueEditor {
                 estimateTail(suffix.size(), halfPageSize);
                 data = prefix;
                 data.addAll(suffix);
+                if (searchText == null) {
+                    // Current value is read from the label cache. Near values are ordered by label
+                    // when sorting by value is off, so the current value may be out of the first page.
+                    for (DBDLabelValuePair currentEntry : accessor.getValueEntry(keyValue)) {
+                        if (data.stream().noneMatch(pair -> CommonUtils.equalObjects(pair.getValue(), currentEntry.getValue()))) {
+                            data.add(currentEntry);
+                        }
+                    }
+                }
             } else {
                 long offset = (Math.abs(currPageNumber)  - 1) * pageSize + halfPageSize;
                 if (currPageNumber < 0) {
@@ -616,12 +630,38 @@ public class ReferenceValueEditor {
         }
     }
 
+    /**
+     * Returns distinct values of the edited attribute in all fetched rows
+     */
+    @NotNull
+    private List<Object> collectFetchedKeys() {
+        if (!(valueController instanceof ResultSetValueController rsController) ||
+            !(rsController.getDataController() instanceof IResultSetController resultSetController)) {
+            return Collections.emptyList();
+        }
+        ResultSetModel model = resultSetController.getModel();
+        DBDAttributeBinding binding = rsController.getBinding();
+        Set<Object> keys = new LinkedHashSet<>();
+        for (ResultSetRow row : model.getAllRows()) {
+            Object value = model.getCellValue(binding, row);
+            if (!DBUtils.isNullValue(value)) {
+                keys.add(value);
+                if (keys.size() >= MAX_PREFETCH_KEYS) {
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+
     class SelectorLoaderService extends AbstractLoadService<EnumValuesData> {
         private ExceptableFunction<DBSDictionaryAccessor, List<DBDLabelValuePair>, DBException> action;
+        private final List<Object> fetchedKeys;
 
         private SelectorLoaderService(ExceptableFunction<DBSDictionaryAccessor, List<DBDLabelValuePair>, DBException> action) {
             super(ResultSetMessages.dialog_value_view_job_selector_name + valueController.getValueName() + " possible values");
             this.action = action;
+            this.fetchedKeys = collectFetchedKeys();
             actionGoBackward.setEnabled(false);
             actionGoForward.setEnabled(false);
         }
@@ -711,6 +751,15 @@ public class ReferenceValueEditor {
                 try (DBSDictionaryAccessor accessor = enumConstraint.getDictionaryAccessor(
                     monitor, precedingKeys, refColumn, sortAsc, !sortByValue
                 )) {
+                    if (precedingKeys == null && !fetchedKeys.isEmpty()) {
+                        // Labels of all fetched rows are read at once and cached,
+                        // so moving between rows doesn't query the dictionary for each value
+                        try {
+                            DBVDictionaryLabelCache.getInstance().getEntries(monitor, enumConstraint, refColumn, fetchedKeys);
+                        } catch (DBException e) {
+                            log.debug("Error reading dictionary labels of fetched rows", e);
+                        }
+                    }
                     List<DBDLabelValuePair> enumValues = action.apply(accessor);
                     if (monitor.isCanceled()) {
                         return null;
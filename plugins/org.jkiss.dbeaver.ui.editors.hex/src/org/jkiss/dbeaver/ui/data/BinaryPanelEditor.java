@@ -29,6 +29,7 @@ import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
 import org.jkiss.dbeaver.model.data.DBDContent;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.storage.BytesContentStorage;
+import org.jkiss.dbeaver.model.data.storage.SpillContentStorage;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener;
@@ -94,6 +95,17 @@ public class BinaryPanelEditor implements IStreamValueEditor<HexEditControl> {
         try {
             DBDContentStorage data = value.getContents(monitor);
             String charset = null;
+            if (data instanceof SpillContentStorage spillStorage && spillStorage.getContentLength() <= Integer.MAX_VALUE) {
+                // Spilled value is shown right from the mapped segment, without copying it to the heap.
+                // Binary content keeps edits separately, so the shared segment is never modified.
+                ByteBuffer contentBuffer = spillStorage.getContentBuffer();
+                String spillCharset = spillStorage.getCharset();
+                UIUtils.syncExec(() -> {
+                    control.setContent(contentBuffer, spillCharset, false);
+                    control.setReadOnly(value.getDataSource().getContainer().isConnectionReadOnly());
+                });
+                return;
+            }
             monitor.subTask("Read binary value");
             ByteArrayOutputStream buffer = new ByteArrayOutputStream();
             if (data != null) {
@@ -20,6 +20,7 @@ package org.jkiss.dbeaver.ui.editors.binary;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,7 +36,7 @@ import java.util.regex.Pattern;
 public class BinaryTextFinder {
 
 
-    public static final int MAP_SIZE = 64 * 1024;
+    public static final int MAP_SIZE = 1024 * 1024;
     public static final int MAX_SEQUENCE_SIZE = 2 * 1024;  // a search string of 2K should be enough
 
     private long bufferPosition = -1L;
@@ -50,6 +51,7 @@ public class BinaryTextFinder {
     private CharSequence literal = null;
     private int literalByteLength = -1;
     private Pattern pattern = null;
+    private byte[][] unicodeFindSequences = null;
     private boolean stopSearching = false;
 
 
@@ -105,39 +107,24 @@ public class BinaryTextFinder {
     {
         if (byteFindSequence == null) return -1;
 
-        int start = 0;
-        int inclusiveEnd = byteBuffer.limit() - byteFindSequence.length;
-        if (!directionForward) {
-            start = inclusiveEnd;
-            inclusiveEnd = 0;
-        }
-
-        for (int i = start;
-            directionForward && i <= inclusiveEnd || !directionForward && i >= inclusiveEnd;
-            i += directionForward ? 1 : -1)
-        {
-            boolean matchesSoFar = true;
-            for (int j = 0; j < byteFindSequence.length && matchesSoFar; ++j) {
-                byte existing = byteBuffer.get(i + j);
-                byte matcher = byteFindSequence[j];
-                if (existing != matcher) {
-                    if (caseSensitive || existing < 'A' || existing > 'z' || matcher < 'A' ||
-                        matcher > 'z' || existing - matcher != 32 && matcher - existing != 32)
-                        matchesSoFar = false;
-                }
-            }
-            if (matchesSoFar) {
-                return i;
-            }
-        }
-
-        return -1;
+        return indexOf(byteBuffer, byteFindSequence, directionForward, !caseSensitive);
     }
 
 
     private int findUnicodeMatchInPart()
         throws IOException
     {
+        if (unicodeFindSequences != null) {
+            // Case-sensitive search: UTF-16 byte sequences match at both even and odd addresses
+            int result = -1;
+            for (byte[] sequence : unicodeFindSequences) {
+                int index = indexOf(byteBuffer, sequence, directionForward, false);
+                if (index >= 0 && (result < 0 || directionForward && index < result || !directionForward && index > result)) {
+                    result = index;
+                }
+            }
+            return result;
+        }
         if (pattern == null) return -1;
 
         int result = Integer.MAX_VALUE;
@@ -174,6 +161,67 @@ public class BinaryTextFinder {
     }
 
 
+    /**
+     * Finds byte sequence in the buffer using Boyer-Moore-Horspool algorithm.
+     * Backward search returns the last occurrence.
+     * Ignore case mode matches ASCII letters only.
+     *
+     * @return index of the sequence in the buffer or -1
+     */
+    static int indexOf(ByteBuffer buffer, byte[] sequence, boolean forward, boolean ignoreCase)
+    {
+        final byte[] data = buffer.array();
+        final int offset = buffer.arrayOffset();
+        final int length = sequence.length;
+        final int limit = buffer.limit();
+        if (length == 0 || length > limit) {
+            return -1;
+        }
+        final byte[] folded = new byte[length];
+        for (int i = 0; i < length; i++) {
+            folded[i] = fold(sequence[i], ignoreCase);
+        }
+        final int[] shift = new int[256];
+        Arrays.fill(shift, length);
+        if (forward) {
+            for (int i = 0; i < length - 1; i++) {
+                shift[folded[i] & 0xFF] = length - 1 - i;
+            }
+            for (int pos = 0; pos <= limit - length; ) {
+                int j = length - 1;
+                while (j >= 0 && fold(data[offset + pos + j], ignoreCase) == folded[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    return pos;
+                }
+                pos += shift[fold(data[offset + pos + length - 1], ignoreCase) & 0xFF];
+            }
+        } else {
+            for (int i = length - 1; i > 0; i--) {
+                shift[folded[i] & 0xFF] = i;
+            }
+            for (int pos = limit - length; pos >= 0; ) {
+                int j = 0;
+                while (j < length && fold(data[offset + pos + j], ignoreCase) == folded[j]) {
+                    j++;
+                }
+                if (j == length) {
+                    return pos;
+                }
+                pos -= shift[fold(data[offset + pos], ignoreCase) & 0xFF];
+            }
+        }
+        return -1;
+    }
+
+
+    private static byte fold(byte value, boolean ignoreCase)
+    {
+        return ignoreCase && value >= 'A' && value <= 'Z' ? (byte) (value + 32) : value;
+    }
+
+
     long getContentLength()
     {
         if (content == null) {
@@ -266,6 +314,17 @@ public class BinaryTextFinder {
         int ignoreCaseFlags = 0;
         if (!caseSensitive) ignoreCaseFlags = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
         pattern = Pattern.compile(regex.toString(), ignoreCaseFlags);
+        unicodeFindSequences = null;
+        if (caseSensitive) {
+            byte[] littleEndian = new byte[literalByteLength];
+            byte[] bigEndian = new byte[literalByteLength];
+            for (int i = 0; i < literal.length(); ++i) {
+                char aChar = literal.charAt(i);
+                littleEndian[i * 2] = bigEndian[i * 2 + 1] = (byte) aChar;
+                littleEndian[i * 2 + 1] = bigEndian[i * 2] = (byte) (aChar >> 8);
+            }
+            unicodeFindSequences = new byte[][]{littleEndian, bigEndian};
+        }
 
         if (isAsciiCompatible)
             byteFindSequence = tmpBytes;
@@ -1829,13 +1829,20 @@ public class HexEditControl extends Composite {
     }
 
     public void setContent(byte[] data, String charset, boolean notify)
+    {
+        setContent(ByteBuffer.wrap(data), charset, notify);
+    }
+
+    /**
+     * Sets the content to be displayed. Buffer is not copied, it may be read-only.
+     */
+    public void setContent(ByteBuffer data, String charset, boolean notify)
     {
         BinaryContent binaryContent = new BinaryContent();
         if (charset != null) {
             setCharset(charset);
         }
-        ByteBuffer byteBuffer = ByteBuffer.wrap(data);
-        binaryContent.insert(byteBuffer, 0);
+        binaryContent.insert(data, 0);
 
         setContentProvider(binaryContent, notify);
     }
@@ -0,0 +1,121 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.views.session;
+
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.SashForm;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.*;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionHistory;
+import org.jkiss.dbeaver.ui.UIUtils;
+import org.jkiss.dbeaver.ui.views.session.internal.SessionEditorMessages;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.List;
+
+/**
+ * Active session history panel.
+ * Shows top queries and top wait events sampled by the session manager.
+ */
+class SessionActivityHistoryPanel extends Composite {
+
+    private static final int[] PERIOD_HOURS = {1, 3, 6, 12, 24};
+    private static final int MAX_TOP_ITEMS = 50;
+    private static final int MAX_QUERY_DISPLAY_LENGTH = 300;
+
+    private final DBAServerSessionHistory history;
+    private final Combo periodCombo;
+    private final Label samplesLabel;
+    private final Table queriesTable;
+    private final Table waitsTable;
+
+    SessionActivityHistoryPanel(@NotNull Composite parent, @NotNull DBAServerSessionHistory history) {
+        super(parent, SWT.NONE);
+        this.history = history;
+        setLayout(new GridLayout(1, false));
+
+        Composite controlPanel = UIUtils.createComposite(this, 3);
+        controlPanel.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+        periodCombo = UIUtils.createLabelCombo(controlPanel, SessionEditorMessages.viewer_activity_history_period_label, SWT.DROP_DOWN | SWT.READ_ONLY);
+        for (int hours : PERIOD_HOURS) {
+            periodCombo.add(NLS.bind(SessionEditorMessages.viewer_activity_history_period_hours, hours));
+        }
+        periodCombo.select(0);
+        periodCombo.addModifyListener(e -> refresh());
+        samplesLabel = new Label(controlPanel, SWT.NONE);
+        samplesLabel.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+
+        SashForm sash = new SashForm(this, SWT.HORIZONTAL);
+        sash.setLayoutData(new GridData(GridData.FILL_BOTH));
+        queriesTable = createStatTable(sash, SessionEditorMessages.viewer_activity_history_column_query);
+        waitsTable = createStatTable(sash, SessionEditorMessages.viewer_activity_history_column_wait);
+        sash.setWeights(new int[]{650, 350});
+    }
+
+    /**
+     * Recalculates statistics for the selected period
+     */
+    void refresh() {
+        if (isDisposed()) {
+            return;
+        }
+        final int periodIndex = Math.max(periodCombo.getSelectionIndex(), 0);
+        final long fromTime = System.currentTimeMillis() - PERIOD_HOURS[periodIndex] * 60L * 60L * 1000L;
+
+        samplesLabel.setText(NLS.bind(SessionEditorMessages.viewer_activity_history_samples_label, history.getSampleCount()));
+        fillStatTable(queriesTable, history.getTopQueries(fromTime, MAX_TOP_ITEMS), true);
+        fillStatTable(waitsTable, history.getTopWaits(fromTime, MAX_TOP_ITEMS), false);
+        samplesLabel.getParent().layout(true);
+    }
+
+    @NotNull
+    private static Table createStatTable(@NotNull Composite parent, @NotNull String nameColumn) {
+        Table table = new Table(parent, SWT.BORDER | SWT.FULL_SELECTION | SWT.V_SCROLL | SWT.H_SCROLL);
+        table.setHeaderVisible(true);
+        table.setLinesVisible(true);
+        UIUtils.createTableColumn(table, SWT.LEFT, nameColumn);
+        UIUtils.createTableColumn(table, SWT.RIGHT, SessionEditorMessages.viewer_activity_history_column_samples);
+        UIUtils.createTableColumn(table, SWT.RIGHT, SessionEditorMessages.viewer_activity_history_column_percent);
+        return table;
+    }
+
+    private static void fillStatTable(@NotNull Table table, @NotNull List<DBAServerSessionHistory.ActivityStat> stats, boolean isQuery) {
+        table.setRedraw(false);
+        try {
+            table.removeAll();
+            for (DBAServerSessionHistory.ActivityStat stat : stats) {
+                TableItem item = new TableItem(table, SWT.NONE);
+                String name = stat.getName();
+                if (isQuery) {
+                    // Show queries in one line
+                    name = CommonUtils.truncateString(CommonUtils.compactWhiteSpaces(name), MAX_QUERY_DISPLAY_LENGTH);
+                }
+                item.setText(0, name);
+                item.setText(1, String.valueOf(stat.getSamples()));
+                item.setText(2, String.format("%.1f", stat.getPercent()));
+                item.setData(stat);
+            }
+            UIUtils.packColumns(table, true);
+        } finally {
+            table.setRedraw(true);
+        }
+    }
+
+}
@@ -58,6 +58,7 @@ import org.jkiss.dbeaver.model.sql.SQLQuery;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.properties.ObjectPropertyDescriptor;
+import org.jkiss.dbeaver.runtime.properties.ObjectPropertyMetadata;
 import org.jkiss.dbeaver.runtime.properties.PropertyCollector;
 import org.jkiss.dbeaver.ui.*;
 import org.jkiss.dbeaver.ui.controls.ListContentProvider;
@@ -110,6 +111,8 @@ public class SessionManagerViewer<SESSION_TYPE extends DBAServerSession>
     private ExplainPlanViewer planViewer;
     private Object selectedPlanElement;
     private final CTabFolder detailsFolder;
+    private final DBAServerSessionHistory activityHistory;
+    private SessionActivityHistoryPanel activityHistoryPanel;
 
     protected SessionManagerViewer(IWorkbenchPart part, Composite parent, final DBAServerSessionManager<SESSION_TYPE> sessionManager) {
         this.workbenchPart = part;
@@ -118,6 +121,7 @@ public class SessionManagerViewer<SESSION_TYPE extends DBAServerSession>
         this.boldFont = UIUtils.makeBoldFont(parent.getFont());
 
         planner = DBUtils.getAdapter(DBCQueryPlanner.class, sessionManager.getDataSource());
+        activityHistory = DBAServerSessionHistory.getHistory(sessionManager.getDataSource().getContainer());
 
         Composite composite = UIUtils.createPlaceholder(parent, 1);
 
@@ -223,13 +227,25 @@ public class SessionManagerViewer<SESSION_TYPE extends DBAServerSession>
                     }
                 }
 
+                {
+                    CTabItem historyItem = new CTabItem(detailsFolder, SWT.NONE);
+                    historyItem.setText(SessionEditorMessages.viewer_activity_history_item);
+                    historyItem.setToolTipText(SessionEditorMessages.viewer_activity_history_tip);
+                    historyItem.setImage(DBeaverIcons.getImage(UIIcon.CLOCK_START));
+                    activityHistoryPanel = new SessionActivityHistoryPanel(detailsFolder, activityHistory);
+                    historyItem.setControl(activityHistoryPanel);
+                    historyItem.setData(activityHistoryPanel);
+                }
+
                 detailsFolder.setSelection(detailsItem);
                 detailsFolder.addSelectionListener(new SelectionAdapter() {
                     @Override
                     public void widgetSelected(SelectionEvent e) {
                         CTabItem item = detailsFolder.getItem(detailsFolder.getSelectionIndex());
                         Object data = item.getData();
-                        if (data instanceof DBAServerSessionDetails) {
+                        if (data == activityHistoryPanel) {
+                            activityHistoryPanel.refresh();
+                        } else if (data instanceof DBAServerSessionDetails) {
                             Class<?> detailsType = ((DBAServerSessionDetails) data).getDetailsType();
                             if (DBPObjectWithDescription.class.isAssignableFrom(detailsType)) {
                                 StyledText styledText = (StyledText) item.getControl();
@@ -446,6 +462,30 @@ public class SessionManagerViewer<SESSION_TYPE extends DBAServerSession>
         return false;
     }
 
+    /**
+     * Compares all annotated properties of two instances of the same session
+     */
+    private boolean isSameSessionState(@NotNull SESSION_TYPE oldSession, @NotNull SESSION_TYPE newSession) {
+        if (oldSession.getClass() != newSession.getClass()) {
+            return false;
+        }
+        for (ObjectPropertyMetadata.PropertyMethod propertyMethod : ObjectPropertyMetadata.getPropertyMethods(oldSession.getClass())) {
+            if (propertyMethod.getProperty() == null || propertyMethod.getMethod().getParameterCount() > 0) {
+                continue;
+            }
+            final ObjectPropertyMetadata.PropertyAccessor accessor = ObjectPropertyMetadata.getAccessor(propertyMethod.getMethod());
+            try {
+                if (!CommonUtils.equalObjects(accessor.read(oldSession, null), accessor.read(newSession, null))) {
+                    return false;
+                }
+            } catch (InvocationTargetException e) {
+                log.debug("Error reading session property " + propertyMethod.getFullName(), e.getTargetException());
+                return false;
+            }
+        }
+        return true;
+    }
+
     private class SessionListControl extends SessionTable<SESSION_TYPE> {
 
         private final SessionSearcher searcher;
@@ -580,11 +620,14 @@ public class SessionManagerViewer<SESSION_TYPE extends DBAServerSession>
             public void completeLoading(Collection<SESSION_TYPE> items) {
                 Collection<DBAServerSession> previouslySelectedSessions = getSelectedSessions();
                 super.completeLoading(items);
-                if (items != null) {
-                    Object[] sessionsToSelect = previouslySelectedSessions.stream().filter(items::contains).toArray();
+                if (items != null && getListData() != null) {
+                    // Sessions are equal by ID, select instances which are actually shown in the list
+                    final Collection<SESSION_TYPE> listData = getListData();
+                    Object[] sessionsToSelect = listData.stream().filter(previouslySelectedSessions::contains).toArray();
                     sessionTable.getItemsViewer().setSelection(new StructuredSelection(sessionsToSelect));
-                    if (items.contains(curSession)) {
-                        onSessionSelect(curSession);
+                    final SESSION_TYPE newCurSession = listData.stream().filter(s -> s.equals(curSession)).findFirst().orElse(null);
+                    if (newCurSession != null) {
+                        onSessionSelect(newCurSession);
                     } else {
                         onSessionSelect(null);
                     }
@@ -593,7 +636,14 @@ public class SessionManagerViewer<SESSION_TYPE extends DBAServerSession>
 
             @Override
             protected void afterCompleteLoading(@NotNull Collection<SESSION_TYPE> items) {
-                setListData(items, false, false, true);
+                // Keep unchanged rows, update only new, removed and changed sessions
+                mergeListData(items, SessionManagerViewer.this::isSameSessionState);
+                activityHistory.addSample(System.currentTimeMillis(), items);
+                if (activityHistoryPanel != null && detailsFolder.getSelection() != null &&
+                    detailsFolder.getSelection().getData() == activityHistoryPanel)
+                {
+                    activityHistoryPanel.refresh();
+                }
             }
         }
     }
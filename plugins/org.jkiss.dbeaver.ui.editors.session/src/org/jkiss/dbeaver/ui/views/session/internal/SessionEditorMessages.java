@@ -35,6 +35,15 @@ public class SessionEditorMessages extends NLS {
     public static String viewer_session_manager_error_opening_editor_title;
     public static String viewer_session_manager_error_opening_editor_message;
     public static String viewer_session_manager_refresh_sessions_action;
+    public static String viewer_activity_history_item;
+    public static String viewer_activity_history_tip;
+    public static String viewer_activity_history_period_label;
+    public static String viewer_activity_history_period_hours;
+    public static String viewer_activity_history_samples_label;
+    public static String viewer_activity_history_column_query;
+    public static String viewer_activity_history_column_wait;
+    public static String viewer_activity_history_column_samples;
+    public static String viewer_activity_history_column_percent;
 
     static {
         // initialize resource bundle
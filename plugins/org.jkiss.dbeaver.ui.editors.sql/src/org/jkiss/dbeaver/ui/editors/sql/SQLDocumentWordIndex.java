@@ -0,0 +1,334 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.sql;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.text.parser.TPWordDetector;
+
+import java.util.*;
+
+/**
+ * Incrementally maintained index of words of the SQL document.
+ * <p>
+ * The document is split into blocks which never break words, each block keeps its words with their relative offsets.
+ * Document changes re-tokenize only the blocks they touch. Each word refers to the blocks containing it,
+ * so occurrences of a word are looked up only in these blocks instead of scanning the whole document.
+ */
+class SQLDocumentWordIndex {
+
+    private static final Log log = Log.getLog(SQLDocumentWordIndex.class);
+
+    private static final int BLOCK_SIZE = 4096;
+
+    @FunctionalInterface
+    interface OccurrenceCollector {
+        void accept(int offset, int length);
+    }
+
+    private final TPWordDetector wordDetector = new TPWordDetector();
+    private final List<Block> blocks = new ArrayList<>();
+    private final Map<String, Set<Block>> wordBlocks = new HashMap<>();
+    private int[] blockOffsets = new int[0];
+    private boolean blockOffsetsValid = false;
+
+    private IDocument document;
+    private int documentLength;
+    private long modificationStamp;
+
+    /**
+     * Checks whether the text is a single word, so its occurrences can be found with this index
+     */
+    boolean isIndexable(@Nullable String text) {
+        if (text == null || text.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (!wordDetector.isWordPart(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the index if it doesn't reflect the current state of the document
+     */
+    void update(@NotNull IDocument document) {
+        if (this.document != document ||
+            this.documentLength != document.getLength() ||
+            this.modificationStamp != getModificationStamp(document)
+        ) {
+            this.blocks.clear();
+            this.wordBlocks.clear();
+            this.blocks.addAll(tokenize(document.get()));
+            this.blocks.forEach(this::addBlockWords);
+            this.blockOffsetsValid = false;
+            this.document = document;
+            this.documentLength = document.getLength();
+            this.modificationStamp = getModificationStamp(document);
+        }
+    }
+
+    /**
+     * Re-tokenizes blocks affected by the document change
+     */
+    void documentChanged(@NotNull DocumentEvent event) {
+        IDocument eventDocument = event.getDocument();
+        if (eventDocument != this.document) {
+            return;
+        }
+        int oldLength = event.getLength();
+        int newLength = event.getText() == null ? 0 : event.getText().length();
+        int delta = newLength - oldLength;
+        if (this.blocks.isEmpty() || this.documentLength + delta != eventDocument.getLength()) {
+            // Index is out of sync, it will be rebuilt on next lookup
+            clear();
+            return;
+        }
+        ensureBlockOffsets();
+        // The edit starts inside the first block, and the last block always contains the character following the edit,
+        // so the non-word character ending the last block keeps separating it from the rest of the blocks
+        int first = findBlock(event.getOffset());
+        int last = findBlock(event.getOffset() + oldLength);
+        int start = this.blockOffsets[first];
+        int end = this.blockOffsets[last] + this.blocks.get(last).length + delta;
+        try {
+            List<Block> newBlocks = tokenize(eventDocument.get(start, end - start));
+            List<Block> affectedBlocks = this.blocks.subList(first, last + 1);
+            affectedBlocks.forEach(this::removeBlockWords);
+            affectedBlocks.clear();
+            affectedBlocks.addAll(newBlocks);
+            newBlocks.forEach(this::addBlockWords);
+        } catch (BadLocationException e) {
+            log.debug("Error updating word index: " + e.getMessage());
+            clear();
+            return;
+        }
+        this.blockOffsetsValid = false;
+        this.documentLength += delta;
+        this.modificationStamp = getModificationStamp(eventDocument);
+    }
+
+    /**
+     * Reports occurrences of the word in the order of their offsets. Search is case-insensitive.
+     *
+     * @param wholeWord report only occurrences which are words by themselves, otherwise any word fragments match
+     */
+    void findOccurrences(@NotNull String word, boolean wholeWord, @NotNull OccurrenceCollector collector) {
+        String key = normalize(word);
+        List<Block> matchedBlocks = new ArrayList<>();
+        if (wholeWord) {
+            matchedBlocks.addAll(this.wordBlocks.getOrDefault(key, Set.of()));
+        } else {
+            Set<Block> blockSet = new HashSet<>();
+            for (Map.Entry<String, Set<Block>> entry : this.wordBlocks.entrySet()) {
+                if (entry.getKey().contains(key)) {
+                    blockSet.addAll(entry.getValue());
+                }
+            }
+            matchedBlocks.addAll(blockSet);
+        }
+        if (matchedBlocks.isEmpty()) {
+            return;
+        }
+        ensureBlockOffsets();
+        matchedBlocks.sort(Comparator.comparingInt(block -> block.index));
+        for (Block block : matchedBlocks) {
+            int blockOffset = this.blockOffsets[block.index];
+            if (wholeWord) {
+                Occurrences occurrences = block.words.get(key);
+                if (occurrences != null) {
+                    for (int k = 0; k < occurrences.count; k++) {
+                        collector.accept(blockOffset + occurrences.getOffset(k), occurrences.getLength(k));
+                    }
+                }
+            } else {
+                long[] found = null;
+                int foundCount = 0;
+                for (Map.Entry<String, Occurrences> entry : block.words.entrySet()) {
+                    String blockWord = entry.getKey();
+                    if (!blockWord.contains(key)) {
+                        continue;
+                    }
+                    Occurrences occurrences = entry.getValue();
+                    for (int k = 0; k < occurrences.count; k++) {
+                        if (occurrences.getLength(k) != blockWord.length()) {
+                            // Case conversion changed the word length, fragment offsets can't be mapped back
+                            continue;
+                        }
+                        for (int pos = blockWord.indexOf(key); pos >= 0; pos = blockWord.indexOf(key, pos + key.length())) {
+                            if (found == null) {
+                                found = new long[8];
+                            } else if (foundCount == found.length) {
+                                found = Arrays.copyOf(found, foundCount * 2);
+                            }
+                            found[foundCount++] = blockOffset + occurrences.getOffset(k) + pos;
+                        }
+                    }
+                }
+                if (found != null) {
+                    Arrays.sort(found, 0, foundCount);
+                    for (int k = 0; k < foundCount; k++) {
+                        collector.accept((int) found[k], key.length());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of blocks the indexed document is split into
+     */
+    int getBlockCount() {
+        return this.blocks.size();
+    }
+
+    void clear() {
+        this.blocks.clear();
+        this.wordBlocks.clear();
+        this.blockOffsetsValid = false;
+        this.document = null;
+        this.documentLength = 0;
+        this.modificationStamp = IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+    }
+
+    private int findBlock(int offset) {
+        int index = Arrays.binarySearch(this.blockOffsets, 0, this.blocks.size(), offset);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return Math.max(0, Math.min(index, this.blocks.size() - 1));
+    }
+
+    private void ensureBlockOffsets() {
+        if (this.blockOffsetsValid) {
+            return;
+        }
+        if (this.blockOffsets.length < this.blocks.size()) {
+            this.blockOffsets = new int[this.blocks.size() + this.blocks.size() / 4];
+        }
+        int offset = 0;
+        for (int i = 0; i < this.blocks.size(); i++) {
+            Block block = this.blocks.get(i);
+            block.index = i;
+            this.blockOffsets[i] = offset;
+            offset += block.length;
+        }
+        this.blockOffsetsValid = true;
+    }
+
+    private void addBlockWords(@NotNull Block block) {
+        for (String word : block.words.keySet()) {
+            this.wordBlocks.computeIfAbsent(word, w -> new HashSet<>()).add(block);
+        }
+    }
+
+    private void removeBlockWords(@NotNull Block block) {
+        for (String word : block.words.keySet()) {
+            Set<Block> wordBlockSet = this.wordBlocks.get(word);
+            if (wordBlockSet != null) {
+                wordBlockSet.remove(block);
+                if (wordBlockSet.isEmpty()) {
+                    this.wordBlocks.remove(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits text into blocks. Each block but the last one ends with a non-word character.
+     */
+    @NotNull
+    private List<Block> tokenize(@NotNull CharSequence text) {
+        List<Block> result = new ArrayList<>();
+        int length = text.length();
+        int blockStart = 0;
+        Block block = new Block();
+        for (int i = 0; i < length; ) {
+            if (wordDetector.isWordPart(text.charAt(i))) {
+                int wordStart = i;
+                while (i < length && wordDetector.isWordPart(text.charAt(i))) {
+                    i++;
+                }
+                block.words.computeIfAbsent(normalize(text.subSequence(wordStart, i).toString()), w -> new Occurrences())
+                    .add(wordStart - blockStart, i - wordStart);
+            } else {
+                i++;
+                if (i - blockStart >= BLOCK_SIZE) {
+                    block.length = i - blockStart;
+                    result.add(block);
+                    block = new Block();
+                    blockStart = i;
+                }
+            }
+        }
+        if (length > blockStart) {
+            block.length = length - blockStart;
+            result.add(block);
+        }
+        return result;
+    }
+
+    @NotNull
+    private static String normalize(@NotNull String word) {
+        return word.toLowerCase(Locale.ROOT);
+    }
+
+    private static long getModificationStamp(@NotNull IDocument document) {
+        return document instanceof IDocumentExtension4 extension ?
+            extension.getModificationStamp() :
+            IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+    }
+
+    private static class Block {
+        private final Map<String, Occurrences> words = new HashMap<>();
+        private int length;
+        // Position in the block list, valid while block offsets are valid
+        private int index;
+    }
+
+    /**
+     * Relative offsets and lengths of the word in the block
+     */
+    private static class Occurrences {
+        private int[] data = new int[2];
+        private int count;
+
+        void add(int offset, int length) {
+            if (count * 2 == data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[count * 2] = offset;
+            data[count * 2 + 1] = length;
+            count++;
+        }
+
+        int getOffset(int index) {
+            return data[index * 2];
+        }
+
+        int getLength(int index) {
+            return data[index * 2 + 1];
+        }
+    }
+}
@@ -56,6 +56,7 @@ class SQLOccurrencesHighlighter {
     private boolean markOccurrencesForSelection;
     private OccurrencesFinderJob occurrencesFinderJob;
     private OccurrencesFinderJobCanceler occurrencesFinderJobCanceler;
+    private final SQLDocumentWordIndex wordIndex = new SQLDocumentWordIndex();
 
     private final Object LOCK_OBJECT = new Object();
 
@@ -119,7 +120,7 @@ class SQLOccurrencesHighlighter {
                     if (wordUnderCursor == null && (CommonUtils.isEmpty(wordSelected) || wordSelected.length() < 2)) {
                         this.removeOccurrenceAnnotations();
                     } else {
-                        OccurrencesFinder finder = new OccurrencesFinder(document, wordUnderCursor, wordSelected);
+                        OccurrencesFinder finder = new OccurrencesFinder(document, wordIndex, wordUnderCursor, wordSelected);
                         List<OccurrencePosition> positions = finder.perform();
                         if (!CommonUtils.isEmpty(positions)) {
                             this.occurrencesFinderJob = new OccurrencesFinderJob(positions);
@@ -192,6 +193,7 @@ class SQLOccurrencesHighlighter {
             this.occurrencesFinderJobCanceler.uninstall();
             this.occurrencesFinderJobCanceler = null;
         }
+        this.wordIndex.clear();
 
         this.removeOccurrenceAnnotations();
     }
@@ -217,6 +219,7 @@ class SQLOccurrencesHighlighter {
             this.selectionChangedListener.uninstall(editor.getSelectionProvider());
             this.selectionChangedListener = null;
         }
+        this.wordIndex.clear();
     }
 
     void updateInput(IEditorInput input) {
@@ -388,6 +391,7 @@ class SQLOccurrencesHighlighter {
         }
 
         public void documentChanged(DocumentEvent event) {
+            SQLOccurrencesHighlighter.this.wordIndex.documentChanged(event);
         }
 
         public void inputDocumentAboutToBeChanged(IDocument oldInput, IDocument newInput) {
@@ -414,11 +418,13 @@ class SQLOccurrencesHighlighter {
 
     private static class OccurrencesFinder {
         private IDocument fDocument;
+        private SQLDocumentWordIndex wordIndex;
         private String wordUnderCursor;
         private String wordSelected;
 
-        OccurrencesFinder(IDocument document, String wordUnderCursor, String wordSelected) {
+        OccurrencesFinder(IDocument document, SQLDocumentWordIndex wordIndex, String wordUnderCursor, String wordSelected) {
             this.fDocument = document;
+            this.wordIndex = wordIndex;
             this.wordUnderCursor = wordUnderCursor;
             this.wordSelected = wordSelected;
         }
@@ -449,6 +455,16 @@ class SQLOccurrencesHighlighter {
         }
 
         private void findPositions(String searchFor, List<OccurrencePosition> positions, boolean forSelection) throws BadLocationException {
+            if (wordIndex.isIndexable(searchFor)) {
+                // Single words are looked up in the index, so we don't scan the whole document on each caret move
+                wordIndex.update(fDocument);
+                wordIndex.findOccurrences(
+                    searchFor,
+                    !forSelection,
+                    (offset, length) -> positions.add(new OccurrencePosition(offset, length, forSelection))
+                );
+                return;
+            }
             FindReplaceDocumentAdapter findReplaceDocumentAdapter = new FindReplaceDocumentAdapter(fDocument);
             for (int offset = 0; ; ) {
                 IRegion region = findReplaceDocumentAdapter.find(offset, searchFor, true, false, !forSelection, false);
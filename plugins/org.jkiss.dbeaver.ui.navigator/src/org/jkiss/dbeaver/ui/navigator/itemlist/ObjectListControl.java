@@ -47,6 +47,7 @@ import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.properties.*;
 import org.jkiss.dbeaver.ui.*;
@@ -63,6 +64,8 @@ import org.jkiss.utils.CommonUtils;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 import java.util.*;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -562,6 +565,59 @@ public abstract class ObjectListControl<OBJECT_TYPE> extends ProgressPageControl
         setInfo(getItemsLoadMessage(objectList.size()));
     }
 
+    /**
+     * Merges new items into the current list.
+     * Items which are equal to existing ones and have the same state keep their old instances,
+     * so only added, removed and changed rows are updated in the viewer.
+     */
+    protected void mergeListData(@NotNull Collection<OBJECT_TYPE> items, @NotNull BiPredicate<OBJECT_TYPE, OBJECT_TYPE> sameState) {
+        final Control itemsControl = itemsViewer.getControl();
+        if (itemsControl.isDisposed()) {
+            return;
+        }
+        if (CommonUtils.isEmpty(objectList) || columnController == null) {
+            setListData(items, false, false, true);
+            return;
+        }
+        final Map<OBJECT_TYPE, OBJECT_TYPE> oldObjects = new HashMap<>();
+        for (OBJECT_TYPE oldObject : objectList) {
+            oldObjects.put(oldObject, oldObject);
+        }
+        final List<OBJECT_TYPE> newList = new ArrayList<>(items.size());
+        final List<OBJECT_TYPE> changedObjects = new ArrayList<>();
+        boolean structureChanged = items.size() != objectList.size();
+        for (OBJECT_TYPE newObject : items) {
+            final OBJECT_TYPE oldObject = oldObjects.remove(newObject);
+            if (oldObject == null) {
+                structureChanged = true;
+                newList.add(newObject);
+            } else if (sameState.test(oldObject, newObject)) {
+                newList.add(oldObject);
+            } else {
+                newList.add(newObject);
+                changedObjects.add(newObject);
+            }
+        }
+        if (!structureChanged) {
+            structureChanged = !newList.equals(objectList);
+        }
+        if (structureChanged || !changedObjects.isEmpty()) {
+            itemsControl.setRedraw(false);
+            try {
+                objectList.clear();
+                objectList.addAll(newList);
+                // Labels of kept instances are not refreshed, replaced instances are re-mapped and updated
+                itemsViewer.refresh(false);
+                if (!changedObjects.isEmpty()) {
+                    itemsViewer.update(changedObjects.toArray(), null);
+                }
+            } finally {
+                itemsControl.setRedraw(true);
+            }
+        }
+        setInfo(getItemsLoadMessage(objectList.size()));
+    }
+
     protected List<OBJECT_TYPE> createViewerInput(Collection<OBJECT_TYPE> objectList) {
         return new ArrayList<>(objectList);
     }
@@ -792,6 +848,28 @@ public abstract class ObjectListControl<OBJECT_TYPE> extends ProgressPageControl
         return prop;
     }
 
+    /**
+     * Groups elements by owner objects which can collect statistics for all their children.
+     * Elements without such owner are put in the batch with NULL key.
+     */
+    @NotNull
+    static <T> Map<Object, List<T>> groupByStatisticsOwner(@NotNull Collection<T> elements, @NotNull Function<? super T, ?> valueReader) {
+        final Map<Object, List<T>> batches = new LinkedHashMap<>();
+        for (T element : elements) {
+            Object owner = null;
+            if (valueReader.apply(element) instanceof DBSObject object &&
+                object instanceof DBPObjectStatistics statistics && !statistics.hasStatistics())
+            {
+                final DBSObject parentObject = DBUtils.getPublicObject(object.getParentObject());
+                if (parentObject instanceof DBPObjectStatisticsCollector) {
+                    owner = parentObject;
+                }
+            }
+            batches.computeIfAbsent(owner, o -> new ArrayList<>()).add(element);
+        }
+        return batches;
+    }
+
     @Nullable
     protected Class<?>[] getListBaseTypes(Collection<OBJECT_TYPE> items) {
         return null;
@@ -1312,56 +1390,37 @@ public abstract class ObjectListControl<OBJECT_TYPE> extends ProgressPageControl
                 return Status.OK_STATUS;
             }
             monitor.beginTask(UINavigatorMessages.controls_object_list_monitor_load_lazy_props, objectMap.size());
-            for (Map.Entry<OBJECT_TYPE, List<ObjectColumn>> entry : objectMap.entrySet()) {
+            for (Map.Entry<Object, List<OBJECT_TYPE>> batch : groupByStatisticsOwner(objectMap.keySet(), ObjectListControl.this::getObjectValue).entrySet()) {
                 if (monitor.isCanceled() || isDisposed()) {
                     break;
                 }
-                final OBJECT_TYPE element = entry.getKey();
-                Object object = getObjectValue(element);
-                if (object == null) {
-                    continue;
-                }
-                Map<String, Object> objectCache;
-                synchronized (lazyCache) {
-                    objectCache = lazyCache.get(element);
-                    if (objectCache == null) {
-                        objectCache = new HashMap<>();
-                        lazyCache.put(element, objectCache);
+                final List<OBJECT_TYPE> elements = batch.getValue();
+                if (batch.getKey() instanceof DBPObjectStatisticsCollector collector) {
+                    // Objects may belong to owners other than the listed node (e.g. search results),
+                    // so make sure each owner has read its children statistics before lazy properties are requested
+                    try {
+                        if (!collector.isStatisticsCollected()) {
+                            collector.collectObjectStatistics(monitor, false, false);
+                        }
+                    } catch (Exception e) {
+                        log.debug("Error reading statistics of '" + DBUtils.getObjectFullName((DBSObject) collector, DBPEvaluationContext.UI) + "'", e);
                     }
                 }
-                String objectName = GeneralUtils.makeDisplayString(getObjectValue(element)).toString();
-                monitor.subTask(NLS.bind(UINavigatorMessages.controls_object_list_monitor_load_props, objectName));
-                for (ObjectColumn column : entry.getValue()) {
+                for (OBJECT_TYPE element : elements) {
                     if (monitor.isCanceled() || isDisposed()) {
                         break;
                     }
-                    ObjectPropertyDescriptor prop = getPropertyByObject(column, object);
-                    if (prop != null) {
-                        try {
-                            synchronized (lazyCache) {
-                                if (objectCache.containsKey(prop.getId())) {
-                                    // This property already cached
-                                    continue;
-                                }
-                            }
-                            Object lazyValue = prop.readValue(object, monitor, false);
-                            if (lazyValue == null) {
-                                lazyValue = NULL_VALUE;
-                            }
-                            synchronized (lazyCache) {
-                                objectCache.put(prop.getId(), lazyValue);
-                            }
-                        } catch (Throwable e) {
-                            if (e instanceof InvocationTargetException) {
-                                e = ((InvocationTargetException) e).getTargetException();
-                            }
-                            log.error("Error reading property '" + prop.getId() + "' from " + object, e); //$NON-NLS-1$ //$NON-NLS-2$
-                            // do not return error - it causes a lot of error boxes
-                            //return RuntimeUtils.makeExceptionStatus(e);
+                    loadLazyProperties(monitor, element, objectMap.get(element));
+                    monitor.worked(1);
+                }
+                if (!isDisposed()) {
+                    // Show values of this batch right away
+                    UIUtils.asyncExec(() -> {
+                        if (!isDisposed()) {
+                            itemsViewer.update(elements.toArray(), null);
                         }
-                    }
+                    });
                 }
-                monitor.worked(1);
             }
             monitor.done();
             if (!isDisposed()) {
@@ -1379,6 +1438,53 @@ public abstract class ObjectListControl<OBJECT_TYPE> extends ProgressPageControl
             }
             return Status.OK_STATUS;
         }
+
+        private void loadLazyProperties(DBRProgressMonitor monitor, OBJECT_TYPE element, List<ObjectColumn> columns) {
+            Object object = getObjectValue(element);
+            if (object == null) {
+                return;
+            }
+            Map<String, Object> objectCache;
+            synchronized (lazyCache) {
+                objectCache = lazyCache.get(element);
+                if (objectCache == null) {
+                    objectCache = new HashMap<>();
+                    lazyCache.put(element, objectCache);
+                }
+            }
+            String objectName = GeneralUtils.makeDisplayString(object).toString();
+            monitor.subTask(NLS.bind(UINavigatorMessages.controls_object_list_monitor_load_props, objectName));
+            for (ObjectColumn column : columns) {
+                if (monitor.isCanceled() || isDisposed()) {
+                    break;
+                }
+                ObjectPropertyDescriptor prop = getPropertyByObject(column, object);
+                if (prop != null) {
+                    try {
+                        synchronized (lazyCache) {
+                            if (objectCache.containsKey(prop.getId())) {
+                                // This property already cached
+                                continue;
+                            }
+                        }
+                        Object lazyValue = prop.readValue(object, monitor, false);
+                        if (lazyValue == null) {
+                            lazyValue = NULL_VALUE;
+                        }
+                        synchronized (lazyCache) {
+                            objectCache.put(prop.getId(), lazyValue);
+                        }
+                    } catch (Throwable e) {
+                        if (e instanceof InvocationTargetException) {
+                            e = ((InvocationTargetException) e).getTargetException();
+                        }
+                        log.error("Error reading property '" + prop.getId() + "' from " + object, e); //$NON-NLS-1$ //$NON-NLS-2$
+                        // do not return error - it causes a lot of error boxes
+                        //return RuntimeUtils.makeExceptionStatus(e);
+                    }
+                }
+            }
+        }
     }
 
     protected void addColumnConfigAction(IContributionManager contributionManager) {
@@ -0,0 +1,127 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.data.office.export;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+public class XLSXStreamWriterTest {
+
+    @Test
+    public void shouldReadCellsWithPoi() throws IOException {
+        Date date = new GregorianCalendar(2024, Calendar.MARCH, 15, 13, 45, 30).getTime();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        int fillStyle;
+        try (XLSXStreamWriter writer = new XLSXStreamWriter(
+            buffer, BorderStyle.THIN, DataExporterXLSX.FontStyleProp.BOLD, "yyyy-MM-dd HH:mm:ss")
+        ) {
+            fillStyle = writer.getFillStyle(Color.YELLOW);
+            XLSXStreamWriter.Sheet sheet = writer.createSheet();
+            sheet.startRow(0);
+            sheet.addString(0, "Name", XLSXStreamWriter.STYLE_HEADER);
+            sheet.addString(1, "Value", XLSXStreamWriter.STYLE_HEADER);
+            sheet.endRow();
+            sheet.startRow(1);
+            sheet.addString(0, "<a & \"b\">\u0001\ttab", XLSXStreamWriter.STYLE_CELL);
+            sheet.addNumber(1, 42, XLSXStreamWriter.STYLE_CELL);
+            sheet.addNumber(2, 3.25, XLSXStreamWriter.STYLE_CELL);
+            sheet.addNumber(3, Double.NaN, XLSXStreamWriter.STYLE_CELL);
+            sheet.addBoolean(4, true, XLSXStreamWriter.STYLE_CELL);
+            sheet.addDate(5, date, XLSXStreamWriter.STYLE_DATE);
+            sheet.addBlank(6, XLSXStreamWriter.STYLE_CELL);
+            sheet.addString(7, "filled", fillStyle);
+            sheet.endRow();
+        }
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(buffer.toByteArray()))) {
+            Assert.assertEquals(1, workbook.getNumberOfSheets());
+            Sheet sheet = workbook.getSheetAt(0);
+
+            Cell header = sheet.getRow(0).getCell(0);
+            Assert.assertEquals(CellType.STRING, header.getCellType());
+            Assert.assertEquals("Name", header.getStringCellValue());
+            Assert.assertTrue(workbook.getFontAt(header.getCellStyle().getFontIndex()).getBold());
+            Assert.assertEquals(BorderStyle.THIN, header.getCellStyle().getBorderLeft());
+
+            Row row = sheet.getRow(1);
+            Assert.assertEquals(CellType.STRING, row.getCell(0).getCellType());
+            // Characters not allowed in XML are removed
+            Assert.assertEquals("<a & \"b\">\ttab", row.getCell(0).getStringCellValue());
+            Assert.assertEquals(CellType.NUMERIC, row.getCell(1).getCellType());
+            Assert.assertEquals(42, row.getCell(1).getNumericCellValue(), 0);
+            Assert.assertEquals(3.25, row.getCell(2).getNumericCellValue(), 0);
+            Assert.assertEquals(CellType.STRING, row.getCell(3).getCellType());
+            Assert.assertEquals("NaN", row.getCell(3).getStringCellValue());
+            Assert.assertEquals(CellType.BOOLEAN, row.getCell(4).getCellType());
+            Assert.assertTrue(row.getCell(4).getBooleanCellValue());
+
+            Cell dateCell = row.getCell(5);
+            Assert.assertEquals(CellType.NUMERIC, dateCell.getCellType());
+            Assert.assertTrue(DateUtil.isCellDateFormatted(dateCell));
+            Assert.assertEquals("yyyy-MM-dd HH:mm:ss", dateCell.getCellStyle().getDataFormatString());
+            Assert.assertEquals(date, dateCell.getDateCellValue());
+
+            Assert.assertEquals(CellType.BLANK, row.getCell(6).getCellType());
+            CellStyle filled = row.getCell(7).getCellStyle();
+            Assert.assertEquals(fillStyle, filled.getIndex());
+            Assert.assertEquals(FillPatternType.SOLID_FOREGROUND, filled.getFillPattern());
+        }
+    }
+
+    @Test
+    public void shouldWriteSheetsFilledSimultaneously() throws IOException {
+        final int rowCount = 250;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (XLSXStreamWriter writer = new XLSXStreamWriter(buffer, BorderStyle.NONE, DataExporterXLSX.FontStyleProp.NONE, null)) {
+            XLSXStreamWriter.Sheet first = writer.createSheet();
+            XLSXStreamWriter.Sheet second = writer.createSheet();
+            for (int i = 0; i < rowCount; i++) {
+                // The second sheet is spilled to a temporary file while the first one owns the archive entry
+                for (XLSXStreamWriter.Sheet sheet : new XLSXStreamWriter.Sheet[] { first, second }) {
+                    sheet.startRow(i);
+                    sheet.addString(0, sheet.getName() + " row " + i, XLSXStreamWriter.STYLE_CELL);
+                    sheet.addNumber(1, i, XLSXStreamWriter.STYLE_CELL);
+                    sheet.endRow();
+                }
+            }
+        }
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(buffer.toByteArray()))) {
+            Assert.assertEquals(2, workbook.getNumberOfSheets());
+            for (int s = 0; s < 2; s++) {
+                Sheet sheet = workbook.getSheetAt(s);
+                Assert.assertEquals("Sheet" + s, sheet.getSheetName());
+                Assert.assertEquals(rowCount - 1, sheet.getLastRowNum());
+                for (int i = 0; i < rowCount; i++) {
+                    Row row = sheet.getRow(i);
+                    Assert.assertEquals("Sheet" + s + " row " + i, row.getCell(0).getStringCellValue());
+                    Assert.assertEquals(i, row.getCell(1).getNumericCellValue(), 0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.dpi.model.channel;
+
+import com.google.gson.Gson;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.dpi.model.DPIContext;
+import org.jkiss.dbeaver.dpi.model.client.DPIClientProxy;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.dpi.DPIController;
+import org.jkiss.dbeaver.model.dpi.DPIDataSourceParameters;
+import org.jkiss.dbeaver.model.dpi.DPIResultPage;
+import org.jkiss.dbeaver.model.dpi.DPISession;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.utils.IOUtils;
+import org.jkiss.utils.rest.RestClient;
+import org.jkiss.utils.rest.RestServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DPIChannelTest {
+
+    private static final int CALL_COUNT = 2000;
+    private static final int THREAD_COUNT = 8;
+    private static final int RESULT_ROW_COUNT = 450;
+    // Test server returns less rows than the client asks for
+    private static final int MAX_PAGE_ROWS = 150;
+
+    private final Gson gson = new Gson();
+    private TestController controller;
+    private DPIChannelServer server;
+    private DPIChannelClient client;
+
+    @Before
+    public void init() throws Exception {
+        controller = new TestController();
+        server = new DPIChannelServer(controller, gson, 0);
+        client = new DPIChannelClient(server.getPort(), gson, null);
+    }
+
+    @After
+    public void shutdown() {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void shouldInvokeControllerMethods() throws Exception {
+        Assert.assertEquals("pong", client.ping());
+        Assert.assertEquals("s1", client.openSession().getSessionId());
+        Assert.assertEquals("obj.echo(a,2)", client.callMethod("obj", "echo", new Object[] {"a", 2}));
+        Assert.assertEquals("obj.echo()", client.callMethod("obj", "echo", null));
+        client.closeSession("s1");
+        Assert.assertEquals("s1", controller.closedSession);
+
+        DBException error = Assert.assertThrows(DBException.class, () -> client.readProperty("obj", "missing"));
+        Assert.assertEquals("Property 'missing' not found", error.getMessage());
+        // Channel still works after remote error
+        Assert.assertEquals("pong", client.ping());
+    }
+
+    @Test
+    public void shouldTransferResultPageByColumns() throws Exception {
+        DPIResultPage page = client.fetchResultPage("rs", 0, 3);
+        Assert.assertEquals(3, page.getRowCount());
+        Assert.assertEquals(2, page.getColumnCount());
+        Assert.assertEquals("row1", page.getValue(1, 1));
+        Assert.assertEquals(2.0, ((Number) page.getValue(2, 0)).doubleValue(), 0);
+        Assert.assertFalse(page.isLastPage());
+
+        page = client.fetchResultPage("rs", 5, 1000);
+        Assert.assertEquals(5, page.getOffset());
+        Assert.assertEquals(MAX_PAGE_ROWS, page.getRowCount());
+        Assert.assertEquals(5 + MAX_PAGE_ROWS, page.getNextOffset());
+        Assert.assertEquals("row5", page.getValue(0, 1));
+    }
+
+    @Test
+    public void shouldReadResultSetByPages() throws Exception {
+        DPIContext context = new DPIContext(new VoidProgressMonitor(), this);
+        context.setController(client);
+        DBCResultSet resultSet = (DBCResultSet) new DPIClientProxy(
+            context, new Class[] {DBCResultSet.class}, "rs", null, "rs", null, null, null).getObjectInstance();
+        int rowCount = 0;
+        while (resultSet.nextRow()) {
+            Assert.assertEquals(rowCount, ((Number) resultSet.getAttributeValue(0)).intValue());
+            Assert.assertEquals("row" + rowCount, resultSet.getAttributeValue(1));
+            rowCount++;
+        }
+        Assert.assertFalse(resultSet.nextRow());
+        Assert.assertEquals(RESULT_ROW_COUNT, rowCount);
+        // One round trip per page instead of one per row and value.
+        // Pages are shorter than requested, so the next offset comes from the server.
+        Assert.assertEquals(List.of(0L, (long) MAX_PAGE_ROWS, 2L * MAX_PAGE_ROWS), controller.getPageOffsets());
+        Assert.assertEquals(0, controller.callCount.get());
+    }
+
+    @Test
+    public void shouldMultiplexConcurrentCalls() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> slowCall = executor.submit(() -> client.callMethod("obj", "slow", null));
+            Assert.assertTrue(controller.slowCallStarted.await(5, TimeUnit.SECONDS));
+            // Slow call doesn't block other calls of the same connection
+            Assert.assertEquals("obj.echo(x)", executor.submit(() -> client.callMethod("obj", "echo", new Object[] {"x"})).get(5, TimeUnit.SECONDS));
+            Assert.assertFalse(slowCall.isDone());
+            controller.slowCallRelease.countDown();
+            Assert.assertEquals("slow", slowCall.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldBatchPostedCalls() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            client.postMethod("obj", "echo", new Object[] {i});
+        }
+        client.flush();
+        // Posts are executed before the request sent after them
+        Assert.assertEquals("pong", client.ping());
+        Assert.assertEquals(100, controller.callCount.get());
+    }
+
+    @Test
+    public void shouldExecutePostsInOrderBeforeNextRequest() throws Exception {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < DPIChannelClient.POST_BATCH_SIZE * 3 + 1; i++) {
+            client.postMethod("obj", "record", new Object[] {i});
+            expected.add(i);
+        }
+        Assert.assertEquals("obj.echo(last)", client.callMethod("obj", "echo", new Object[] {"last"}));
+        Assert.assertEquals(expected, controller.getRecordedValues());
+    }
+
+    @Test
+    public void shouldUseFallbackWhenChannelIsClosed() throws Exception {
+        TestController fallback = new TestController();
+        DPIChannelClient fallbackClient = new DPIChannelClient(server.getPort(), gson, fallback);
+        try {
+            Assert.assertEquals("pong", fallbackClient.ping());
+            Assert.assertEquals(0, fallback.callCount.get());
+            server.close();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (fallbackClient.isConnected() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertFalse(fallbackClient.isConnected());
+            Assert.assertEquals("obj.echo(1)", fallbackClient.callMethod("obj", "echo", new Object[] {"1"}));
+            Assert.assertEquals(1, fallback.callCount.get());
+        } finally {
+            fallbackClient.close();
+        }
+        Assert.assertThrows(DBException.class, () -> client.callMethod("obj", "echo", null));
+    }
+
+    @Test
+    public void shouldMatchResponsesOfConcurrentRequests() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREAD_COUNT; t++) {
+                String prefix = "t" + t + "-";
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < CALL_COUNT / THREAD_COUNT; i++) {
+                        Assert.assertEquals("obj.echo(" + prefix + i + ")", client.callMethod("obj", "echo", new Object[] {prefix + i}));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(CALL_COUNT, controller.callCount.get());
+    }
+
+    @Test
+    public void shouldReturnSameResultsAsRest() throws Exception {
+        int restPort = IOUtils.findFreePort(20000, 65000);
+        RestServer<?> restServer = RestServer
+            .builder(DPIController.class, controller)
+            .setFilter(address -> address.getAddress().isLoopbackAddress())
+            .setPort(restPort)
+            .setGson(gson)
+            .create();
+        DPIController restClient = RestClient
+            .builder(new URI("http://localhost:" + restPort + "/"), DPIController.class)
+            .setGson(gson)
+            .create();
+        try {
+            Assert.assertEquals(restClient.ping(), client.ping());
+            Object[] args = {"a", 2};
+            Assert.assertEquals(restClient.callMethod("obj", "echo", args), client.callMethod("obj", "echo", args));
+            Assert.assertEquals(restClient.callMethod("obj", "echo", null), client.callMethod("obj", "echo", null));
+        } finally {
+            restClient.close();
+            restServer.stop(0);
+        }
+    }
+
+    private static class TestController implements DPIController {
+        private final AtomicInteger callCount = new AtomicInteger();
+        private final List<Integer> recordedValues = new ArrayList<>();
+        private final List<Long> pageOffsets = new ArrayList<>();
+        private final CountDownLatch slowCallStarted = new CountDownLatch(1);
+        private final CountDownLatch slowCallRelease = new CountDownLatch(1);
+        private volatile String closedSession;
+
+        @Override
+        public String ping() {
+            return "pong";
+        }
+
+        @Override
+        public DPISession openSession() {
+            return new DPISession("s1");
+        }
+
+        @NotNull
+        @Override
+        public DBPDataSource openDataSource(@NotNull DPIDataSourceParameters parameters) throws DBException {
+            throw new DBException("Not supported");
+        }
+
+        @Override
+        public void closeSession(@NotNull String sessionId) {
+            closedSession = sessionId;
+        }
+
+        @Override
+        public Object callMethod(@NotNull String objectId, @NotNull String method, @Nullable Object[] args) throws DBException {
+            if (method.equals("slow")) {
+                slowCallStarted.countDown();
+                try {
+                    if (!slowCallRelease.await(10, TimeUnit.SECONDS)) {
+                        throw new DBException("Timeout");
+                    }
+                } catch (InterruptedException e) {
+                    throw new DBException("Interrupted", e);
+                }
+                return "slow";
+            }
+            if (method.equals("record")) {
+                synchronized (recordedValues) {
+                    recordedValues.add(((Number) args[0]).intValue());
+                }
+                return null;
+            }
+            callCount.incrementAndGet();
+            StringBuilder result = new StringBuilder(objectId).append('.').append(method).append('(');
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    if (i > 0) {
+                        result.append(',');
+                    }
+                    Object arg = args[i];
+                    result.append(arg instanceof Double d && d == Math.rint(d) ? String.valueOf(d.longValue()) : arg);
+                }
+            }
+            return result.append(')').toString();
+        }
+
+        List<Integer> getRecordedValues() {
+            synchronized (recordedValues) {
+                return new ArrayList<>(recordedValues);
+            }
+        }
+
+        @Override
+        public Object readProperty(@NotNull String objectId, @NotNull String propertyName) throws DBException {
+            throw new DBException("Property '" + propertyName + "' not found");
+        }
+
+        @NotNull
+        @Override
+        public DPIResultPage fetchResultPage(@NotNull String resultSetId, long offset, int maxRows) {
+            synchronized (pageOffsets) {
+                pageOffsets.add(offset);
+            }
+            int firstRow = (int) Math.max(offset, 0);
+            int rowCount = Math.max(0, Math.min(Math.min(maxRows, MAX_PAGE_ROWS), RESULT_ROW_COUNT - firstRow));
+            Object[][] columns = new Object[2][rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                columns[0][i] = firstRow + i;
+                columns[1][i] = "row" + (firstRow + i);
+            }
+            return new DPIResultPage(firstRow, rowCount, columns, firstRow + rowCount >= RESULT_ROW_COUNT);
+        }
+
+        List<Long> getPageOffsets() {
+            synchronized (pageOffsets) {
+                return new ArrayList<>(pageOffsets);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.erd.model.layout;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class ERDLayeredLayoutTest {
+
+    @Test
+    public void shouldPlaceSourcesBeforeTargets() {
+        ERDLayeredLayout layout = new ERDLayeredLayout(50, 20);
+        for (int i = 0; i < 5; i++) {
+            layout.addNode(100, 60);
+        }
+        layout.addEdge(0, 1);
+        layout.addEdge(1, 2);
+        layout.addEdge(3, 2);
+        layout.addEdge(2, 4);
+        layout.layout();
+
+        Assert.assertTrue(layout.getX(0) < layout.getX(1));
+        Assert.assertTrue(layout.getX(1) < layout.getX(2));
+        Assert.assertTrue(layout.getX(3) < layout.getX(2));
+        Assert.assertTrue(layout.getX(2) < layout.getX(4));
+        // Source node is moved next to its target instead of the first layer
+        Assert.assertEquals(layout.getX(1), layout.getX(3));
+        assertNoOverlaps(layout, 100, 60);
+    }
+
+    @Test
+    public void shouldBreakCycles() {
+        ERDLayeredLayout layout = new ERDLayeredLayout(50, 20);
+        for (int i = 0; i < 3; i++) {
+            layout.addNode(100, 60);
+        }
+        layout.addEdge(0, 1);
+        layout.addEdge(1, 2);
+        layout.addEdge(2, 0);
+        layout.addEdge(1, 1);
+        layout.layout();
+
+        assertNoOverlaps(layout, 100, 60);
+    }
+
+    @Test
+    public void shouldLayoutLargeSchema() {
+        int tableCount = 3000;
+        ERDLayeredLayout layout = new ERDLayeredLayout(50, 20);
+        for (int i = 0; i < tableCount; i++) {
+            layout.addNode(150, 100);
+        }
+        // A few hubs referenced by many tables, chains of tables and some isolated tables
+        Random random = new Random(1);
+        for (int i = 0; i < tableCount - 500; i++) {
+            layout.addEdge(i, random.nextInt(10) == 0 ? random.nextInt(20) : random.nextInt(tableCount - 500));
+        }
+
+        layout.layout();
+
+        assertNoOverlaps(layout, 150, 100);
+        // Components are packed rather than placed in one row or column
+        Assert.assertTrue(layout.getTotalWidth() < layout.getTotalHeight() * 10);
+        Assert.assertTrue(layout.getTotalHeight() < layout.getTotalWidth() * 10);
+    }
+
+    private static void assertNoOverlaps(ERDLayeredLayout layout, int width, int height) {
+        for (int i = 0; i < layout.getNodeCount(); i++) {
+            Assert.assertTrue(layout.getX(i) >= 0 && layout.getY(i) >= 0);
+            for (int k = i + 1; k < layout.getNodeCount(); k++) {
+                boolean overlaps = Math.abs(layout.getX(i) - layout.getX(k)) < width &&
+                    Math.abs(layout.getY(i) - layout.getY(k)) < height;
+                Assert.assertFalse("Nodes " + i + " and " + k + " overlap", overlaps);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.admin.sessions;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class DBAServerSessionHistoryTest {
+
+    @Test
+    public void shouldCountOnlyActiveSessions() {
+        var history = new DBAServerSessionHistory(100);
+        history.addSample(1000, List.of(
+            new TestSession(true, "select 1", "IO:DataFileRead"),
+            new TestSession(false, "select 2", null),
+            new TestSession(true, "select 1", "Lock:tuple")));
+        Assert.assertEquals(2, history.getSampleCount());
+
+        List<DBAServerSessionHistory.ActivityStat> queries = history.getTopQueries(0, 10);
+        Assert.assertEquals(1, queries.size());
+        Assert.assertEquals("select 1", queries.get(0).getName());
+        Assert.assertEquals(100.0, queries.get(0).getPercent(), 0.0);
+        Assert.assertEquals(2, history.getTopWaits(0, 10).size());
+    }
+
+    @Test
+    public void shouldSortTopWaitsAndFilterByTime() {
+        var history = new DBAServerSessionHistory(100);
+        history.addSample(1000, List.of(new TestSession(true, "q1", "old")));
+        for (int i = 0; i < 3; i++) {
+            history.addSample(2000 + i, List.of(
+                new TestSession(true, "q1", "CPU"),
+                new TestSession(true, "q2", i == 0 ? "Lock" : "CPU")));
+        }
+        List<DBAServerSessionHistory.ActivityStat> waits = history.getTopWaits(2000, 10);
+        Assert.assertEquals(2, waits.size());
+        Assert.assertEquals("CPU", waits.get(0).getName());
+        Assert.assertEquals(5, waits.get(0).getSamples());
+        Assert.assertEquals("Lock", waits.get(1).getName());
+    }
+
+    @Test
+    public void shouldOverwriteOldestSamples() {
+        var history = new DBAServerSessionHistory(10);
+        for (int i = 0; i < 25; i++) {
+            history.addSample(i, List.of(new TestSession(true, "q" + i, null)));
+        }
+        Assert.assertEquals(10, history.getSampleCount());
+        Assert.assertEquals(15, history.getFirstSampleTime());
+        Assert.assertEquals(10, history.getTopQueries(0, 100).size());
+    }
+
+    @Test
+    public void shouldCountQueryWithSentinelHash() {
+        final String query = "select fjoy_6h";
+        Assert.assertEquals(-1, query.hashCode());
+        var history = new DBAServerSessionHistory(10);
+        history.addSample(1000, List.of(new TestSession(true, query, null)));
+        List<DBAServerSessionHistory.ActivityStat> queries = history.getTopQueries(0, 10);
+        Assert.assertEquals(1, queries.size());
+        Assert.assertEquals(query, queries.get(0).getName());
+        Assert.assertEquals(1, queries.get(0).getSamples());
+    }
+
+    private static class TestSession implements DBAServerSessionActivity {
+        private final boolean active;
+        private final String query;
+        private final String waitEvent;
+
+        TestSession(boolean active, String query, String waitEvent) {
+            this.active = active;
+            this.query = query;
+            this.waitEvent = waitEvent;
+        }
+
+        @Override
+        public boolean isSessionActive() {
+            return active;
+        }
+
+        @Override
+        public String getSessionState() {
+            return active ? "active" : "idle";
+        }
+
+        @Override
+        public String getSessionWaitEvent() {
+            return waitEvent;
+        }
+
+        @Override
+        public String getActiveQuery() {
+            return query;
+        }
+
+        @Override
+        public Object getActiveQueryId() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.ai.metadata;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.ai.format.IAIFormatter;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNEvent;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.jkiss.dbeaver.model.struct.rdb.DBSTable;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SchemaDigestTest {
+
+    private static final int TABLE_COUNT = 10_000;
+
+    @Test
+    public void shouldRankReferencedTablesFirst() {
+        SchemaDigest digest = createDigest(TABLE_COUNT);
+        int maxTokens = 200;
+
+        String text = digest.render("select c.name from customer_9875 c join table_42 t on t.id = c.id", maxTokens);
+
+        // Both referenced tables go first in their original order
+        Assert.assertTrue(text.startsWith(describe(42) + describe(9875)));
+        Assert.assertTrue(text.length() <= maxTokens * SchemaDigest.CHARS_PER_TOKEN);
+    }
+
+    @Test
+    public void shouldKeepOriginalOrderWithoutQuery() {
+        SchemaDigest digest = createDigest(TABLE_COUNT);
+
+        String text = digest.render(null, 100);
+
+        Assert.assertTrue(text.startsWith(describe(0) + describe(1)));
+        Assert.assertTrue(text.length() <= 100 * SchemaDigest.CHARS_PER_TOKEN);
+        Assert.assertEquals("", digest.render("select 1", 0));
+    }
+
+    @Test
+    public void shouldInvalidateCacheOnNavigatorEvents() throws Exception {
+        DBPDataSourceContainer dataSourceContainer = Mockito.mock(DBPDataSourceContainer.class);
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        Mockito.when(dataSource.getContainer()).thenReturn(dataSourceContainer);
+        DBSObjectContainer schema = Mockito.mock(DBSObjectContainer.class);
+        Mockito.when(schema.getDataSource()).thenReturn(dataSource);
+        DBSTable table = Mockito.mock(DBSTable.class);
+        Mockito.when(table.getDataSource()).thenReturn(dataSource);
+        Mockito.when(table.getParentObject()).thenReturn(schema);
+        DBNDatabaseNode tableNode = Mockito.mock(DBNDatabaseNode.class);
+        Mockito.when(tableNode.getObject()).thenReturn(table);
+        IAIFormatter formatter = Mockito.mock(IAIFormatter.class);
+
+        SchemaDigestCache cache = new SchemaDigestCache();
+        AtomicInteger buildCount = new AtomicInteger();
+        SchemaDigestCache.DigestBuilder builder = container -> {
+            buildCount.incrementAndGet();
+            return createDigest(TABLE_COUNT);
+        };
+
+        DBRProgressMonitor monitor = new VoidProgressMonitor();
+        SchemaDigest digest = cache.getDigest(monitor, schema, formatter, null, schema, 100, builder);
+        Assert.assertSame(digest, cache.getDigest(monitor, schema, formatter, null, schema, 100, builder));
+        Assert.assertEquals(1, buildCount.get());
+
+        // Different default schema changes names qualification
+        cache.getDigest(monitor, schema, formatter, null, null, 100, builder);
+        Assert.assertEquals(2, buildCount.get());
+        Assert.assertEquals(2, cache.getDigestCount());
+
+        cache.nodeChanged(new DBNEvent(this, DBNEvent.Action.UPDATE, DBNEvent.NodeChange.SELECT, tableNode));
+        Assert.assertEquals(2, cache.getDigestCount());
+
+        cache.nodeChanged(new DBNEvent(this, DBNEvent.Action.UPDATE, DBNEvent.NodeChange.REFRESH, tableNode));
+        Assert.assertEquals(0, cache.getDigestCount());
+        Assert.assertNotSame(digest, cache.getDigest(monitor, schema, formatter, null, schema, 100, builder));
+        Assert.assertEquals(3, buildCount.get());
+    }
+
+    @Test
+    public void shouldInvalidateOnlyAffectedContainers() throws Exception {
+        DBPDataSourceContainer dataSourceContainer = Mockito.mock(DBPDataSourceContainer.class);
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        Mockito.when(dataSource.getContainer()).thenReturn(dataSourceContainer);
+        DBSObjectContainer catalog = Mockito.mock(DBSObjectContainer.class);
+        Mockito.when(catalog.getDataSource()).thenReturn(dataSource);
+        DBSObjectContainer schema1 = Mockito.mock(DBSObjectContainer.class);
+        Mockito.when(schema1.getDataSource()).thenReturn(dataSource);
+        Mockito.when(schema1.getParentObject()).thenReturn(catalog);
+        DBSObjectContainer schema2 = Mockito.mock(DBSObjectContainer.class);
+        Mockito.when(schema2.getDataSource()).thenReturn(dataSource);
+        Mockito.when(schema2.getParentObject()).thenReturn(catalog);
+        DBSTable table = Mockito.mock(DBSTable.class);
+        Mockito.when(table.getDataSource()).thenReturn(dataSource);
+        Mockito.when(table.getParentObject()).thenReturn(schema1);
+        DBNDatabaseNode tableNode = Mockito.mock(DBNDatabaseNode.class);
+        Mockito.when(tableNode.getObject()).thenReturn(table);
+        DBNDatabaseNode dataSourceNode = Mockito.mock(DBNDatabaseNode.class);
+        Mockito.when(dataSourceNode.getObject()).thenReturn(dataSourceContainer);
+        IAIFormatter formatter = Mockito.mock(IAIFormatter.class);
+
+        SchemaDigestCache cache = new SchemaDigestCache();
+        DBRProgressMonitor monitor = new VoidProgressMonitor();
+        SchemaDigestCache.DigestBuilder builder = container -> createDigest(10);
+        SchemaDigest catalogDigest = cache.getDigest(monitor, catalog, formatter, null, null, 100, builder);
+        SchemaDigest schema1Digest = cache.getDigest(monitor, schema1, formatter, null, null, 100, builder);
+        SchemaDigest schema2Digest = cache.getDigest(monitor, schema2, formatter, null, null, 100, builder);
+        Assert.assertEquals(3, cache.getDigestCount());
+
+        // Loading of nodes doesn't change metadata
+        cache.nodeChanged(new DBNEvent(this, DBNEvent.Action.UPDATE, DBNEvent.NodeChange.LOAD, tableNode));
+        Assert.assertEquals(3, cache.getDigestCount());
+
+        // Table refresh affects digests of its schema and catalog only
+        cache.nodeChanged(new DBNEvent(this, DBNEvent.Action.UPDATE, DBNEvent.NodeChange.REFRESH, tableNode));
+        Assert.assertEquals(1, cache.getDigestCount());
+        Assert.assertSame(schema2Digest, cache.getDigest(monitor, schema2, formatter, null, null, 100, builder));
+        Assert.assertNotSame(schema1Digest, cache.getDigest(monitor, schema1, formatter, null, null, 100, builder));
+        Assert.assertNotSame(catalogDigest, cache.getDigest(monitor, catalog, formatter, null, null, 100, builder));
+
+        // Removed datasource drops all its digests
+        cache.nodeChanged(new DBNEvent(this, DBNEvent.Action.REMOVE, dataSourceNode));
+        Assert.assertEquals(0, cache.getDigestCount());
+    }
+
+    @Test
+    public void shouldNotCacheDigestOfCanceledMonitor() throws Exception {
+        DBPDataSourceContainer dataSourceContainer = Mockito.mock(DBPDataSourceContainer.class);
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        Mockito.when(dataSource.getContainer()).thenReturn(dataSourceContainer);
+        DBSObjectContainer schema = Mockito.mock(DBSObjectContainer.class);
+        Mockito.when(schema.getDataSource()).thenReturn(dataSource);
+        IAIFormatter formatter = Mockito.mock(IAIFormatter.class);
+        DBRProgressMonitor monitor = Mockito.mock(DBRProgressMonitor.class);
+        Mockito.when(monitor.isCanceled()).thenReturn(true);
+
+        SchemaDigestCache cache = new SchemaDigestCache();
+        cache.getDigest(monitor, schema, formatter, null, null, 100, container -> createDigest(10));
+        Assert.assertEquals(0, cache.getDigestCount());
+    }
+
+    private static SchemaDigest createDigest(int tableCount) {
+        List<SchemaDigest.Entry> entries = new ArrayList<>(tableCount);
+        for (int i = 0; i < tableCount; i++) {
+            entries.add(new SchemaDigest.Entry(getTableName(i), List.of("id", "name", "value_" + i), describe(i)));
+        }
+        return new SchemaDigest(entries);
+    }
+
+    private static String getTableName(int index) {
+        return index % 2 == 0 ? "table_" + index : "customer_" + index;
+    }
+
+    private static String describe(int index) {
+        return "\nCreate Table: " + getTableName(index) + "(\n\tid integer,\n\tname varchar,\n\tvalue_" + index + " numeric\n);";
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FunctionCountDistinctApproxTest {
+
+    @Test
+    public void shouldCountSmallSet() {
+        var distinctFunc = new FunctionCountDistinctApprox();
+        for (int i = 0; i < 1000; i++) {
+            distinctFunc.accumulate("value" + (i % 50), false);
+        }
+        distinctFunc.accumulate(null, false);
+        Assert.assertEquals(51.0, (Long) distinctFunc.getResult(1001), 2.0);
+    }
+
+    @Test
+    public void shouldEstimateBigSet() {
+        var distinctFunc = new FunctionCountDistinctApprox();
+        for (long i = 0; i < 1_000_000; i++) {
+            distinctFunc.accumulate(i % 200_000, false);
+        }
+        long result = (Long) distinctFunc.getResult(1_000_000);
+        Assert.assertEquals(200_000.0, result, 200_000 * 0.05);
+    }
+}
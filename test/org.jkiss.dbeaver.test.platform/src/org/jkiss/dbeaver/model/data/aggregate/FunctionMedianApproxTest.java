@@ -0,0 +1,52 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class FunctionMedianApproxTest {
+
+    @Test
+    public void shouldGetExactMedianForFewValues() {
+        var medianFunc = new FunctionMedianApprox();
+        Arrays.asList(5, 1, 3, 10).forEach(value -> medianFunc.accumulate(value, false));
+        Assert.assertEquals(4.0, (Double) medianFunc.getResult(4), 0.0);
+    }
+
+    @Test
+    public void shouldSkipNonNumericValues() {
+        var medianFunc = new FunctionMedianApprox();
+        Assert.assertFalse(medianFunc.accumulate("abc", false));
+        Assert.assertFalse(medianFunc.accumulate(null, false));
+        Assert.assertNull(medianFunc.getResult(0));
+    }
+
+    @Test
+    public void shouldEstimateMedianOfBigSet() {
+        var medianFunc = new FunctionMedianApprox();
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            medianFunc.accumulate(random.nextDouble() * 1000, false);
+        }
+        Assert.assertEquals(500.0, (Double) medianFunc.getResult(100_000), 10.0);
+    }
+}
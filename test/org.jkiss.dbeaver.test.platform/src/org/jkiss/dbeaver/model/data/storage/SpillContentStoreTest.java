@@ -0,0 +1,177 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.storage;
+
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class SpillContentStoreTest {
+
+    private static final int VALUE_SIZE = 64 * 1024;
+
+    private Path folder;
+
+    @Before
+    public void createFolder() throws IOException {
+        folder = Files.createTempDirectory("spill-test");
+    }
+
+    @After
+    public void deleteFolder() {
+        ContentUtils.deleteFileRecursive(folder);
+    }
+
+    @Test
+    public void shouldDeduplicateIdenticalValues() throws IOException {
+        SpillContentStore store = new SpillContentStore(folder, SpillContentStore.DEFAULT_SEGMENT_SIZE, Long.MAX_VALUE);
+        byte[] value = createValue(1);
+        List<SpillContentStorage> storages = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            storages.add(writeValue(store, value));
+        }
+
+        Assert.assertEquals(1, store.getEntryCount());
+        Assert.assertEquals(1, store.getSegmentCount());
+        Assert.assertEquals(VALUE_SIZE, store.getTotalSize());
+        try (Stream<Path> files = Files.list(folder)) {
+            Assert.assertEquals(1, files.count());
+        }
+        Assert.assertArrayEquals(value, readValue(storages.get(999)));
+        ByteBuffer buffer = storages.get(500).getContentBuffer();
+        byte[] mapped = new byte[buffer.remaining()];
+        buffer.get(mapped);
+        Assert.assertArrayEquals(value, mapped);
+
+        storages.forEach(SpillContentStorage::release);
+        // Unreferenced value is kept for reuse while store is under the limit
+        Assert.assertEquals(1, store.getEntryCount());
+    }
+
+    @Test
+    public void shouldEvictUnreferencedValuesOverLimit() throws IOException {
+        long maxSize = 16L * VALUE_SIZE;
+        SpillContentStore store = new SpillContentStore(folder, 4L * VALUE_SIZE, maxSize);
+        byte[] firstValue = createValue(0);
+        SpillContentStorage firstStorage = writeValue(store, firstValue);
+        for (int i = 1; i < 100; i++) {
+            writeValue(store, createValue(i)).release();
+            Assert.assertTrue(store.getDiskSize() <= maxSize);
+            Assert.assertTrue(getSegmentFilesSize() <= maxSize);
+        }
+        // Pinned value keeps its segment only
+        Assert.assertTrue(store.getSegmentCount() > 1);
+        int entryCount = store.getEntryCount();
+        writeValue(store, createValue(99)).release();
+        Assert.assertEquals(entryCount, store.getEntryCount());
+
+        // Referenced value must survive eviction
+        Assert.assertArrayEquals(firstValue, readValue(firstStorage));
+        DBDContentStorage copy = firstStorage.cloneStorage(new VoidProgressMonitor());
+        firstStorage.release();
+        try (Reader reader = copy.getContentReader()) {
+            Assert.assertEquals(VALUE_SIZE, ContentUtils.calculateContentLength(reader));
+        }
+        copy.release();
+    }
+
+    @Test
+    public void shouldDiscardUncommittedValues() throws IOException {
+        SpillContentStore store = new SpillContentStore(folder, SpillContentStore.DEFAULT_SEGMENT_SIZE, Long.MAX_VALUE);
+        SpillContentStorage storage = writeValue(store, createValue(1));
+        try (SpillContentStore.ContentWriter writer = store.openWriter()) {
+            writer.write(createValue(2));
+        }
+        Assert.assertEquals(1, store.getEntryCount());
+        Assert.assertEquals(VALUE_SIZE, store.getTotalSize());
+        try (Stream<Path> files = Files.list(folder)) {
+            Assert.assertEquals(1, files.count());
+        }
+
+        byte[] text = "Some text value".getBytes(StandardCharsets.UTF_8);
+        SpillContentStorage textStorage = writeValue(store, text);
+        Assert.assertArrayEquals(createValue(1), readValue(storage));
+        Assert.assertArrayEquals(text, readValue(textStorage));
+        storage.release();
+        textStorage.release();
+    }
+
+    @Test
+    public void shouldKeepMappedSegmentsOnDuplicates() throws IOException {
+        SpillContentStore store = new SpillContentStore(folder, SpillContentStore.DEFAULT_SEGMENT_SIZE, Long.MAX_VALUE);
+        byte[] value = createValue(3);
+        SpillContentStorage storage = writeValue(store, value);
+        ByteBuffer buffer = storage.getContentBuffer();
+        long diskSize = store.getDiskSize();
+
+        SpillContentStorage duplicate = writeValue(store, value);
+        Assert.assertEquals(diskSize, store.getDiskSize());
+        byte[] mapped = new byte[buffer.remaining()];
+        buffer.get(mapped);
+        Assert.assertArrayEquals(value, mapped);
+        Assert.assertArrayEquals(value, readValue(duplicate));
+        storage.release();
+        duplicate.release();
+    }
+
+    private long getSegmentFilesSize() throws IOException {
+        long size = 0;
+        try (Stream<Path> files = Files.list(folder)) {
+            for (Path file : files.toList()) {
+                size += Files.size(file);
+            }
+        }
+        return size;
+    }
+
+    private static SpillContentStorage writeValue(SpillContentStore store, byte[] value) throws IOException {
+        try (SpillContentStore.ContentWriter writer = store.openWriter()) {
+            writer.write(value);
+            return writer.commit(StandardCharsets.UTF_8.name());
+        }
+    }
+
+    private static byte[] readValue(DBDContentStorage storage) throws IOException {
+        try (InputStream is = storage.getContentStream()) {
+            return is.readAllBytes();
+        }
+    }
+
+    private static byte[] createValue(int seed) {
+        byte[] value = new byte[VALUE_SIZE];
+        Arrays.fill(value, (byte) ('a' + seed % 26));
+        value[0] = (byte) seed;
+        value[1] = (byte) (seed >> 8);
+        return value;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.exec;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class DBCExecutionContextPoolTest {
+
+    private static final String RESET_QUERY = "DISCARD ALL";
+    private static final Pattern SET_PATTERN = Pattern.compile("SET (\\w+) = (.+)");
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+    private final List<DBCExecutionContext> openedContexts = new ArrayList<>();
+    // Server session variables of opened contexts
+    private final Map<DBCExecutionContext, Map<String, String>> sessionVariables = new IdentityHashMap<>();
+    private String sessionResetQuery = RESET_QUERY;
+    private DBSInstance instance;
+    private DBCExecutionContextPool pool;
+
+    @Before
+    public void setUp() throws DBException {
+        instance = Mockito.mock(DBSInstance.class);
+        Mockito.when(instance.openIsolatedContext(Mockito.any(), Mockito.anyString(), Mockito.any()))
+            .thenAnswer(invocation -> createContext());
+        pool = new DBCExecutionContextPool(2, 60_000);
+    }
+
+    @Test
+    public void shouldReuseReleasedContext() throws DBException {
+        for (int i = 0; i < 100; i++) {
+            DBCExecutionContext context = pool.acquire(monitor, instance, "Test", null);
+            pool.release(monitor, context);
+        }
+
+        Assert.assertEquals(1, openedContexts.size());
+        Assert.assertEquals(99, pool.getHitCount());
+        Assert.assertEquals(1, pool.getMissCount());
+        Assert.assertEquals(0.99, pool.getHitRate(), 0.0001);
+        Mockito.verify(openedContexts.get(0), Mockito.times(99)).checkContextAlive(monitor);
+        Mockito.verify(openedContexts.get(0), Mockito.never()).close();
+    }
+
+    @Test
+    public void shouldResetSessionStateOnRelease() throws DBException {
+        DBCExecutionContext context = pool.acquire(monitor, instance, "Test", null);
+        DBCTransactionManager txnManager = (DBCTransactionManager) context;
+        txnManager.setAutoCommit(monitor, false);
+
+        pool.release(monitor, context);
+
+        Mockito.verify(txnManager).rollback(Mockito.any(), Mockito.isNull());
+        Assert.assertTrue(txnManager.isAutoCommit());
+        Assert.assertSame(context, pool.acquire(monitor, instance, "Test", null));
+    }
+
+    @Test
+    public void shouldResetSessionVariablesOnRelease() throws DBException {
+        DBCExecutionContext context = pool.acquire(monitor, instance, "Test", null);
+        executeQuery(context, "SET work_mem = '1GB'");
+        Assert.assertEquals("'1GB'", sessionVariables.get(context).get("work_mem"));
+
+        pool.release(monitor, context);
+
+        Assert.assertSame(context, pool.acquire(monitor, instance, "Test", null));
+        Assert.assertTrue(sessionVariables.get(context).isEmpty());
+    }
+
+    @Test
+    public void shouldNotPoolContextsWithoutSessionReset() throws DBException {
+        sessionResetQuery = null;
+        DBCExecutionContext context = pool.acquire(monitor, instance, "Test", null);
+        executeQuery(context, "SET work_mem = '1GB'");
+
+        pool.release(monitor, context);
+
+        Mockito.verify(context).close();
+        Assert.assertEquals(0, pool.getIdleCount());
+        Assert.assertNotSame(context, pool.acquire(monitor, instance, "Test", null));
+    }
+
+    @Test
+    public void shouldDiscardBrokenContext() throws DBException {
+        DBCExecutionContext context = pool.acquire(monitor, instance, "Test", null);
+        pool.release(monitor, context);
+        Mockito.doThrow(new DBCException("Connection reset")).when(context).checkContextAlive(monitor);
+
+        DBCExecutionContext newContext = pool.acquire(monitor, instance, "Test", null);
+
+        Assert.assertNotSame(context, newContext);
+        Mockito.verify(context).close();
+        Assert.assertEquals(0, pool.getHitCount());
+    }
+
+    @Test
+    public void shouldBoundIdleContexts() throws DBException {
+        List<DBCExecutionContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            contexts.add(pool.acquire(monitor, instance, "Test", null));
+        }
+        for (DBCExecutionContext context : contexts) {
+            pool.release(monitor, context);
+        }
+
+        Assert.assertEquals(2, pool.getIdleCount());
+        for (int i = 0; i < contexts.size(); i++) {
+            Mockito.verify(contexts.get(i), Mockito.times(i < 2 ? 0 : 1)).close();
+        }
+    }
+
+    @Test
+    public void shouldCloseExpiredContexts() throws DBException {
+        DBCExecutionContext context = pool.acquire(monitor, instance, "Test", null);
+        pool.release(monitor, context);
+
+        Assert.assertTrue(pool.closeIdleContexts(System.currentTimeMillis()) > 0);
+        Assert.assertEquals(0, pool.closeIdleContexts(System.currentTimeMillis() + 60_000));
+        Assert.assertEquals(0, pool.getIdleCount());
+        Mockito.verify(context).close();
+    }
+
+    private static void executeQuery(DBCExecutionContext context, String query) throws DBCException {
+        try (DBCSession session = context.openSession(new VoidProgressMonitor(), DBCExecutionPurpose.USER, "Test")) {
+            try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.SCRIPT, query, false, false, false)) {
+                dbStat.executeStatement();
+            }
+        }
+    }
+
+    private DBCExecutionContext createContext() throws DBCException {
+        DBCExecutionContext context = Mockito.mock(
+            DBCExecutionContext.class,
+            Mockito.withSettings().extraInterfaces(DBCTransactionManager.class));
+        DBCTransactionManager txnManager = (DBCTransactionManager) context;
+        AtomicBoolean autoCommit = new AtomicBoolean(true);
+        Map<String, String> variables = new HashMap<>();
+        sessionVariables.put(context, variables);
+        DBPDataSource dataSource = createDataSource();
+        DBCSession session = Mockito.mock(DBCSession.class);
+        Mockito.when(session.prepareStatement(Mockito.any(), Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean(), Mockito.anyBoolean()))
+            .thenAnswer(invocation -> createStatement(invocation.getArgument(1), variables));
+        Mockito.when(context.isConnected()).thenReturn(true);
+        Mockito.when(context.getDataSource()).thenReturn(dataSource);
+        Mockito.when(context.openSession(Mockito.any(), Mockito.any(), Mockito.anyString())).thenReturn(session);
+        Mockito.when(txnManager.isSupportsTransactions()).thenReturn(true);
+        Mockito.when(txnManager.isAutoCommit()).thenAnswer(invocation -> autoCommit.get());
+        Mockito.doAnswer(invocation -> {
+            autoCommit.set(invocation.getArgument(1));
+            return null;
+        }).when(txnManager).setAutoCommit(Mockito.any(), Mockito.anyBoolean());
+        openedContexts.add(context);
+        return context;
+    }
+
+    private DBPDataSource createDataSource() {
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        Mockito.when(container.getActualConnectionConfiguration()).thenReturn(new DBPConnectionConfiguration());
+        SQLDialect dialect = Mockito.mock(SQLDialect.class);
+        Mockito.when(dialect.getSessionResetQuery()).thenReturn(sessionResetQuery);
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+        return dataSource;
+    }
+
+    /**
+     * Statement which changes server session variables
+     */
+    private static DBCStatement createStatement(String query, Map<String, String> variables) throws DBCException {
+        DBCStatement statement = Mockito.mock(DBCStatement.class);
+        Mockito.when(statement.executeStatement()).thenAnswer(invocation -> {
+            Matcher matcher = SET_PATTERN.matcher(query);
+            if (query.equals(RESET_QUERY)) {
+                variables.clear();
+            } else if (matcher.matches()) {
+                variables.put(matcher.group(1), matcher.group(2));
+            } else {
+                throw new DBCException("Unsupported query: " + query);
+            }
+            return false;
+        });
+        return statement;
+    }
+}
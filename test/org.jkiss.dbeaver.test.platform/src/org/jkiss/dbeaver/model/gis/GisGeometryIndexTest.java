@@ -0,0 +1,146 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.gis;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class GisGeometryIndexTest {
+
+    private final GeometryFactory factory = new GeometryFactory();
+
+    @Test
+    public void shouldQueryViewport() {
+        List<Geometry> geometries = new ArrayList<>();
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 100; x++) {
+                geometries.add(factory.createPoint(new Coordinate(x, y)));
+            }
+        }
+        GisGeometryIndex index = new GisGeometryIndex(geometries);
+        Assert.assertEquals(new Envelope(0, 99, 0, 99), index.getExtent());
+
+        List<GisGeometryIndex.Feature> features = index.query(new Envelope(9.5, 19.5, 9.5, 19.5), 1000);
+        Assert.assertEquals(100, features.size());
+        int prevIndex = -1;
+        for (GisGeometryIndex.Feature feature : features) {
+            Assert.assertTrue(feature.getIndex() > prevIndex);
+            prevIndex = feature.getIndex();
+            Coordinate coordinate = feature.getGeometry().getCoordinate();
+            Assert.assertEquals(geometries.get(feature.getIndex()).getCoordinate(), coordinate);
+            Assert.assertTrue(coordinate.x >= 10 && coordinate.x <= 19);
+            Assert.assertTrue(coordinate.y >= 10 && coordinate.y <= 19);
+        }
+
+        // Viewport outside of the data
+        Assert.assertTrue(index.query(new Envelope(200, 300, 200, 300), 1000).isEmpty());
+        // Whole extent
+        Assert.assertEquals(10000, index.query(null, 10000).size());
+    }
+
+    @Test
+    public void shouldPreferLargerGeometries() {
+        List<Geometry> geometries = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            geometries.add(factory.createPoint(new Coordinate(i, i)));
+        }
+        geometries.add(createSquare(0, 0, 10));
+        geometries.add(createSquare(20, 20, 1));
+        geometries.add(createSquare(30, 30, 5));
+        GisGeometryIndex index = new GisGeometryIndex(geometries);
+
+        Assert.assertEquals(List.of(50, 52), getIndexes(index.query(null, 2)));
+        Assert.assertEquals(List.of(50, 51, 52), getIndexes(index.query(null, 3)));
+    }
+
+    @Test
+    public void shouldSkipNullAndEmptyGeometries() {
+        List<Geometry> geometries = Arrays.asList(
+            factory.createPoint(new Coordinate(1, 1)),
+            null,
+            factory.createPolygon(),
+            factory.createPoint(new Coordinate(2, 2)));
+        GisGeometryIndex index = new GisGeometryIndex(geometries);
+        Assert.assertEquals(4, index.size());
+        Assert.assertEquals(List.of(0, 3), getIndexes(index.query(null, 10)));
+
+        GisGeometryIndex emptyIndex = new GisGeometryIndex(Arrays.asList(null, factory.createPolygon()));
+        Assert.assertTrue(emptyIndex.getExtent().isNull());
+        Assert.assertTrue(emptyIndex.query(null, 10).isEmpty());
+    }
+
+    @Test
+    public void shouldSimplifyByLevelOfDetail() {
+        Geometry circle = factory.createPoint(new Coordinate(0, 0)).buffer(1, 256);
+        GisGeometryIndex index = new GisGeometryIndex(List.of(circle));
+
+        Envelope zoomedViewport = new Envelope(0.99, 1.0, -0.005, 0.005);
+        Assert.assertTrue(index.getLevel(zoomedViewport) > index.getLevel(index.getExtent()));
+
+        Geometry wholeView = index.query(null, 10).get(0).getGeometry();
+        Geometry zoomedView = index.query(zoomedViewport, 10).get(0).getGeometry();
+        Assert.assertTrue(wholeView.getNumPoints() < circle.getNumPoints() / 4);
+        Assert.assertTrue(zoomedView.getNumPoints() > wholeView.getNumPoints());
+        Assert.assertTrue(zoomedView.getNumPoints() <= circle.getNumPoints());
+
+        // Shape is kept
+        Assert.assertTrue(wholeView instanceof Polygon);
+        Assert.assertTrue(wholeView.isValid());
+        Assert.assertEquals(circle.getArea(), wholeView.getArea(), circle.getArea() * 0.01);
+        Assert.assertEquals(circle.getEnvelopeInternal().getWidth(), wholeView.getEnvelopeInternal().getWidth(), 0.01);
+    }
+
+    @Test
+    public void shouldSimplifyGeometry() {
+        LineString line = factory.createLineString(new Coordinate[] {
+            new Coordinate(0, 0), new Coordinate(1, 0.001), new Coordinate(2, 0), new Coordinate(3, 0.001), new Coordinate(4, 0),
+            new Coordinate(5, 0.001), new Coordinate(6, 0)
+        });
+        line.setSRID(4326);
+        Geometry simplified = GisGeometryIndex.simplify(line, 0.01);
+        Assert.assertEquals(2, simplified.getNumPoints());
+        Assert.assertEquals(4326, simplified.getSRID());
+
+        // Nothing to simplify
+        Assert.assertSame(line, GisGeometryIndex.simplify(line, 0));
+        Point point = factory.createPoint(new Coordinate(1, 1));
+        Assert.assertSame(point, GisGeometryIndex.simplify(point, 10));
+
+        // Geometry smaller than tolerance becomes a point
+        Geometry tinyCircle = factory.createPoint(new Coordinate(5, 5)).buffer(0.001, 16);
+        Geometry centroid = GisGeometryIndex.simplify(tinyCircle, 0.01);
+        Assert.assertTrue(centroid instanceof Point);
+        Assert.assertEquals(5, centroid.getCoordinate().x, 1e-9);
+        Assert.assertEquals(5, centroid.getCoordinate().y, 1e-9);
+    }
+
+    private Polygon createSquare(double x, double y, double size) {
+        return factory.createPolygon(new Coordinate[] {
+            new Coordinate(x, y), new Coordinate(x + size, y), new Coordinate(x + size, y + size), new Coordinate(x, y + size), new Coordinate(x, y)
+        });
+    }
+
+    private static List<Integer> getIndexes(List<GisGeometryIndex.Feature> features) {
+        return features.stream().map(GisGeometryIndex.Feature::getIndex).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.navigator;
+
+import org.jkiss.dbeaver.model.navigator.meta.DBXTreeFolder;
+import org.jkiss.dbeaver.model.navigator.meta.DBXTreeItem;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+public class DBNDatabaseNodeTest {
+
+    private static final int CHILD_COUNT = DBNDatabaseNode.LAZY_REGISTRATION_THRESHOLD + 10;
+
+    private DBNModel model;
+    private DBSObject schema;
+    private DBNDatabaseItem schemaNode;
+
+    @Before
+    public void setUp() {
+        model = new DBNModel(null, List.of());
+        DBNNode root = Mockito.mock(DBNNode.class);
+        Mockito.when(root.getModel()).thenReturn(model);
+        schema = Mockito.mock(DBSObject.class);
+        schemaNode = new DBNDatabaseItem(root, Mockito.mock(DBXTreeItem.class), schema, false, true);
+    }
+
+    @Test
+    public void shouldRegisterLazyChildOnLookup() {
+        DBNDatabaseItem[] children = createChildren(schemaNode, CHILD_COUNT);
+        schemaNode.setChildNodes(children);
+
+        DBNDatabaseItem child = children[CHILD_COUNT / 2];
+        Assert.assertFalse(child.isRegistered());
+        Assert.assertSame(child, model.getNodeByObject(child.getObject()));
+        Assert.assertTrue(child.isRegistered());
+        // Registered child is found in the model itself
+        Assert.assertNull(schemaNode.findLazyChild(child.getObject()));
+        Assert.assertSame(child, model.getNodeByObject(child.getObject()));
+    }
+
+    @Test
+    public void shouldFindLazyChildInFolder() {
+        DBNDatabaseFolder folder = new DBNDatabaseFolder(schemaNode, Mockito.mock(DBXTreeFolder.class));
+        schemaNode.setChildNodes(new DBNDatabaseNode[] { folder });
+        DBNDatabaseItem[] children = createChildren(folder, CHILD_COUNT);
+        folder.setChildNodes(children);
+
+        DBNDatabaseItem child = children[CHILD_COUNT - 1];
+        Assert.assertSame(child, model.getNodeByObject(child.getObject()));
+        Assert.assertTrue(child.isRegistered());
+    }
+
+    @Test
+    public void shouldEvictChildrenOnReload() {
+        DBNDatabaseItem[] children = createChildren(schemaNode, CHILD_COUNT);
+        schemaNode.setChildNodes(children);
+        DBSObject removedObject = children[0].getObject();
+        DBSObject keptObject = children[1].getObject();
+
+        // Refresh: new list without the first child
+        DBNDatabaseItem[] newChildren = new DBNDatabaseItem[CHILD_COUNT - 1];
+        System.arraycopy(children, 1, newChildren, 0, newChildren.length);
+        children[0].dispose(false);
+        schemaNode.setChildNodes(newChildren);
+
+        Assert.assertNull(model.getNodeByObject(removedObject));
+        Assert.assertSame(children[1], model.getNodeByObject(keptObject));
+    }
+
+    @Test
+    public void shouldEvictRemovedChild() {
+        DBNDatabaseItem[] children = createChildren(schemaNode, CHILD_COUNT);
+        schemaNode.setChildNodes(children);
+        DBSObject object = children[5].getObject();
+
+        schemaNode.removeChildItem(object);
+
+        Assert.assertNull(schemaNode.findLazyChild(object));
+        Assert.assertNull(model.getNodeByObject(object));
+        Assert.assertEquals(CHILD_COUNT - 1, schemaNode.getChildNodes().length);
+    }
+
+    private DBNDatabaseItem[] createChildren(DBNDatabaseNode parentNode, int count) {
+        DBXTreeItem meta = Mockito.mock(DBXTreeItem.class);
+        DBNDatabaseItem[] children = new DBNDatabaseItem[count];
+        for (int i = 0; i < count; i++) {
+            DBSObject object = Mockito.mock(DBSObject.class);
+            Mockito.when(object.getParentObject()).thenReturn(schema);
+            children[i] = new DBNDatabaseItem(parentNode, meta, object, false, false);
+        }
+        return children;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.net.ssh.config.SSHAuthConfiguration;
+import org.jkiss.dbeaver.model.net.ssh.config.SSHHostConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SSHSessionPoolTest {
+
+    private static final long IDLE_TIMEOUT = 1000;
+
+    private final AtomicInteger openedSessions = new AtomicInteger();
+    private final SSHSessionPool<TestSession> pool = new SSHSessionPool<>(new SSHSessionPool.SessionHandler<>() {
+        @Override
+        public boolean isSessionAlive(@NotNull TestSession session) {
+            return session.alive;
+        }
+
+        @Override
+        public void closeSession(@NotNull TestSession session) {
+            session.closed = true;
+        }
+    }, IDLE_TIMEOUT);
+
+    @Test
+    public void shouldShareSessionBetweenTunnels() throws Exception {
+        SSHSessionKey bastionKey = createKey("bastion", "secret");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<SSHSessionPool.Lease<TestSession>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 40; i++) {
+                futures.add(executor.submit(() -> pool.acquire(bastionKey, this::openSession)));
+            }
+            List<SSHSessionPool.Lease<TestSession>> leases = new ArrayList<>();
+            for (Future<SSHSessionPool.Lease<TestSession>> future : futures) {
+                leases.add(future.get());
+            }
+            Assert.assertEquals(1, openedSessions.get());
+            Assert.assertEquals(1, pool.getSessionCount());
+            for (SSHSessionPool.Lease<TestSession> lease : leases) {
+                Assert.assertSame(leases.get(0).getSession(), lease.getSession());
+            }
+
+            // Different credentials - different session
+            SSHSessionPool.Lease<TestSession> otherLease = pool.acquire(createKey("bastion", "other"), this::openSession);
+            Assert.assertNotSame(leases.get(0).getSession(), otherLease.getSession());
+            Assert.assertEquals(2, pool.getSessionCount());
+
+            leases.forEach(SSHSessionPool.Lease::release);
+            otherLease.release();
+            Assert.assertFalse(leases.get(0).getSession().closed);
+        } finally {
+            executor.shutdown();
+        }
+        pool.closeAll();
+    }
+
+    @Test
+    public void shouldReopenBrokenSession() throws Exception {
+        SSHSessionKey key = createKey("bastion", "secret");
+        SSHSessionPool.Lease<TestSession> lease1 = pool.acquire(key, this::openSession);
+        SSHSessionPool.Lease<TestSession> lease2 = pool.acquire(key, this::openSession);
+        TestSession brokenSession = lease1.getSession();
+        brokenSession.alive = false;
+
+        // Next tunnel reconnects
+        SSHSessionPool.Lease<TestSession> lease3 = pool.acquire(key, this::openSession);
+        Assert.assertEquals(2, openedSessions.get());
+        Assert.assertTrue(brokenSession.closed);
+        Assert.assertNotSame(brokenSession, lease3.getSession());
+
+        // Invalidation of the old session doesn't affect the new one
+        lease1.invalidate();
+        lease2.invalidate();
+        Assert.assertFalse(lease3.getSession().closed);
+
+        lease3.invalidate();
+        Assert.assertTrue(lease3.getSession().closed);
+        Assert.assertEquals(0, pool.getSessionCount());
+    }
+
+    @Test
+    public void shouldKeepLiveSessionOnTunnelInvalidation() throws Exception {
+        SSHSessionKey key = createKey("bastion", "secret");
+        SSHSessionPool.Lease<TestSession> lease1 = pool.acquire(key, this::openSession);
+        SSHSessionPool.Lease<TestSession> lease2 = pool.acquire(key, this::openSession);
+        TestSession session = lease1.getSession();
+        Assert.assertSame(session, lease2.getSession());
+
+        // Tunnel failed but the shared session is alive: the other tunnel keeps using it
+        lease1 = reopenTunnel(key, lease1);
+        Assert.assertFalse(session.closed);
+        Assert.assertSame(session, lease1.getSession());
+        Assert.assertSame(session, lease2.getSession());
+        Assert.assertEquals(1, openedSessions.get());
+
+        // Broken session is closed and reopened
+        session.alive = false;
+        lease2 = reopenTunnel(key, lease2);
+        Assert.assertTrue(session.closed);
+        Assert.assertNotSame(session, lease2.getSession());
+        Assert.assertEquals(2, openedSessions.get());
+
+        lease1.release();
+        lease2.release();
+        Assert.assertFalse(lease2.getSession().closed);
+        pool.closeAll();
+    }
+
+    @Test
+    public void shouldCloseIdleSessions() throws Exception {
+        SSHSessionPool.Lease<TestSession> usedLease = pool.acquire(createKey("host1", "secret"), this::openSession);
+        SSHSessionPool.Lease<TestSession> idleLease = pool.acquire(createKey("host2", "secret"), this::openSession);
+        idleLease.release();
+        // Double release is ignored
+        idleLease.release();
+
+        long currentTime = System.currentTimeMillis();
+        Assert.assertTrue(pool.closeIdleSessions(currentTime) > 0);
+        Assert.assertFalse(idleLease.getSession().closed);
+
+        Assert.assertEquals(0, pool.closeIdleSessions(currentTime + IDLE_TIMEOUT));
+        Assert.assertTrue(idleLease.getSession().closed);
+        Assert.assertFalse(usedLease.getSession().closed);
+        Assert.assertEquals(1, pool.getSessionCount());
+
+        // Reacquire of the idle session opens a new one
+        SSHSessionPool.Lease<TestSession> newLease = pool.acquire(createKey("host2", "secret"), this::openSession);
+        Assert.assertEquals(3, openedSessions.get());
+        newLease.release();
+        usedLease.release();
+        pool.closeAll();
+        Assert.assertTrue(usedLease.getSession().closed);
+    }
+
+    @Test
+    public void shouldCloseAllPoolsOnShutdown() throws Exception {
+        SSHSessionPool.Lease<TestSession> usedLease = pool.acquire(createKey("host1", "secret"), this::openSession);
+        SSHSessionPool.Lease<TestSession> idleLease = pool.acquire(createKey("host2", "secret"), this::openSession);
+        idleLease.release();
+
+        SSHSessionPool.closeAllPools();
+        Assert.assertTrue(usedLease.getSession().closed);
+        Assert.assertTrue(idleLease.getSession().closed);
+        Assert.assertEquals(0, pool.getSessionCount());
+
+        // Release after shutdown is ignored
+        usedLease.release();
+        Assert.assertEquals(0, pool.getSessionCount());
+    }
+
+    /**
+     * Does the same as invalidateTunnel of SSH implementations
+     */
+    @NotNull
+    private SSHSessionPool.Lease<TestSession> reopenTunnel(
+        @NotNull SSHSessionKey key,
+        @NotNull SSHSessionPool.Lease<TestSession> lease
+    ) throws Exception {
+        if (lease.isSessionAlive()) {
+            lease.release();
+        } else {
+            lease.invalidate();
+        }
+        return pool.acquire(key, this::openSession);
+    }
+
+    @NotNull
+    private TestSession openSession() {
+        openedSessions.incrementAndGet();
+        return new TestSession();
+    }
+
+    private static SSHSessionKey createKey(String host, String password) {
+        SSHHostConfiguration[] hosts = {
+            new SSHHostConfiguration("user", host, SSHAuthConfiguration.usingPassword(password, false))
+        };
+        return new SSHSessionKey(hosts, "test");
+    }
+
+    private static class TestSession {
+        private volatile boolean alive = true;
+        private volatile boolean closed;
+    }
+}
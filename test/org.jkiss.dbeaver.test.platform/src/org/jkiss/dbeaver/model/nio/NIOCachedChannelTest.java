@@ -0,0 +1,193 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.nio;
+
+import org.jkiss.code.NotNull;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NIOCachedChannelTest {
+
+    private static final int BLOCK_SIZE = 1024;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private byte[] content;
+    private LatencySource source;
+
+    @Before
+    public void setUp() {
+        content = new byte[BLOCK_SIZE * 20 + 123];
+        new Random(42).nextBytes(content);
+        source = new LatencySource(content, 5);
+    }
+
+    @Test
+    public void readSequentialWithReadAhead() throws Exception {
+        NIOBlockCache cache = new NIOBlockCache(tempFolder.newFolder().toPath(), BLOCK_SIZE, BLOCK_SIZE * 100L);
+        try (NIOCachedChannel channel = new NIOCachedChannel(source, cache, 4)) {
+            Assert.assertArrayEquals(content, readFully(channel, 333));
+        }
+        // 21 blocks: first one alone, then 4 blocks per request
+        Assert.assertEquals(6, source.readCount.get());
+
+        // Second read is served from the cache
+        try (NIOCachedChannel channel = new NIOCachedChannel(source, cache, 4)) {
+            Assert.assertArrayEquals(content, readFully(channel, 4096));
+        }
+        Assert.assertEquals(6, source.readCount.get());
+    }
+
+    @Test
+    public void readRange() throws Exception {
+        NIOBlockCache cache = new NIOBlockCache(tempFolder.newFolder().toPath(), BLOCK_SIZE, BLOCK_SIZE * 100L);
+        try (NIOCachedChannel channel = new NIOCachedChannel(source, cache)) {
+            channel.position(BLOCK_SIZE * 7L + 10);
+            ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE * 2);
+            Assert.assertEquals(BLOCK_SIZE * 2, channel.read(buffer));
+            byte[] expected = new byte[BLOCK_SIZE * 2];
+            System.arraycopy(content, BLOCK_SIZE * 7 + 10, expected, 0, expected.length);
+            Assert.assertArrayEquals(expected, buffer.array());
+
+            channel.position(content.length);
+            Assert.assertEquals(-1, channel.read(ByteBuffer.allocate(10)));
+        }
+        Assert.assertFalse(cache.hasBlock(source.getContentKey(), 0));
+        Assert.assertTrue(cache.hasBlock(source.getContentKey(), 7));
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedBlocks() throws Exception {
+        NIOBlockCache cache = new NIOBlockCache(tempFolder.newFolder().toPath(), BLOCK_SIZE, BLOCK_SIZE * 5L);
+        try (NIOCachedChannel channel = new NIOCachedChannel(source, cache)) {
+            Assert.assertArrayEquals(content, readFully(channel, BLOCK_SIZE));
+        }
+        Assert.assertTrue(cache.getCacheSize() <= cache.getMaxCacheSize());
+        Assert.assertFalse(cache.hasBlock(source.getContentKey(), 0));
+        Assert.assertTrue(cache.hasBlock(source.getContentKey(), 20));
+    }
+
+    @Test
+    public void keepBlocksOfOtherCaches() throws Exception {
+        Path folder = tempFolder.newFolder().toPath();
+        Path foreignFile = Files.writeString(folder.resolve("notes.txt"), "keep me");
+        NIOBlockCache cache = new NIOBlockCache(folder, BLOCK_SIZE, BLOCK_SIZE * 100L);
+        try (NIOCachedChannel channel = new NIOCachedChannel(source, cache)) {
+            Assert.assertArrayEquals(content, readFully(channel, BLOCK_SIZE));
+        }
+
+        // Another cache over the same parent folder uses its own blocks folder
+        NIOBlockCache newCache = new NIOBlockCache(folder, BLOCK_SIZE, BLOCK_SIZE * 100L);
+        Assert.assertNotEquals(cache.getCacheFolder(), newCache.getCacheFolder());
+        Assert.assertFalse(newCache.hasBlock(source.getContentKey(), 0));
+        newCache.clear();
+
+        Assert.assertTrue(cache.hasBlock(source.getContentKey(), 0));
+        try (NIOCachedChannel channel = new NIOCachedChannel(source, cache)) {
+            Assert.assertArrayEquals(content, readFully(channel, BLOCK_SIZE));
+        }
+        Assert.assertEquals("keep me", Files.readString(foreignFile));
+    }
+
+    @Test
+    public void readNothingBeforeEnd() throws Exception {
+        NIOBlockCache cache = new NIOBlockCache(tempFolder.newFolder().toPath(), BLOCK_SIZE, BLOCK_SIZE * 100L);
+        try (NIOCachedChannel channel = new NIOCachedChannel(source, cache)) {
+            Assert.assertEquals(0, channel.read(ByteBuffer.allocate(0)));
+            channel.position(content.length - 1);
+            Assert.assertEquals(1, channel.read(ByteBuffer.allocate(10)));
+            Assert.assertEquals(-1, channel.read(ByteBuffer.allocate(10)));
+        }
+    }
+
+    @Test
+    public void failOnStalledSource() throws Exception {
+        NIOBlockCache cache = new NIOBlockCache(tempFolder.newFolder().toPath(), BLOCK_SIZE, BLOCK_SIZE * 100L);
+        NIOBlockSource stalledSource = new LatencySource(content, 0) {
+            @Override
+            public int read(long position, @NotNull ByteBuffer buffer) {
+                return 0;
+            }
+        };
+        try (NIOCachedChannel channel = new NIOCachedChannel(stalledSource, cache)) {
+            Assert.assertThrows(IOException.class, () -> channel.read(ByteBuffer.allocate(10)));
+        }
+        Assert.assertFalse(cache.hasBlock(stalledSource.getContentKey(), 0));
+    }
+
+    @NotNull
+    private static byte[] readFully(@NotNull NIOCachedChannel channel, int bufferSize) throws IOException {
+        ByteBuffer result = ByteBuffer.allocate((int) channel.size());
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        while (channel.read(buffer) > 0) {
+            buffer.flip();
+            result.put(buffer);
+            buffer.clear();
+        }
+        return result.array();
+    }
+
+    private static class LatencySource implements NIOBlockSource {
+        private final byte[] data;
+        private final long latency;
+        private final AtomicInteger readCount = new AtomicInteger();
+
+        LatencySource(byte[] data, long latency) {
+            this.data = data;
+            this.latency = latency;
+        }
+
+        @NotNull
+        @Override
+        public String getContentKey() {
+            return "test://file.bin@" + data.length;
+        }
+
+        @Override
+        public long getSize() {
+            return data.length;
+        }
+
+        @Override
+        public int read(long position, @NotNull ByteBuffer buffer) throws IOException {
+            readCount.incrementAndGet();
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            if (position >= data.length) {
+                return -1;
+            }
+            int length = (int) Math.min(buffer.remaining(), data.length - position);
+            buffer.put(data, (int) position, length);
+            return length;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm;
+
+import org.jkiss.dbeaver.runtime.qm.QMQueryStatisticsCollector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+
+public class QMQueryStatisticsTest {
+
+    @Test
+    public void shouldNormalizeLiterals() {
+        Assert.assertEquals(
+            "select * from t1 where id = ? and name = ? and \"Mixed\" in (?)",
+            QMQueryFingerprint.normalize("SELECT *\n  FROM T1 -- comment\nWHERE id = 42 AND name = 'O''Brien' /* hint */ AND \"Mixed\" IN (1, 2.5, -3e10)"));
+        Assert.assertEquals(
+            QMQueryFingerprint.normalize("insert into t values (1, 'a'), (2, 'b')"),
+            QMQueryFingerprint.normalize("INSERT INTO t VALUES (3,'c')"));
+        Assert.assertEquals(
+            "select ?::text, x from t where y = ? and z = ?",
+            QMQueryFingerprint.normalize("select :p::text, x from t where y = $1 and z = ?"));
+    }
+
+    @Test
+    public void shouldComputePercentiles() {
+        QMLatencyHistogram histogram = new QMLatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i);
+        }
+        QMLatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+        Assert.assertEquals(10_000, snapshot.getCount());
+        Assert.assertEquals(10_000, snapshot.getMax());
+        Assert.assertEquals(5000.5, snapshot.getMean(), 0.001);
+        double error = 1.0 / QMLatencyHistogram.SUB_BUCKET_COUNT;
+        Assert.assertEquals(5000, snapshot.getPercentile(50), 5000 * error);
+        Assert.assertEquals(9900, snapshot.getPercentile(99), 9900 * error);
+        Assert.assertEquals(10_000, snapshot.getPercentile(100));
+        Assert.assertEquals(1, snapshot.getPercentile(0));
+
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(Long.MAX_VALUE, histogram.getSnapshot().getMax());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedFingerprints() {
+        QMQueryStatisticsCollector collector = new QMQueryStatisticsCollector(10);
+        collector.recordExecution("ds", "Test", "select 1 from keep", 100, 1, false);
+        for (int i = 0; i < 30; i++) {
+            collector.recordExecution("ds", "Test", "select * from table" + i + " where id = " + i, 10, 1, false);
+            collector.recordExecution("ds", "Test", "select 2 from keep", 100, 1, false);
+        }
+        Assert.assertTrue(collector.getEntryCount() <= 10);
+        List<QMQueryStatistics.Entry> entries = collector.getEntries();
+        Assert.assertEquals("select ? from keep", entries.get(0).getFingerprint());
+        Assert.assertEquals(31, entries.get(0).getExecuteLatency().getCount());
+    }
+
+    @Test
+    public void shouldExportCSV() throws Exception {
+        QMQueryStatisticsCollector collector = new QMQueryStatisticsCollector();
+        collector.recordExecution("ds", "Test", "select a, b from t where x = 1", 1500, 10, false);
+        collector.recordExecution("ds", "Test", "select a, b from t where x = 2", 500, -1, true);
+        StringWriter writer = new StringWriter();
+        collector.exportCSV(writer);
+        String[] lines = writer.toString().split("\n");
+        Assert.assertEquals(2, lines.length);
+        Assert.assertTrue(lines[0].startsWith("data_source,fingerprint,executions,errors,"));
+        Assert.assertTrue(lines[1].startsWith("Test,\"select a, b from t where x = ?\",2,1,1000.0,"));
+    }
+}
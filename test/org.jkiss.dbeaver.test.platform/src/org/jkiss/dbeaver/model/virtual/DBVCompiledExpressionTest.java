@@ -0,0 +1,215 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.virtual;
+
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.JexlExpression;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.*;
+
+public class DBVCompiledExpressionTest {
+
+    private static final int COLUMN_COUNT = 20;
+
+    private final JexlEngine engine = new JexlBuilder().cache(100).create();
+    private DBDAttributeBinding[] attributes;
+
+    @Before
+    public void init() {
+        attributes = new DBDAttributeBinding[COLUMN_COUNT];
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            DBDAttributeBinding attribute = mock(DBDAttributeBinding.class);
+            when(attribute.getName()).thenReturn("column_" + i);
+            when(attribute.getLabel()).thenReturn("label_" + i);
+            when(attribute.getOrdinalPosition()).thenReturn(i);
+            attributes[i] = attribute;
+        }
+    }
+
+    @Test
+    public void shouldResolveVariablesToSlots() {
+        Object[] row = createRow(new Random(1));
+        DBVCompiledExpression expression = compileByName("column_1 * 2 + column_19");
+        Assert.assertEquals(evaluateByScan(expression.getExpression(), row), expression.evaluate(row));
+
+        DBVCompiledExpression direct = compileByName("column_7");
+        Assert.assertEquals(row[7], direct.evaluate(row));
+        Assert.assertTrue(direct.isBoundTo(direct.getExpression(), attributes));
+        Assert.assertFalse(direct.isBoundTo(direct.getExpression(), attributes.clone()));
+    }
+
+    @Test
+    public void shouldPreferNamespacesAndSkipExcludedName() {
+        Object[] row = createRow(new Random(2));
+        DBVCompiledExpression expression = DBVCompiledExpression.compile(
+            engine.createExpression("label_1"),
+            attributes,
+            DBDAttributeBinding::getLabel,
+            Map.of("label_1", "namespace"),
+            null,
+            true);
+        Assert.assertEquals("namespace", expression.evaluate(row));
+
+        // Calculated attribute can't refer to itself
+        DBVCompiledExpression self = DBVCompiledExpression.compile(
+            engine.createExpression("label_2"),
+            attributes,
+            DBDAttributeBinding::getLabel,
+            null,
+            "label_2",
+            true);
+        Assert.assertThrows(JexlException.class, () -> self.evaluate(row));
+    }
+
+    @Test
+    public void shouldMatchInterpretedEvaluation() {
+        String[] expressions = {
+            "column_0 + column_1 + column_2 + column_3 + column_4 + column_5 + column_6 + column_7 + column_8 + column_9"
+                + " + column_10 + column_11 + column_12 + column_13 + column_14 + column_15 + column_16 + column_17"
+                + " + column_18 + column_19",
+            "column_3 > 10 ? 'big' : column_18 + 'x'",
+            "column_1 * 2.5 - column_2",
+            "column_19"
+        };
+        Random random = new Random(3);
+        Object[][] rows = new Object[1000][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = createRow(random);
+        }
+        for (String text : expressions) {
+            DBVCompiledExpression compiled = compileByName(text);
+            for (Object[] row : rows) {
+                Assert.assertEquals(text, evaluateByScan(compiled.getExpression(), row), compiled.evaluate(row));
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotLookUpAttributesPerRow() {
+        String text = "column_0 + column_5 * column_10 - column_19";
+        Random random = new Random(4);
+        Object[][] rows = new Object[1000][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = createRow(random);
+        }
+
+        JexlExpression expression = engine.createExpression(text);
+        for (Object[] row : rows) {
+            evaluateByScan(expression, row);
+        }
+        // Previous mode: every variable of every row scans attributes by name
+        verify(attributes[19], atLeast(rows.length)).getName();
+        verify(attributes[0], atLeast(rows.length * 4)).getName();
+
+        clearInvocations((Object[]) attributes);
+        DBVCompiledExpression compiled = compileByName(text);
+        for (DBDAttributeBinding attribute : attributes) {
+            verify(attribute, times(1)).getName();
+        }
+        clearInvocations((Object[]) attributes);
+        for (Object[] row : rows) {
+            compiled.evaluate(row);
+        }
+        verifyNoInteractions((Object[]) attributes);
+    }
+
+    @Test
+    public void shouldEvaluateAttributeReferenceWithoutInterpreter() {
+        AtomicInteger evaluateCount = new AtomicInteger();
+        JexlExpression target = engine.createExpression("column_7");
+        JexlExpression expression = (JexlExpression) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class[]{JexlExpression.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("evaluate")) {
+                    evaluateCount.incrementAndGet();
+                }
+                return method.invoke(target, args);
+            });
+        DBVCompiledExpression compiled = DBVCompiledExpression.compile(
+            expression, attributes, DBDAttributeBinding::getName, null, null, false);
+
+        Random random = new Random(5);
+        for (int i = 0; i < 1000; i++) {
+            Object[] row = createRow(random);
+            Assert.assertEquals(row[7], compiled.evaluate(row));
+        }
+        Assert.assertEquals(0, evaluateCount.get());
+
+        // Null values are left to JEXL
+        Object[] row = createRow(random);
+        row[7] = null;
+        Assert.assertNull(compiled.evaluate(row));
+        Assert.assertEquals(1, evaluateCount.get());
+    }
+
+    private DBVCompiledExpression compileByName(String text) {
+        return DBVCompiledExpression.compile(
+            engine.createExpression(text), attributes, DBDAttributeBinding::getName, null, null, false);
+    }
+
+    /**
+     * Previous evaluation mode: attributes are searched by name for each variable of each row
+     */
+    private Object evaluateByScan(JexlExpression expression, Object[] row) {
+        return expression.evaluate(new JexlContext() {
+            @Override
+            public Object get(String name) {
+                for (DBDAttributeBinding attribute : attributes) {
+                    if (attribute.getName().equals(name)) {
+                        return row[attribute.getOrdinalPosition()];
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public void set(String name, Object value) {
+            }
+
+            @Override
+            public boolean has(String name) {
+                for (DBDAttributeBinding attribute : attributes) {
+                    if (attribute.getName().equals(name)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        });
+    }
+
+    private static Object[] createRow(Random random) {
+        Object[] row = new Object[COLUMN_COUNT];
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            row[i] = random.nextInt(100);
+        }
+        return row;
+    }
+}
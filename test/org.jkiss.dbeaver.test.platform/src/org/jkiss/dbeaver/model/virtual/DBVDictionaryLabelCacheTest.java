@@ -0,0 +1,176 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.virtual;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.data.DBDLabelValuePair;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNEvent;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDictionary;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class DBVDictionaryLabelCacheTest {
+
+    private static final int DICTIONARY_SIZE = 1000;
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+    private DBVDictionaryLabelCache cache;
+    private DBSEntity entity;
+    private DBSEntityAttribute keyColumn;
+    private DBSDictionary dictionary;
+
+    @Before
+    public void init() throws DBException {
+        cache = new DBVDictionaryLabelCache() {
+            @Override
+            String getDescriptionColumns(DBRProgressMonitor monitor, DBSEntityAttribute keyColumn) {
+                return null;
+            }
+        };
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+        entity = Mockito.mock(DBSEntity.class);
+        Mockito.when(entity.getDataSource()).thenReturn(dataSource);
+        keyColumn = Mockito.mock(DBSEntityAttribute.class);
+        Mockito.when(keyColumn.getName()).thenReturn("id");
+        Mockito.when(keyColumn.getParentObject()).thenReturn(entity);
+
+        dictionary = Mockito.mock(DBSDictionary.class);
+        Mockito.when(dictionary.getDictionaryValues(
+            ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyList(), ArgumentMatchers.any(),
+            ArgumentMatchers.anyBoolean(), ArgumentMatchers.anyBoolean())
+        ).thenAnswer(invocation -> {
+            // Dictionary contains numeric keys [0, DICTIONARY_SIZE) as bigint and all other keys
+            List<DBDLabelValuePair> result = new ArrayList<>();
+            for (Object key : invocation.<List<Object>>getArgument(2)) {
+                if (key instanceof Number number) {
+                    long id = number.longValue();
+                    if (id >= 0 && id < DICTIONARY_SIZE) {
+                        result.add(new DBDLabelValuePair("label_" + id, id));
+                    }
+                } else {
+                    result.add(new DBDLabelValuePair("label_" + key, key));
+                }
+            }
+            return result;
+        });
+    }
+
+    @Test
+    public void shouldLoadKeysInBatches() throws DBException {
+        List<Object> keys = new ArrayList<>();
+        for (int i = 0; i < DBVDictionaryLabelCache.MAX_BATCH_SIZE + 10; i++) {
+            keys.add(i);
+        }
+        Map<Object, DBDLabelValuePair> entries = cache.getEntries(monitor, dictionary, keyColumn, keys);
+        Assert.assertEquals(keys.size(), entries.size());
+        Assert.assertEquals("label_42", entries.get(42).getLabel());
+        verifyLoads(2);
+
+        // Everything is cached now
+        Assert.assertEquals("label_7", cache.getEntry(monitor, dictionary, keyColumn, 7).getLabel());
+        Assert.assertEquals(keys.size(), cache.getEntries(monitor, dictionary, keyColumn, keys).size());
+        verifyLoads(2);
+    }
+
+    @Test
+    public void shouldCacheMissingKeys() throws DBException {
+        Assert.assertNull(cache.getEntry(monitor, dictionary, keyColumn, DICTIONARY_SIZE + 1));
+        Assert.assertNull(cache.getEntry(monitor, dictionary, keyColumn, DICTIONARY_SIZE + 1));
+        verifyLoads(1);
+    }
+
+    @Test
+    public void shouldMatchKeysOfDifferentNumericTypes() throws DBException {
+        // Integer foreign key references bigint dictionary key
+        DBDLabelValuePair entry = cache.getEntry(monitor, dictionary, keyColumn, 5);
+        Assert.assertNotNull(entry);
+        Assert.assertEquals("label_5", entry.getLabel());
+        Assert.assertNotNull(cache.getEntry(monitor, dictionary, keyColumn, 5L));
+        verifyLoads(1);
+    }
+
+    @Test
+    public void shouldReloadInvalidatedDictionary() throws DBException {
+        cache.getEntry(monitor, dictionary, keyColumn, 1);
+        cache.invalidate(entity);
+        Assert.assertEquals(0, cache.getLabelCount());
+        cache.getEntry(monitor, dictionary, keyColumn, 1);
+        verifyLoads(2);
+        Assert.assertEquals(1, cache.getLabelCount());
+    }
+
+    @Test
+    public void shouldCacheStringAndDateKeys() throws DBException {
+        LocalDate date = LocalDate.of(2024, 1, 15);
+        Map<Object, DBDLabelValuePair> entries = cache.getEntries(monitor, dictionary, keyColumn, List.of("US", "DE", date));
+        Assert.assertEquals(3, entries.size());
+        Assert.assertEquals("label_DE", entries.get("DE").getLabel());
+        Assert.assertEquals("label_" + date, cache.getEntry(monitor, dictionary, keyColumn, LocalDate.of(2024, 1, 15)).getLabel());
+        Assert.assertEquals("label_US", cache.getEntry(monitor, dictionary, keyColumn, "US").getLabel());
+        verifyLoads(1);
+    }
+
+    @Test
+    public void shouldInvalidateOnRefreshOnly() throws DBException {
+        DBNDatabaseNode entityNode = Mockito.mock(DBNDatabaseNode.class);
+        Mockito.when(entityNode.getObject()).thenReturn(entity);
+        cache.getEntry(monitor, dictionary, keyColumn, 1);
+
+        // Nodes loading and selection don't affect labels
+        cache.nodeChanged(new DBNEvent(this, DBNEvent.Action.ADD, DBNEvent.NodeChange.LOAD, entityNode));
+        cache.nodeChanged(new DBNEvent(this, DBNEvent.Action.UPDATE, DBNEvent.NodeChange.SELECT, entityNode));
+        Assert.assertEquals(1, cache.getLabelCount());
+
+        cache.nodeChanged(new DBNEvent(this, DBNEvent.Action.UPDATE, DBNEvent.NodeChange.REFRESH, entityNode));
+        Assert.assertEquals(0, cache.getLabelCount());
+    }
+
+    @Test
+    public void shouldDropLabelsOnDisconnect() throws DBException {
+        DBPDataSourceContainer container = entity.getDataSource().getContainer();
+        DBNDatabaseNode dataSourceNode = Mockito.mock(DBNDatabaseNode.class);
+        Mockito.when(dataSourceNode.getObject()).thenReturn(container);
+        cache.getEntries(monitor, dictionary, keyColumn, List.of(1, 2, 3));
+        Assert.assertEquals(3, cache.getLabelCount());
+
+        cache.nodeChanged(new DBNEvent(this, DBNEvent.Action.UPDATE, DBNEvent.NodeChange.UNLOAD, dataSourceNode));
+        Assert.assertEquals(0, cache.getLabelCount());
+    }
+
+    private void verifyLoads(int count) throws DBException {
+        Mockito.verify(dictionary, Mockito.times(count)).getDictionaryValues(
+            ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyList(), ArgumentMatchers.any(),
+            ArgumentMatchers.anyBoolean(), ArgumentMatchers.anyBoolean());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.websocket.event;
+
+import org.jkiss.dbeaver.model.websocket.event.datasource.WSDataSourceEvent;
+import org.jkiss.dbeaver.model.websocket.event.datasource.WSDataSourceProperty;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WSEventControllerTest {
+
+    private static final int SESSION_COUNT = 1000;
+    private static final int SLOW_SESSION_COUNT = 10;
+    private static final int BURST_COUNT = 20;
+
+    @Test
+    public void shouldCoalesceAndDropInQueue() {
+        WSEventQueue queue = new WSEventQueue(4, null);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(queue.offer(datasourceUpdate("ds1")));
+        }
+        Assert.assertEquals(1, queue.size());
+        Assert.assertEquals(2, queue.getCoalescedCount());
+
+        List<WSEvent> logEvents = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            WSEvent event = logEvent("message " + i);
+            logEvents.add(event);
+            queue.offer(event);
+        }
+        // Oldest events are dropped
+        Assert.assertEquals(4, queue.size());
+        Assert.assertEquals(2, queue.getDroppedCount());
+        Assert.assertEquals(logEvents.subList(1, 5), queue.drain());
+        Assert.assertTrue(queue.isEmpty());
+
+        // Coalesced event is delivered in place of the last one
+        WSEvent update1 = datasourceUpdate("ds1");
+        WSEvent log = logEvent("log");
+        WSEvent update2 = datasourceUpdate("ds1");
+        Assert.assertEquals(List.of(log, update2), WSEventQueue.coalesce(List.of(update1, log, update2)));
+    }
+
+    @Test
+    public void shouldDeliverBurstsToSessions() {
+        long[] deliveredCount = new long[1];
+        long[] logEventCount = new long[1];
+
+        List<WSEventQueue> sessions = new ArrayList<>();
+        for (int i = 0; i < SESSION_COUNT; i++) {
+            if (i < SLOW_SESSION_COUNT) {
+                // Session which never reads its events
+                sessions.add(new WSEventQueue(8, null));
+                continue;
+            }
+            WSEventQueue[] session = new WSEventQueue[1];
+            session[0] = new WSEventQueue(64, () -> {
+                for (WSEvent event : session[0].drain()) {
+                    deliveredCount[0]++;
+                    if (event instanceof WSSessionLogUpdatedEvent) {
+                        logEventCount[0]++;
+                    }
+                }
+            });
+            sessions.add(session[0]);
+        }
+
+        WSEventController controller = new WSEventController();
+        controller.addEventHandler(WSEventTopic.DATASOURCE.getTopicId(), event -> sessions.forEach(s -> s.offer(event)));
+        controller.addEventHandler(WSEventTopic.SESSION_LOG.getTopicId(), event -> sessions.forEach(s -> s.offer(event)));
+
+        for (int burst = 0; burst < BURST_COUNT; burst++) {
+            // Repeated updates of the same data sources
+            for (int i = 0; i < 50; i++) {
+                controller.addEvent(datasourceUpdate("ds" + (i % 5)));
+            }
+            controller.addEvent(logEvent("burst " + burst));
+            // End of the coalescing window
+            controller.flushEvents();
+        }
+
+        long fastSessions = SESSION_COUNT - SLOW_SESSION_COUNT;
+        // Each burst is delivered as 5 data source updates and 1 log event
+        Assert.assertEquals(BURST_COUNT * fastSessions, logEventCount[0]);
+        Assert.assertEquals(BURST_COUNT * 6 * fastSessions, deliveredCount[0]);
+
+        for (int i = 0; i < SESSION_COUNT; i++) {
+            WSEventQueue session = sessions.get(i);
+            if (i < SLOW_SESSION_COUNT) {
+                // Data source updates replace each other, log events pile up and the oldest ones are dropped
+                Assert.assertEquals(8, session.size());
+                Assert.assertEquals(BURST_COUNT - 3, session.getDroppedCount());
+            } else {
+                Assert.assertTrue(session.isEmpty());
+                Assert.assertEquals(0, session.getDroppedCount());
+            }
+        }
+    }
+
+    private static WSEvent datasourceUpdate(String dataSourceId) {
+        return WSDataSourceEvent.update(null, null, "project", List.of(dataSourceId), WSDataSourceProperty.CONFIGURATION);
+    }
+
+    private static WSEvent logEvent(String message) {
+        return new WSSessionLogUpdatedEvent(WSEventType.SESSION_LOG_UPDATED, null, null, MessageType.INFO, message);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSourceConfigurationStorage;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class DataSourceSerializationCacheTest {
+
+    private DataSourceRegistry registry;
+    private DBPDriver driver;
+
+    @Before
+    public void setUp() {
+        registry = (DataSourceRegistry) DBWorkbench.getPlatform().getWorkspace().getActiveProject().getDataSourceRegistry();
+        driver = DataSourceProviderRegistry.getInstance().findDriver("postgresql");
+        Assert.assertNotNull(driver);
+    }
+
+    @Test
+    public void testCachedFragmentsProduceSameDocument() throws Exception {
+        List<DataSourceDescriptor> dataSources = generateDataSources(50);
+        String expected = saveConfiguration(dataSources, null);
+        DataSourceSerializationCache cache = new DataSourceSerializationCache();
+        Assert.assertEquals(expected, saveConfiguration(dataSources, cache));
+        // Second pass is built from cached fragments only
+        Assert.assertEquals(expected, saveConfiguration(dataSources, cache));
+        Assert.assertEquals(50, cache.getSerializedCount());
+        // Cached fragments are re-indented to the connection depth
+        Assert.assertTrue(expected.contains("\n\t\t\t\t\"host\": \"db1.example.com\""));
+    }
+
+    @Test
+    public void testInvalidation() throws Exception {
+        List<DataSourceDescriptor> dataSources = generateDataSources(10);
+        DataSourceSerializationCache cache = new DataSourceSerializationCache();
+        saveConfiguration(dataSources, cache);
+
+        dataSources.get(3).setName("Changed");
+        cache.invalidate(List.of(dataSources.get(3).getId()));
+        String incremental = saveConfiguration(dataSources, cache);
+        Assert.assertEquals(saveConfiguration(dataSources, null), incremental);
+        Assert.assertTrue(incremental.contains("\"Changed\""));
+        Assert.assertEquals(11, cache.getSerializedCount());
+
+        cache.retainFragments(List.of(dataSources.get(0).getId()));
+        Assert.assertNotNull(cache.getFragment(dataSources.get(0).getId()));
+        Assert.assertNull(cache.getFragment(dataSources.get(1).getId()));
+    }
+
+    @Test
+    public void testUnchangedFileIsNotWritten() throws Exception {
+        List<DataSourceDescriptor> dataSources = generateDataSources(5);
+        DataSourceSerializationCache cache = new DataSourceSerializationCache();
+        TestConfigurationManager manager = new TestConfigurationManager();
+        DataSourceSerializerModern serializer = new DataSourceSerializerModern(registry, cache);
+        DBPDataSourceConfigurationStorage storage = dataSources.get(0).getConfigurationStorage();
+
+        serializer.saveDataSources(new VoidProgressMonitor(), manager, storage, dataSources);
+        Assert.assertEquals(1, manager.writeCount);
+        serializer.saveDataSources(new VoidProgressMonitor(), manager, storage, dataSources);
+        Assert.assertEquals(1, manager.writeCount);
+
+        dataSources.get(0).setName("Changed");
+        cache.invalidate(List.of(dataSources.get(0).getId()));
+        serializer.saveDataSources(new VoidProgressMonitor(), manager, storage, dataSources);
+        Assert.assertEquals(2, manager.writeCount);
+    }
+
+    @Test
+    public void testIncrementalSaveMatchesFullSave() throws Exception {
+        final int count = 1000;
+        List<DataSourceDescriptor> dataSources = generateDataSources(count);
+        DataSourceSerializationCache cache = new DataSourceSerializationCache();
+        saveConfiguration(dataSources, cache);
+
+        final int changes = 10;
+        for (int i = 0; i < changes; i++) {
+            DataSourceDescriptor changed = dataSources.get(i * 97 % count);
+            changed.getConnectionConfiguration().setHostPort(String.valueOf(10000 + i));
+            cache.invalidate(List.of(changed.getId()));
+            Assert.assertEquals(saveConfiguration(dataSources, null), saveConfiguration(dataSources, cache));
+        }
+        Assert.assertEquals(count + changes, cache.getSerializedCount());
+    }
+
+    /**
+     * Incremental save of a big registry serializes only changed connections,
+     * so the save work doesn't grow with the number of connections.
+     */
+    @Test
+    public void testIncrementalSaveScalesWithChanges() throws Exception {
+        final int count = 10_000;
+        List<DataSourceDescriptor> dataSources = generateDataSources(count);
+        DataSourceSerializationCache cache = new DataSourceSerializationCache();
+        TestConfigurationManager manager = new TestConfigurationManager();
+        DataSourceSerializerModern serializer = new DataSourceSerializerModern(registry, cache);
+        DBPDataSourceConfigurationStorage storage = dataSources.get(0).getConfigurationStorage();
+        serializer.saveDataSources(new VoidProgressMonitor(), manager, storage, dataSources);
+        Assert.assertEquals(count, cache.getSerializedCount());
+
+        final int saves = 20;
+        for (int i = 0; i < saves; i++) {
+            DataSourceDescriptor changed = dataSources.get(i * 997 % count);
+            changed.getConnectionConfiguration().setHostPort(String.valueOf(10000 + i));
+            cache.invalidate(List.of(changed.getId()));
+            serializer.saveDataSources(new VoidProgressMonitor(), manager, storage, dataSources);
+            Assert.assertEquals(count + i + 1, cache.getSerializedCount());
+        }
+        Assert.assertEquals(saves + 1, manager.writeCount);
+        Assert.assertEquals(
+            saveConfiguration(dataSources, null),
+            new String(manager.files.get(storage.getStorageName()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSecurePropertiesAreCopied() {
+        Map<String, Map<String, String>> secure = new LinkedHashMap<>();
+        secure.put("#connection", new LinkedHashMap<>(Map.of("user", "sa")));
+        DataSourceSerializationCache.Fragment fragment = new DataSourceSerializationCache.Fragment("{}", secure, Map.of());
+        secure.get("#connection").put("password", "secret");
+        fragment.getSecureProperties().get("#connection").clear();
+        Assert.assertEquals(Map.of("#connection", Map.of("user", "sa")), fragment.getSecureProperties());
+    }
+
+    @Test
+    public void testFileDigests() {
+        DataSourceSerializationCache cache = new DataSourceSerializationCache();
+        Assert.assertFalse(cache.isFileUpToDate("data-sources.json", "{}"));
+        cache.setFileWritten("data-sources.json", "{}");
+        Assert.assertTrue(cache.isFileUpToDate("data-sources.json", "{}"));
+        Assert.assertFalse(cache.isFileUpToDate("data-sources.json", "{ }"));
+        Assert.assertFalse(cache.isFileUpToDate("credentials-config.json", "{}"));
+
+        cache.setFileWritten("credentials-config.json", null);
+        Assert.assertTrue(cache.isFileUpToDate("credentials-config.json", null));
+
+        cache.invalidateFragments();
+        Assert.assertTrue(cache.isFileUpToDate("data-sources.json", "{}"));
+        cache.invalidateAll();
+        Assert.assertFalse(cache.isFileUpToDate("data-sources.json", "{}"));
+    }
+
+    private String saveConfiguration(
+        @NotNull List<DataSourceDescriptor> dataSources,
+        @Nullable DataSourceSerializationCache cache
+    ) throws DBException, IOException {
+        DBPDataSourceConfigurationStorage storage = dataSources.get(0).getConfigurationStorage();
+        if (cache != null) {
+            // Force the write, we need the document itself
+            cache.resetFile(storage.getStorageName());
+        }
+        TestConfigurationManager manager = new TestConfigurationManager();
+        new DataSourceSerializerModern(registry, cache).saveDataSources(new VoidProgressMonitor(), manager, storage, dataSources);
+        byte[] data = manager.files.get(storage.getStorageName());
+        Assert.assertNotNull(data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    private List<DataSourceDescriptor> generateDataSources(int count) {
+        List<DataSourceDescriptor> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DBPConnectionConfiguration connectionInfo = new DBPConnectionConfiguration();
+            connectionInfo.setHostName("db" + i + ".example.com");
+            connectionInfo.setHostPort("5432");
+            connectionInfo.setDatabaseName("db_" + i);
+            connectionInfo.setProperty("connectTimeout", "20");
+            connectionInfo.setProperty("ApplicationName", "App \"" + i + "\"");
+            DataSourceDescriptor dataSource = new DataSourceDescriptor(
+                registry,
+                "postgres-jdbc-" + Long.toHexString(0x18a0000000L + i * 7919L) + "-" + Integer.toHexString(i),
+                driver,
+                connectionInfo);
+            dataSource.setName("Connection " + i);
+            result.add(dataSource);
+        }
+        return result;
+    }
+
+    private static class TestConfigurationManager implements DataSourceConfigurationManager {
+        final Map<String, byte[]> files = new LinkedHashMap<>();
+        int writeCount;
+
+        @Override
+        public boolean isReadOnly() {
+            return false;
+        }
+
+        @Override
+        public boolean isSecure() {
+            // Keep credentials in the document, nothing goes to the secure storage
+            return true;
+        }
+
+        @Override
+        public List<DBPDataSourceConfigurationStorage> getConfigurationStorages() {
+            return List.of();
+        }
+
+        @Override
+        public InputStream readConfiguration(@NotNull String name, @Nullable Collection<String> dataSourceIds) {
+            return null;
+        }
+
+        @Override
+        public void writeConfiguration(@NotNull String name, @Nullable byte[] data) {
+            files.put(name, data);
+            writeCount++;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.driver;
+
+import org.jkiss.dbeaver.registry.DataSourceProviderRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class DriverClassLoaderTest {
+
+    private static final String SPLIT_FOLDER = "com/example/split";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private DriverDescriptor driver;
+    private Path firstJar;
+    private Path secondJar;
+
+    @Before
+    public void setUp() throws IOException {
+        driver = (DriverDescriptor) DataSourceProviderRegistry.getInstance().findDriver("postgresql");
+        Assert.assertNotNull(driver);
+        // Both jars contain the same packages
+        firstJar = createJar("first.jar", Map.of(
+            getClassEntry(FirstSample.class), readClass(FirstSample.class),
+            SPLIT_FOLDER + "/first.txt", text("first"),
+            SPLIT_FOLDER + "/common.txt", text("common first"),
+            "root.txt", text("root first")));
+        secondJar = createJar("second.jar", Map.of(
+            getClassEntry(SecondSample.class), readClass(SecondSample.class),
+            SPLIT_FOLDER + "/second.txt", text("second"),
+            SPLIT_FOLDER + "/common.txt", text("common second"),
+            "META-INF/versions/11/" + SPLIT_FOLDER + "/versioned.txt", text("versioned")));
+    }
+
+    @Test
+    public void shouldIndexSplitPackages() throws IOException {
+        DriverPackageIndex index = DriverPackageIndex.buildIndex(List.of(firstJar, secondJar));
+        Assert.assertArrayEquals(new int[] { 0, 1 }, index.getJarsForFolder(SPLIT_FOLDER));
+        Assert.assertArrayEquals(new int[] { 0 }, index.getJarsForFolder(""));
+        Assert.assertArrayEquals(new int[] { 1 }, index.getJarsForFolder("META-INF/versions/11/" + SPLIT_FOLDER));
+        Assert.assertArrayEquals(new int[0], index.getJarsForFolder("com/example/missing"));
+    }
+
+    @Test
+    public void shouldReuseStoredIndex() throws IOException {
+        Path indexFile = tempFolder.getRoot().toPath().resolve(DriverPackageIndex.INDEX_FOLDER).resolve("test.idx");
+        List<Path> jars = List.of(firstJar, secondJar);
+        DriverPackageIndex index = DriverPackageIndex.getIndex(indexFile, jars);
+        Assert.assertNotNull(index);
+        Assert.assertFalse(index.isCached());
+
+        DriverPackageIndex storedIndex = DriverPackageIndex.getIndex(indexFile, jars);
+        Assert.assertNotNull(storedIndex);
+        Assert.assertTrue(storedIndex.isCached());
+        Assert.assertEquals(index.getPackageCount(), storedIndex.getPackageCount());
+        Assert.assertArrayEquals(index.getJarsForFolder(SPLIT_FOLDER), storedIndex.getJarsForFolder(SPLIT_FOLDER));
+
+        // Changed jar invalidates the index
+        Files.setLastModifiedTime(secondJar, FileTime.fromMillis(Files.getLastModifiedTime(secondJar).toMillis() - 60_000));
+        DriverPackageIndex newIndex = DriverPackageIndex.getIndex(indexFile, jars);
+        Assert.assertNotNull(newIndex);
+        Assert.assertFalse(newIndex.isCached());
+
+        // Folders can't be indexed
+        Assert.assertNull(DriverPackageIndex.getIndex(indexFile, List.of(firstJar, tempFolder.getRoot().toPath())));
+    }
+
+    @Test
+    public void shouldLoadClassesFromSplitPackages() throws Exception {
+        try (DriverClassLoader loader = createIndexedLoader(ClassLoader.getPlatformClassLoader())) {
+            Assert.assertTrue(loader.isIndexed());
+            Class<?> first = loader.loadClass(FirstSample.class.getName());
+            Class<?> second = loader.loadClass(SecondSample.class.getName());
+            Assert.assertSame(loader, first.getClassLoader());
+            Assert.assertSame(loader, second.getClassLoader());
+            Assert.assertNotSame(FirstSample.class, first);
+            Assert.assertEquals(firstJar.toUri().toURL(), first.getProtectionDomain().getCodeSource().getLocation());
+            Assert.assertEquals(secondJar.toUri().toURL(), second.getProtectionDomain().getCodeSource().getLocation());
+            Assert.assertSame(first.getPackage(), second.getPackage());
+            Assert.assertThrows(ClassNotFoundException.class, () -> loader.loadClass("com.example.split.Missing"));
+        }
+    }
+
+    @Test
+    public void shouldFindResourcesLikeUnindexedLoader() throws Exception {
+        try (
+            DriverClassLoader indexedLoader = createIndexedLoader(ClassLoader.getPlatformClassLoader());
+            URLClassLoader plainLoader = new URLClassLoader(getJarURLs(), ClassLoader.getPlatformClassLoader())
+        ) {
+            for (String name : new String[] {
+                SPLIT_FOLDER + "/first.txt",
+                SPLIT_FOLDER + "/second.txt",
+                SPLIT_FOLDER + "/common.txt",
+                SPLIT_FOLDER + "/missing.txt",
+                "root.txt",
+                "META-INF/versions/11/" + SPLIT_FOLDER + "/versioned.txt"
+            }) {
+                Assert.assertEquals(name, plainLoader.getResource(name), indexedLoader.getResource(name));
+                Assert.assertEquals(
+                    name,
+                    Collections.list(plainLoader.getResources(name)),
+                    Collections.list(indexedLoader.getResources(name)));
+            }
+            Assert.assertEquals(2, Collections.list(indexedLoader.getResources(SPLIT_FOLDER + "/common.txt")).size());
+            try (InputStream is = indexedLoader.getResourceAsStream(SPLIT_FOLDER + "/common.txt")) {
+                Assert.assertNotNull(is);
+                Assert.assertEquals("common first", new String(is.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            // Folder lookups are not indexed
+            Assert.assertEquals(
+                Collections.list(plainLoader.getResources(SPLIT_FOLDER + "/")),
+                Collections.list(indexedLoader.getResources(SPLIT_FOLDER + "/")));
+        }
+    }
+
+    @Test
+    public void shouldFallBackToParentLoader() throws Exception {
+        Path parentJar = createJar("parent.jar", Map.of(
+            getClassEntry(ParentSample.class), readClass(ParentSample.class),
+            "parent/only.txt", text("parent"),
+            SPLIT_FOLDER + "/common.txt", text("common parent")));
+        try (
+            URLClassLoader parentLoader = new URLClassLoader(new URL[] { parentJar.toUri().toURL() }, ClassLoader.getPlatformClassLoader());
+            DriverClassLoader loader = createIndexedLoader(parentLoader)
+        ) {
+            Class<?> parentClass = loader.loadClass(ParentSample.class.getName());
+            Assert.assertSame(parentLoader, parentClass.getClassLoader());
+            Assert.assertSame(String.class, loader.loadClass("java.lang.String"));
+
+            Assert.assertEquals(parentLoader.getResource("parent/only.txt"), loader.getResource("parent/only.txt"));
+            // Parent resources go first
+            List<URL> commonResources = Collections.list(loader.getResources(SPLIT_FOLDER + "/common.txt"));
+            Assert.assertEquals(3, commonResources.size());
+            Assert.assertEquals(parentLoader.getResource(SPLIT_FOLDER + "/common.txt"), commonResources.get(0));
+            Assert.assertNull(loader.getResource("parent/missing.txt"));
+        }
+    }
+
+    @Test
+    public void shouldFallBackToManifestClassPath() throws Exception {
+        Path extraJar = createJar("extra.jar", Map.of(
+            getClassEntry(ExtraSample.class), readClass(ExtraSample.class),
+            SPLIT_FOLDER + "/extra.txt", text("extra"),
+            SPLIT_FOLDER + "/common.txt", text("common extra")));
+        Path mainJar = createJar("main.jar", Map.of(
+            "META-INF/MANIFEST.MF", text("Manifest-Version: 1.0\r\nClass-Path: extra.jar\r\n\r\n"),
+            SPLIT_FOLDER + "/common.txt", text("common main")));
+        URL[] urls = { mainJar.toUri().toURL() };
+        DriverPackageIndex index = DriverPackageIndex.buildIndex(List.of(mainJar));
+        // Class-Path jars are not indexed
+        Assert.assertArrayEquals(new int[] { 0 }, index.getJarsForFolder(SPLIT_FOLDER));
+        try (
+            DriverClassLoader loader = new DriverClassLoader(driver, urls, index, ClassLoader.getPlatformClassLoader());
+            URLClassLoader plainLoader = new URLClassLoader(urls, ClassLoader.getPlatformClassLoader())
+        ) {
+            Class<?> extraClass = loader.loadClass(ExtraSample.class.getName());
+            Assert.assertSame(loader, extraClass.getClassLoader());
+            Assert.assertEquals(extraJar.toUri().toURL(), extraClass.getProtectionDomain().getCodeSource().getLocation());
+
+            for (String name : new String[] { SPLIT_FOLDER + "/extra.txt", SPLIT_FOLDER + "/common.txt" }) {
+                Assert.assertEquals(name, plainLoader.getResource(name), loader.getResource(name));
+                Assert.assertEquals(
+                    name,
+                    Collections.list(plainLoader.getResources(name)),
+                    Collections.list(loader.getResources(name)));
+            }
+            Assert.assertEquals(2, Collections.list(loader.getResources(SPLIT_FOLDER + "/common.txt")).size());
+            Assert.assertThrows(ClassNotFoundException.class, () -> loader.loadClass("com.example.split.Missing"));
+        }
+    }
+
+    private DriverClassLoader createIndexedLoader(ClassLoader parent) throws IOException {
+        DriverPackageIndex index = DriverPackageIndex.buildIndex(List.of(firstJar, secondJar));
+        return new DriverClassLoader(driver, getJarURLs(), index, parent);
+    }
+
+    private URL[] getJarURLs() throws IOException {
+        return new URL[] { firstJar.toUri().toURL(), secondJar.toUri().toURL() };
+    }
+
+    private Path createJar(String name, Map<String, byte[]> entries) throws IOException {
+        Path jar = tempFolder.getRoot().toPath().resolve(name);
+        List<String> entryNames = new ArrayList<>(entries.keySet());
+        Collections.sort(entryNames);
+        try (OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (String entryName : entryNames) {
+                zip.putNextEntry(new ZipEntry(entryName));
+                zip.write(entries.get(entryName));
+                zip.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static String getClassEntry(Class<?> type) {
+        return type.getName().replace('.', '/') + ".class";
+    }
+
+    private static byte[] readClass(Class<?> type) throws IOException {
+        try (InputStream is = type.getClassLoader().getResourceAsStream(getClassEntry(type))) {
+            Assert.assertNotNull(is);
+            return is.readAllBytes();
+        }
+    }
+
+    private static byte[] text(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static class FirstSample {
+    }
+
+    public static class SecondSample {
+    }
+
+    public static class ParentSample {
+    }
+
+    public static class ExtraSample {
+    }
+}
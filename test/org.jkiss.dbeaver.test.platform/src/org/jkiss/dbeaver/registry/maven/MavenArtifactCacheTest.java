@@ -0,0 +1,179 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.maven;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.connection.DBPAuthInfo;
+import org.jkiss.dbeaver.runtime.HttpStatusException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MavenArtifactCacheTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path repositoryFolder;
+    private Path localFolder;
+    private LocalRepositoryConnector connector;
+    private MavenArtifactCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        repositoryFolder = tempFolder.newFolder("repository").toPath();
+        localFolder = tempFolder.newFolder("local").toPath();
+        connector = new LocalRepositoryConnector();
+        cache = new MavenArtifactCache(tempFolder.newFolder("store").toPath(), connector);
+    }
+
+    @Test
+    public void shouldVerifyAndReuseStoredFiles() throws Exception {
+        String url = publish("org/test/lib/1.0/lib-1.0.jar", "jar content", true);
+
+        Path firstFile = cache.fetchFile(url, null, localFolder.resolve("a/lib-1.0.jar"));
+        Assert.assertEquals("jar content", Files.readString(firstFile));
+        Assert.assertEquals(1, connector.getRequestCount(url));
+
+        // The same content is restored from the store, only checksum is requested
+        Path secondFile = cache.fetchFile(url, null, localFolder.resolve("b/lib-1.0.jar"));
+        Assert.assertEquals("jar content", Files.readString(secondFile));
+        Assert.assertEquals(1, connector.getRequestCount(url));
+    }
+
+    @Test
+    public void shouldRejectBadChecksum() throws Exception {
+        String url = publish("org/test/lib/1.0/lib-1.0.pom", "<project/>", false);
+        Files.writeString(repositoryFolder.resolve("org/test/lib/1.0/lib-1.0.pom.sha1"), "0123456789012345678901234567890123456789");
+
+        Path localFile = localFolder.resolve("lib-1.0.pom");
+        Assert.assertThrows(IOException.class, () -> cache.fetchFile(url, null, localFile));
+        Assert.assertFalse(Files.exists(localFile));
+    }
+
+    @Test
+    public void shouldCacheMissingFiles() throws Exception {
+        String url = repositoryFolder.resolve("org/test/missing/1.0/missing-1.0.pom").toUri().toString();
+        Path localFile = localFolder.resolve("missing-1.0.pom");
+
+        Assert.assertThrows(HttpStatusException.class, () -> cache.fetchFile(url, null, localFile));
+        Assert.assertThrows(FileNotFoundException.class, () -> cache.fetchFile(url, null, localFile));
+        Assert.assertEquals(1, connector.getRequestCount(url));
+
+        // Forced update requests it again
+        Thread.sleep(5);
+        cache.resetMissingFiles();
+        publish("org/test/missing/1.0/missing-1.0.pom", "<project/>", true);
+        Assert.assertEquals("<project/>", Files.readString(cache.fetchFile(url, null, localFile)));
+        Assert.assertEquals(2, connector.getRequestCount(url));
+    }
+
+    @Test
+    public void shouldRefreshChangedMetadataOnly() throws Exception {
+        String url = publish("org/test/lib/maven-metadata.xml", "<metadata>1</metadata>", false);
+        Path localFile = localFolder.resolve("org/test/lib/maven-metadata.xml");
+
+        Assert.assertEquals("<metadata>1</metadata>", Files.readString(cache.fetchMetadata(url, null, localFile)));
+        Assert.assertEquals(1, connector.getDownloadCount(url));
+
+        // Not modified
+        Assert.assertEquals("<metadata>1</metadata>", Files.readString(cache.fetchMetadata(url, null, localFile)));
+        Assert.assertEquals(2, connector.getRequestCount(url));
+        Assert.assertEquals(1, connector.getDownloadCount(url));
+
+        Path remoteFile = repositoryFolder.resolve("org/test/lib/maven-metadata.xml");
+        Files.writeString(remoteFile, "<metadata>2</metadata>");
+        Files.setLastModifiedTime(remoteFile, FileTime.fromMillis(Files.getLastModifiedTime(remoteFile).toMillis() + 10_000));
+        Assert.assertEquals("<metadata>2</metadata>", Files.readString(cache.fetchMetadata(url, null, localFile)));
+        Assert.assertEquals(2, connector.getDownloadCount(url));
+    }
+
+    @NotNull
+    private String publish(@NotNull String path, @NotNull String content, boolean withChecksum) throws Exception {
+        Path file = repositoryFolder.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        if (withChecksum) {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(content.getBytes(StandardCharsets.UTF_8));
+            Files.writeString(file.resolveSibling(file.getFileName() + ".sha1"), HexFormat.of().formatHex(digest) + "  " + file.getFileName());
+        }
+        return file.toUri().toString();
+    }
+
+    /**
+     * File-based stand-in of a remote Maven repository.
+     * Emulates HTTP responses: 404 for missing files and 304 for ETag matches.
+     */
+    private static class LocalRepositoryConnector implements MavenArtifactCache.Connector {
+        private final Map<String, Integer> requests = new ConcurrentHashMap<>();
+        private final Map<String, Integer> downloads = new ConcurrentHashMap<>();
+
+        @NotNull
+        @Override
+        public URLConnection openConnection(@NotNull String url, @Nullable DBPAuthInfo authInfo, @NotNull Map<String, String> headers) throws IOException {
+            requests.merge(url, 1, Integer::sum);
+            Path file = Path.of(java.net.URI.create(url));
+            if (!Files.exists(file)) {
+                throw new HttpStatusException("Not Found", 404);
+            }
+            String etag = "\"" + Files.getLastModifiedTime(file).toMillis() + "\"";
+            if (etag.equals(headers.get("If-None-Match"))) {
+                throw new HttpStatusException("Not Modified", 304);
+            }
+            downloads.merge(url, 1, Integer::sum);
+            return new URLConnection(file.toUri().toURL()) {
+                @Override
+                public void connect() {
+                }
+
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    return Files.newInputStream(file);
+                }
+
+                @Override
+                public String getHeaderField(String name) {
+                    return "ETag".equals(name) ? etag : null;
+                }
+            };
+        }
+
+        int getRequestCount(String url) {
+            return requests.getOrDefault(url, 0);
+        }
+
+        int getDownloadCount(String url) {
+            return downloads.getOrDefault(url, 0);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TaskRunHistoryTest {
+
+    private static final Gson gson = new GsonBuilder()
+        .setLenient()
+        .setDateFormat(GeneralUtils.DEFAULT_TIMESTAMP_PATTERN)
+        .create();
+    private static final long MINUTE = 60_000L;
+    private static final long BASE_TIME = 1_700_000_000_000L / MINUTE * MINUTE;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path folder;
+    private final List<String> droppedRuns = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        folder = tempFolder.newFolder("task").toPath();
+    }
+
+    @Test
+    public void testAppendAndReload() throws IOException {
+        TaskRunHistory history = createHistory(100);
+        for (int i = 1; i <= 5; i++) {
+            TestRun run = new TestRun("run" + i, i);
+            history.addRun(run);
+            run.setRunDuration(10);
+            history.updateRun(run);
+        }
+        history.removeRun("run3");
+
+        Assert.assertEquals("run5", history.getLastRun().getId());
+        Assert.assertEquals(List.of("run5", "run4", "run2", "run1"), ids(history.getRuns(0, 0)));
+        Assert.assertEquals(List.of("run4", "run2"), ids(history.getRuns(1, 2)));
+
+        // Records are appended, there is a single segment with start, finish and removal lines
+        try (Stream<Path> files = Files.list(folder)) {
+            Assert.assertEquals(1, files.count());
+        }
+        Path segment = folder.resolve(TaskRunHistory.SEGMENT_PREFIX + "00000001" + TaskRunHistory.SEGMENT_EXT);
+        Assert.assertEquals(11, Files.readAllLines(segment, StandardCharsets.UTF_8).size());
+
+        TaskRunHistory reloaded = createHistory(100);
+        List<TaskRunImpl> runs = reloaded.getRuns(0, 0);
+        Assert.assertEquals(List.of("run5", "run4", "run2", "run1"), ids(runs));
+        Assert.assertTrue(runs.get(0).isFinished());
+        Assert.assertEquals(10, runs.get(0).getRunDuration());
+    }
+
+    @Test
+    public void testRotationAndCountRetention() {
+        TaskRunHistory history = createHistory(4);
+        history.setRetention(4, 0);
+        for (int i = 1; i <= 10; i++) {
+            TestRun run = new TestRun("run" + i, i);
+            history.addRun(run);
+            run.setRunDuration(1);
+            history.updateRun(run);
+        }
+        // Two runs per segment, whole segments are dropped
+        Assert.assertEquals(List.of("run1", "run2", "run3", "run4"), droppedRuns);
+        Assert.assertEquals(List.of("run10", "run9", "run8", "run7", "run6", "run5"), ids(history.getRuns(0, 0)));
+        Assert.assertTrue(Files.exists(folder.resolve(TaskRunHistory.INDEX_FILE_NAME)));
+
+        TaskRunHistory reloaded = createHistory(4);
+        Assert.assertEquals(6, reloaded.getRunCount());
+        Assert.assertEquals(List.of("run8", "run7"), ids(reloaded.getRuns(2, 2)));
+    }
+
+    @Test
+    public void testTimeAndStatusQueries() {
+        TaskRunHistory history = createHistory(4);
+        for (int i = 1; i <= 8; i++) {
+            TestRun run = new TestRun("run" + i, i);
+            history.addRun(run);
+            if (i % 3 == 0) {
+                run.setErrorMessage("failed");
+            }
+            run.setRunDuration(1);
+            history.updateRun(run);
+        }
+        TaskRunHistory reloaded = createHistory(4);
+        Assert.assertEquals(List.of("run6", "run3"), ids(reloaded.findRuns(null, null, false, 0, 0)));
+        Assert.assertEquals(
+            List.of("run5", "run4", "run2"),
+            ids(reloaded.findRuns(new Date(BASE_TIME + 2 * MINUTE), new Date(BASE_TIME + 5 * MINUTE), true, 0, 0)));
+    }
+
+    @Test
+    public void testLegacyStatisticsMigration() throws IOException {
+        List<TaskRunImpl> legacyRuns = List.of(new TestRun("old1", 1), new TestRun("old2", 2));
+        Files.writeString(folder.resolve(TaskImpl.META_FILE_NAME), gson.toJson(new RunStatistics(legacyRuns)));
+
+        TaskRunHistory history = createHistory(100);
+        Assert.assertEquals(List.of("old2", "old1"), ids(history.getRuns(0, 0)));
+        Assert.assertFalse(Files.exists(folder.resolve(TaskImpl.META_FILE_NAME)));
+
+        history.addRun(new TestRun("new1", 3));
+        Assert.assertEquals("new1", createHistory(100).getLastRun().getId());
+    }
+
+    private TaskRunHistory createHistory(int segmentRecords) {
+        return new TaskRunHistory(folder, gson, segmentRecords, droppedRuns::add);
+    }
+
+    private static List<String> ids(List<TaskRunImpl> runs) {
+        return runs.stream().map(TaskRunImpl::getId).collect(Collectors.toList());
+    }
+
+    private static class TestRun extends TaskRunImpl {
+        TestRun(String id, int minute) {
+            super(id, new Date(BASE_TIME + minute * MINUTE), "user", "test", null, null);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.lightgrid;
+
+import org.eclipse.swt.graphics.Point;
+import org.jkiss.code.NotNull;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class GridCellTextCacheTest {
+
+    private static final int CHAR_WIDTH = 7;
+    private static final int LINE_HEIGHT = 15;
+
+    private TestCellSource source;
+    private GridCellTextCache cache;
+    private GridColumn column1;
+    private GridColumn column2;
+
+    @Before
+    public void init() {
+        source = new TestCellSource();
+        cache = new GridCellTextCache(source);
+        column1 = Mockito.mock(GridColumn.class);
+        column2 = Mockito.mock(GridColumn.class);
+    }
+
+    @Test
+    public void shouldReuseCachedText() {
+        source.setValue(column1, 0, "value");
+        source.setValue(column2, 0, "other");
+
+        GridCellTextCache.CellText cellText = cache.getCellText(column1, 0);
+        Assert.assertEquals("value", cellText.text);
+        Assert.assertSame(cellText, cache.getCellText(column1, 0));
+        Assert.assertEquals(1, source.formatCount);
+
+        Assert.assertEquals("other", cache.getCellText(column2, 0).text);
+        Assert.assertSame(cellText, cache.getCellText(column1, 0));
+        Assert.assertEquals(2, source.formatCount);
+        Assert.assertEquals(2, cache.getCellCount());
+    }
+
+    @Test
+    public void shouldMeasureWithAdvanceWidths() {
+        source.setValue(column1, 0, "abc");
+        source.setValue(column1, 1, "a\nbcde\nf");
+
+        GridCellTextCache.CellText cellText = cache.getCellText(column1, 0);
+        Assert.assertEquals(3 * CHAR_WIDTH, cellText.textWidth);
+        Assert.assertEquals(new Point(3 * CHAR_WIDTH, LINE_HEIGHT), cache.getTextExtent(cellText));
+
+        cellText = cache.getCellText(column1, 1);
+        Assert.assertEquals(3, cellText.lineCount);
+        Assert.assertEquals(new Point(4 * CHAR_WIDTH, 3 * LINE_HEIGHT), cache.getTextExtent(cellText));
+        Assert.assertEquals(0, source.measureCount);
+    }
+
+    @Test
+    public void shouldMeasureUnknownCharsOnce() {
+        source.setValue(column1, 0, "\u4e00\u4e01");
+
+        Assert.assertEquals(2 * TestCellSource.WIDE_CHAR_WIDTH, cache.getCellText(column1, 0).textWidth);
+        Assert.assertEquals(2 * TestCellSource.WIDE_CHAR_WIDTH, cache.getCellText(column1, 0).textWidth);
+        Assert.assertEquals(1, source.measureCount);
+    }
+
+    @Test
+    public void shouldFormatAgainAfterModelChange() {
+        source.setValue(column1, 0, "old");
+        Assert.assertEquals("old", cache.getCellText(column1, 0).text);
+
+        source.setValue(column1, 0, "new value");
+        Assert.assertEquals("old", cache.getCellText(column1, 0).text);
+
+        cache.invalidate();
+        Assert.assertEquals(0, cache.getCellCount());
+        GridCellTextCache.CellText cellText = cache.getCellText(column1, 0);
+        Assert.assertEquals("new value", cellText.text);
+        Assert.assertEquals(9 * CHAR_WIDTH, cellText.textWidth);
+        Assert.assertEquals(2, source.formatCount);
+    }
+
+    @Test
+    public void shouldFormatAgainAfterFormatChange() {
+        source.setValue(column1, 0, 10);
+        source.setValue(column2, 0, 20);
+        Assert.assertEquals("10", cache.getCellText(column1, 0).text);
+        Assert.assertEquals("20", cache.getCellText(column2, 0).text);
+
+        source.format = "#%s";
+        cache.invalidate();
+        Assert.assertEquals("#10", cache.getCellText(column1, 0).text);
+        Assert.assertEquals("#20", cache.getCellText(column2, 0).text);
+        Assert.assertEquals(4, source.formatCount);
+    }
+
+    @Test
+    public void shouldMeasureAgainAfterFontChange() {
+        source.setValue(column1, 0, "abc");
+        Assert.assertEquals(3 * CHAR_WIDTH, cache.getCellText(column1, 0).textWidth);
+
+        source.charWidth = CHAR_WIDTH * 2;
+        cache.resetFont();
+        Assert.assertEquals(6 * CHAR_WIDTH, cache.getCellText(column1, 0).textWidth);
+    }
+
+    private static class TestCellSource implements GridCellTextCache.CellSource {
+        static final int WIDE_CHAR_WIDTH = 12;
+
+        private final Map<GridColumn, Map<Integer, Object>> values = new HashMap<>();
+        String format = "%s";
+        int charWidth = CHAR_WIDTH;
+        int formatCount;
+        int measureCount;
+
+        void setValue(@NotNull GridColumn column, int row, @NotNull Object value) {
+            values.computeIfAbsent(column, c -> new HashMap<>()).put(row, value);
+        }
+
+        @NotNull
+        @Override
+        public IGridContentProvider.CellInformation getCellInfo(@NotNull GridColumn column, int row) {
+            IGridContentProvider.CellInformation cellInfo = new IGridContentProvider.CellInformation();
+            cellInfo.value = values.get(column).get(row);
+            cellInfo.text = format.formatted(cellInfo.value);
+            formatCount++;
+            return cellInfo;
+        }
+
+        @NotNull
+        @Override
+        public String getCellText(@NotNull IGridContentProvider.CellInformation cellInfo) {
+            return String.valueOf(cellInfo.text);
+        }
+
+        @Override
+        public int getImageWidth(@NotNull IGridContentProvider.CellInformation cellInfo) {
+            return 0;
+        }
+
+        @Override
+        public int getAdvanceWidth(char c) {
+            return charWidth;
+        }
+
+        @Override
+        public int getTextWidth(@NotNull String text) {
+            measureCount++;
+            return text.length() * WIDE_CHAR_WIDTH;
+        }
+
+        @Override
+        public int getLineHeight() {
+            return LINE_HEIGHT;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.binary;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+public class BinaryTextFinderTest {
+
+    private static final int MAP_SIZE = BinaryTextFinder.MAP_SIZE;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private BinaryContent content;
+
+    @After
+    public void tearDown() {
+        if (content != null) {
+            content.dispose();
+        }
+    }
+
+    @Test
+    public void shouldFindSequenceAtBufferBoundaries() {
+        ByteBuffer buffer = wrap("abcab");
+        Assert.assertEquals(0, BinaryTextFinder.indexOf(buffer, bytes("ab"), true, false));
+        Assert.assertEquals(3, BinaryTextFinder.indexOf(buffer, bytes("ab"), false, false));
+        Assert.assertEquals(0, BinaryTextFinder.indexOf(buffer, bytes("abcab"), true, false));
+        Assert.assertEquals(0, BinaryTextFinder.indexOf(buffer, bytes("abcab"), false, false));
+        Assert.assertEquals(4, BinaryTextFinder.indexOf(buffer, bytes("b"), false, false));
+        Assert.assertEquals(-1, BinaryTextFinder.indexOf(buffer, bytes("abcabc"), true, false));
+        Assert.assertEquals(-1, BinaryTextFinder.indexOf(buffer, new byte[0], true, false));
+
+        // Data after the limit is ignored
+        buffer.limit(4);
+        Assert.assertEquals(0, BinaryTextFinder.indexOf(buffer, bytes("ab"), false, false));
+        Assert.assertEquals(-1, BinaryTextFinder.indexOf(buffer, bytes("cab"), true, false));
+
+        // Buffer which doesn't start at the beginning of its array
+        ByteBuffer slice = ByteBuffer.wrap(bytes("xxabcab")).position(2).slice();
+        Assert.assertEquals(0, BinaryTextFinder.indexOf(slice, bytes("ab"), true, false));
+        Assert.assertEquals(3, BinaryTextFinder.indexOf(slice, bytes("ab"), false, false));
+    }
+
+    @Test
+    public void shouldIgnoreCaseOfAsciiLettersOnly() {
+        ByteBuffer buffer = wrap("xxSELECT 1");
+        Assert.assertEquals(2, BinaryTextFinder.indexOf(buffer, bytes("select"), true, true));
+        Assert.assertEquals(2, BinaryTextFinder.indexOf(buffer, bytes("SeLeCt"), false, true));
+        Assert.assertEquals(-1, BinaryTextFinder.indexOf(buffer, bytes("select"), true, false));
+
+        ByteBuffer latin = ByteBuffer.wrap(new byte[] { 'a', (byte) 0xC0, '@', '[' });
+        Assert.assertEquals(-1, BinaryTextFinder.indexOf(latin, new byte[] { (byte) 0xE0 }, true, true));
+        Assert.assertEquals(-1, BinaryTextFinder.indexOf(latin, new byte[] { '`' }, true, true));
+        Assert.assertEquals(-1, BinaryTextFinder.indexOf(latin, new byte[] { '{' }, true, true));
+        Assert.assertEquals(0, BinaryTextFinder.indexOf(latin, new byte[] { 'A' }, true, true));
+    }
+
+    @Test
+    public void shouldMatchNaiveSearch() {
+        Random random = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            // Small alphabet to get many partial matches
+            byte[] alphabet = { 'a', 'A', 'b', 'B', (byte) 0xE0 };
+            byte[] data = new byte[1 + random.nextInt(200)];
+            for (int k = 0; k < data.length; k++) {
+                data[k] = alphabet[random.nextInt(alphabet.length)];
+            }
+            byte[] sequence = Arrays.copyOfRange(data, 0, 1 + random.nextInt(Math.min(data.length, 6)));
+            if (random.nextBoolean()) {
+                sequence[sequence.length - 1] = (byte) 'b';
+            }
+            for (boolean forward : new boolean[] { true, false }) {
+                for (boolean ignoreCase : new boolean[] { true, false }) {
+                    Assert.assertEquals(
+                        naiveIndexOf(data, sequence, forward, ignoreCase),
+                        BinaryTextFinder.indexOf(ByteBuffer.wrap(data), sequence, forward, ignoreCase));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindMatchesSpanningParts() throws IOException {
+        byte[] data = new byte[MAP_SIZE + 1000];
+        Arrays.fill(data, (byte) '.');
+        int spanningOffset = MAP_SIZE - 3;
+        put(data, spanningOffset, bytes("needle"));
+        put(data, 10, bytes("needle"));
+        put(data, data.length - 6, bytes("needle"));
+        openContent(data);
+
+        BinaryTextFinder finder = new BinaryTextFinder("needle", content);
+        assertMatch(10, 6, finder.getNextMatch());
+        assertMatch(spanningOffset, 6, finder.getNextMatch());
+        assertMatch(data.length - 6, 6, finder.getNextMatch());
+        Assert.assertNull(finder.getNextMatch());
+
+        BinaryTextFinder hexFinder = new BinaryTextFinder(bytes("needle"), content);
+        hexFinder.setNewStart(11);
+        assertMatch(spanningOffset, 6, hexFinder.getNextMatch());
+    }
+
+    @Test
+    public void shouldFindMatchesSpanningPartsBackward() throws IOException {
+        byte[] data = new byte[MAP_SIZE + 1000];
+        Arrays.fill(data, (byte) '.');
+        // First backward part starts at offset 1000
+        int spanningOffset = 998;
+        put(data, spanningOffset, bytes("NEEDLE"));
+        put(data, 0, bytes("needle"));
+        openContent(data);
+
+        BinaryTextFinder finder = new BinaryTextFinder("needle", content);
+        finder.setCaseSensitive(false);
+        finder.setDirectionForward(false);
+        finder.setNewStart(data.length);
+        assertMatch(spanningOffset, 6, finder.getNextMatch());
+        assertMatch(0, 6, finder.getNextMatch());
+        Assert.assertNull(finder.getNextMatch());
+    }
+
+    @Test
+    public void shouldFindUnicodeMatchesSpanningParts() throws IOException {
+        byte[] data = new byte[MAP_SIZE * 2];
+        Arrays.fill(data, (byte) '.');
+        String literal = "\u0442\u0435\u0441\u0442";
+        byte[] littleEndian = literal.getBytes(StandardCharsets.UTF_16LE);
+        byte[] bigEndian = literal.getBytes(StandardCharsets.UTF_16BE);
+        // Odd address
+        int spanningOffset = MAP_SIZE - 3;
+        put(data, spanningOffset, littleEndian);
+        put(data, MAP_SIZE * 2 - 20, bigEndian);
+        openContent(data);
+
+        BinaryTextFinder finder = new BinaryTextFinder(literal, content);
+        assertMatch(spanningOffset, 8, finder.getNextMatch());
+        assertMatch(MAP_SIZE * 2 - 20, 8, finder.getNextMatch());
+        Assert.assertNull(finder.getNextMatch());
+
+        finder.setCaseSensitive(false);
+        finder.setNewStart(0);
+        assertMatch(spanningOffset, 8, finder.getNextMatch());
+    }
+
+    private void openContent(byte[] data) throws IOException {
+        File file = tempFolder.newFile("content.bin");
+        Files.write(file.toPath(), data);
+        content = new BinaryContent(file);
+    }
+
+    private static void assertMatch(long position, int length, Number[] match) {
+        Assert.assertNotNull(match);
+        Assert.assertEquals(position, match[0].longValue());
+        Assert.assertEquals(length, match[1].intValue());
+    }
+
+    private static int naiveIndexOf(byte[] data, byte[] sequence, boolean forward, boolean ignoreCase) {
+        int result = -1;
+        for (int pos = 0; pos <= data.length - sequence.length; pos++) {
+            boolean matches = true;
+            for (int k = 0; k < sequence.length && matches; k++) {
+                matches = fold(data[pos + k], ignoreCase) == fold(sequence[k], ignoreCase);
+            }
+            if (matches) {
+                result = pos;
+                if (forward) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static byte fold(byte value, boolean ignoreCase) {
+        return ignoreCase && value >= 'A' && value <= 'Z' ? (byte) (value + 32) : value;
+    }
+
+    private static void put(byte[] data, int offset, byte[] value) {
+        System.arraycopy(value, 0, data, offset, value.length);
+    }
+
+    private static ByteBuffer wrap(String text) {
+        return ByteBuffer.wrap(bytes(text));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.sql;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocumentListener;
+import org.jkiss.dbeaver.model.text.parser.TPWordDetector;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class SQLDocumentWordIndexTest {
+
+    // Larger than a single index block
+    private static final int BLOCK_TEXT_SIZE = 4096;
+
+    private final TPWordDetector wordDetector = new TPWordDetector();
+    private Document document;
+    private SQLDocumentWordIndex index;
+
+    @Before
+    public void init() {
+        document = new Document();
+        index = new SQLDocumentWordIndex();
+        document.addDocumentListener(new IDocumentListener() {
+            @Override
+            public void documentAboutToBeChanged(DocumentEvent event) {
+            }
+
+            @Override
+            public void documentChanged(DocumentEvent event) {
+                index.documentChanged(event);
+            }
+        });
+    }
+
+    @Test
+    public void shouldFindWordsIgnoringCase() {
+        setText("select Col1, col1 from TAB where tab.col10 = col1;");
+        Assert.assertEquals(List.of("7:4", "13:4", "45:4"), find("COL1", true));
+        Assert.assertEquals(List.of("7:4", "13:4", "37:4", "45:4"), find("col1", false));
+        Assert.assertEquals(List.of("23:3", "33:3"), find("tab", true));
+        Assert.assertEquals(List.of(), find("missing", true));
+        Assert.assertFalse(index.isIndexable("tab.col"));
+        Assert.assertTrue(index.isIndexable("col$1"));
+    }
+
+    @Test
+    public void shouldUpdateEditsAcrossBlockBoundaries() throws BadLocationException {
+        setText(generateText(BLOCK_TEXT_SIZE * 4));
+        int blockCount = index.getBlockCount();
+        Assert.assertTrue(blockCount >= 4);
+
+        // Replace text from the middle of the first block to the middle of the third one
+        document.replace(BLOCK_TEXT_SIZE / 2, BLOCK_TEXT_SIZE * 2, "select target from t1;\n");
+        assertIndexMatchesText();
+        // Edit exactly at the block boundary
+        document.replace(BLOCK_TEXT_SIZE, 1, " target ");
+        assertIndexMatchesText();
+        Assert.assertEquals(2, find("target", true).size());
+    }
+
+    @Test
+    public void shouldChangeBlockCountOnInsertAndDelete() throws BadLocationException {
+        setText(generateText(BLOCK_TEXT_SIZE * 3));
+        int blockCount = index.getBlockCount();
+
+        document.replace(BLOCK_TEXT_SIZE + 10, 0, generateText(BLOCK_TEXT_SIZE * 3));
+        assertIndexMatchesText();
+        Assert.assertTrue(index.getBlockCount() > blockCount);
+
+        document.replace(10, BLOCK_TEXT_SIZE * 5, "");
+        assertIndexMatchesText();
+        Assert.assertTrue(index.getBlockCount() < blockCount);
+
+        document.replace(0, document.getLength(), "");
+        assertIndexMatchesText();
+        Assert.assertEquals(0, index.getBlockCount());
+        document.replace(0, 0, "select x from y");
+        // Empty index is rebuilt on the next update
+        index.update(document);
+        assertIndexMatchesText();
+        Assert.assertEquals(1, index.getBlockCount());
+    }
+
+    @Test
+    public void shouldKeepWordsWhichCrossBlockSplit() throws BadLocationException {
+        // Long word starts right before the block size limit
+        StringBuilder text = new StringBuilder();
+        while (text.length() < BLOCK_TEXT_SIZE - 5) {
+            text.append("a ");
+        }
+        int wordOffset = text.length();
+        text.append("long_identifier_name b c");
+        setText(text.toString());
+        Assert.assertEquals(List.of(wordOffset + ":20"), find("long_identifier_name", true));
+
+        // Remove separators around the split so words of both blocks are joined
+        setText(generateText(BLOCK_TEXT_SIZE * 4));
+        for (int offset = BLOCK_TEXT_SIZE * 2 + 16; offset >= BLOCK_TEXT_SIZE * 2 - 16; offset--) {
+            if (!wordDetector.isWordPart(document.getChar(offset))) {
+                document.replace(offset, 1, "");
+                assertIndexMatchesText();
+            }
+        }
+        // Split joined words again
+        document.replace(BLOCK_TEXT_SIZE * 2, 0, " ");
+        assertIndexMatchesText();
+    }
+
+    @Test
+    public void shouldMatchTextAfterRandomEdits() throws BadLocationException {
+        Random random = new Random(7);
+        setText(generateText(BLOCK_TEXT_SIZE * 5));
+        for (int i = 0; i < 200; i++) {
+            int length = document.getLength();
+            int offset = random.nextInt(length + 1);
+            int replaceLength = random.nextInt(Math.min(length - offset, i % 20 == 0 ? BLOCK_TEXT_SIZE * 2 : 10) + 1);
+            String replacement = i % 25 == 0 ? generateText(BLOCK_TEXT_SIZE + random.nextInt(BLOCK_TEXT_SIZE)) :
+                generateText(random.nextInt(12)).trim();
+            document.replace(offset, replaceLength, replacement);
+            if (i % 10 == 0) {
+                assertIndexMatchesText();
+            }
+        }
+        assertIndexMatchesText();
+    }
+
+    private void setText(String text) {
+        document.set(text);
+        index.update(document);
+    }
+
+    private List<String> find(String word, boolean wholeWord) {
+        // No index update here, document changes must be applied incrementally
+        List<String> result = new ArrayList<>();
+        index.findOccurrences(word, wholeWord, (offset, length) -> result.add(offset + ":" + length));
+        return result;
+    }
+
+    private void assertIndexMatchesText() {
+        String text = document.get();
+        for (String word : new String[] { "select", "from", "col1", "t1", "target", "col", "1", "ab" }) {
+            Assert.assertEquals(word, scanText(text, word, true), find(word, true));
+            Assert.assertEquals(word, scanText(text, word, false), find(word, false));
+        }
+    }
+
+    /**
+     * Reference search: scans all words of the text
+     */
+    private List<String> scanText(String text, String word, boolean wholeWord) {
+        String key = word.toLowerCase(Locale.ROOT);
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < text.length(); ) {
+            if (!wordDetector.isWordPart(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < text.length() && wordDetector.isWordPart(text.charAt(i))) {
+                i++;
+            }
+            String textWord = text.substring(start, i).toLowerCase(Locale.ROOT);
+            if (wholeWord) {
+                if (textWord.equals(key)) {
+                    result.add(start + ":" + key.length());
+                }
+            } else {
+                for (int pos = textWord.indexOf(key); pos >= 0; pos = textWord.indexOf(key, pos + key.length())) {
+                    result.add((start + pos) + ":" + key.length());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String generateText(int length) {
+        String[] parts = { "select ", "col1", ", ", "Col10", " from ", "t1", " ab", "(", ")", ";\n", "SELECT", " tab_ab", "$1" };
+        StringBuilder text = new StringBuilder(length + 16);
+        for (int i = 0; text.length() < length; i++) {
+            text.append(parts[(i * 7 + i / 3) % parts.length]);
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.navigator.itemlist;
+
+import org.jkiss.dbeaver.model.DBPObjectStatistics;
+import org.jkiss.dbeaver.model.DBPObjectStatisticsCollector;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class ObjectListControlTest {
+
+    @Test
+    public void shouldGroupObjectsByStatisticsOwner() {
+        DBSObject firstOwner = createOwner();
+        DBSObject secondOwner = createOwner();
+        DBSObject table1 = createObject(firstOwner, false);
+        DBSObject table2 = createObject(secondOwner, false);
+        DBSObject table3 = createObject(firstOwner, false);
+
+        Map<Object, List<DBSObject>> batches = ObjectListControl.groupByStatisticsOwner(
+            List.of(table1, table2, table3), Function.identity());
+
+        Assert.assertEquals(2, batches.size());
+        Assert.assertEquals(List.of(table1, table3), batches.get(firstOwner));
+        Assert.assertEquals(List.of(table2), batches.get(secondOwner));
+        Assert.assertEquals(List.of(firstOwner, secondOwner), List.copyOf(batches.keySet()));
+    }
+
+    @Test
+    public void shouldNotBatchObjectsWithoutPendingStatistics() {
+        DBSObject owner = createOwner();
+        DBSObject collected = createObject(owner, true);
+        DBSObject plainParent = Mockito.mock(DBSObject.class);
+        DBSObject orphan = createObject(plainParent, false);
+        Object notAnObject = "value";
+
+        Map<Object, List<Object>> batches = ObjectListControl.groupByStatisticsOwner(
+            List.of(collected, orphan, notAnObject), Function.identity());
+
+        Assert.assertEquals(1, batches.size());
+        Assert.assertEquals(List.of(collected, orphan, notAnObject), batches.get(null));
+    }
+
+    @Test
+    public void shouldReadObjectValueOfElements() {
+        DBSObject owner = createOwner();
+        DBSObject table = createObject(owner, false);
+        Map<String, DBSObject> elements = Map.of("table", table);
+
+        Map<Object, List<String>> batches = ObjectListControl.groupByStatisticsOwner(List.of("table"), elements::get);
+
+        Assert.assertEquals(List.of("table"), batches.get(owner));
+    }
+
+    private static DBSObject createOwner() {
+        return Mockito.mock(DBSObject.class, Mockito.withSettings().extraInterfaces(DBPObjectStatisticsCollector.class));
+    }
+
+    private static DBSObject createObject(DBSObject parent, boolean hasStatistics) {
+        DBSObject object = Mockito.mock(DBSObject.class, Mockito.withSettings().extraInterfaces(DBPObjectStatistics.class));
+        Mockito.when(object.getParentObject()).thenReturn(parent);
+        Mockito.when(((DBPObjectStatistics) object).hasStatistics()).thenReturn(hasStatistics);
+        return object;
+    }
+}